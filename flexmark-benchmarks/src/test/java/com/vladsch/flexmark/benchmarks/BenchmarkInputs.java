@@ -0,0 +1,139 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.test.specs.TestSpecLocator;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Generated benchmark inputs of small, medium, huge and pathological size
+ * <p>
+ * Sized inputs repeat a unit of markdown until the size is reached, the text {@code ${n}} in the unit is replaced
+ * by the repeat count so ids, labels and footnotes are unique. Pathological inputs are constructs with deep nesting or
+ * many unmatched openers, which make naive parsers quadratic.
+ */
+final public class BenchmarkInputs {
+    final public static String SMALL = "small";
+    final public static String MEDIUM = "medium";
+    final public static String HUGE = "huge";
+    final public static String PATHOLOGICAL = "pathological";
+
+    final public static int SMALL_LENGTH = 1024;
+    final public static int MEDIUM_LENGTH = 64 * 1024;
+    final public static int HUGE_LENGTH = 2 * 1024 * 1024;
+
+    final private static String SPEC = TestSpecLocator.DEFAULT_RESOURCE_LOCATION.getResourceText();
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * @param size input size
+     * @return CommonMark spec text cut or repeated to size, or pathological core constructs
+     */
+    public static @NotNull String markdown(@NotNull String size) {
+        if (PATHOLOGICAL.equals(size)) {
+            return pathological(5000);
+        }
+
+        int length = length(size);
+        if (length <= SPEC.length()) {
+            // cut at end of paragraph so nothing is left open
+            int end = SPEC.lastIndexOf("\n\n", length);
+            return SPEC.substring(0, end < 0 ? length : end + 2);
+        }
+        return repeatToLength(SPEC, length);
+    }
+
+    /**
+     * @param size         input size
+     * @param unit         markdown repeated to fill sized input
+     * @param pathological pathological input
+     * @return input text
+     */
+    public static @NotNull String markdown(@NotNull String size, @NotNull String unit, @NotNull String pathological) {
+        if (PATHOLOGICAL.equals(size)) {
+            return pathological;
+        }
+        return repeatToLength(unit, length(size));
+    }
+
+    /**
+     * @param count repetitions of each construct
+     * @return core pathological constructs, separated by blank lines
+     */
+    public static @NotNull String pathological(int count) {
+        StringBuilder sb = new StringBuilder();
+
+        // nested strong and emphasis, rendering recurses per level so nesting is limited
+        int nesting = Math.min(count, 200);
+        repeat(sb, "*a **a ", nesting).append("b");
+        repeat(sb, " a** a*", nesting).append("\n\n");
+
+        // emphasis closers without openers
+        repeat(sb, "a_ ", count).append("\n\n");
+
+        // unclosed links
+        repeat(sb, "[a](<b ", count).append("\n\n");
+
+        // nested brackets
+        repeat(sb, "[", count).append("a");
+        repeat(sb, "]", count).append("\n\n");
+
+        // unmatched backtick runs of increasing length
+        for (int i = 1; i <= 200; i++) {
+            repeat(sb, "`", i).append("a ");
+        }
+        sb.append("\n\n");
+
+        // nested block quotes
+        repeat(sb, "> ", 500).append("a\n\n");
+
+        // deeply nested lists
+        for (int i = 0; i < 200; i++) {
+            repeat(sb, "  ", i).append("- a\n");
+        }
+        sb.append("\n");
+
+        // many reference definitions and references
+        for (int i = 0; i < count; i++) {
+            sb.append("[a").append(i).append("]: /url").append(i).append("\n");
+        }
+        sb.append("\n");
+        for (int i = 0; i < count; i++) {
+            sb.append("[a").append(i).append("] ");
+        }
+        sb.append("\n");
+        return sb.toString();
+    }
+
+    public static int length(@NotNull String size) {
+        switch (size) {
+            case SMALL:
+                return SMALL_LENGTH;
+            case MEDIUM:
+                return MEDIUM_LENGTH;
+            case HUGE:
+                return HUGE_LENGTH;
+            default:
+                throw new IllegalArgumentException("Unknown input size: " + size);
+        }
+    }
+
+    public static @NotNull StringBuilder repeat(@NotNull StringBuilder sb, @NotNull String text, int count) {
+        for (int i = 0; i < count; i++) {
+            sb.append(text);
+        }
+        return sb;
+    }
+
+    public static @NotNull String repeatToLength(@NotNull String unit, int length) {
+        StringBuilder sb = new StringBuilder(length + unit.length() * 2);
+        int n = 0;
+        boolean numbered = unit.contains("${n}");
+        do {
+            sb.append(numbered ? unit.replace("${n}", String.valueOf(n)) : unit);
+            if (sb.charAt(sb.length() - 1) != '\n') sb.append('\n');
+            n++;
+        } while (sb.length() < length);
+        return sb.toString();
+    }
+}
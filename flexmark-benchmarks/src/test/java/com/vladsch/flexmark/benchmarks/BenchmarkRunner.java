@@ -0,0 +1,63 @@
+package com.vladsch.flexmark.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run benchmarks with GC profiler and JSON results
+ * <p>
+ * Without arguments all benchmarks of this module are run and results written to {@link #DEFAULT_RESULT_FILE},
+ * which can be compared between releases, for example with https://jmh.morethan.io. Standard JMH command line
+ * options can be given, for example {@code CoreParserBenchmark.parse -p input=huge -rff core.json}. When
+ * profilers are given on the command line the GC profiler is not added.
+ * <p>
+ * On Java 9 and later the runner and the forked JVMs need {@code --add-opens java.base/java.io=ALL-UNNAMED},
+ * for forks it is given with {@code -jvmArgs}.
+ */
+public class BenchmarkRunner {
+    final public static String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        run(args);
+    }
+
+    /**
+     * Run benchmarks
+     *
+     * @param args             JMH command line arguments
+     * @param benchmarkClasses benchmarks to run when no benchmarks are given in args, all benchmarks of the module if empty
+     * @throws Exception if the command line is invalid or running failed
+     */
+    public static void run(String[] args, Class<?>... benchmarkClasses) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLineOptions);
+
+        if (commandLineOptions.getIncludes().isEmpty()) {
+            if (benchmarkClasses.length == 0) {
+                builder.include(BenchmarkRunner.class.getPackage().getName() + "\\..*Benchmark\\..*");
+            } else {
+                for (Class<?> benchmarkClass : benchmarkClasses) {
+                    builder.include(benchmarkClass.getName() + "\\..*");
+                }
+            }
+        }
+
+        if (commandLineOptions.getProfilers().isEmpty()) {
+            // allocation rate per operation is as important as time for a parser
+            builder.addProfiler(GCProfiler.class);
+        }
+
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+            if (!commandLineOptions.getResult().hasValue()) {
+                builder.result(DEFAULT_RESULT_FILE);
+            }
+        }
+
+        new Runner(builder.build()).run();
+    }
+}
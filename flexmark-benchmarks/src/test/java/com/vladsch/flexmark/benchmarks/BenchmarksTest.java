@@ -0,0 +1,124 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.docx.converter.DocxRenderer;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import org.junit.Assume;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Run every benchmark method once with small input so benchmarks do not rot between runs,
+ * and check pathological inputs can be parsed and rendered without overflowing the stack
+ */
+public class BenchmarksTest {
+
+    private static void runOnce(Class<?> benchmarkClass) throws Exception {
+        List<Field> params = new ArrayList<>();
+        for (Field field : benchmarkClass.getFields()) {
+            if (field.isAnnotationPresent(Param.class)) params.add(field);
+        }
+        runOnce(benchmarkClass, params, 0, new String[params.size()]);
+    }
+
+    private static void runOnce(Class<?> benchmarkClass, List<Field> params, int index, String[] values) throws Exception {
+        if (index < params.size()) {
+            Field param = params.get(index);
+            for (String value : param.getAnnotation(Param.class).value()) {
+                if (param.getName().equals("input") && !value.equals(BenchmarkInputs.SMALL)) continue;
+                values[index] = value;
+                runOnce(benchmarkClass, params, index + 1, values);
+            }
+            return;
+        }
+
+        Object benchmark = benchmarkClass.getConstructor().newInstance();
+        for (int i = 0; i < params.size(); i++) {
+            params.get(i).set(benchmark, values[i]);
+        }
+
+        for (Method method : benchmarkClass.getMethods()) {
+            if (method.isAnnotationPresent(Setup.class)) method.invoke(benchmark);
+        }
+
+        int benchmarks = 0;
+        for (Method method : benchmarkClass.getMethods()) {
+            if (method.isAnnotationPresent(Benchmark.class)) {
+                assertNotNull(benchmarkClass.getSimpleName() + "." + method.getName() + " " + Arrays.toString(values), method.invoke(benchmark));
+                benchmarks++;
+            }
+        }
+        assertTrue(benchmarks > 0);
+    }
+
+    @Test
+    public void test_coreParser() throws Exception {
+        runOnce(CoreParserBenchmark.class);
+    }
+
+    @Test
+    public void test_extension() throws Exception {
+        runOnce(ExtensionBenchmark.class);
+    }
+
+    @Test
+    public void test_emoji() throws Exception {
+        runOnce(EmojiBenchmark.class);
+    }
+
+    @Test
+    public void test_converter() throws Exception {
+        runOnce(ConverterBenchmark.class);
+    }
+
+    @Test
+    public void test_docxRenderer() throws Exception {
+        // docx4j cannot load packages on some JVMs without a JAXB implementation
+        Assume.assumeNotNull(DocxRenderer.getDefaultTemplate());
+        runOnce(DocxRendererBenchmark.class);
+    }
+
+    @Test
+    public void test_sequence() throws Exception {
+        runOnce(SequenceBenchmark.class);
+    }
+
+    @Test
+    public void test_options() throws Exception {
+        runOnce(OptionsBenchmark.class);
+    }
+
+    @Test
+    public void test_pathologicalInputs() {
+        assertNotNull(HtmlRenderer.builder().build().render(Parser.builder().build().parse(BenchmarkInputs.markdown(BenchmarkInputs.PATHOLOGICAL))));
+
+        for (String extension : ExtensionBenchmark.EXTENSIONS) {
+            DataHolder options = new MutableDataSet().set(Parser.EXTENSIONS, Collections.singletonList(ExtensionBenchmark.extension(extension)));
+            Document document = Parser.builder(options).build().parse(ExtensionBenchmark.markdown(extension, BenchmarkInputs.PATHOLOGICAL));
+            assertNotNull(extension, HtmlRenderer.builder(options).build().render(document));
+        }
+    }
+
+    @Test
+    public void test_inputSizes() {
+        assertTrue(BenchmarkInputs.markdown(BenchmarkInputs.SMALL).length() <= BenchmarkInputs.SMALL_LENGTH);
+        assertTrue(BenchmarkInputs.markdown(BenchmarkInputs.MEDIUM).length() <= BenchmarkInputs.MEDIUM_LENGTH);
+        assertTrue(BenchmarkInputs.markdown(BenchmarkInputs.HUGE).length() >= BenchmarkInputs.HUGE_LENGTH);
+        assertTrue(ExtensionBenchmark.markdown(ExtensionBenchmark.TABLES, BenchmarkInputs.MEDIUM).length() >= BenchmarkInputs.MEDIUM_LENGTH);
+    }
+}
@@ -0,0 +1,62 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.ext.tables.TablesExtension;
+import com.vladsch.flexmark.formatter.Formatter;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.html2md.converter.FlexmarkHtmlConverter;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Markdown formatter and HTML to markdown converter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConverterBenchmark {
+    @Param({ BenchmarkInputs.SMALL, BenchmarkInputs.MEDIUM, BenchmarkInputs.HUGE, BenchmarkInputs.PATHOLOGICAL })
+    public String input;
+
+    DataHolder options;
+    Document document;
+    String html;
+    Formatter formatter;
+    FlexmarkHtmlConverter htmlConverter;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.run(args, ConverterBenchmark.class);
+    }
+
+    @Setup
+    public void setup() {
+        options = new MutableDataSet()
+                .set(Parser.EXTENSIONS, Collections.singletonList(TablesExtension.create()))
+                .toImmutable();
+
+        String text = BenchmarkInputs.markdown(input);
+        document = Parser.builder(options).build().parse(text);
+        html = HtmlRenderer.builder(options).build().render(document);
+
+        formatter = Formatter.builder(options).build();
+        htmlConverter = FlexmarkHtmlConverter.builder(options).build();
+    }
+
+    @Benchmark
+    public String format() {
+        return formatter.render(document);
+    }
+
+    @Benchmark
+    public String htmlToMarkdown() {
+        return htmlConverter.convert(html);
+    }
+}
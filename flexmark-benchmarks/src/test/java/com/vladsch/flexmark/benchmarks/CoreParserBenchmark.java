@@ -0,0 +1,112 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.ast.Paragraph;
+import com.vladsch.flexmark.ast.Text;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.InlineParser;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.parser.internal.CommonmarkInlineParser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.sequence.BasedSequence;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Core parser: full parse, block parsing only, inline parsing only and HTML rendering
+ * <p>
+ * Block parsing uses an inline parser which adds block content as a single text node. Inline parsing re-parses
+ * the inline content of all blocks, recorded during setup, with the inline parser of a parsed document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CoreParserBenchmark {
+    @Param({ BenchmarkInputs.SMALL, BenchmarkInputs.MEDIUM, BenchmarkInputs.HUGE, BenchmarkInputs.PATHOLOGICAL })
+    public String input;
+
+    String text;
+    Parser parser;
+    Parser blockParser;
+    HtmlRenderer renderer;
+    Document document;
+
+    InlineParser inlineParser;
+    Document inlineDocument;
+    List<BasedSequence> inlineContents;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.run(args, CoreParserBenchmark.class);
+    }
+
+    @Setup
+    public void setup() {
+        text = BenchmarkInputs.markdown(input);
+        parser = Parser.builder().build();
+        renderer = HtmlRenderer.builder().build();
+        document = parser.parse(text);
+
+        blockParser = Parser.builder()
+                .customInlineParserFactory((options, specialCharacters, delimiterCharacters, delimiterProcessors, linkRefProcessors, inlineParserExtensions) ->
+                        new CommonmarkInlineParser(options, specialCharacters, delimiterCharacters, delimiterProcessors, linkRefProcessors, inlineParserExtensions) {
+                            @Override
+                            public void parse(@NotNull BasedSequence content, @NotNull Node block) {
+                                block.appendChild(new Text(content));
+                            }
+                        })
+                .build();
+
+        List<BasedSequence> contents = new ArrayList<>();
+        InlineParser[] recordingParser = { null };
+        Parser recordingParserParser = Parser.builder()
+                .customInlineParserFactory((options, specialCharacters, delimiterCharacters, delimiterProcessors, linkRefProcessors, inlineParserExtensions) ->
+                        recordingParser[0] = new CommonmarkInlineParser(options, specialCharacters, delimiterCharacters, delimiterProcessors, linkRefProcessors, inlineParserExtensions) {
+                            @Override
+                            public void parse(@NotNull BasedSequence content, @NotNull Node block) {
+                                // record only while setup parses the document
+                                if (contents != inlineContents) contents.add(content);
+                                super.parse(content, block);
+                            }
+                        })
+                .build();
+
+        inlineDocument = recordingParserParser.parse(text);
+        inlineParser = recordingParser[0];
+        inlineContents = contents;
+    }
+
+    @Benchmark
+    public Document parse() {
+        return parser.parse(text);
+    }
+
+    @Benchmark
+    public Document parseBlocks() {
+        return blockParser.parse(text);
+    }
+
+    @Benchmark
+    public int parseInlines() {
+        int nodes = 0;
+        inlineParser.initializeDocument(inlineDocument);
+        for (BasedSequence content : inlineContents) {
+            Paragraph paragraph = new Paragraph(content);
+            inlineParser.parse(content, paragraph);
+            if (paragraph.getLastChild() != null) nodes++;
+        }
+        inlineParser.finalizeDocument(inlineDocument);
+        return nodes;
+    }
+
+    @Benchmark
+    public String render() {
+        return renderer.render(document);
+    }
+}
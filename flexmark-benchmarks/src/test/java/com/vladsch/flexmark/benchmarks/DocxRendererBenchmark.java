@@ -0,0 +1,84 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.docx.converter.DocxRenderer;
+import com.vladsch.flexmark.docx.converter.DocxTemplateCache;
+import com.vladsch.flexmark.ext.tables.TablesExtension;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DOCX rendering into a new package loaded from the default template, template loading alone is timed by
+ * {@link #template()}
+ * <p>
+ * cold benchmarks parse the template on every call, {@link #template()} and {@link #render()} get it from {@link DocxTemplateCache}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DocxRendererBenchmark {
+    @Param({ BenchmarkInputs.SMALL, BenchmarkInputs.MEDIUM, BenchmarkInputs.HUGE, BenchmarkInputs.PATHOLOGICAL })
+    public String input;
+
+    DataHolder options;
+    Document document;
+    DocxRenderer renderer;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.run(args, DocxRendererBenchmark.class);
+    }
+
+    @Setup
+    public void setup() {
+        options = new MutableDataSet()
+                .set(Parser.EXTENSIONS, Collections.singletonList(TablesExtension.create()))
+                .toImmutable();
+
+        if (DocxRenderer.getDefaultTemplate(options) == null) {
+            throw new IllegalStateException("DOCX default template could not be loaded, check JAXB is available");
+        }
+
+        document = Parser.builder(options).build().parse(BenchmarkInputs.markdown(input));
+        renderer = DocxRenderer.builder(options).build();
+    }
+
+    static WordprocessingMLPackage loadTemplate(DataHolder options) throws Exception {
+        try (InputStream inputStream = DocxRenderer.getResourceInputStream(DocxRenderer.DEFAULT_TEMPLATE_RESOURCE.get(options))) {
+            return WordprocessingMLPackage.load(inputStream);
+        }
+    }
+
+    @Benchmark
+    public WordprocessingMLPackage coldTemplate() throws Exception {
+        return loadTemplate(options);
+    }
+
+    @Benchmark
+    public WordprocessingMLPackage coldRender() throws Exception {
+        WordprocessingMLPackage mlPackage = loadTemplate(options);
+        renderer.render(document, mlPackage);
+        return mlPackage;
+    }
+
+    @Benchmark
+    public WordprocessingMLPackage template() {
+        return DocxRenderer.getDefaultTemplate(options);
+    }
+
+    @Benchmark
+    public WordprocessingMLPackage render() {
+        WordprocessingMLPackage mlPackage = DocxRenderer.getDefaultTemplate(options);
+        renderer.render(document, mlPackage);
+        return mlPackage;
+    }
+}
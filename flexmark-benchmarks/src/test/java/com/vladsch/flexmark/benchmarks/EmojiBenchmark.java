@@ -0,0 +1,82 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.ext.emoji.EmojiExtension;
+import com.vladsch.flexmark.ext.emoji.EmojiImageType;
+import com.vladsch.flexmark.ext.emoji.internal.EmojiReference;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering emoji dense documents from several threads sharing one parser and renderer, emoji lookups must not contend
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(4)
+@Fork(1)
+public class EmojiBenchmark {
+    final public static String IMAGE = "image";
+    final public static String UNICODE = "unicode";
+
+    @Param({ IMAGE, UNICODE })
+    public String imageType;
+
+    @Param({ BenchmarkInputs.SMALL, BenchmarkInputs.MEDIUM })
+    public String input;
+
+    String text;
+    Parser parser;
+    HtmlRenderer renderer;
+    Document document;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.run(args, EmojiBenchmark.class);
+    }
+
+    @Setup
+    public void setup() {
+        MutableDataSet options = new MutableDataSet();
+        options.set(Parser.EXTENSIONS, Collections.singletonList(EmojiExtension.create()));
+        options.set(EmojiExtension.USE_IMAGE_TYPE, imageType.equals(UNICODE) ? EmojiImageType.UNICODE_FALLBACK_TO_IMAGE : EmojiImageType.IMAGE_ONLY);
+
+        text = markdown(input);
+        parser = Parser.builder(options).build();
+        renderer = HtmlRenderer.builder(options).build();
+        document = parser.parse(text);
+    }
+
+    @Benchmark
+    public String parseAndRender() {
+        return renderer.render(parser.parse(text));
+    }
+
+    @Benchmark
+    public String render() {
+        return renderer.render(document);
+    }
+
+    // paragraphs of shortcuts from the emoji reference in turn, up to the input size
+    static @NotNull String markdown(@NotNull String size) {
+        int length = BenchmarkInputs.SMALL.equals(size) ? BenchmarkInputs.SMALL_LENGTH : BenchmarkInputs.MEDIUM_LENGTH;
+        List<EmojiReference.Emoji> emojiList = EmojiReference.getEmojiList();
+        StringBuilder sb = new StringBuilder(length);
+        int count = 0;
+        for (int i = 0; sb.length() < length; i = (i + 1) % emojiList.size()) {
+            String shortcut = emojiList.get(i).shortcut;
+            if (shortcut == null) continue;
+            sb.append(':').append(shortcut).append(": ");
+            if (++count % 16 == 0) sb.append("\n\n");
+        }
+        return sb.append("\n").toString();
+    }
+}
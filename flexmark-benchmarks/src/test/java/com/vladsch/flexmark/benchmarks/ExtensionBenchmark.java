@@ -0,0 +1,184 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.ext.attributes.AttributesExtension;
+import com.vladsch.flexmark.ext.autolink.AutolinkExtension;
+import com.vladsch.flexmark.ext.emoji.EmojiExtension;
+import com.vladsch.flexmark.ext.footnotes.FootnoteExtension;
+import com.vladsch.flexmark.ext.tables.TablesExtension;
+import com.vladsch.flexmark.ext.toc.TocExtension;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import com.vladsch.flexmark.util.misc.Extension;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and rendering with a single extension, on input using the extension's syntax
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExtensionBenchmark {
+    final public static String TABLES = "tables";
+    final public static String FOOTNOTES = "footnotes";
+    final public static String TOC = "toc";
+    final public static String EMOJI = "emoji";
+    final public static String AUTOLINK = "autolink";
+    final public static String ATTRIBUTES = "attributes";
+    final public static String[] EXTENSIONS = { TABLES, FOOTNOTES, TOC, EMOJI, AUTOLINK, ATTRIBUTES };
+
+    @Param({ TABLES, FOOTNOTES, TOC, EMOJI, AUTOLINK, ATTRIBUTES })
+    public String extension;
+
+    @Param({ BenchmarkInputs.SMALL, BenchmarkInputs.MEDIUM, BenchmarkInputs.HUGE, BenchmarkInputs.PATHOLOGICAL })
+    public String input;
+
+    String text;
+    Parser parser;
+    HtmlRenderer renderer;
+    Document document;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.run(args, ExtensionBenchmark.class);
+    }
+
+    @Setup
+    public void setup() {
+        MutableDataSet options = new MutableDataSet();
+        options.set(Parser.EXTENSIONS, Collections.singletonList(extension(extension)));
+
+        text = markdown(extension, input);
+        parser = Parser.builder(options).build();
+        renderer = HtmlRenderer.builder(options).build();
+        document = parser.parse(text);
+    }
+
+    @Benchmark
+    public Document parse() {
+        return parser.parse(text);
+    }
+
+    @Benchmark
+    public String render() {
+        return renderer.render(document);
+    }
+
+    static @NotNull Extension extension(@NotNull String extension) {
+        switch (extension) {
+            case TABLES:
+                return TablesExtension.create();
+            case FOOTNOTES:
+                return FootnoteExtension.create();
+            case TOC:
+                return TocExtension.create();
+            case EMOJI:
+                return EmojiExtension.create();
+            case AUTOLINK:
+                return AutolinkExtension.create();
+            case ATTRIBUTES:
+                return AttributesExtension.create();
+            default:
+                throw new IllegalArgumentException("Unknown extension: " + extension);
+        }
+    }
+
+    static @NotNull String markdown(@NotNull String extension, @NotNull String size) {
+        StringBuilder sb = new StringBuilder();
+
+        switch (extension) {
+            case TABLES:
+                // one very wide table with escaped pipes and long separator
+                sb.append("|");
+                BenchmarkInputs.repeat(sb, " a \\| b |", 500).append("\n|");
+                BenchmarkInputs.repeat(sb, ":---:|", 500).append("\n");
+                for (int i = 0; i < 200; i++) {
+                    sb.append("|");
+                    BenchmarkInputs.repeat(sb, " `|` *a |", 500).append("\n");
+                }
+                return BenchmarkInputs.markdown(size, "" +
+                                "| Column ${n} | Center | Right |\n" +
+                                "|:---------|:------:|------:|\n" +
+                                "| *cell* | `code` | [link](/url) |\n" +
+                                "| cell \\| pipe | **bold** | 1234 |\n" +
+                                "\n",
+                        sb.toString());
+
+            case FOOTNOTES:
+                // unclosed and nested footnote references, then many definitions
+                BenchmarkInputs.repeat(sb, "[^a [^b ", 5000).append("\n\n");
+                for (int i = 0; i < 5000; i++) {
+                    sb.append("[^").append(i).append("]: note\n    continued\n");
+                }
+                return BenchmarkInputs.markdown(size, "" +
+                                "Text with a footnote[^${n}] and *emphasis*.\n" +
+                                "\n" +
+                                "[^${n}]: Footnote ${n} text\n" +
+                                "    with a continuation line.\n" +
+                                "\n",
+                        sb.toString());
+
+            case TOC:
+                // many headings alternating between deepest and top level
+                sb.append("[TOC]\n\n");
+                for (int i = 0; i < 10000; i++) {
+                    sb.append(i % 2 == 0 ? "###### " : "# ").append("h").append(i).append("\n");
+                }
+                return BenchmarkInputs.markdown(size, "" +
+                                "[TOC]\n" +
+                                "\n" +
+                                "# Heading ${n}\n" +
+                                "\n" +
+                                "## Sub heading ${n}\n" +
+                                "\n" +
+                                "Paragraph *text*.\n" +
+                                "\n",
+                        sb.toString());
+
+            case EMOJI:
+                // runs of colons and unterminated shortcuts
+                BenchmarkInputs.repeat(sb, ":", 20000).append("\n\n");
+                BenchmarkInputs.repeat(sb, ":a", 20000).append("\n\n");
+                BenchmarkInputs.repeat(sb, ":smile:", 5000).append("\n");
+                return BenchmarkInputs.markdown(size, "" +
+                                "Smile :smile: thumbs :+1: and :not_an_emoji: in paragraph ${n}.\n" +
+                                "\n",
+                        sb.toString());
+
+            case AUTOLINK:
+                // partial urls, domains and emails with no end
+                BenchmarkInputs.repeat(sb, "http:", 5000).append("\n\n");
+                BenchmarkInputs.repeat(sb, "www.", 5000).append("\n\n");
+                BenchmarkInputs.repeat(sb, "a@", 5000).append("\n\n");
+                BenchmarkInputs.repeat(sb, "https://example.com/(", 2000).append("\n");
+                return BenchmarkInputs.markdown(size, "" +
+                                "Visit https://example.com/page/${n} or www.example.com, mail user${n}@example.com.\n" +
+                                "\n",
+                        sb.toString());
+
+            case ATTRIBUTES:
+                // unclosed attribute blocks and many attributes in one block, attributes pattern recurses per attribute
+                BenchmarkInputs.repeat(sb, "{.a ", 5000).append("\n\n");
+                sb.append("Paragraph {");
+                BenchmarkInputs.repeat(sb, ".c ", 200).append("}\n\n");
+                BenchmarkInputs.repeat(sb, "*a*{", 5000).append("\n");
+                return BenchmarkInputs.markdown(size, "" +
+                                "# Heading ${n} {#heading-${n} .title}\n" +
+                                "\n" +
+                                "Paragraph with *emphasis*{style=\"color:red\"} text.\n" +
+                                "{.para data-index=${n}}\n" +
+                                "\n",
+                        sb.toString());
+
+            default:
+                throw new IllegalArgumentException("Unknown extension: " + extension);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.data.DataKeyBase;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import com.vladsch.flexmark.util.data.ScopedDataSet;
+import com.vladsch.flexmark.util.misc.Extension;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Option reads from mutable, immutable and scoped data holders and option heavy setup of parser and renderer
+ * with all benchmarked extensions
+ * <p>
+ * Read benchmarks get the same keys, set keys and keys with defaults computed from other keys, from each holder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OptionsBenchmark {
+    final static DataKeyBase<?>[] KEYS = {
+            Parser.EXTENSIONS,
+            Parser.BLOCK_QUOTE_PARSER,
+            Parser.LISTS_ITEM_INDENT,
+            Parser.MATCH_CLOSING_FENCE_CHARACTERS,
+            Parser.HEADING_NO_ATX_SPACE,
+            HtmlRenderer.INDENT_SIZE,
+            HtmlRenderer.SOFT_BREAK,
+            HtmlRenderer.SUPPRESS_INLINE_HTML_COMMENTS,
+            HtmlRenderer.SOURCE_WRAP_HTML_BLOCKS,
+            HtmlRenderer.MAX_TRAILING_BLANK_LINES,
+    };
+
+    MutableDataSet mutableOptions;
+    DataHolder immutableOptions;
+    DataHolder scopedOptions;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.run(args, OptionsBenchmark.class);
+    }
+
+    @Setup
+    public void setup() {
+        List<Extension> extensions = new ArrayList<>();
+        for (String extension : ExtensionBenchmark.EXTENSIONS) {
+            extensions.add(ExtensionBenchmark.extension(extension));
+        }
+
+        mutableOptions = new MutableDataSet()
+                .set(Parser.EXTENSIONS, extensions)
+                .set(Parser.HEADING_NO_ATX_SPACE, true)
+                .set(HtmlRenderer.INDENT_SIZE, 2)
+                .set(HtmlRenderer.SOFT_BREAK, "<br />\n");
+
+        immutableOptions = mutableOptions.toImmutable();
+        scopedOptions = new ScopedDataSet(immutableOptions, new MutableDataSet().set(HtmlRenderer.INDENT_SIZE, 4));
+
+        // mutable data sets keep computed defaults, read once so all benchmarks read the same keys
+        readKeys(mutableOptions);
+    }
+
+    static int readKeys(DataHolder options) {
+        int values = 0;
+        for (DataKeyBase<?> key : KEYS) {
+            if (key.get(options) != null) values++;
+        }
+        return values;
+    }
+
+    @Benchmark
+    public int readMutable() {
+        return readKeys(mutableOptions);
+    }
+
+    @Benchmark
+    public int readImmutable() {
+        return readKeys(immutableOptions);
+    }
+
+    @Benchmark
+    public int readScoped() {
+        return readKeys(scopedOptions);
+    }
+
+    @Benchmark
+    public Parser buildParser() {
+        return Parser.builder(immutableOptions).build();
+    }
+
+    @Benchmark
+    public HtmlRenderer buildRenderer() {
+        return HtmlRenderer.builder(immutableOptions).build();
+    }
+}
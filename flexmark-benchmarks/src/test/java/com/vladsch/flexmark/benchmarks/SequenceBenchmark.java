@@ -0,0 +1,89 @@
+package com.vladsch.flexmark.benchmarks;
+
+import com.vladsch.flexmark.util.misc.CharPredicate;
+import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.Escaping;
+import com.vladsch.flexmark.util.sequence.SegmentedSequence;
+import com.vladsch.flexmark.util.sequence.builder.SequenceBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BasedSequence}, {@link SegmentedSequence} and {@link SequenceBuilder} operations used by the parser and renderers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SequenceBenchmark {
+    @Param({ BenchmarkInputs.SMALL, BenchmarkInputs.MEDIUM, BenchmarkInputs.HUGE, BenchmarkInputs.PATHOLOGICAL })
+    public String input;
+
+    String text;
+    BasedSequence sequence;
+    List<BasedSequence> lines;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.run(args, SequenceBenchmark.class);
+    }
+
+    @Setup
+    public void setup() {
+        text = BenchmarkInputs.markdown(input);
+        sequence = BasedSequence.of(text);
+        lines = sequence.splitListEOL(false);
+    }
+
+    @Benchmark
+    public int splitLines() {
+        return BasedSequence.of(text).splitListEOL(false).size();
+    }
+
+    @Benchmark
+    public int trimLines() {
+        int length = 0;
+        for (BasedSequence line : lines) {
+            length += line.trim().length() + line.countLeading(CharPredicate.SPACE_TAB);
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int indexOfAll() {
+        int count = 0;
+        int index = sequence.indexOf('*');
+        while (index >= 0) {
+            count++;
+            index = sequence.indexOf('*', index + 1);
+        }
+        return count;
+    }
+
+    @Benchmark
+    public String segmented() {
+        List<BasedSequence> segments = new ArrayList<>(lines.size());
+        for (BasedSequence line : lines) {
+            segments.add(line.trim());
+        }
+        return SegmentedSequence.create(sequence, segments).toString();
+    }
+
+    @Benchmark
+    public String builder() {
+        SequenceBuilder builder = sequence.getBuilder();
+        for (BasedSequence line : lines) {
+            builder.append(line.trimStart()).append('\n');
+        }
+        return builder.toSequence().toString();
+    }
+
+    @Benchmark
+    public String unescape() {
+        return Escaping.unescapeString(text);
+    }
+}
@@ -1,5 +1,6 @@
 package com.vladsch.flexmark.core.test.util;
 
+import com.vladsch.flexmark.core.test.util.html.DomRendererTest;
 import com.vladsch.flexmark.core.test.util.html.HtmlEmbeddedAttributeTest;
 import com.vladsch.flexmark.core.test.util.html.HtmlRendererTest;
 import com.vladsch.flexmark.core.test.util.html.PathologicalTestSuite;
@@ -24,6 +25,8 @@ import org.junit.runners.Suite;
         TextCollectingVisitorTest.class,
         HtmlDeepParserTest.class,
         HtmlEmbeddedAttributeTest.class,
+        PostProcessorManagerTest.class,
+        DomRendererTest.class,
 })
 final public class CoreTestSuite {
 }
@@ -0,0 +1,200 @@
+package com.vladsch.flexmark.core.test.util.batch;
+
+import com.vladsch.flexmark.batch.*;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.parser.block.DocumentPostProcessor;
+import com.vladsch.flexmark.parser.block.DocumentPostProcessorFactory;
+import com.vladsch.flexmark.test.specs.TestSpecLocator;
+import com.vladsch.flexmark.test.util.spec.SpecReader;
+import com.vladsch.flexmark.util.ast.Document;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MarkdownBatchProcessorTest {
+    final private static List<String> EXAMPLES = SpecReader.createAndReadExamples(TestSpecLocator.DEFAULT_RESOURCE_LOCATION, false).getExamplesSourceAsString();
+
+    final private static Parser PARSER = Parser.builder().build();
+    final private static HtmlRenderer RENDERER = HtmlRenderer.builder().build();
+
+    private static List<BatchInput> inputs() {
+        List<BatchInput> inputs = new ArrayList<>(EXAMPLES.size());
+        int i = 0;
+        for (String example : EXAMPLES) {
+            inputs.add(BatchInput.of("example-" + i++, example));
+        }
+        return inputs;
+    }
+
+    private static void assertRendered(BatchResult result) {
+        assertTrue(result.getId(), result.isSuccess());
+        String expected = RENDERER.render(PARSER.parse(EXAMPLES.get((int) result.getSequence())));
+        assertEquals(result.getId(), expected, result.getHtml());
+    }
+
+    @Test
+    public void test_inputOrder() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            BatchStatistics statistics = new BatchStatistics();
+            MarkdownBatchProcessor processor = MarkdownBatchProcessor.builder(PARSER, RENDERER)
+                    .executor(executor)
+                    .metrics(statistics)
+                    .build();
+
+            List<BatchResult> results = processor.process(inputs());
+
+            assertEquals(EXAMPLES.size(), results.size());
+            for (int i = 0; i < results.size(); i++) {
+                BatchResult result = results.get(i);
+                assertEquals(i, result.getSequence());
+                assertEquals("example-" + i, result.getId());
+                assertRendered(result);
+            }
+
+            assertEquals(EXAMPLES.size(), statistics.getDocuments());
+            assertEquals(0, statistics.getFailures());
+            assertTrue(statistics.getElapsedNanos() > 0);
+            assertTrue(statistics.getDocumentsPerSecond() > 0);
+            assertTrue(statistics.getStageNanos(BatchStage.PARSE) > 0);
+            assertTrue(statistics.getStageNanos(BatchStage.RENDER) > 0);
+            assertTrue(statistics.getLatencyPercentile(50) <= statistics.getLatencyPercentile(99));
+            assertTrue(statistics.getLatencyPercentile(99) <= statistics.getMaxLatencyNanos());
+            assertEquals(statistics.getMaxLatencyNanos(), statistics.getLatencyPercentile(100));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void test_completionOrder() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            MarkdownBatchProcessor processor = MarkdownBatchProcessor.builder(PARSER, RENDERER)
+                    .executor(executor)
+                    .resultOrder(BatchResultOrder.COMPLETION)
+                    .build();
+
+            List<BatchResult> results = processor.process(inputs());
+
+            assertEquals(EXAMPLES.size(), results.size());
+            boolean[] seen = new boolean[EXAMPLES.size()];
+            for (BatchResult result : results) {
+                assertFalse(seen[(int) result.getSequence()]);
+                seen[(int) result.getSequence()] = true;
+                assertRendered(result);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void test_maxInFlightBytes() throws InterruptedException {
+        // limit is below the size of most examples, iterator must not run ahead of results
+        long maxInFlightBytes = 100;
+        AtomicInteger read = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+        List<BatchInput> inputs = inputs();
+        Iterator<BatchInput> iterator = inputs.iterator();
+        int[] accepted = { 0 };
+
+        Iterator<BatchInput> counting = new Iterator<BatchInput>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public BatchInput next() {
+                int ahead = read.incrementAndGet() - accepted[0];
+                if (maxAhead.get() < ahead) maxAhead.set(ahead);
+                return iterator.next();
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            MarkdownBatchProcessor processor = MarkdownBatchProcessor.builder(PARSER, RENDERER)
+                    .executor(executor)
+                    .maxInFlightBytes(maxInFlightBytes)
+                    .build();
+
+            processor.process(counting, result -> {
+                assertEquals(accepted[0], result.getSequence());
+                accepted[0]++;
+                assertRendered(result);
+            });
+
+            assertEquals(EXAMPLES.size(), accepted[0]);
+
+            // examples are submitted one at a time unless several small ones fit in the limit
+            long minBytes = Long.MAX_VALUE;
+            for (BatchInput input : inputs) {
+                minBytes = Math.min(minBytes, Math.max(1, input.getText().length() * 2L));
+            }
+            int maxInFlight = (int) (maxInFlightBytes / minBytes) + 1;
+            assertTrue("read ahead " + maxAhead.get(), maxAhead.get() <= maxInFlight);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void test_failuresReported() throws InterruptedException {
+        Parser parser = Parser.builder().postProcessorFactory(new DocumentPostProcessorFactory() {
+            @Override
+            public @NotNull DocumentPostProcessor apply(@NotNull Document document) {
+                return new DocumentPostProcessor() {
+                    @Override
+                    public @NotNull Document processDocument(@NotNull Document document) {
+                        if (document.getChars().toString().contains("fail")) {
+                            throw new IllegalStateException("failed");
+                        }
+                        return document;
+                    }
+                };
+            }
+        }).build();
+
+        BatchStatistics statistics = new BatchStatistics();
+        MarkdownBatchProcessor processor = MarkdownBatchProcessor.builder(parser, RENDERER)
+                .metrics(statistics)
+                .build();
+
+        List<BatchInput> inputs = new ArrayList<>();
+        inputs.add(BatchInput.of("ok", "text"));
+        inputs.add(BatchInput.of("fail", "fail"));
+        inputs.add(BatchInput.of("ok2", "more *text*"));
+        List<BatchResult> results = processor.process(inputs);
+
+        assertEquals(3, results.size());
+        assertEquals("<p>text</p>\n", results.get(0).getHtml());
+        assertFalse(results.get(1).isSuccess());
+        assertNull(results.get(1).getHtml());
+        assertTrue(results.get(1).getError() instanceof IllegalStateException);
+        assertEquals("<p>more <em>text</em></p>\n", results.get(2).getHtml());
+        assertEquals(1, statistics.getFailures());
+    }
+
+    @Test
+    public void test_emptyBatch() throws InterruptedException {
+        BatchStatistics statistics = new BatchStatistics();
+        MarkdownBatchProcessor processor = MarkdownBatchProcessor.builder(PARSER, RENDERER)
+                .metrics(statistics)
+                .build();
+
+        assertTrue(processor.process(new ArrayList<>()).isEmpty());
+        assertEquals(0, statistics.getDocuments());
+        assertEquals(0, statistics.getLatencyPercentile(99));
+    }
+}
@@ -0,0 +1,165 @@
+package com.vladsch.flexmark.core.test.util.cache;
+
+import com.vladsch.flexmark.cache.DocumentCache;
+import com.vladsch.flexmark.cache.DocumentCacheStats;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.test.specs.TestSpecLocator;
+import com.vladsch.flexmark.test.util.spec.SpecReader;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import com.vladsch.flexmark.util.data.NullableDataKey;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class DocumentCacheTest {
+    final private static List<String> EXAMPLES = SpecReader.createAndReadExamples(TestSpecLocator.DEFAULT_RESOURCE_LOCATION, false).getExamplesSourceAsString();
+
+    final private static Parser PARSER = Parser.builder().build();
+    final private static HtmlRenderer RENDERER = HtmlRenderer.builder().build();
+
+    @Test
+    public void test_render() {
+        DocumentCache cache = DocumentCache.builder().build();
+        String markdown = "# Heading\n\nParagraph *text*\n";
+        String expected = RENDERER.render(PARSER.parse(markdown));
+
+        assertEquals(expected, cache.render(PARSER, RENDERER, markdown));
+        assertEquals(expected, cache.render(PARSER, RENDERER, new StringBuilder(markdown)));
+
+        DocumentCacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getEntryCount());
+        assertTrue(stats.getWeight() > 2L * (markdown.length() + expected.length()));
+    }
+
+    @Test
+    public void test_options() {
+        DocumentCache cache = DocumentCache.builder().build();
+        String markdown = "line 1\nline 2\n";
+
+        // equal options share entries, other options do not
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+        HtmlRenderer softBreakRenderer = HtmlRenderer.builder(new MutableDataSet().set(HtmlRenderer.SOFT_BREAK, "<br />\n")).build();
+
+        cache.render(PARSER, RENDERER, markdown);
+        assertEquals(RENDERER.render(PARSER.parse(markdown)), cache.render(parser, renderer, markdown));
+        assertEquals(1, cache.getStats().getHitCount());
+
+        assertEquals("<p>line 1<br />\nline 2</p>\n", cache.render(parser, softBreakRenderer, markdown));
+        assertEquals(2, cache.getStats().getMissCount());
+        assertEquals(2, cache.getStats().getEntryCount());
+    }
+
+    @Test
+    public void test_optionValues() {
+        DocumentCache cache = DocumentCache.builder().build();
+        String markdown = "text\n";
+
+        // values without value equality are only equal when they are the same instance
+        Object value = new Object();
+        NullableDataKey<Object> OBJECT = new NullableDataKey<>("OBJECT");
+        HtmlRenderer renderer1 = HtmlRenderer.builder(new MutableDataSet().set(OBJECT, value)).build();
+        HtmlRenderer renderer2 = HtmlRenderer.builder(new MutableDataSet().set(OBJECT, value)).build();
+        HtmlRenderer renderer3 = HtmlRenderer.builder(new MutableDataSet().set(OBJECT, new Object())).build();
+
+        cache.render(PARSER, renderer1, markdown);
+        cache.render(PARSER, renderer2, markdown);
+        assertEquals(1, cache.getStats().getHitCount());
+
+        cache.render(PARSER, renderer3, markdown);
+        assertEquals(1, cache.getStats().getHitCount());
+        assertEquals(2, cache.getStats().getEntryCount());
+    }
+
+    @Test
+    public void test_eviction() {
+        long maximumWeight = 64 * 1024;
+        DocumentCache cache = DocumentCache.builder().maximumWeight(maximumWeight).segments(1).build();
+
+        for (String example : EXAMPLES) {
+            cache.render(PARSER, RENDERER, example);
+        }
+
+        DocumentCacheStats stats = cache.getStats();
+        assertTrue(stats.getEvictionCount() > 0);
+        assertTrue(stats.getWeight() <= maximumWeight);
+        assertEquals(stats.getMissCount(), stats.getEntryCount() + stats.getEvictionCount());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.getStats().getEntryCount());
+        assertEquals(0, cache.getStats().getWeight());
+    }
+
+    @Test
+    public void test_frequentEntriesSurviveScan() {
+        DocumentCache cache = DocumentCache.builder().maximumWeight(64 * 1024).segments(1).build();
+        String frequent = "frequently *rendered* text\n";
+
+        cache.render(PARSER, RENDERER, frequent);
+        cache.render(PARSER, RENDERER, frequent);
+
+        // markdown rendered once is evicted before markdown rendered again
+        for (String example : EXAMPLES) {
+            cache.render(PARSER, RENDERER, example);
+        }
+
+        cache.resetStats();
+        cache.render(PARSER, RENDERER, frequent);
+        assertEquals(1, cache.getStats().getHitCount());
+    }
+
+    @Test
+    public void test_largeEntryNotCached() {
+        DocumentCache cache = DocumentCache.builder().maximumWeight(1024).segments(1).build();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append("paragraph ").append(i).append("\n\n");
+        }
+
+        cache.render(PARSER, RENDERER, sb);
+        assertEquals(0, cache.getStats().getEntryCount());
+        assertEquals(0, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void test_concurrent() throws Exception {
+        DocumentCache cache = DocumentCache.builder().maximumWeight(256 * 1024).segments(4).build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        int requests = 0;
+
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t * 37;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        String example = EXAMPLES.get((offset + i * 7) % 200);
+                        assertEquals(RENDERER.render(PARSER.parse(example)), cache.render(PARSER, RENDERER, example));
+                    }
+                    return null;
+                }));
+                requests += 2000;
+            }
+
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        DocumentCacheStats stats = cache.getStats();
+        assertEquals(requests, stats.getRequestCount());
+        assertTrue(stats.getHitCount() > 0);
+        assertTrue(stats.getWeight() <= 256 * 1024);
+    }
+}
@@ -0,0 +1,140 @@
+package com.vladsch.flexmark.core.test.util.html;
+
+import com.vladsch.flexmark.ast.Image;
+import com.vladsch.flexmark.html.*;
+import com.vladsch.flexmark.html.renderer.LinkResolverContext;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Node;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Text;
+
+import static org.junit.Assert.assertEquals;
+
+final public class DomRendererTest {
+    private static Node parse(String source) {
+        return Parser.builder().build().parse(source);
+    }
+
+    // elements with attributes in document order, text in quotes, whitespace text between elements is not significant
+    private static String toString(org.w3c.dom.Node node) {
+        StringBuilder sb = new StringBuilder();
+        appendNode(node, sb);
+        return sb.toString();
+    }
+
+    private static void appendNode(org.w3c.dom.Node node, StringBuilder sb) {
+        if (node instanceof Element) {
+            Element element = (Element) node;
+            sb.append('(').append(element.getTagName());
+            NamedNodeMap attributes = element.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                sb.append(' ').append(attributes.item(i).getNodeName()).append("='").append(attributes.item(i).getNodeValue()).append('\'');
+            }
+            for (org.w3c.dom.Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                appendNode(child, sb);
+            }
+            sb.append(')');
+        } else if (node instanceof Text && !((Text) node).getData().trim().isEmpty()) {
+            sb.append('"').append(((Text) node).getData()).append('"');
+        }
+    }
+
+    private static String renderBody(String source) {
+        return renderBody(new DomRenderer(HtmlRenderer.builder().build()), source);
+    }
+
+    private static String renderBody(DomRenderer renderer, String source) {
+        Document dom = renderer.renderDom(parse(source));
+        return toString(dom.getElementsByTagName("body").item(0));
+    }
+
+    @Test
+    public void document() {
+        Document dom = new DomRenderer(HtmlRenderer.builder().build()).renderDom(parse("text\n"));
+        assertEquals("(html(head)(body(p\"text\")))", toString(dom.getDocumentElement()));
+    }
+
+    @Test
+    public void elementsAndText() {
+        assertEquals("(body(h1\"Heading\")(p\"a \"(em\"b\")\" & \"(a href='/url?a&b'\"<c>\")))",
+                renderBody("# Heading\n\na *b* &amp; [\\<c>](/url?a&b)\n"));
+    }
+
+    @Test
+    public void sameHtmlText() {
+        HtmlRenderer htmlRenderer = HtmlRenderer.builder().build();
+        Node document = parse("a *b*\n");
+        assertEquals(htmlRenderer.render(document), new DomRenderer(htmlRenderer).render(document));
+    }
+
+    @Test
+    public void attributeProvider() {
+        AttributeProviderFactory factory = new IndependentAttributeProviderFactory() {
+            @NotNull
+            @Override
+            public AttributeProvider apply(@NotNull LinkResolverContext context) {
+                return (node, part, attributes) -> {
+                    if (node instanceof Image) {
+                        attributes.remove("alt");
+                        attributes.replaceValue("test", "hey");
+                    }
+                };
+            }
+        };
+
+        DomRenderer renderer = new DomRenderer(HtmlRenderer.builder().attributeProviderFactory(factory).build());
+        assertEquals("(body(p(img src='/url' test='hey')))", renderBody(renderer, "![foo](/url)\n"));
+    }
+
+    @Test
+    public void htmlBlock() {
+        assertEquals("(body(div class='a' id='b'\"\\nblock & \"(span\"inline\")))",
+                renderBody("<div id='b' class=\"a\">\nblock &amp; <span>inline</span>\n</div>\n").replace("\n", "\\n"));
+    }
+
+    @Test
+    public void htmlBlockVoidElements() {
+        assertEquals("(body(p\"a\"(br)\"b\"(input type='checkbox')\"c\"))",
+                renderBody("<p>a<br>b<input type=checkbox />c</p>\n"));
+    }
+
+    @Test
+    public void htmlBlockUnmatchedCloseTag() {
+        assertEquals("(body(div\"a\")(p\"b\"))", renderBody("<div>a</span></div>\n\nb\n"));
+    }
+
+    @Test
+    public void htmlBlockIncompleteTag() {
+        assertEquals("(body)", renderBody("<div id=\"foo\"\n*hi*\n"));
+    }
+
+    @Test
+    public void htmlBlockCommentDropped() {
+        assertEquals("(body(p\"a\"))", renderBody("<!-- comment -->\n\na\n"));
+    }
+
+    @Test
+    public void htmlBlockRawText() {
+        Document dom = new DomRenderer(HtmlRenderer.builder().build()).renderDom(parse("<style>p > a { color: red; }</style>\n\na\n\n<script>if (a < b) {}</script>\n"));
+        assertEquals("(html(head(style\"p > a { color: red; }\"))(body(p\"a\")(script\"if (a < b) {}\")))", toString(dom.getDocumentElement()));
+    }
+
+    @Test
+    public void htmlBlockTableRows() {
+        assertEquals("(body(table(tbody(tr(td\"a\")))))", renderBody("<table><tr><td>a</td></tr></table>\n"));
+    }
+
+    @Test
+    public void htmlBlockPre() {
+        assertEquals("(body(pre\"a\\n\"))", renderBody("<pre>\na\n</pre>\n").replace("\n", "\\n"));
+    }
+
+    @Test
+    public void inlineHtml() {
+        assertEquals("(body(p\"a \"(b class='c'\"d\")\" e\"))", renderBody("a <b class='c'>d</b> e\n"));
+    }
+}
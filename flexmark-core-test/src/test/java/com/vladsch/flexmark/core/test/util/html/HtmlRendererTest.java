@@ -357,6 +357,28 @@ final public class HtmlRendererTest {
         }
     }
 
+    @Test
+    public void sharedRendererReferencesPerDocument() {
+        HtmlRenderer renderer = defaultRenderer();
+
+        assertEquals("<p><a href=\"/one\">ref</a></p>\n", renderer.render(parse("[ref]\n\n[ref]: /one\n")));
+        assertEquals("<p><a href=\"/two\">ref</a></p>\n", renderer.render(parse("[ref]\n\n[ref]: /two\n")));
+        assertEquals("<p>[ref]</p>\n", renderer.render(parse("[ref]\n")));
+    }
+
+    @Test
+    public void sharedRendererDocumentOptions() {
+        // option read by the core renderer and set only in parser options is taken from the document
+        DataHolder options = new MutableDataSet().set(Parser.CODE_SOFT_LINE_BREAKS, true);
+        Node document = Parser.builder(options).build().parse("`a\nb`\n");
+        HtmlRenderer renderer = defaultRenderer();
+
+        assertEquals("<p><code>a b</code></p>\n", renderer.render(parse("`a\nb`\n")));
+        assertEquals(HtmlRenderer.builder(options).build().render(document), renderer.render(document));
+        assertEquals("<p><code>a\nb</code></p>\n", renderer.render(document));
+        assertEquals("<p><code>a b</code></p>\n", renderer.render(parse("`a\nb`\n")));
+    }
+
     @Test
     public void withOptions_customLinkResolver() {
         // make sure custom link resolver is preserved when using withOptions() on HTML builder
@@ -0,0 +1,178 @@
+package com.vladsch.flexmark.core.test.util.html;
+
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.html.RenderListener;
+import com.vladsch.flexmark.html.renderer.RenderingPhase;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.test.specs.TestSpecLocator;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import com.vladsch.flexmark.util.format.TrackedOffset;
+import com.vladsch.flexmark.util.sequence.LineAppendable;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingOutputTest {
+    final private static String MARKDOWN = "" +
+            "# Heading\n" +
+            "\n" +
+            "Paragraph with *emphasis*.\n" +
+            "\n" +
+            "```\n" +
+            "code\n" +
+            "\n" +
+            "\n" +
+            "\n" +
+            "more code\n" +
+            "```\n" +
+            "\n" +
+            "<div>\n" +
+            "\n" +
+            "*html*\n" +
+            "\n" +
+            "</div>\n" +
+            "\n" +
+            "    indented\n" +
+            "\n" +
+            "\n" +
+            "    code\n" +
+            "\n" +
+            "> quote\n" +
+            "\n" +
+            "- item 1\n" +
+            "\n" +
+            "- item 2\n" +
+            "\n" +
+            "***\n" +
+            "";
+
+    static String render(String markdown, DataHolder options, boolean streaming) {
+        MutableDataSet streamingOptions = new MutableDataSet(options);
+        streamingOptions.set(HtmlRenderer.STREAMING_OUTPUT, streaming);
+
+        Document document = Parser.builder(streamingOptions).build().parse(markdown);
+        return HtmlRenderer.builder(streamingOptions).build().render(document);
+    }
+
+    static void assertSameOutput(String markdown, DataHolder options) {
+        assertEquals(render(markdown, options, false), render(markdown, options, true));
+    }
+
+    @Test
+    public void test_sameOutput() {
+        assertSameOutput(MARKDOWN, new MutableDataSet());
+        assertSameOutput("", new MutableDataSet());
+        assertSameOutput("\n\n\n", new MutableDataSet());
+    }
+
+    @Test
+    public void test_sameOutputBlankLines() {
+        assertSameOutput(MARKDOWN, new MutableDataSet()
+                .set(HtmlRenderer.MAX_BLANK_LINES, 0)
+                .set(HtmlRenderer.MAX_TRAILING_BLANK_LINES, 0));
+
+        assertSameOutput(MARKDOWN, new MutableDataSet()
+                .set(HtmlRenderer.MAX_BLANK_LINES, 2)
+                .set(HtmlRenderer.MAX_TRAILING_BLANK_LINES, 3));
+
+        assertSameOutput(MARKDOWN, new MutableDataSet()
+                .set(HtmlRenderer.MAX_TRAILING_BLANK_LINES, -1));
+    }
+
+    @Test
+    public void test_sameOutputFormatFlags() {
+        assertSameOutput(MARKDOWN, new MutableDataSet()
+                .set(HtmlRenderer.FORMAT_FLAGS, LineAppendable.F_FORMAT_ALL)
+                .set(HtmlRenderer.INDENT_SIZE, 2));
+    }
+
+    @Test
+    public void test_sameOutputSpec() {
+        assertSameOutput(TestSpecLocator.DEFAULT_RESOURCE_LOCATION.getResourceText(), new MutableDataSet());
+    }
+
+    @Test
+    public void test_outputStreamed() {
+        StringBuilder out = new StringBuilder();
+        int[] bodyLength = { -1 };
+
+        MutableDataSet options = new MutableDataSet()
+                .set(HtmlRenderer.STREAMING_OUTPUT, true)
+                .set(HtmlRenderer.RENDER_LISTENER, new RenderListener() {
+                    @Override
+                    public void phaseFinished(@NotNull Document document, @NotNull RenderingPhase phase, long nanos, long allocatedBytes) {
+                        if (phase == RenderingPhase.BODY) bodyLength[0] = out.length();
+                    }
+                });
+
+        Document document = Parser.builder(options).build().parse(MARKDOWN);
+        HtmlRenderer.builder(options).build().render(document, out);
+
+        // all but the last block are appended before the body phase is finished
+        assertTrue(bodyLength[0] > 0);
+        assertTrue(bodyLength[0] < out.length());
+        assertEquals(render(MARKDOWN, options, false), out.toString());
+    }
+
+    @Test
+    public void test_notStreamedWithTrackedOffsets() {
+        StringBuilder out = new StringBuilder();
+        int[] bodyLength = { -1 };
+
+        MutableDataSet options = new MutableDataSet()
+                .set(HtmlRenderer.STREAMING_OUTPUT, true)
+                .set(HtmlRenderer.RENDER_LISTENER, new RenderListener() {
+                    @Override
+                    public void phaseFinished(@NotNull Document document, @NotNull RenderingPhase phase, long nanos, long allocatedBytes) {
+                        if (phase == RenderingPhase.BODY) bodyLength[0] = out.length();
+                    }
+                });
+
+        Document document = Parser.builder(options).build().parse(MARKDOWN);
+        document.set(HtmlRenderer.TRACKED_OFFSETS, Collections.singletonList(TrackedOffset.track(2, null, false)));
+        HtmlRenderer.builder(options).build().render(document, out);
+
+        assertEquals(0, bodyLength[0]);
+        assertEquals(render(MARKDOWN, options, false), out.toString());
+    }
+
+    @Test
+    public void test_streamingException() {
+        IOException exception = new IOException("write failed");
+        Appendable out = new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) throws IOException {
+                throw exception;
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) throws IOException {
+                throw exception;
+            }
+
+            @Override
+            public Appendable append(char c) throws IOException {
+                throw exception;
+            }
+        };
+
+        MutableDataSet options = new MutableDataSet().set(HtmlRenderer.STREAMING_OUTPUT, true);
+        Document document = Parser.builder(options).build().parse(MARKDOWN);
+
+        try {
+            HtmlRenderer.builder(options).build().render(document, out);
+            throw new AssertionError("expected UncheckedIOException");
+        } catch (UncheckedIOException e) {
+            assertSame(exception, e.getCause());
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.vladsch.flexmark.core.test.util.instrumentation;
+
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.html.RenderListener;
+import com.vladsch.flexmark.html.renderer.CoreNodeRenderer;
+import com.vladsch.flexmark.html.renderer.RenderingPhase;
+import com.vladsch.flexmark.instrumentation.*;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.parser.ParserListener;
+import com.vladsch.flexmark.parser.PostProcessorFactory;
+import com.vladsch.flexmark.parser.block.DocumentPostProcessor;
+import com.vladsch.flexmark.parser.block.DocumentPostProcessorFactory;
+import com.vladsch.flexmark.parser.block.ParserPhase;
+import com.vladsch.flexmark.parser.internal.InlineParserImpl;
+import com.vladsch.flexmark.test.util.AstCollectingVisitor;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class InstrumentationTest {
+    final private static String MARKDOWN = "" +
+            "# Heading\n" +
+            "\n" +
+            "Paragraph with *emphasis* and a [link][ref].\n" +
+            "\n" +
+            "> quote\n" +
+            "\n" +
+            "- item 1\n" +
+            "- item 2\n" +
+            "\n" +
+            "[ref]: /url\n" +
+            "";
+
+    static class TestPostProcessorFactory extends DocumentPostProcessorFactory {
+        @Override
+        public @NotNull DocumentPostProcessor apply(@NotNull Document document) {
+            return new DocumentPostProcessor() {
+                @Override
+                public @NotNull Document processDocument(@NotNull Document document) {
+                    return document;
+                }
+            };
+        }
+    }
+
+    static class RecordingParserListener implements ParserListener {
+        final List<String> events = new ArrayList<>();
+        final HandlerTimings timings = new HandlerTimings();
+
+        @Override
+        public void phaseStarted(@NotNull Document document, @NotNull ParserPhase phase) {
+            events.add("start " + phase);
+        }
+
+        @Override
+        public void phaseFinished(@NotNull Document document, @NotNull ParserPhase phase, long nanos, long allocatedBytes) {
+            assertTrue(nanos >= 0);
+            assertTrue(allocatedBytes >= -1);
+            events.add("finish " + phase);
+        }
+
+        @Override
+        public void postProcessorStarted(@NotNull Document document, @NotNull PostProcessorFactory factory) {
+            events.add("start " + factory.getClass().getSimpleName());
+        }
+
+        @Override
+        public void postProcessorFinished(@NotNull Document document, @NotNull PostProcessorFactory factory, long nanos, long allocatedBytes) {
+            assertTrue(nanos >= 0);
+            events.add("finish " + factory.getClass().getSimpleName());
+        }
+
+        @Override
+        public void handlerTimings(@NotNull Document document, @NotNull HandlerTimings timings) {
+            timings.forEach(this.timings::add);
+        }
+    }
+
+    static class RecordingRenderListener implements RenderListener {
+        final List<String> events = new ArrayList<>();
+        final HandlerTimings timings = new HandlerTimings();
+
+        @Override
+        public void phaseStarted(@NotNull Document document, @NotNull RenderingPhase phase) {
+            events.add("start " + phase);
+        }
+
+        @Override
+        public void phaseFinished(@NotNull Document document, @NotNull RenderingPhase phase, long nanos, long allocatedBytes) {
+            assertTrue(nanos >= 0);
+            events.add("finish " + phase);
+        }
+
+        @Override
+        public void handlerTimings(@NotNull Document document, @NotNull HandlerTimings timings) {
+            timings.forEach(this.timings::add);
+        }
+    }
+
+    @Test
+    public void test_parserListener() {
+        RecordingParserListener listener = new RecordingParserListener();
+        Parser parser = Parser.builder(new MutableDataSet().set(Parser.PARSER_LISTENER, listener))
+                .postProcessorFactory(new TestPostProcessorFactory())
+                .build();
+
+        parser.parse(MARKDOWN);
+
+        assertEquals(Arrays.asList(
+                "start PARSE_BLOCKS",
+                "finish PARSE_BLOCKS",
+                "start PRE_PROCESS_PARAGRAPHS",
+                "finish PRE_PROCESS_PARAGRAPHS",
+                "start PRE_PROCESS_BLOCKS",
+                "finish PRE_PROCESS_BLOCKS",
+                "start PARSE_INLINES",
+                "finish PARSE_INLINES",
+                "start TestPostProcessorFactory",
+                "finish TestPostProcessorFactory"
+        ), listener.events);
+
+        boolean[] found = { false, false };
+        listener.timings.forEach((handlerClass, calls, nanos) -> {
+            assertTrue(calls > 0);
+            assertTrue(nanos >= 0);
+            if (handlerClass.getName().startsWith("com.vladsch.flexmark.parser.core.HeadingParser")) found[0] = true;
+            // reference definitions are parsed by the inline parser acting as paragraph pre-processor
+            if (InlineParserImpl.class.isAssignableFrom(handlerClass)) found[1] = true;
+        });
+        assertTrue("block parser factory timed", found[0]);
+        assertTrue("paragraph pre-processor timed", found[1]);
+    }
+
+    @Test
+    public void test_renderListener() {
+        RecordingRenderListener listener = new RecordingRenderListener();
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder(new MutableDataSet().set(HtmlRenderer.RENDER_LISTENER, listener)).build();
+
+        renderer.render(parser.parse(MARKDOWN));
+
+        assertEquals(Arrays.asList("start BODY", "finish BODY"), listener.events);
+        assertTrue(listener.timings.getCalls(CoreNodeRenderer.class) > 0);
+    }
+
+    @Test
+    public void test_sameResult() {
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+
+        SimpleHistogramRegistry registry = new SimpleHistogramRegistry();
+        Parser listenedParser = Parser.builder(new MutableDataSet().set(Parser.PARSER_LISTENER, new HistogramParserListener(registry))).build();
+        HtmlRenderer listenedRenderer = HtmlRenderer.builder(new MutableDataSet().set(HtmlRenderer.RENDER_LISTENER, new HistogramRenderListener(registry))).build();
+
+        Document expected = parser.parse(MARKDOWN);
+        Document actual = listenedParser.parse(MARKDOWN);
+        assertEquals(new AstCollectingVisitor().collectAndGetAstText(expected), new AstCollectingVisitor().collectAndGetAstText(actual));
+        assertEquals(renderer.render(expected), listenedRenderer.render(actual));
+    }
+
+    @Test
+    public void test_histogramListeners() {
+        SimpleHistogramRegistry registry = new SimpleHistogramRegistry();
+        Parser parser = Parser.builder(new MutableDataSet().set(Parser.PARSER_LISTENER, new HistogramParserListener(registry))).build();
+        HtmlRenderer renderer = HtmlRenderer.builder(new MutableDataSet().set(HtmlRenderer.RENDER_LISTENER, new HistogramRenderListener(registry))).build();
+
+        for (int i = 0; i < 3; i++) {
+            renderer.render(parser.parse(MARKDOWN));
+        }
+
+        Histogram parseInlines = registry.getHistogram("parser.phase.PARSE_INLINES.nanos");
+        assertNotNull(parseInlines);
+        assertEquals(3, parseInlines.getCount());
+
+        Histogram body = registry.getHistogram("render.phase.BODY.nanos");
+        assertNotNull(body);
+        assertEquals(3, body.getCount());
+
+        Histogram coreCalls = registry.getHistogram("render.handler." + CoreNodeRenderer.class.getName() + ".calls");
+        assertNotNull(coreCalls);
+        assertEquals(3, coreCalls.getCount());
+        assertTrue(coreCalls.getMax() > 0);
+
+        assertEquals(AllocationCounter.isSupported(), registry.getHistogram("parser.phase.PARSE_BLOCKS.allocatedBytes") != null);
+        assertNull(registry.getHistogram("parser.phase.DONE.nanos"));
+    }
+
+    @Test
+    public void test_handlerTimingsExcludeNested() {
+        HandlerTimings timings = new HandlerTimings();
+        long outer = timings.start();
+        long inner = timings.start();
+        timings.stop(String.class, inner);
+        timings.stop(Integer.class, outer);
+
+        assertEquals(1, timings.getCalls(String.class));
+        assertEquals(1, timings.getCalls(Integer.class));
+        assertTrue(timings.getNanos(String.class) >= 0);
+        assertTrue(timings.getNanos(Integer.class) >= 0);
+
+        timings.clear();
+        assertTrue(timings.isEmpty());
+    }
+
+    @Test
+    public void test_histogramPercentiles() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean(), 0.001);
+        // log-linear buckets with 32 sub-buckets are within ~3% of the value
+        assertEquals(500, histogram.getPercentile(50), 500 * 0.035);
+        assertEquals(990, histogram.getPercentile(99), 990 * 0.035);
+        assertEquals(1000, histogram.getPercentile(100));
+    }
+}
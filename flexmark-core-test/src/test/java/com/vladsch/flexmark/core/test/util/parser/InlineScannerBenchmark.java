@@ -0,0 +1,56 @@
+package com.vladsch.flexmark.core.test.util.parser;
+
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.test.specs.TestSpecLocator;
+import com.vladsch.flexmark.test.util.spec.SpecReader;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+
+/**
+ * Parse throughput with {@link Parser#USE_HARDCODED_INLINE_SCANNERS} on and off
+ */
+@State(Scope.Benchmark)
+public class InlineScannerBenchmark {
+    final private static String SPEC = TestSpecLocator.DEFAULT_RESOURCE_LOCATION.getResourceText();
+    final private static List<String> SPEC_EXAMPLES =
+            SpecReader.createAndReadExamples(TestSpecLocator.DEFAULT_RESOURCE_LOCATION, false)
+                    .getExamplesSourceAsString();
+
+    @Param({ "true", "false" })
+    public boolean scanners;
+
+    private Parser parser;
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(InlineScannerBenchmark.class.getName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setup() {
+        parser = Parser.builder(new MutableDataSet().set(Parser.USE_HARDCODED_INLINE_SCANNERS, scanners)).build();
+    }
+
+    @Benchmark
+    public int wholeSpec() {
+        return parser.parse(SPEC).getTextLength();
+    }
+
+    @Benchmark
+    public int examples() {
+        int length = 0;
+        for (String example : SPEC_EXAMPLES) {
+            length += parser.parse(example).getTextLength();
+        }
+        return length;
+    }
+}
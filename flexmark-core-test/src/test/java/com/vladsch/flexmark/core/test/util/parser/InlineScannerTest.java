@@ -0,0 +1,175 @@
+package com.vladsch.flexmark.core.test.util.parser;
+
+import com.vladsch.flexmark.ast.util.Parsing;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.parser.internal.InlineScanner;
+import com.vladsch.flexmark.test.specs.TestSpecLocator;
+import com.vladsch.flexmark.test.util.AstCollectingVisitor;
+import com.vladsch.flexmark.test.util.spec.SpecReader;
+import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Differential test of {@link InlineScanner} against the {@link Parsing} patterns it replaces,
+ * for every index of the spec text and of every spec example
+ */
+public class InlineScannerTest {
+    final private static String SPEC_TEXT = TestSpecLocator.DEFAULT_RESOURCE_LOCATION.getResourceText();
+    final private static List<String> EXAMPLES = SpecReader.createAndReadExamples(TestSpecLocator.DEFAULT_RESOURCE_LOCATION, false).getExamplesSourceAsString();
+
+    // inline parser only sees paragraph text, some patterns overflow the stack on the full spec text
+    private static List<String> corpus(boolean withIdi) {
+        List<String> texts = new ArrayList<>(EXAMPLES);
+        texts.addAll(Arrays.asList(SPEC_TEXT.split("\n\n")));
+
+        if (withIdi) {
+            // sprinkle dummy identifiers where patterns allow them
+            Random random = new Random(0);
+            int iMax = texts.size();
+            for (int i = 0; i < iMax; i++) {
+                String text = texts.get(i);
+                StringBuilder sb = new StringBuilder(text.length() * 2);
+                for (int j = 0; j < text.length(); j++) {
+                    sb.append(text.charAt(j));
+                    if (random.nextInt(8) == 0) sb.append(Parsing.INTELLIJ_DUMMY_IDENTIFIER_CHAR);
+                }
+                texts.add(sb.toString());
+            }
+        }
+        return texts;
+    }
+
+    @FunctionalInterface
+    interface Scan {
+        int scan(InlineScanner scanner, CharSequence s, int index);
+    }
+
+    private static void assertScanner(DataHolder options, String name, Pattern pattern, Scan scan) {
+        Parsing parsing = new Parsing(options);
+        InlineScanner scanner = new InlineScanner(parsing);
+        int fallbacks = 0;
+
+        for (String text : corpus(parsing.intellijDummyIdentifier)) {
+            Matcher matcher = pattern.matcher(text);
+
+            for (int index = 0; index <= text.length(); index++) {
+                int end = scan.scan(scanner, text, index);
+                if (end == InlineScanner.USE_PATTERN) {
+                    fallbacks++;
+                    continue;
+                }
+
+                int expected = InlineScanner.NO_MATCH;
+                if (index < text.length()) {
+                    matcher.region(index, text.length());
+                    if (matcher.find()) {
+                        assertEquals(name + " match start", index, matcher.start());
+                        expected = matcher.end();
+                    }
+                }
+
+                if (expected != end) {
+                    String context = text.substring(index, Math.min(text.length(), index + 40));
+                    assertEquals(name + " at " + index + " of \"" + context + "\"", expected, end);
+                }
+            }
+        }
+
+        // fallback is for pathological input, spec corpus should rarely need it
+        assertTrue(name + " fallbacks " + fallbacks, fallbacks < 10);
+    }
+
+    private static void assertAllScanners(DataHolder options) {
+        Parsing parsing = new Parsing(options);
+        assertScanner(options, "SP", parsing.SP, InlineScanner::scanSp);
+        assertScanner(options, "SPNI", parsing.SPNI, InlineScanner::scanSpni);
+        assertScanner(options, "SPNL", parsing.SPNL, InlineScanner::scanSpnl);
+        assertScanner(options, "SPNL_URL", parsing.SPNL_URL, InlineScanner::scanSpnlUrl);
+        assertScanner(options, "LINE_END", parsing.LINE_END, InlineScanner::scanLineEnd);
+        assertScanner(options, "REST_OF_LINE", parsing.REST_OF_LINE, InlineScanner::scanRestOfLine);
+        assertScanner(options, "LINK_LABEL", parsing.LINK_LABEL, InlineScanner::scanLinkLabel);
+        assertScanner(options, "LINK_TITLE", parsing.LINK_TITLE, InlineScanner::scanLinkTitle);
+        assertScanner(options, "LINK_DESTINATION_ANGLES", parsing.LINK_DESTINATION_ANGLES, InlineScanner::scanLinkDestinationAngles);
+        assertScanner(options, "ENTITY_HERE", parsing.ENTITY_HERE, InlineScanner::scanEntity);
+        assertScanner(options, "HTML_TAG", parsing.HTML_TAG, InlineScanner::scanHtmlTag);
+        assertScanner(options, "EMAIL_AUTOLINK", parsing.EMAIL_AUTOLINK, InlineScanner::scanEmailAutolink);
+        assertScanner(options, "AUTOLINK", parsing.AUTOLINK, InlineScanner::scanAutolink);
+        assertScanner(options, "WWW_AUTOLINK", parsing.WWW_AUTOLINK, InlineScanner::scanWwwAutolink);
+    }
+
+    @Test
+    public void test_scannersDefault() {
+        assertAllScanners(new MutableDataSet());
+    }
+
+    @Test
+    public void test_scannersSpaceInLinkUrls() {
+        assertAllScanners(new MutableDataSet().set(Parser.SPACE_IN_LINK_URLS, true));
+    }
+
+    @Test
+    public void test_scannersIntellijDummyIdentifier() {
+        assertAllScanners(new MutableDataSet().set(Parser.INTELLIJ_DUMMY_IDENTIFIER, true));
+    }
+
+    @Test
+    public void test_scannersIntellijDummyIdentifierSpaceInLinkUrls() {
+        assertAllScanners(new MutableDataSet().set(Parser.INTELLIJ_DUMMY_IDENTIFIER, true).set(Parser.SPACE_IN_LINK_URLS, true));
+    }
+
+    @Test
+    public void test_characterClasses() {
+        Parsing parsing = new Parsing(new MutableDataSet());
+        for (char c = 0; c < Character.MAX_VALUE; c++) {
+            String s = String.valueOf(c);
+            assertEquals("ESCAPABLE " + (int) c, parsing.ESCAPABLE.matcher(s).matches(), InlineScanner.isEscapable(c));
+            assertEquals("WHITESPACE " + (int) c, parsing.WHITESPACE.matcher(s).matches(), InlineScanner.isWhitespace(c));
+            assertEquals("UNICODE_WHITESPACE_CHAR " + (int) c, parsing.UNICODE_WHITESPACE_CHAR.matcher(s).matches(), InlineScanner.isUnicodeWhitespace(c));
+            assertEquals("PUNCTUATION " + (int) c, parsing.PUNCTUATION.matcher(s).matches(), InlineScanner.isPunctuation(c));
+            assertEquals("PUNCTUATION_OPEN " + (int) c, parsing.PUNCTUATION_OPEN.matcher(s).matches(), InlineScanner.isPunctuationOpen(c));
+            assertEquals("PUNCTUATION_CLOSE " + (int) c, parsing.PUNCTUATION_CLOSE.matcher(s).matches(), InlineScanner.isPunctuationClose(c));
+        }
+    }
+
+    private static void assertSameParse(DataHolder options) {
+        DataHolder regexOptions = new MutableDataSet(options).set(Parser.USE_HARDCODED_INLINE_SCANNERS, false).toImmutable();
+        Parser scannerParser = Parser.builder(options).build();
+        Parser regexParser = Parser.builder(regexOptions).build();
+        HtmlRenderer renderer = HtmlRenderer.builder(options).build();
+
+        for (String text : corpus(false)) {
+            Node expected = regexParser.parse(text);
+            Node actual = scannerParser.parse(text);
+            assertEquals(new AstCollectingVisitor().collectAndGetAstText(expected), new AstCollectingVisitor().collectAndGetAstText(actual));
+            assertEquals(renderer.render(expected), renderer.render(actual));
+        }
+    }
+
+    @Test
+    public void test_sameParseDefault() {
+        assertSameParse(new MutableDataSet());
+    }
+
+    @Test
+    public void test_sameParseSpaceInLinkUrls() {
+        assertSameParse(new MutableDataSet().set(Parser.SPACE_IN_LINK_URLS, true));
+    }
+
+    @Test
+    public void test_sameParseWwwAutoLinks() {
+        assertSameParse(new MutableDataSet().set(Parser.WWW_AUTO_LINK_ELEMENT, true).set(Parser.INLINE_DELIMITER_DIRECTIONAL_PUNCTUATIONS, true));
+    }
+}
@@ -0,0 +1,63 @@
+package com.vladsch.flexmark.core.test.util.parser;
+
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.test.specs.TestSpecLocator;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Large document parse throughput with serial inline parsing, threads = 0, and with
+ * {@link Parser#PARALLEL_INLINE_PARSING} on a pool with given number of threads
+ */
+@State(Scope.Benchmark)
+public class ParallelInlineParsingBenchmark {
+    final private static int SPEC_COPIES = 10;
+
+    @Param({ "0", "1", "2", "4", "8" })
+    public int threads;
+
+    private String text;
+    private Parser parser;
+    private ForkJoinPool pool;
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(ParallelInlineParsingBenchmark.class.getName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setup() {
+        String spec = TestSpecLocator.DEFAULT_RESOURCE_LOCATION.getResourceText();
+        StringBuilder sb = new StringBuilder(spec.length() * SPEC_COPIES);
+        for (int i = 0; i < SPEC_COPIES; i++) {
+            sb.append(spec).append('\n');
+        }
+        text = sb.toString();
+
+        MutableDataSet options = new MutableDataSet();
+        if (threads > 0) {
+            pool = new ForkJoinPool(threads);
+            options.set(Parser.PARALLEL_INLINE_PARSING, true).set(Parser.PARALLEL_INLINE_PARSING_POOL, pool);
+        }
+        parser = Parser.builder(options).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) pool.shutdown();
+    }
+
+    @Benchmark
+    public int parse() {
+        return parser.parse(text).getTextLength();
+    }
+}
@@ -0,0 +1,60 @@
+package com.vladsch.flexmark.core.test.util.parser;
+
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.test.specs.TestSpecLocator;
+import com.vladsch.flexmark.test.util.spec.SpecReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+
+/**
+ * Small document parse throughput, each spec example parsed as a separate document
+ * with a new parser state per document and with a reused {@link Parser.Session}
+ */
+@State(Scope.Thread)
+public class ParserSessionBenchmark {
+    final private static List<String> SPEC_EXAMPLES =
+            SpecReader.createAndReadExamples(TestSpecLocator.DEFAULT_RESOURCE_LOCATION, false)
+                    .getExamplesSourceAsString();
+    final private static Parser PARSER = Parser.builder().build();
+
+    private Parser.Session session;
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(ParserSessionBenchmark.class.getName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setup() {
+        session = PARSER.newSession();
+    }
+
+    @Benchmark
+    public long parserExamples() {
+        long count = 0;
+        for (String example : SPEC_EXAMPLES) {
+            count += PARSER.parse(example).getTextLength();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long sessionExamples() {
+        long count = 0;
+        for (String example : SPEC_EXAMPLES) {
+            count += session.parse(example).getTextLength();
+        }
+        return count;
+    }
+}
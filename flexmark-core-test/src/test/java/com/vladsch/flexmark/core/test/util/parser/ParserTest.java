@@ -3,8 +3,11 @@ package com.vladsch.flexmark.core.test.util.parser;
 import com.vladsch.flexmark.ast.*;
 import com.vladsch.flexmark.html.HtmlRenderer;
 import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.parser.TextEdit;
 import com.vladsch.flexmark.parser.block.*;
 import com.vladsch.flexmark.test.specs.TestSpecLocator;
+import com.vladsch.flexmark.test.util.AstCollectingVisitor;
+import com.vladsch.flexmark.test.util.spec.SpecReader;
 import com.vladsch.flexmark.util.ast.Block;
 import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.ast.Node;
@@ -14,6 +17,7 @@ import com.vladsch.flexmark.util.data.MutableDataHolder;
 import com.vladsch.flexmark.util.data.MutableDataSet;
 import com.vladsch.flexmark.util.data.SharedDataKeys;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.ByteBufferCharSequence;
 import com.vladsch.flexmark.util.sequence.mappers.SpecialLeadInHandler;
 import com.vladsch.flexmark.util.sequence.mappers.SpecialLeadInStartsWithCharsHandler;
 import org.jetbrains.annotations.NotNull;
@@ -23,10 +27,17 @@ import org.junit.Test;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -57,6 +68,313 @@ final public class ParserTest {
         assertEquals(renderer.render(document2), renderer.render(document1));
     }
 
+    @Test
+    public void parseFileTest() throws IOException {
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+        String spec = TestSpecLocator.DEFAULT_RESOURCE_LOCATION.getResourceText() + "\n# Überschrift 😀\n\n* äöü [link](/ö) €\n";
+
+        Path file = Files.createTempFile("flexmark", ".md");
+        try {
+            Files.write(file, spec.getBytes(StandardCharsets.UTF_8));
+            Document document = parser.parseFile(file);
+            Document expected = parser.parse(spec);
+
+            assertThat(document.getChars().getBase(), instanceOf(ByteBufferCharSequence.class));
+            assertEquals(new AstCollectingVisitor().collectAndGetAstText(expected), new AstCollectingVisitor().collectAndGetAstText(document));
+            assertEquals(renderer.render(expected), renderer.render(document));
+
+            Node lastChild = document.getLastChild();
+            assertSame(document.getChars().getBase(), lastChild.getChars().getBase());
+            assertEquals(spec.substring(lastChild.getStartOffset(), lastChild.getEndOffset()), lastChild.getChars().toString());
+
+            Files.write(file, spec.getBytes(StandardCharsets.UTF_16));
+            assertEquals(renderer.render(expected), renderer.render(parser.parseFile(file, StandardCharsets.UTF_16)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void sessionTest() {
+        Parser parser = Parser.builder().build();
+        Parser.Session session = parser.newSession();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+
+        List<String> examples = SpecReader.createAndReadExamples(TestSpecLocator.DEFAULT_RESOURCE_LOCATION, false).getExamplesSourceAsString();
+        for (String example : examples) {
+            assertEquals(renderer.render(parser.parse(example)), renderer.render(session.parse(example)));
+        }
+    }
+
+    @Test
+    public void sessionReferencesTest() {
+        Parser.Session session = Parser.builder().build().newSession();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+
+        assertEquals("<p><a href=\"/url\">foo</a></p>\n", renderer.render(session.parse("[foo]\n\n[foo]: /url\n")));
+
+        // references from previous document must not be visible
+        assertEquals("<p>[foo]</p>\n", renderer.render(session.parse("[foo]\n")));
+    }
+
+    @Test
+    public void parseReferencesTest() {
+        // inline parsers are reused by parse calls
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("<p><a href=\"/url\">foo</a></p>\n", renderer.render(parser.parse("[foo]\n\n[foo]: /url\n")));
+
+            // references from previous document must not be visible
+            assertEquals("<p>[foo]</p>\n", renderer.render(parser.parse("[foo]\n")));
+        }
+    }
+
+    @Test
+    public void sessionReaderTest() throws IOException {
+        Parser parser = Parser.builder().build();
+        Parser.Session session = parser.newSession();
+
+        String spec = TestSpecLocator.DEFAULT_RESOURCE_LOCATION.getResourceText();
+        Node document1 = session.parseReader(new StringReader(spec));
+        Node document2 = parser.parse(spec);
+
+        HtmlRenderer renderer = HtmlRenderer.builder().escapeHtml(true).build();
+        assertEquals(renderer.render(document2), renderer.render(document1));
+        assertSame(parser, session.getParser());
+    }
+
+    @Test
+    public void sharedBlockParserFactoriesTest() throws Exception {
+        // block parser factories are shared by all documents and threads of a parser
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+
+        List<String> examples = SpecReader.createAndReadExamples(TestSpecLocator.DEFAULT_RESOURCE_LOCATION, false).getExamplesSourceAsString();
+        List<String> expected = new ArrayList<>();
+        for (String example : examples) {
+            expected.add(renderer.render(Parser.builder().build().parse(example)));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<String> actual = pool.submit(() -> examples.parallelStream()
+                    .map(example -> renderer.render(parser.parse(example)))
+                    .collect(Collectors.toList())).get();
+            assertEquals(expected, actual);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void streamingReaderTest() throws IOException {
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder().escapeHtml(true).build();
+
+        String spec = TestSpecLocator.DEFAULT_RESOURCE_LOCATION.getResourceText();
+        String expected = renderer.render(parser.parse(spec));
+
+        assertEquals(expected, renderer.render(parser.parseReader(new ChunkReader(spec, 7))));
+        assertEquals(expected, renderer.render(parser.parseReader(new ChunkReader(spec, 1))));
+    }
+
+    @Test
+    public void streamingReaderCrLfTest() throws IOException {
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+
+        String input = "# Heading\r\n\r\nparagraph\r\nline\r\r\n```\r\ncode\r\n```\r";
+        Document document = parser.parseReader(new ChunkReader(input, 1));
+
+        assertEquals(renderer.render(parser.parse(input)), renderer.render(document));
+        assertEquals(input, document.getChars().toString());
+    }
+
+    @Test
+    public void streamingClosedBlocksTest() throws IOException {
+        Parser parser = Parser.builder().build();
+        String input = "# Heading\n\nparagraph [foo]\n\n- item 1\n- item 2\n\n[foo]: /url\n\nlast paragraph\n";
+        ChunkReader reader = new ChunkReader(input, 1);
+        ArrayList<Block> blocks = new ArrayList<>();
+        ArrayList<Integer> readOffsets = new ArrayList<>();
+
+        Document document = parser.parseReader(reader, block -> {
+            blocks.add(block);
+            readOffsets.add(reader.offset);
+        });
+
+        ArrayList<Node> children = new ArrayList<>();
+        for (Node child : document.getChildren()) children.add(child);
+        assertEquals(children.size(), blocks.size());
+
+        // reference definition paragraph is replaced by paragraph pre-processing, after the end of input
+        assertThat(blocks.get(3), instanceOf(Paragraph.class));
+        assertThat(children.get(3), instanceOf(Reference.class));
+        blocks.remove(3);
+        children.remove(3);
+        assertEquals(children, blocks);
+
+        // heading is closed before the rest of the input is read
+        assertThat(blocks.get(0), instanceOf(Heading.class));
+        assertTrue(readOffsets.get(0) < input.length());
+
+        // references defined after use are resolved
+        assertEquals("<h1>Heading</h1>\n<p>paragraph <a href=\"/url\">foo</a></p>\n<ul>\n<li>item 1</li>\n<li>item 2</li>\n</ul>\n<p>last paragraph</p>\n", HtmlRenderer.builder().build().render(document));
+    }
+
+    @Test
+    public void reparseTest() {
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+        String text = "# Heading\n\nparagraph [foo]\n\n- item 1\n- item 2\n\n[foo]: /url\n\nlast paragraph\n";
+        Document document = parser.parse(text);
+
+        // edit inside a paragraph
+        TextEdit edit = TextEdit.insert(text.indexOf(" [foo]"), " text");
+        text = edit.apply(text);
+        assertSame(document, parser.reparse(document, edit));
+        assertEquals("<h1>Heading</h1>\n<p>paragraph text <a href=\"/url\">foo</a></p>\n<ul>\n<li>item 1</li>\n<li>item 2</li>\n</ul>\n<p>last paragraph</p>\n", renderer.render(document));
+
+        // changed reference definition updates paragraph using it
+        int urlOffset = text.indexOf("/url");
+        edit = TextEdit.of(urlOffset, urlOffset + 4, "/changed");
+        text = edit.apply(text);
+        assertSame(document, parser.reparse(document, edit));
+        assertEquals(renderer.render(parser.parse(text)), renderer.render(document));
+        assertEquals(text, document.getChars().toString());
+
+        // edit changing the structure of following blocks
+        edit = TextEdit.insert(text.indexOf("- item 1"), "```\n");
+        text = edit.apply(text);
+        document = parser.reparse(document, edit);
+        assertEquals(renderer.render(parser.parse(text)), renderer.render(document));
+    }
+
+    @Test
+    public void reparseSpecTest() {
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder().escapeHtml(true).build();
+        String[] insertions = { "*", "\n", "\n\n", "# ", "- ", "1. ", "> ", "```\n", "    ", "[foo]", "[foo]: /url\n", "text", "===\n", "<div>\n", };
+        Random random = new Random(7);
+
+        String text = TestSpecLocator.DEFAULT_RESOURCE_LOCATION.getResourceText();
+        text = text.substring(0, text.length() / 8);
+        Document document = parser.parse(text);
+        int incremental = 0;
+
+        for (int i = 0; i < 100; i++) {
+            int offset = random.nextInt(text.length() + 1);
+            TextEdit edit = random.nextBoolean()
+                    ? TextEdit.insert(offset, insertions[random.nextInt(insertions.length)])
+                    : TextEdit.delete(offset, Math.min(text.length(), offset + random.nextInt(20)));
+
+            text = edit.apply(text);
+            Document reparsed = parser.reparse(document, edit);
+            if (reparsed == document) incremental++;
+            document = reparsed;
+
+            Document expected = parser.parse(text);
+            assertEquals("edit " + i + " " + edit, renderer.render(expected), renderer.render(document));
+            assertEquals("edit " + i + " " + edit, new AstCollectingVisitor().collectAndGetAstText(expected), new AstCollectingVisitor().collectAndGetAstText(document));
+            assertSameBase(document);
+        }
+
+        // most edits do not need a full parse
+        assertTrue(incremental > 50);
+    }
+
+    @Test
+    public void reparseOffsetsTest() {
+        Parser parser = Parser.builder(new MutableDataSet().set(Parser.TRACK_DOCUMENT_LINES, true)).build();
+        String text = "# Heading\n\nparagraph *emphasis* [foo]\n\n- item 1\n- item 2\n\n    code\n\n[foo]: /url 'title'\n\nlast `code` paragraph\n";
+        Document document = parser.parse(text);
+
+        TextEdit edit = TextEdit.insert(text.indexOf("item 1"), "new ");
+        text = edit.apply(text);
+        assertSame(document, parser.reparse(document, edit));
+
+        Document expected = parser.parse(text);
+        assertEquals(new AstCollectingVisitor().collectAndGetAstText(expected), new AstCollectingVisitor().collectAndGetAstText(document));
+        assertSameBase(document);
+
+        // kept block after the edit
+        Node last = document.getLastChild();
+        assertEquals(expected.getLastChild().getStartOffset(), last.getStartOffset());
+        assertEquals(text.substring(last.getStartOffset(), last.getEndOffset()), last.getChars().toString());
+        assertEquals(expected.getLineNumber(last.getStartOffset()), document.getLineNumber(last.getStartOffset()));
+
+        HtmlRenderer renderer = HtmlRenderer.builder(new MutableDataSet().set(HtmlRenderer.SOURCE_POSITION_ATTRIBUTE, "md-pos")).build();
+        assertEquals(renderer.render(expected), renderer.render(document));
+    }
+
+    private static void assertSameBase(Document document) {
+        Object base = document.getChars().getBase();
+        for (Node node : document.getDescendants()) {
+            assertSame(node.toString(), base, node.getChars().getBase());
+        }
+    }
+
+    @Test
+    public void parallelInlineParsingTest() {
+        parallelInlineParsingTest(4);
+    }
+
+    @Test
+    public void parallelInlineParsingSingleWorkerTest() {
+        // calling thread helps the single worker, each needs its own inline parser
+        parallelInlineParsingTest(1);
+    }
+
+    private static void parallelInlineParsingTest(int parallelism) {
+        String spec = TestSpecLocator.DEFAULT_RESOURCE_LOCATION.getResourceText();
+        Parser parser = Parser.builder().build();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try {
+            Parser parallelParser = Parser.builder(new MutableDataSet()
+                    .set(Parser.PARALLEL_INLINE_PARSING, true)
+                    .set(Parser.PARALLEL_INLINE_PARSING_BATCH_SIZE, 8)
+                    .set(Parser.PARALLEL_INLINE_PARSING_POOL, pool)
+            ).build();
+
+            HtmlRenderer renderer = HtmlRenderer.builder().escapeHtml(true).build();
+            Document document = parser.parse(spec);
+            Document parallelDocument = parallelParser.parse(spec);
+
+            assertEquals(new AstCollectingVisitor().collectAndGetAstText(document), new AstCollectingVisitor().collectAndGetAstText(parallelDocument));
+            assertEquals(renderer.render(document), renderer.render(parallelDocument));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static class ChunkReader extends Reader {
+        final String text;
+        final int chunkSize;
+        int offset;
+
+        ChunkReader(String text, int chunkSize) {
+            this.text = text;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int read(char @NotNull [] buffer, int off, int len) {
+            if (offset >= text.length()) return -1;
+            int count = Math.min(Math.min(len, chunkSize), text.length() - offset);
+            text.getChars(offset, offset + count, buffer, off);
+            offset += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
     @Test
     public void customBlockParserFactory() {
         Parser parser = Parser.builder().customBlockParserFactory(new DashBlockParserFactory()).build();
@@ -69,6 +387,17 @@ final public class ParserTest {
         assertThat(document.getLastChild(), instanceOf(DashBlock.class));
     }
 
+    @Test
+    public void lineAccessors() {
+        LineCheckingBlockParserFactory factory = new LineCheckingBlockParserFactory();
+        Parser parser = Parser.builder().customBlockParserFactory(factory).build();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+        String text = "para\r\n\r\n> quote\r\n>\tquote\n\t- item\n\n```\ncode\n```\n# heading\n***\nlast";
+
+        assertEquals(renderer.render(Parser.builder().build().parse(text)), renderer.render(parser.parse(text)));
+        assertTrue(factory.lines > 0);
+    }
+
     @Test
     public void indentation() {
         String given = " - 1 space\n   - 3 spaces\n     - 5 spaces\n\t - tab + space";
@@ -707,6 +1036,52 @@ final public class ParserTest {
         }
     }
 
+    public static class LineCheckingBlockParserFactory implements CustomBlockParserFactory {
+        int lines;
+
+        @Nullable
+        @Override
+        public Set<Class<?>> getAfterDependents() {
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public Set<Class<?>> getBeforeDependents() {
+            return null;
+        }
+
+        @Override
+        public boolean affectsGlobalScope() {
+            return false;
+        }
+
+        @NotNull
+        @Override
+        public BlockParserFactory apply(@NotNull DataHolder options) {
+            return new AbstractBlockParserFactory(options) {
+                @Override
+                public BlockStart tryStart(ParserState state, MatchedBlockParser matchedBlockParser) {
+                    // index accessors must agree with the line sequence
+                    int length = state.getLineLength();
+                    char nextNonSpaceChar = state.getNextNonSpaceChar();
+                    BasedSequence line = state.getLine();
+
+                    assertSame(line, state.getLine());
+                    assertEquals(line.length(), length);
+                    assertEquals(line.safeCharAt(state.getNextNonSpaceIndex()), nextNonSpaceChar);
+                    for (int i = -1; i <= length; i++) {
+                        assertEquals(line.safeCharAt(i), state.getLineChar(i));
+                    }
+                    assertTrue(state.getLineWithEOL().startsWith(line));
+                    assertEquals(state.getLineStart(), line.getStartOffset());
+                    lines++;
+                    return BlockStart.none();
+                }
+            };
+        }
+    }
+
     private static class BlockFactory extends AbstractBlockParserFactory {
         BlockFactory(DataHolder options) {
             super(options);
@@ -0,0 +1,151 @@
+package com.vladsch.flexmark.core.test.util.parser;
+
+import com.vladsch.flexmark.ast.Code;
+import com.vladsch.flexmark.ast.Emphasis;
+import com.vladsch.flexmark.ast.SoftLineBreak;
+import com.vladsch.flexmark.ast.Text;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.parser.block.NodePostProcessor;
+import com.vladsch.flexmark.parser.block.NodePostProcessorFactory;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.ast.NodeTracker;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.junit.Assert.assertEquals;
+
+public class PostProcessorManagerTest {
+    // distinct classes so the factories are not dependency duplicates of each other
+    static class FirstFactory extends RecordingFactory {
+        FirstFactory(BiConsumer<NodeTracker, Node> action, Class<?>... excludeDescendantsOf) {
+            super(action, excludeDescendantsOf);
+        }
+    }
+
+    static class SecondFactory extends RecordingFactory {
+        SecondFactory(BiConsumer<NodeTracker, Node> action, Class<?>... excludeDescendantsOf) {
+            super(action, excludeDescendantsOf);
+        }
+    }
+
+    static class RecordingFactory extends NodePostProcessorFactory {
+        final List<String> processed = new ArrayList<>();
+        final BiConsumer<NodeTracker, Node> action;
+
+        RecordingFactory(BiConsumer<NodeTracker, Node> action, Class<?>... excludeDescendantsOf) {
+            super(false);
+            this.action = action;
+            addNodeWithExclusions(Text.class, excludeDescendantsOf);
+        }
+
+        @NotNull
+        @Override
+        public NodePostProcessor apply(@NotNull Document document) {
+            return new NodePostProcessor() {
+                @Override
+                public void process(@NotNull NodeTracker state, @NotNull Node node) {
+                    processed.add(node.getChars().toString());
+                    action.accept(state, node);
+                }
+            };
+        }
+    }
+
+    static void parse(String markdown, RecordingFactory... factories) {
+        Parser.Builder builder = Parser.builder();
+        for (RecordingFactory factory : factories) {
+            builder.postProcessorFactory(factory);
+        }
+        builder.build().parse(markdown);
+    }
+
+    static void none(NodeTracker state, Node node) {
+    }
+
+    @Test
+    public void test_documentOrder() {
+        RecordingFactory first = new FirstFactory(PostProcessorManagerTest::none);
+        RecordingFactory second = new SecondFactory(PostProcessorManagerTest::none);
+        parse("# a\n\nb *c* d\n\n> e\n", first, second);
+
+        assertEquals(Arrays.asList("a", "b ", "c", " d", "e"), first.processed);
+        assertEquals(first.processed, second.processed);
+    }
+
+    @Test
+    public void test_addedNodes() {
+        // nodes added by a post processor are processed by the post processors after it
+        RecordingFactory first = new FirstFactory((state, node) -> {
+            if (node.getChars().toString().equals("a")) {
+                Text added = new Text(node.getChars().subSequence(0, 1));
+                node.insertAfter(added);
+                state.nodeAdded(added);
+            }
+        });
+        RecordingFactory second = new SecondFactory(PostProcessorManagerTest::none);
+        parse("a\n\nb\n", first, second);
+
+        assertEquals(Arrays.asList("a", "b"), first.processed);
+        assertEquals(Arrays.asList("a", "b", "a"), second.processed);
+    }
+
+    @Test
+    public void test_removedNodes() {
+        RecordingFactory first = new FirstFactory((state, node) -> {
+            if (node.getChars().toString().equals("a")) {
+                Node removed = node.getParent().getNext().getFirstChild();
+                removed.unlink();
+                state.nodeRemoved(removed);
+            }
+        });
+        RecordingFactory second = new SecondFactory(PostProcessorManagerTest::none);
+        parse("a\n\nb\n\nc\n", first, second);
+
+        assertEquals(Arrays.asList("a", "c"), first.processed);
+        assertEquals(Arrays.asList("a", "c"), second.processed);
+    }
+
+    @Test
+    public void test_excludedAncestors() {
+        RecordingFactory first = new FirstFactory(PostProcessorManagerTest::none, Code.class);
+        RecordingFactory second = new SecondFactory(PostProcessorManagerTest::none, Emphasis.class);
+        parse("a `b` *c `d`* e\n", first, second);
+
+        assertEquals(Arrays.asList("a ", " ", "c ", " e"), first.processed);
+        assertEquals(Arrays.asList("a ", "b", " ", " e"), second.processed);
+    }
+
+    @Test
+    public void test_excludedLeafSibling() {
+        // an excluded leaf node does not exclude its following siblings
+        RecordingFactory first = new FirstFactory(PostProcessorManagerTest::none, SoftLineBreak.class);
+        parse("a\nb\n", first);
+
+        assertEquals(Arrays.asList("a", "b"), first.processed);
+    }
+
+    @Test
+    public void test_addedExcludedAncestor() {
+        // wrapping a node into an added excluded ancestor excludes it from post processors after it
+        RecordingFactory first = new FirstFactory((state, node) -> {
+            if (node.getChars().toString().equals("b")) {
+                Emphasis emphasis = new Emphasis(node.getChars());
+                node.insertBefore(emphasis);
+                node.unlink();
+                emphasis.appendChild(node);
+                state.nodeAdded(emphasis);
+            }
+        });
+        RecordingFactory second = new SecondFactory(PostProcessorManagerTest::none, Emphasis.class);
+        parse("a\n\nb\n\nc\n", first, second);
+
+        assertEquals(Arrays.asList("a", "b", "c"), first.processed);
+        assertEquals(Arrays.asList("a", "c"), second.processed);
+    }
+}
@@ -0,0 +1,58 @@
+package com.vladsch.flexmark.core.test.util.renderer;
+
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.test.specs.TestSpecLocator;
+import com.vladsch.flexmark.test.util.spec.SpecReader;
+import com.vladsch.flexmark.util.ast.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Small document render throughput, each spec example parsed up front and rendered as a separate document
+ */
+@State(Scope.Thread)
+public class HtmlRendererBenchmark {
+    final private static HtmlRenderer RENDERER = HtmlRenderer.builder().build();
+
+    private List<Document> documents;
+    private StringBuilder out;
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(HtmlRendererBenchmark.class.getName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setup() {
+        Parser parser = Parser.builder().build();
+        documents = new ArrayList<>();
+        for (String example : SpecReader.createAndReadExamples(TestSpecLocator.DEFAULT_RESOURCE_LOCATION, false).getExamplesSourceAsString()) {
+            documents.add(parser.parse(example));
+        }
+        out = new StringBuilder();
+    }
+
+    @Benchmark
+    public long renderExamples() {
+        long count = 0;
+        for (Document document : documents) {
+            out.setLength(0);
+            RENDERER.render(document, out);
+            count += out.length();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,87 @@
+package com.vladsch.flexmark.docx.converter;
+
+import com.vladsch.flexmark.docx.converter.util.DocxImage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Loaded images shared between renders, keyed by resolved image URL
+ * <p>
+ * Set {@link DocxRenderer#IMAGE_CACHE} to use a cache, least recently used images are dropped once the total
+ * size of cached image bytes exceeds the maximum.
+ * <p>
+ * NOTE: images are not reloaded when the content behind a URL changes, use a cache only for stable image URLs
+ */
+public class DocxImageCache {
+    final public static long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    final private long maxBytes;
+    final private LinkedHashMap<String, DocxImage> images;
+    private long bytes;
+
+    public DocxImageCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public DocxImageCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be > 0, got: " + maxBytes);
+        }
+
+        this.maxBytes = maxBytes;
+        this.images = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return total length of cached image bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return images.size();
+    }
+
+    public synchronized void clear() {
+        images.clear();
+        bytes = 0;
+    }
+
+    @Nullable
+    public synchronized DocxImage get(@NotNull String url) {
+        return images.get(url);
+    }
+
+    /**
+     * Add an image, images larger than the maximum cache size are not added
+     *
+     * @param url   resolved image url
+     * @param image image loaded from the url
+     */
+    public synchronized void put(@NotNull String url, @NotNull DocxImage image) {
+        int length = image.getBytes().length;
+        if (length > maxBytes) return;
+
+        DocxImage previous = images.put(url, image);
+        if (previous != null) {
+            bytes -= previous.getBytes().length;
+        }
+        bytes += length;
+
+        Iterator<Map.Entry<String, DocxImage>> iterator = images.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            DocxImage eldest = iterator.next().getValue();
+            iterator.remove();
+            bytes -= eldest.getBytes().length;
+        }
+    }
+}
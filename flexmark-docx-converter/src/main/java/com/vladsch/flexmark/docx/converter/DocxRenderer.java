@@ -1,9 +1,14 @@
 package com.vladsch.flexmark.docx.converter;
 
+import com.vladsch.flexmark.ast.Image;
+import com.vladsch.flexmark.ast.ImageRef;
+import com.vladsch.flexmark.ast.Reference;
 import com.vladsch.flexmark.docx.converter.internal.CoreNodeDocxRenderer;
 import com.vladsch.flexmark.docx.converter.internal.DocxLinkResolver;
 import com.vladsch.flexmark.docx.converter.util.DocumentContentHandler;
 import com.vladsch.flexmark.docx.converter.util.DocxContextImpl;
+import com.vladsch.flexmark.docx.converter.util.DocxImage;
+import com.vladsch.flexmark.docx.converter.util.ResolvedContentPrefetcher;
 import com.vladsch.flexmark.docx.converter.util.XmlDocxSorter;
 import com.vladsch.flexmark.docx.converter.util.XmlFormatter;
 import com.vladsch.flexmark.ext.emoji.EmojiExtension;
@@ -17,12 +22,14 @@ import com.vladsch.flexmark.util.collection.TwoWayHashMap;
 import com.vladsch.flexmark.util.data.DataHolder;
 import com.vladsch.flexmark.util.data.DataKey;
 import com.vladsch.flexmark.util.data.MutableDataHolder;
+import com.vladsch.flexmark.util.data.NullableDataKey;
 import com.vladsch.flexmark.util.data.ScopedDataSet;
 import com.vladsch.flexmark.util.dependency.DependencyResolver;
 import com.vladsch.flexmark.util.html.Attributes;
 import com.vladsch.flexmark.util.html.MutableAttribute;
 import com.vladsch.flexmark.util.html.MutableAttributes;
 import com.vladsch.flexmark.util.misc.Extension;
+import com.vladsch.flexmark.util.misc.ImageUtils;
 import com.vladsch.flexmark.util.sequence.Escaping;
 import org.docx4j.Docx4J;
 import org.docx4j.XmlUtils;
@@ -43,6 +50,7 @@ import org.jetbrains.annotations.Nullable;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Renders a tree of nodes to docx4j API.
@@ -83,6 +91,13 @@ public class DocxRenderer implements IRender {
     final public static DataKey<Boolean> TOC_GENERATE = new DataKey<>("TOC_GENERATE", false);
     final public static DataKey<String> TOC_INSTRUCTION = new DataKey<>("TOC_INSTRUCTION", "TOC \\o \"1-3\" \\h \\z \\u ");
     final public static DataKey<Boolean> LOG_IMAGE_PROCESSING = new DataKey<>("LOG_IMAGE_PROCESSING", false);
+    // resolve content of all image URLs concurrently before rendering, except images in IMAGE_CACHE
+    // NOTE: link resolvers are called on the rendering thread, content resolvers on prefetching threads and must be thread safe
+    final public static DataKey<Boolean> PREFETCH_IMAGES = new DataKey<>("PREFETCH_IMAGES", false);
+    final public static DataKey<Integer> PREFETCH_IMAGES_THREADS = new DataKey<>("PREFETCH_IMAGES_THREADS", 8);
+    // executor to use for prefetching, null for up to PREFETCH_IMAGES_THREADS threads per render, virtual threads where available
+    final public static NullableDataKey<ExecutorService> PREFETCH_IMAGES_EXECUTOR = new NullableDataKey<>("PREFETCH_IMAGES_EXECUTOR");
+    final public static NullableDataKey<DocxImageCache> IMAGE_CACHE = new NullableDataKey<>("IMAGE_CACHE"); // loaded images shared between renders, null to load images for every document
     final public static DataKey<Boolean> NO_CHARACTER_STYLES = new DataKey<>("NO_CHARACTER_STYLES", false);
     final public static DataKey<String> CODE_HIGHLIGHT_SHADING = new DataKey<>("CODE_HIGHLIGHT_SHADING", "");
     final public static DataKey<Boolean> ERRORS_TO_STDERR = new DataKey<>("ERRORS_TO_STDERR", false);
@@ -217,19 +232,24 @@ public class DocxRenderer implements IRender {
         return getDefaultTemplate((DataHolder) null);
     }
 
+    /**
+     * Get a new package for the template resource, the template is parsed once and cached in {@link DocxTemplateCache#getDefault()}
+     *
+     * @param emptyXMLResourcePath template classpath resource
+     * @return new package or null if the template could not be loaded
+     */
     public static WordprocessingMLPackage getDefaultTemplate(String emptyXMLResourcePath) {
-        InputStream inputStream = getResourceInputStream(emptyXMLResourcePath);
-        return getDefaultTemplate(inputStream);
+        return DocxTemplateCache.getDefault().get(emptyXMLResourcePath);
     }
 
+    /**
+     * Get a new package for the template content, the template is parsed once and cached in {@link DocxTemplateCache#getDefault()}
+     *
+     * @param inputStream template content
+     * @return new package or null if the template could not be loaded
+     */
     public static WordprocessingMLPackage getDefaultTemplate(InputStream inputStream) {
-        try {
-            WordprocessingMLPackage mlPackage = WordprocessingMLPackage.load(inputStream);
-            return mlPackage;
-        } catch (Docx4JException e) {
-            e.printStackTrace();
-        }
-        return null;
+        return DocxTemplateCache.getDefault().get(inputStream);
     }
 
     public static void setPageSize(WordprocessingMLPackage out, PageSizePaper sz, boolean landscape) {
@@ -888,6 +908,61 @@ public class DocxRenderer implements IRender {
             return resolvedContent;
         }
 
+        // same resolution as resolvedContent() with image URLs not resolved by content resolvers downloaded here
+        ResolvedContent resolveImageContent(@NotNull Node node, @NotNull ResolvedContent resolvedContent) {
+            for (UriContentResolver contentResolver : myContentResolvers) {
+                resolvedContent = contentResolver.resolveContent(node, this, resolvedContent);
+                if (resolvedContent.getStatus() != LinkStatus.UNKNOWN) break;
+            }
+
+            String url = resolvedContent.getResolvedLink().getUrl();
+            if (resolvedContent.getStatus() != LinkStatus.VALID && (url.startsWith("http:") || url.startsWith("https:"))) {
+                byte[] bytes = DocxImage.loadBytesFromURL(url, rendererOptions.logImageProcessing);
+                if (bytes != null) {
+                    resolvedContent = resolvedContent.withContent(bytes).withStatus(LinkStatus.VALID);
+                }
+            }
+            return resolvedContent;
+        }
+
+        void prefetchImageContent(@NotNull Document document) {
+            ResolvedContentPrefetcher prefetcher = new ResolvedContentPrefetcher(this::resolveImageContent,
+                    PREFETCH_IMAGES_EXECUTOR.get(options), Math.max(1, PREFETCH_IMAGES_THREADS.get(options)));
+            DocxImageCache imageCache = IMAGE_CACHE.get(options);
+
+            new AllNodesVisitor() {
+                @Override
+                protected void process(@NotNull Node node) {
+                    String url = null;
+                    if (node instanceof Image) {
+                        // images with url content are rendered with a different url, not prefetched
+                        if (((Image) node).getUrlContent().isEmpty()) {
+                            url = ((Image) node).getUrl().unescape();
+                        }
+                    } else if (node instanceof ImageRef) {
+                        Reference reference = ((ImageRef) node).getReferenceNode(document);
+                        if (reference != null) {
+                            url = reference.getUrl().unescape();
+                        }
+                    }
+
+                    if (url != null && !url.isEmpty() && !url.startsWith(EMOJI_RESOURCE_PREFIX) && !ImageUtils.isEncodedImage(url)) {
+                        renderingNode = node;
+                        ResolvedLink resolvedLink = resolveLink(LinkType.IMAGE, url, null, null);
+                        renderingNode = null;
+
+                        // images in the image cache are rendered without resolving their content
+                        String resolvedUrl = resolvedLink.getUrl();
+                        if (!resolvedContentMap.containsKey(resolvedUrl) && (imageCache == null || imageCache.get(resolvedUrl) == null)) {
+                            prefetcher.add(node, resolvedLink);
+                        }
+                    }
+                }
+            }.visit(document);
+
+            resolvedContentMap.putAll(prefetcher.resolve());
+        }
+
         @Override
         public void render(@NotNull Node node) {
             if (node instanceof Document) {
@@ -904,6 +979,10 @@ public class DocxRenderer implements IRender {
                     }
                 }.visit(document);
 
+                if (PREFETCH_IMAGES.get(options)) {
+                    prefetchImageContent(document);
+                }
+
                 // here we render multiple phases
                 for (DocxRendererPhase phase : DocxRendererPhase.values()) {
                     if (phase != DocxRendererPhase.DOCUMENT && !renderingPhases.contains(phase)) { continue; }
@@ -0,0 +1,234 @@
+package com.vladsch.flexmark.docx.converter;
+
+import org.docx4j.convert.out.common.preprocess.PartialDeepCopy;
+import org.docx4j.openpackaging.contenttype.CTDefault;
+import org.docx4j.openpackaging.contenttype.CTOverride;
+import org.docx4j.openpackaging.contenttype.ContentTypeManager;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of parsed DOCX templates
+ * <p>
+ * Each template is parsed and unmarshalled once and kept as a template package which is never handed out. Every {@link #get}
+ * returns a deep copy of it: XML parts are copied with {@link org.docx4j.XmlUtils#deepCopy(Object)}, binary parts and the
+ * content types are copied too, so renders never share mutable parts and the template is not unmarshalled again.
+ * Least recently used templates are dropped once the cache holds more than its maximum size.
+ * <p>
+ * NOTE: copies of the same template are made one at a time, reading a binary part moves its shared buffer position.
+ * Templates that fail to load are not cached, they are retried on the next request.
+ */
+public class DocxTemplateCache {
+    final public static int DEFAULT_MAX_SIZE = 16;
+
+    interface Loader {
+        /**
+         * @param source template in any format accepted by {@link WordprocessingMLPackage#load(InputStream)}
+         * @return template package
+         */
+        WordprocessingMLPackage parse(@NotNull InputStream source) throws Exception;
+
+        /**
+         * @param template template package returned by {@link #parse(InputStream)}, not modified
+         * @return independent copy of the template
+         */
+        WordprocessingMLPackage copy(@NotNull WordprocessingMLPackage template) throws Exception;
+    }
+
+    final private static Loader DOCX4J_LOADER = new Loader() {
+        @Override
+        public WordprocessingMLPackage parse(@NotNull InputStream source) throws Exception {
+            return WordprocessingMLPackage.load(source);
+        }
+
+        @Override
+        public WordprocessingMLPackage copy(@NotNull WordprocessingMLPackage template) throws Exception {
+            // deep copies all parts, relationships are immutable and shared but the content type manager is not copied
+            WordprocessingMLPackage copy = (WordprocessingMLPackage) PartialDeepCopy.process(template, null);
+
+            // content types are added for images and other parts created while rendering
+            ContentTypeManager contentTypes = new ContentTypeManager();
+            ContentTypeManager templateContentTypes = template.getContentTypeManager();
+            for (Map.Entry<String, CTDefault> entry : templateContentTypes.getDefaultContentType().entrySet()) {
+                contentTypes.addDefaultContentType(entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<URI, CTOverride> entry : templateContentTypes.getOverrideContentType().entrySet()) {
+                contentTypes.addOverrideContentType(entry.getKey(), entry.getValue());
+            }
+            copy.setContentTypeManager(contentTypes);
+            return copy;
+        }
+    };
+
+    final private static class ContentKey {
+        final byte[] content;
+        final int hashCode;
+
+        ContentKey(byte[] content) {
+            this.content = content;
+            this.hashCode = Arrays.hashCode(content);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof ContentKey && hashCode == ((ContentKey) o).hashCode && Arrays.equals(content, ((ContentKey) o).content);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static class DefaultHolder {
+        final private static DocxTemplateCache INSTANCE = new DocxTemplateCache(DEFAULT_MAX_SIZE);
+    }
+
+    final private int maxSize;
+    final private Loader loader;
+    final private LinkedHashMap<Object, WordprocessingMLPackage> templates;
+
+    public DocxTemplateCache(int maxSize) {
+        this(maxSize, DOCX4J_LOADER);
+    }
+
+    DocxTemplateCache(int maxSize, @NotNull Loader loader) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0, got: " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        this.loader = loader;
+        this.templates = new LinkedHashMap<Object, WordprocessingMLPackage>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, WordprocessingMLPackage> eldest) {
+                return size() > DocxTemplateCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Cache used by {@link DocxRenderer#getDefaultTemplate(String)} and {@link DocxRenderer#getDefaultTemplate(InputStream)}
+     *
+     * @return shared cache instance
+     */
+    public static DocxTemplateCache getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        synchronized (templates) {
+            return templates.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (templates) {
+            templates.clear();
+        }
+    }
+
+    /**
+     * Get a new package for the template classpath resource
+     *
+     * @param resourcePath template resource path, resolved by {@link DocxRenderer#getResourceInputStream(String)}
+     * @return new package or null if the template could not be loaded
+     */
+    @Nullable
+    public WordprocessingMLPackage get(@NotNull String resourcePath) {
+        String key = "resource:" + resourcePath;
+        WordprocessingMLPackage template = getTemplate(key);
+        if (template == null) {
+            try (InputStream inputStream = DocxRenderer.getResourceInputStream(resourcePath)) {
+                template = parse(key, inputStream);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return copy(template);
+    }
+
+    /**
+     * Get a new package for the template content, templates with identical content share the template package
+     *
+     * @param inputStream template content, read to the end but not closed
+     * @return new package or null if the template could not be loaded
+     */
+    @Nullable
+    public WordprocessingMLPackage get(@NotNull InputStream inputStream) {
+        byte[] content;
+        try {
+            content = readAll(inputStream);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        ContentKey key = new ContentKey(content);
+        WordprocessingMLPackage template = getTemplate(key);
+        if (template == null) {
+            template = parse(key, new ByteArrayInputStream(content));
+        }
+        return copy(template);
+    }
+
+    private WordprocessingMLPackage getTemplate(Object key) {
+        synchronized (templates) {
+            return templates.get(key);
+        }
+    }
+
+    // parsing is done outside the lock, concurrent misses on the same template may parse it more than once
+    private WordprocessingMLPackage parse(Object key, InputStream source) {
+        WordprocessingMLPackage template;
+        try {
+            template = loader.parse(source);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        synchronized (templates) {
+            WordprocessingMLPackage previous = templates.putIfAbsent(key, template);
+            return previous != null ? previous : template;
+        }
+    }
+
+    private WordprocessingMLPackage copy(WordprocessingMLPackage template) {
+        if (template == null) return null;
+
+        try {
+            // copying reads the template's binary part buffers, which is not thread safe
+            synchronized (template) {
+                return loader.copy(template);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -110,6 +110,8 @@ public class CoreNodeDocxRenderer implements PhasedNodeDocxRenderer {
     protected final int tableLeftIndent;
     protected final String tableStyle;
     private int imageId;
+    final private DocxImageCache imageCache;
+    final private HashMap<String, BinaryPartAbstractImage> imageParts = new HashMap<>(); // image parts by container part and image content hash
     @SuppressWarnings("MismatchedQueryAndUpdateOfCollection") final private HashMap<Node, BigInteger> footnoteIDs; // cannot re-use footnote ids, so this is dead code, left in for future if needed
     private TocBlockBase lastTocBlock;
     private long[] numberedLists = new long[128];
@@ -148,6 +150,7 @@ public class CoreNodeDocxRenderer implements PhasedNodeDocxRenderer {
         tablePreferredWidthPct = DocxRenderer.TABLE_PREFERRED_WIDTH_PCT.get(options);
         tableLeftIndent = DocxRenderer.TABLE_LEFT_INDENT.get(options);
         tableStyle = DocxRenderer.TABLE_STYLE.get(options);
+        imageCache = DocxRenderer.IMAGE_CACHE.get(options);
         repositoryNodesDone = false;
         footnoteRepository = FootnoteExtension.FOOTNOTES.get(options);
         footnoteRepository.resolveFootnoteOrdinals();
@@ -1537,10 +1540,32 @@ public class CoreNodeDocxRenderer implements PhasedNodeDocxRenderer {
     }
 
     public R newImage(DocxRendererContext docx, BufferedImage image, String filenameHint, Attributes attributes, int id1, int id2, double scale) {
+        DocxImage docxImage = DocxImage.of(image);
+        return docxImage == null ? null : newImage(docx, docxImage, filenameHint, attributes, id1, id2, scale);
+    }
+
+    /**
+     * Get the image part for the image in the current container part, identical images share a single part
+     *
+     * @param docx  rendering context
+     * @param image image to embed
+     * @return image part
+     * @throws Exception if part could not be created
+     */
+    BinaryPartAbstractImage getImagePart(DocxRendererContext docx, DocxImage image) throws Exception {
+        Part containerPart = docx.getContainerPart();
+        String key = containerPart.getPartName().getName() + "#" + image.getContentHash();
+        BinaryPartAbstractImage imagePart = imageParts.get(key);
+        if (imagePart == null) {
+            imagePart = BinaryPartAbstractImage.createImagePart(docx.getPackage(), containerPart, image.getBytes());
+            imageParts.put(key, imagePart);
+        }
+        return imagePart;
+    }
+
+    public R newImage(DocxRendererContext docx, DocxImage image, String filenameHint, Attributes attributes, int id1, int id2, double scale) {
         try {
-            BinaryPartAbstractImage imagePart = null;
-            byte[] imageBytes = ImageUtils.getImageBytes(image);
-            imagePart = BinaryPartAbstractImage.createImagePart(docx.getPackage(), docx.getContainerPart(), imageBytes);
+            BinaryPartAbstractImage imagePart = getImagePart(docx, image);
             Inline inline = null;
             Anchor anchor = null;
             String altText = attributes.contains("alt") ? attributes.getValue("alt") : "";
@@ -1786,7 +1811,7 @@ public class CoreNodeDocxRenderer implements PhasedNodeDocxRenderer {
     }
 
     private R renderImage(DocxRendererContext docx, ResolvedLink resolvedLink, MutableAttributes attributes, double scale) {
-        BufferedImage image = null;
+        DocxImage image = null;
         int id1 = imageId++;
         int id2 = imageId++;
         String filenameHint = String.format(Locale.US, "Image%d", id1);
@@ -1800,17 +1825,25 @@ public class CoreNodeDocxRenderer implements PhasedNodeDocxRenderer {
         }
 
         if (ImageUtils.isEncodedImage(url)) {
-            image = ImageUtils.base64Decode(url);
+            image = DocxImage.base64Decode(url);
         } else {
-            ResolvedContent resolvedContent = docx.resolvedContent(resolvedLink);
-            if (resolvedContent.getStatus() == LinkStatus.VALID) {
-                image = ImageUtils.loadImageFromContent(resolvedContent.getContent(), resolvedLink.getUrl());
-            } else if (url.startsWith("http:") || url.startsWith("https:")) {
-                image = ImageUtils.loadImageFromURL(url, options.logImageProcessing);
-            }
+            image = imageCache == null ? null : imageCache.get(url);
+
+            if (image == null) {
+                ResolvedContent resolvedContent = docx.resolvedContent(resolvedLink);
+                if (resolvedContent.getStatus() == LinkStatus.VALID) {
+                    image = DocxImage.of(resolvedContent.getContent(), resolvedLink.getUrl());
+                } else if (url.startsWith("http:") || url.startsWith("https:")) {
+                    image = DocxImage.loadFromURL(url, options.logImageProcessing);
+                }
 
-            if (image == null && options.logImageProcessing) {
-                System.out.println("loadImageFromURL(" + url + ") returned null");
+                if (image == null) {
+                    if (options.logImageProcessing) {
+                        System.out.println("loadImageFromURL(" + url + ") returned null");
+                    }
+                } else if (imageCache != null) {
+                    imageCache.put(url, image);
+                }
             }
         }
 
@@ -0,0 +1,211 @@
+package com.vladsch.flexmark.docx.converter.util;
+
+import com.vladsch.flexmark.util.misc.ImageUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Encoded image bytes ready to be embedded in a docx package
+ * <p>
+ * Images in a format Word displays are kept as given, only their header is read for the dimensions.
+ * Other formats are decoded and re-encoded as PNG.
+ */
+final public class DocxImage {
+    final private byte[] bytes;
+    final private String format;
+    final private int width;
+    final private int height;
+    private String contentHash;
+
+    private DocxImage(byte[] bytes, String format, int width, int height) {
+        this.bytes = bytes;
+        this.format = format;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @return encoded image, not copied, must not be modified
+     */
+    @NotNull
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return lower case image format name: png, jpeg, gif or bmp
+     */
+    @NotNull
+    public String getFormat() {
+        return format;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return hex SHA-256 of the encoded image, equal for images with identical bytes
+     */
+    @NotNull
+    public String getContentHash() {
+        if (contentHash == null) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+                StringBuilder sb = new StringBuilder(digest.length * 2);
+                for (byte b : digest) {
+                    sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+                }
+                contentHash = sb.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return contentHash;
+    }
+
+    public static boolean isPassThroughFormat(String format) {
+        switch (format) {
+            case "png":
+            case "jpeg":
+            case "gif":
+            case "bmp":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Nullable
+    public static DocxImage of(@Nullable byte[] bytes) {
+        return of(bytes, "image");
+    }
+
+    /**
+     * @param bytes  encoded image
+     * @param idPath image description used in error messages
+     * @return image or null if the bytes are not a readable image
+     */
+    @Nullable
+    public static DocxImage of(@Nullable byte[] bytes, String idPath) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        try (ImageInputStream inputStream = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(inputStream);
+            if (readers.hasNext()) {
+                ImageReader reader = readers.next();
+                try {
+                    String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                    if (format.equals("jpg")) format = "jpeg";
+
+                    if (isPassThroughFormat(format)) {
+                        reader.setInput(inputStream, true, true);
+                        return new DocxImage(bytes, format, reader.getWidth(0), reader.getHeight(0));
+                    }
+                } finally {
+                    reader.dispose();
+                }
+            }
+        } catch (IOException | RuntimeException ignored) {
+            // fall through to full decoding
+        }
+
+        return of(ImageUtils.loadImageFromContent(bytes, idPath));
+    }
+
+    /**
+     * @param image decoded image
+     * @return image encoded as PNG or null if image is null
+     */
+    @Nullable
+    public static DocxImage of(@Nullable BufferedImage image) {
+        if (image == null) {
+            return null;
+        }
+
+        byte[] bytes = ImageUtils.getImageBytes(image);
+        return bytes == null ? null : new DocxImage(bytes, "png", image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * @param encoded data:image/...;base64, URL
+     * @return image or null if not a valid encoded image
+     */
+    @Nullable
+    public static DocxImage base64Decode(@Nullable String encoded) {
+        if (encoded == null) {
+            return null;
+        }
+
+        int pos = encoded.indexOf(',');
+        if (pos < 0) {
+            return null;
+        }
+
+        try {
+            return of(Base64.getMimeDecoder().decode(encoded.substring(pos + 1).getBytes(StandardCharsets.US_ASCII)), encoded.substring(0, pos));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param imageURL           url of the image
+     * @param logImageProcessing true if errors are to print to console
+     * @return image or null if failed to download
+     */
+    @Nullable
+    public static DocxImage loadFromURL(@Nullable String imageURL, boolean logImageProcessing) {
+        byte[] bytes = loadBytesFromURL(imageURL, logImageProcessing);
+        return bytes == null ? null : of(bytes, imageURL);
+    }
+
+    /**
+     * @param imageURL           url of the image
+     * @param logImageProcessing true if errors are to print to console
+     * @return image bytes as downloaded or null if failed to download
+     */
+    @Nullable
+    public static byte[] loadBytesFromURL(@Nullable String imageURL, boolean logImageProcessing) {
+        if (imageURL == null) {
+            return null;
+        }
+
+        try (InputStream inputStream = new URL(imageURL).openStream()) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            if (logImageProcessing) {
+                e.printStackTrace();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,134 @@
+package com.vladsch.flexmark.docx.converter.util;
+
+import com.vladsch.flexmark.html.renderer.LinkStatus;
+import com.vladsch.flexmark.html.renderer.ResolvedContent;
+import com.vladsch.flexmark.html.renderer.ResolvedLink;
+import com.vladsch.flexmark.util.ast.Node;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Resolves content of links concurrently, each distinct URL is resolved once
+ * <p>
+ * Used to fetch all image content of a document before rendering so that rendering only does map lookups.
+ * <p>
+ * NOTE: the content resolver is called from multiple threads
+ */
+public class ResolvedContentPrefetcher {
+    public interface ContentResolver {
+        /**
+         * @param node    node with the link
+         * @param content content with {@link LinkStatus#UNKNOWN} status
+         * @return resolved content, status other than {@link LinkStatus#VALID} if content not available
+         */
+        @NotNull
+        ResolvedContent resolveContent(@NotNull Node node, @NotNull ResolvedContent content);
+    }
+
+    private static class ThreadFactoryHolder {
+        final private static ThreadFactory INSTANCE = createThreadFactory();
+
+        private static ThreadFactory createThreadFactory() {
+            try {
+                // virtual threads, Java 21+
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException | RuntimeException ignored) {
+                return runnable -> {
+                    Thread thread = new Thread(runnable, "resolved-content-prefetch");
+                    thread.setDaemon(true);
+                    return thread;
+                };
+            }
+        }
+    }
+
+    final private ContentResolver contentResolver;
+    final private @Nullable ExecutorService executor;
+    final private int maxThreads;
+    final private LinkedHashMap<String, Node> links = new LinkedHashMap<>();
+    final private HashMap<String, ResolvedLink> resolvedLinks = new HashMap<>();
+
+    /**
+     * @param contentResolver content resolver
+     * @param executor        executor to use, null to use up to maxThreads threads created for each {@link #resolve()}
+     * @param maxThreads      maximum threads used when executor is null
+     */
+    public ResolvedContentPrefetcher(@NotNull ContentResolver contentResolver, @Nullable ExecutorService executor, int maxThreads) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("maxThreads must be > 0, got: " + maxThreads);
+        }
+
+        this.contentResolver = contentResolver;
+        this.executor = executor;
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * Add link to resolve, links with a URL already added are ignored
+     *
+     * @param node         node with the link
+     * @param resolvedLink resolved link
+     */
+    public void add(@NotNull Node node, @NotNull ResolvedLink resolvedLink) {
+        String url = resolvedLink.getUrl();
+        if (!links.containsKey(url)) {
+            links.put(url, node);
+            resolvedLinks.put(url, resolvedLink);
+        }
+    }
+
+    public int size() {
+        return links.size();
+    }
+
+    /**
+     * Resolve content of all added links and wait for completion
+     *
+     * @return resolved content by URL, links whose resolution failed with an exception are not included
+     */
+    @NotNull
+    public Map<String, ResolvedContent> resolve() {
+        HashMap<String, ResolvedContent> resolved = new HashMap<>();
+        if (links.isEmpty()) return resolved;
+
+        ExecutorService service = executor != null ? executor : Executors.newFixedThreadPool(Math.min(maxThreads, links.size()), ThreadFactoryHolder.INSTANCE);
+
+        try {
+            List<Future<ResolvedContent>> futures = new ArrayList<>(links.size());
+            for (Map.Entry<String, Node> entry : links.entrySet()) {
+                ResolvedContent content = new ResolvedContent(resolvedLinks.get(entry.getKey()), LinkStatus.UNKNOWN, null);
+                Node node = entry.getValue();
+                futures.add(service.submit(() -> contentResolver.resolveContent(node, content)));
+            }
+
+            int i = 0;
+            for (String url : links.keySet()) {
+                try {
+                    resolved.put(url, futures.get(i++).get());
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (service != executor) {
+                service.shutdownNow();
+            }
+        }
+
+        return resolved;
+    }
+}
@@ -16,6 +16,11 @@ import org.junit.runners.Suite;
         ComboDocxConverterIssuesSpecTest.class,
         ComboDocxConverterAttributeSpecTest.class,
         ComboDocxConverterFormSpecTest.class,
+        DocxTemplateCacheTest.class,
+        DocxImageTest.class,
+        DocxImageCacheTest.class,
+        DocxImageRenderTest.class,
+        ResolvedContentPrefetcherTest.class,
 })
 public class DocxConverterTestSuite {
 }
@@ -0,0 +1,67 @@
+package com.vladsch.flexmark.docx.converter;
+
+import com.vladsch.flexmark.docx.converter.util.DocxImage;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class DocxImageCacheTest {
+    static DocxImage image(int width) throws IOException {
+        return DocxImage.of(DocxImageTest.encode("bmp", width, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalidMaxBytes() {
+        new DocxImageCache(0);
+    }
+
+    @Test
+    public void test_get() throws IOException {
+        DocxImageCache cache = new DocxImageCache();
+        DocxImage image = image(10);
+
+        assertNull(cache.get("a.bmp"));
+        cache.put("a.bmp", image);
+        assertSame(image, cache.get("a.bmp"));
+        assertEquals(image.getBytes().length, cache.getBytes());
+
+        cache.put("a.bmp", image(20));
+        assertEquals(1, cache.size());
+        assertEquals(cache.get("a.bmp").getBytes().length, cache.getBytes());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    public void test_leastRecentlyUsedEvicted() throws IOException {
+        DocxImage a = image(100);
+        DocxImage b = image(100);
+        DocxImage c = image(100);
+        int length = a.getBytes().length;
+        DocxImageCache cache = new DocxImageCache(2L * length);
+
+        cache.put("a", a);
+        cache.put("b", b);
+        cache.get("a");
+        cache.put("c", c);
+
+        assertSame(a, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertSame(c, cache.get("c"));
+        assertEquals(2L * length, cache.getBytes());
+    }
+
+    @Test
+    public void test_largerThanCacheNotAdded() throws IOException {
+        DocxImage image = image(100);
+        DocxImageCache cache = new DocxImageCache(image.getBytes().length - 1);
+
+        cache.put("a", image);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+    }
+}
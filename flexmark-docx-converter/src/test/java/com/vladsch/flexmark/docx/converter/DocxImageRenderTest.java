@@ -0,0 +1,162 @@
+package com.vladsch.flexmark.docx.converter;
+
+import com.vladsch.flexmark.docx.converter.util.DocxImage;
+import com.vladsch.flexmark.html.UriContentResolver;
+import com.vladsch.flexmark.html.UriContentResolverFactory;
+import com.vladsch.flexmark.html.renderer.LinkResolverBasicContext;
+import com.vladsch.flexmark.html.renderer.LinkStatus;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.Part;
+import org.docx4j.openpackaging.parts.WordprocessingML.BinaryPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.BinaryPartAbstractImage;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+// needs a JAXB implementation on the class path, like all tests rendering into a docx package
+public class DocxImageRenderTest {
+    final private static Pattern EMBED = Pattern.compile(":embed=\"([^\"]+)\"");
+
+    private static WordprocessingMLPackage renderAndReload(String markdown, DataHolder options) throws Exception {
+        return renderAndReload(markdown, DocxRenderer.builder(options).build());
+    }
+
+    private static WordprocessingMLPackage renderAndReload(String markdown, DocxRenderer renderer) throws Exception {
+        DataHolder options = renderer.getOptions();
+        WordprocessingMLPackage mlPackage = DocxRenderer.getDefaultTemplate(options);
+        renderer.render(Parser.builder(options).build().parse(markdown), mlPackage);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        mlPackage.save(outputStream);
+        return WordprocessingMLPackage.load(new ByteArrayInputStream(outputStream.toByteArray()));
+    }
+
+    private static List<String> embeddedIds(MainDocumentPart documentPart) {
+        List<String> ids = new ArrayList<>();
+        Matcher matcher = EMBED.matcher(documentPart.getXML());
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids;
+    }
+
+    private static int imagePartCount(WordprocessingMLPackage mlPackage) {
+        int count = 0;
+        for (Part part : mlPackage.getParts().getParts().values()) {
+            if (part instanceof BinaryPartAbstractImage) count++;
+        }
+        return count;
+    }
+
+    private static byte[] embeddedBytes(MainDocumentPart documentPart, String id) {
+        Part part = documentPart.getRelationshipsPart().getPart(documentPart.getRelationshipsPart().getRelationshipByID(id));
+        return ((BinaryPart) part).getBytes();
+    }
+
+    @Test
+    public void test_repeatedImagesShareParts() throws Exception {
+        byte[] image1 = DocxImageTest.encode("png", 4, 3);
+        byte[] image2 = DocxImageTest.encode("png", 5, 3);
+        String url1 = "data:image/png;base64," + Base64.getEncoder().encodeToString(image1);
+        String url2 = "data:image/png;base64," + Base64.getEncoder().encodeToString(image2);
+        String markdown = "![a](" + url1 + ") ![b](" + url1 + ")\n\n![c](" + url2 + ")\n\n![d](" + url1 + ")\n";
+
+        WordprocessingMLPackage mlPackage = renderAndReload(markdown, new MutableDataSet());
+        MainDocumentPart documentPart = mlPackage.getMainDocumentPart();
+        List<String> ids = embeddedIds(documentPart);
+
+        assertEquals(4, ids.size());
+        assertEquals(ids.get(0), ids.get(1));
+        assertEquals(ids.get(0), ids.get(3));
+        assertNotEquals(ids.get(0), ids.get(2));
+        assertEquals(2, imagePartCount(mlPackage));
+        assertArrayEquals(image1, embeddedBytes(documentPart, ids.get(0)));
+        assertArrayEquals(image2, embeddedBytes(documentPart, ids.get(2)));
+    }
+
+    @Test
+    public void test_cachedImages() throws Exception {
+        byte[] image = DocxImageTest.encode("png", 4, 3);
+        String url = "http://example.com/image.png";
+        DocxImageCache imageCache = new DocxImageCache();
+        imageCache.put(url, DocxImage.of(image));
+        DataHolder options = new MutableDataSet().set(DocxRenderer.IMAGE_CACHE, imageCache);
+
+        // rendered from the cache without loading the url, in each document
+        for (int i = 0; i < 2; i++) {
+            WordprocessingMLPackage mlPackage = renderAndReload("![a](" + url + ")\n\n![b](" + url + ")\n", options);
+            MainDocumentPart documentPart = mlPackage.getMainDocumentPart();
+            List<String> ids = embeddedIds(documentPart);
+
+            assertEquals(2, ids.size());
+            assertEquals(ids.get(0), ids.get(1));
+            assertEquals(1, imagePartCount(mlPackage));
+            assertArrayEquals(image, embeddedBytes(documentPart, ids.get(0)));
+        }
+    }
+
+    @Test
+    public void test_cachedImagesNotPrefetched() throws Exception {
+        byte[] image1 = DocxImageTest.encode("png", 4, 3);
+        byte[] image2 = DocxImageTest.encode("png", 5, 3);
+        String cachedUrl = "http://example.com/cached.png";
+        String url = "http://example.com/image.png";
+        DocxImageCache imageCache = new DocxImageCache();
+        imageCache.put(cachedUrl, DocxImage.of(image1));
+
+        // serves image2 for any url so nothing is downloaded
+        Set<String> resolvedUrls = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        UriContentResolverFactory resolverFactory = new UriContentResolverFactory() {
+            @Override
+            public @Nullable Set<Class<?>> getAfterDependents() {
+                return null;
+            }
+
+            @Override
+            public @Nullable Set<Class<?>> getBeforeDependents() {
+                return null;
+            }
+
+            @Override
+            public boolean affectsGlobalScope() {
+                return false;
+            }
+
+            @Override
+            public @NotNull UriContentResolver apply(@NotNull LinkResolverBasicContext context) {
+                return (node, resolverContext, content) -> {
+                    resolvedUrls.add(content.getResolvedLink().getUrl());
+                    return content.withContent(image2).withStatus(LinkStatus.VALID);
+                };
+            }
+        };
+
+        DataHolder options = new MutableDataSet()
+                .set(DocxRenderer.IMAGE_CACHE, imageCache)
+                .set(DocxRenderer.PREFETCH_IMAGES, true);
+        DocxRenderer renderer = DocxRenderer.builder(options).contentResolverFactory(resolverFactory).build();
+
+        WordprocessingMLPackage mlPackage = renderAndReload("![a](" + cachedUrl + ")\n\n![b](" + url + ")\n", renderer);
+        MainDocumentPart documentPart = mlPackage.getMainDocumentPart();
+        List<String> ids = embeddedIds(documentPart);
+
+        assertEquals(Collections.singleton(url), resolvedUrls);
+        assertEquals(2, ids.size());
+        assertArrayEquals(image1, embeddedBytes(documentPart, ids.get(0)));
+        assertArrayEquals(image2, embeddedBytes(documentPart, ids.get(1)));
+        assertNotNull(imageCache.get(url));
+    }
+}
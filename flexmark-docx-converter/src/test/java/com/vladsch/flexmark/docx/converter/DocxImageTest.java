@@ -0,0 +1,80 @@
+package com.vladsch.flexmark.docx.converter;
+
+import com.vladsch.flexmark.docx.converter.util.DocxImage;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+
+public class DocxImageTest {
+    static byte[] encode(String format, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, format.equals("wbmp") ? BufferedImage.TYPE_BYTE_BINARY : BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertTrue(format, ImageIO.write(image, format, outputStream));
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    public void test_passThrough() throws IOException {
+        for (String format : new String[] { "png", "jpeg", "gif", "bmp" }) {
+            byte[] bytes = encode(format, 30, 20);
+            DocxImage image = DocxImage.of(bytes);
+
+            assertNotNull(format, image);
+            assertSame(format, bytes, image.getBytes());
+            assertEquals(format, image.getFormat());
+            assertEquals(format, 30, image.getWidth());
+            assertEquals(format, 20, image.getHeight());
+        }
+    }
+
+    @Test
+    public void test_reencoded() throws IOException {
+        byte[] bytes = encode("wbmp", 30, 20);
+        DocxImage image = DocxImage.of(bytes);
+
+        assertNotNull(image);
+        assertEquals("png", image.getFormat());
+        assertEquals(30, image.getWidth());
+        assertEquals(20, image.getHeight());
+        assertEquals("png", ImageIO.getImageReaders(ImageIO.createImageInputStream(new ByteArrayInputStream(image.getBytes()))).next().getFormatName().toLowerCase());
+    }
+
+    @Test
+    public void test_invalid() {
+        assertNull(DocxImage.of((byte[]) null));
+        assertNull(DocxImage.of(new byte[] { 1, 2, 3 }));
+        assertNull(DocxImage.base64Decode("data:image/png;base64,!!"));
+    }
+
+    @Test
+    public void test_base64Decode() throws IOException {
+        byte[] bytes = encode("png", 4, 3);
+        DocxImage image = DocxImage.base64Decode("data:image/png;base64," + Base64.getEncoder().encodeToString(bytes));
+
+        assertNotNull(image);
+        assertArrayEquals(bytes, image.getBytes());
+        assertEquals(4, image.getWidth());
+    }
+
+    @Test
+    public void test_contentHash() throws IOException {
+        DocxImage image1 = DocxImage.of(encode("png", 4, 3));
+        DocxImage image2 = DocxImage.of(encode("png", 4, 3));
+        DocxImage image3 = DocxImage.of(encode("png", 3, 4));
+
+        assertNotNull(image1);
+        assertNotNull(image2);
+        assertNotNull(image3);
+        assertNotSame(image1.getBytes(), image2.getBytes());
+        assertEquals(64, image1.getContentHash().length());
+        assertEquals(image1.getContentHash(), image2.getContentHash());
+        assertNotEquals(image1.getContentHash(), image3.getContentHash());
+    }
+}
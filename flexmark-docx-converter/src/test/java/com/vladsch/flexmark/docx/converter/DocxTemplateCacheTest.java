@@ -0,0 +1,147 @@
+package com.vladsch.flexmark.docx.converter;
+
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class DocxTemplateCacheTest {
+    // counts parses and copies without going through docx4j, empty packages need no JAXB implementation
+    static class CountingLoader implements DocxTemplateCache.Loader {
+        final AtomicInteger parsed = new AtomicInteger();
+        final AtomicInteger loaded = new AtomicInteger();
+        final Set<WordprocessingMLPackage> templates = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        @Override
+        public WordprocessingMLPackage parse(@NotNull InputStream source) throws Exception {
+            parsed.incrementAndGet();
+            byte[] bytes = new byte[source.available()];
+            if (source.read(bytes) < 0 || bytes.length == 0) {
+                throw new IllegalArgumentException("empty template");
+            }
+            WordprocessingMLPackage template = new WordprocessingMLPackage();
+            templates.add(template);
+            return template;
+        }
+
+        @Override
+        public WordprocessingMLPackage copy(@NotNull WordprocessingMLPackage template) {
+            assertTrue(templates.contains(template));
+            loaded.incrementAndGet();
+            return new WordprocessingMLPackage();
+        }
+    }
+
+    private static InputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalidMaxSize() {
+        new DocxTemplateCache(0);
+    }
+
+    @Test
+    public void test_parsedOnce() {
+        CountingLoader loader = new CountingLoader();
+        DocxTemplateCache cache = new DocxTemplateCache(4, loader);
+
+        WordprocessingMLPackage package1 = cache.get(content("template"));
+        WordprocessingMLPackage package2 = cache.get(content("template"));
+
+        assertNotNull(package1);
+        assertNotNull(package2);
+        assertNotSame(package1, package2);
+        assertEquals(1, loader.parsed.get());
+        assertEquals(2, loader.loaded.get());
+        assertEquals(1, cache.size());
+        assertFalse(loader.templates.contains(package1));
+        assertFalse(loader.templates.contains(package2));
+    }
+
+    @Test
+    public void test_resource() {
+        CountingLoader loader = new CountingLoader();
+        DocxTemplateCache cache = new DocxTemplateCache(4, loader);
+
+        assertNotNull(cache.get("/empty.xml"));
+        assertNotNull(cache.get("/empty.xml"));
+        assertNotNull(cache.get("/empty-numbered-headings.xml"));
+        assertEquals(2, loader.parsed.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void test_failureNotCached() {
+        CountingLoader loader = new CountingLoader();
+        DocxTemplateCache cache = new DocxTemplateCache(4, loader);
+
+        assertNull(cache.get(content("")));
+        assertNull(cache.get(content("")));
+        assertEquals(2, loader.parsed.get());
+        assertEquals(0, loader.loaded.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void test_leastRecentlyUsedEvicted() {
+        CountingLoader loader = new CountingLoader();
+        DocxTemplateCache cache = new DocxTemplateCache(2, loader);
+
+        cache.get(content("a"));
+        cache.get(content("b"));
+        cache.get(content("a"));
+        cache.get(content("c"));
+        assertEquals(2, cache.size());
+        assertEquals(3, loader.parsed.get());
+
+        cache.get(content("a"));
+        assertEquals(3, loader.parsed.get());
+
+        cache.get(content("b"));
+        assertEquals(4, loader.parsed.get());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void test_concurrentGet() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        DocxTemplateCache cache = new DocxTemplateCache(2, loader);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<WordprocessingMLPackage>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String template = "template " + (i % 3);
+                futures.add(executor.submit(() -> cache.get(content(template))));
+            }
+
+            Set<WordprocessingMLPackage> packages = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<WordprocessingMLPackage> future : futures) {
+                WordprocessingMLPackage mlPackage = future.get(10, TimeUnit.SECONDS);
+                assertNotNull(mlPackage);
+                packages.add(mlPackage);
+            }
+
+            assertEquals(200, packages.size());
+            assertEquals(200, loader.loaded.get());
+            assertTrue(cache.size() <= 2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
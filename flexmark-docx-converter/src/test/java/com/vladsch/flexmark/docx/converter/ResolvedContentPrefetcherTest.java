@@ -0,0 +1,160 @@
+package com.vladsch.flexmark.docx.converter;
+
+import com.vladsch.flexmark.docx.converter.util.ResolvedContentPrefetcher;
+import com.vladsch.flexmark.html.renderer.*;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.data.DataHolder;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ResolvedContentPrefetcherTest {
+    final private static Document DOCUMENT = Parser.builder().build().parse("![image](image.png)\n");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    static ResolvedLink link(String url) {
+        return new ResolvedLink(LinkType.IMAGE, url).withStatus(LinkStatus.VALID);
+    }
+
+    static ResolvedContentPrefetcher.ContentResolver fileResolver() {
+        FileUriContentResolver resolver = new FileUriContentResolver(null);
+        LinkResolverBasicContext context = new LinkResolverBasicContext() {
+            @NotNull
+            @Override
+            public DataHolder getOptions() {
+                return DOCUMENT;
+            }
+
+            @NotNull
+            @Override
+            public Document getDocument() {
+                return DOCUMENT;
+            }
+        };
+        return (node, content) -> resolver.resolveContent(node, context, content);
+    }
+
+    String fileUrl(String name, String content) throws IOException {
+        File file = folder.newFile(name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file.toURI().toString();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalidMaxThreads() {
+        new ResolvedContentPrefetcher(fileResolver(), null, 0);
+    }
+
+    @Test
+    public void test_empty() {
+        assertTrue(new ResolvedContentPrefetcher(fileResolver(), null, 4).resolve().isEmpty());
+    }
+
+    @Test
+    public void test_fileContent() throws IOException {
+        String url1 = fileUrl("image1.png", "image 1");
+        String url2 = fileUrl("image2.png", "image 2");
+        String missing = new File(folder.getRoot(), "missing.png").toURI().toString();
+
+        ResolvedContentPrefetcher prefetcher = new ResolvedContentPrefetcher(fileResolver(), null, 4);
+        prefetcher.add(DOCUMENT, link(url1));
+        prefetcher.add(DOCUMENT, link(url2));
+        prefetcher.add(DOCUMENT, link(missing));
+
+        Map<String, ResolvedContent> resolved = prefetcher.resolve();
+        assertEquals(3, resolved.size());
+        assertEquals(LinkStatus.VALID, resolved.get(url1).getStatus());
+        assertArrayEquals("image 1".getBytes(StandardCharsets.UTF_8), resolved.get(url1).getContent());
+        assertArrayEquals("image 2".getBytes(StandardCharsets.UTF_8), resolved.get(url2).getContent());
+        assertEquals(LinkStatus.UNKNOWN, resolved.get(missing).getStatus());
+        assertNull(resolved.get(missing).getContent());
+    }
+
+    @Test
+    public void test_duplicateUrlResolvedOnce() {
+        AtomicInteger count = new AtomicInteger();
+        ResolvedContentPrefetcher prefetcher = new ResolvedContentPrefetcher((node, content) -> {
+            count.incrementAndGet();
+            return content.withStatus(LinkStatus.VALID);
+        }, null, 4);
+
+        prefetcher.add(DOCUMENT, link("a.png"));
+        prefetcher.add(DOCUMENT, link("b.png"));
+        prefetcher.add(DOCUMENT, link("a.png"));
+
+        assertEquals(2, prefetcher.size());
+        assertEquals(2, prefetcher.resolve().size());
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void test_concurrent() {
+        // each resolution waits for all others to start, completes only if they run concurrently
+        int urls = 3;
+        CountDownLatch started = new CountDownLatch(urls);
+        ResolvedContentPrefetcher prefetcher = new ResolvedContentPrefetcher((node, content) -> {
+            started.countDown();
+            try {
+                return started.await(10, TimeUnit.SECONDS) ? content.withStatus(LinkStatus.VALID) : content;
+            } catch (InterruptedException e) {
+                return content;
+            }
+        }, null, urls);
+
+        for (int i = 0; i < urls; i++) {
+            prefetcher.add(DOCUMENT, link("image" + i + ".png"));
+        }
+
+        Map<String, ResolvedContent> resolved = prefetcher.resolve();
+        assertEquals(urls, resolved.size());
+        for (ResolvedContent content : resolved.values()) {
+            assertEquals(LinkStatus.VALID, content.getStatus());
+        }
+    }
+
+    @Test
+    public void test_executorNotShutDown() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ResolvedContentPrefetcher prefetcher = new ResolvedContentPrefetcher((node, content) -> content.withStatus(LinkStatus.VALID), executor, 1);
+            prefetcher.add(DOCUMENT, link("a.png"));
+            prefetcher.add(DOCUMENT, link("b.png"));
+
+            assertEquals(2, prefetcher.resolve().size());
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void test_failureNotIncluded() {
+        ResolvedContentPrefetcher prefetcher = new ResolvedContentPrefetcher((node, content) -> {
+            if (content.getResolvedLink().getUrl().equals("bad.png")) {
+                throw new IllegalStateException("test failure, ignore stack trace");
+            }
+            return content.withStatus(LinkStatus.VALID);
+        }, null, 2);
+
+        prefetcher.add(DOCUMENT, link("bad.png"));
+        prefetcher.add(DOCUMENT, link("good.png"));
+
+        Map<String, ResolvedContent> resolved = prefetcher.resolve();
+        assertEquals(1, resolved.size());
+        assertTrue(resolved.containsKey("good.png"));
+    }
+}
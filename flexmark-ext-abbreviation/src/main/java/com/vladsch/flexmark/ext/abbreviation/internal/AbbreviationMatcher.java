@@ -0,0 +1,297 @@
+package com.vladsch.flexmark.ext.abbreviation.internal;
+
+import com.vladsch.flexmark.ext.abbreviation.AbbreviationBlock;
+import com.vladsch.flexmark.util.sequence.BasedSequence;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton of the abbreviations of a repository, finds abbreviations in text in one pass
+ * <p>
+ * Matches are the same as the regex alternation of all abbreviations used before: leftmost match first, the longest
+ * abbreviation at a position wins and matches do not overlap. An abbreviation starting or ending with a letter or digit
+ * only matches at a word boundary on that side, with the same word boundary rules as regex {@code \b}.
+ * <p>
+ * State transitions are kept in flat arrays sorted by character, so the automaton size is linear in the total length of
+ * abbreviations. The matcher is immutable and can be shared between threads.
+ */
+public class AbbreviationMatcher {
+    final private static int ROOT = 0;
+
+    // repository entries the matcher was built from, used to test if it is still valid for the repository
+    final private String[] keys;
+    final private AbbreviationBlock[] blocks;
+
+    final private String[] abbreviations;
+    final private BasedSequence[] expansions;
+    final private boolean[] wordStart;
+    final private boolean[] wordEnd;
+
+    final private int[] edgeStart;      // index of the first edge of a state, edges of state end at edgeStart[state + 1]
+    final private char[] edgeChars;     // edge characters, sorted for each state
+    final private int[] edgeTargets;
+    final private int[] failure;
+    final private int[] depth;
+    final private int[] terminal;       // abbreviation index ending at state or -1
+    final private int[] outputLink;     // next state on the failure chain with a terminal abbreviation or ROOT
+
+    /**
+     * Abbreviation found in text
+     */
+    final public static class Match {
+        final private int start;
+        final private int end;
+        final private String abbreviation;
+        final private BasedSequence expansion;
+
+        Match(int start, int end, String abbreviation, BasedSequence expansion) {
+            this.start = start;
+            this.end = end;
+            this.abbreviation = abbreviation;
+            this.expansion = expansion;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public String getAbbreviation() {
+            return abbreviation;
+        }
+
+        public BasedSequence getExpansion() {
+            return expansion;
+        }
+    }
+
+    private AbbreviationMatcher(@NotNull AbbreviationRepository repository) {
+        int size = repository.size();
+        keys = new String[size];
+        blocks = new AbbreviationBlock[size];
+
+        ArrayList<String> abbreviationList = new ArrayList<>();
+        ArrayList<BasedSequence> expansionList = new ArrayList<>();
+        int i = 0;
+        for (Map.Entry<String, AbbreviationBlock> entry : repository.entrySet()) {
+            keys[i] = entry.getKey();
+            blocks[i] = entry.getValue();
+            i++;
+
+            // Issue #198, test for empty abbr
+            String abbr = entry.getKey();
+            AbbreviationBlock abbreviationBlock = entry.getValue();
+            if (!abbr.isEmpty() && abbreviationBlock != null && !abbreviationBlock.getAbbreviation().isEmpty()) {
+                abbreviationList.add(abbr);
+                expansionList.add(abbreviationBlock.getAbbreviation());
+            }
+        }
+
+        int count = abbreviationList.size();
+        abbreviations = abbreviationList.toArray(new String[0]);
+        expansions = expansionList.toArray(new BasedSequence[0]);
+        wordStart = new boolean[count];
+        wordEnd = new boolean[count];
+
+        // build trie
+        ArrayList<TreeMap<Character, Integer>> gotoList = new ArrayList<>();
+        ArrayList<Integer> depthList = new ArrayList<>();
+        gotoList.add(new TreeMap<>());
+        depthList.add(0);
+        int[] terminals = new int[1 + totalLength(abbreviations)];
+        Arrays.fill(terminals, -1);
+
+        for (int a = 0; a < count; a++) {
+            String abbr = abbreviations[a];
+            wordStart[a] = Character.isLetterOrDigit(abbr.charAt(0));
+            wordEnd[a] = Character.isLetterOrDigit(abbr.charAt(abbr.length() - 1));
+
+            int state = ROOT;
+            for (int c = 0; c < abbr.length(); c++) {
+                Integer next = gotoList.get(state).get(abbr.charAt(c));
+                if (next == null) {
+                    next = gotoList.size();
+                    gotoList.add(new TreeMap<>());
+                    depthList.add(c + 1);
+                    gotoList.get(state).put(abbr.charAt(c), next);
+                }
+                state = next;
+            }
+            terminals[state] = a;
+        }
+
+        // flatten transitions
+        int states = gotoList.size();
+        edgeStart = new int[states + 1];
+        edgeChars = new char[states - 1];
+        edgeTargets = new int[states - 1];
+        depth = new int[states];
+        terminal = Arrays.copyOf(terminals, states);
+
+        int edge = 0;
+        for (int s = 0; s < states; s++) {
+            edgeStart[s] = edge;
+            depth[s] = depthList.get(s);
+            for (Map.Entry<Character, Integer> entry : gotoList.get(s).entrySet()) {
+                edgeChars[edge] = entry.getKey();
+                edgeTargets[edge] = entry.getValue();
+                edge++;
+            }
+        }
+        edgeStart[states] = edge;
+
+        // failure and output links in breadth first order
+        failure = new int[states];
+        outputLink = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+
+        for (int e = edgeStart[ROOT]; e < edgeStart[ROOT + 1]; e++) {
+            queue[tail++] = edgeTargets[e];
+        }
+
+        while (head < tail) {
+            int state = queue[head++];
+            for (int e = edgeStart[state]; e < edgeStart[state + 1]; e++) {
+                int target = edgeTargets[e];
+                failure[target] = next(failure[state], edgeChars[e]);
+                int fail = failure[target];
+                outputLink[target] = terminal[fail] >= 0 ? fail : outputLink[fail];
+                queue[tail++] = target;
+            }
+        }
+    }
+
+    /**
+     * @param repository abbreviation repository
+     * @return matcher of abbreviations in repository
+     */
+    @NotNull
+    public static AbbreviationMatcher of(@NotNull AbbreviationRepository repository) {
+        return new AbbreviationMatcher(repository);
+    }
+
+    /**
+     * @param repository abbreviation repository
+     * @return true if the repository has the same abbreviation blocks as when this matcher was built from it
+     */
+    public boolean isValidFor(@NotNull AbbreviationRepository repository) {
+        if (repository.size() != keys.length) return false;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (repository.get(keys[i]) != blocks[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true if there are no abbreviations to match
+     */
+    public boolean isEmpty() {
+        return abbreviations.length == 0;
+    }
+
+    /**
+     * Find the next abbreviation in text
+     *
+     * @param text text to search
+     * @param from index in text to start the search
+     * @return leftmost longest abbreviation match at or after from or null if none
+     */
+    @Nullable
+    public Match find(@NotNull CharSequence text, int from) {
+        int length = text.length();
+        int state = ROOT;
+        int bestStart = -1;
+        int bestEnd = -1;
+        int bestIndex = -1;
+
+        for (int i = from; i < length; i++) {
+            state = next(state, text.charAt(i));
+
+            // terminal states on the output chain are in order of decreasing depth, the first valid one starts leftmost
+            for (int s = terminal[state] >= 0 ? state : outputLink[state]; s != ROOT; s = outputLink[s]) {
+                int index = terminal[s];
+                int start = i + 1 - depth[s];
+                if (bestIndex >= 0 && start > bestStart) break;
+
+                if (isMatch(text, start, i + 1, index)) {
+                    // starts before the best match or at the same start and is longer
+                    bestStart = start;
+                    bestEnd = i + 1;
+                    bestIndex = index;
+                    break;
+                }
+            }
+
+            // no match found later can start at or before the best one
+            if (bestIndex >= 0 && i + 1 - depth[state] > bestStart) break;
+        }
+
+        return bestIndex < 0 ? null : new Match(bestStart, bestEnd, abbreviations[bestIndex], expansions[bestIndex]);
+    }
+
+    private int next(int state, char c) {
+        while (true) {
+            int lo = edgeStart[state];
+            int hi = edgeStart[state + 1] - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char midChar = edgeChars[mid];
+                if (midChar < c) lo = mid + 1;
+                else if (midChar > c) hi = mid - 1;
+                else return edgeTargets[mid];
+            }
+
+            if (state == ROOT) return ROOT;
+            state = failure[state];
+        }
+    }
+
+    private boolean isMatch(@NotNull CharSequence text, int start, int end, int index) {
+        // abbreviation starts or ends with a word char, so there is a word boundary if the char on the other side is not a word char
+        if (wordStart[index] && start > 0 && isWordBefore(text, start)) return false;
+        return !wordEnd[index] || end >= text.length() || !isWordAt(text, end);
+    }
+
+    // same as regex \b, a non spacing mark is a word char if it follows a letter or digit
+    private static boolean isWordBefore(@NotNull CharSequence text, int index) {
+        int c = Character.codePointBefore(text, index);
+        return isWord(c) || Character.getType(c) == Character.NON_SPACING_MARK && hasBaseCharacter(text, index - 1);
+    }
+
+    private static boolean isWordAt(@NotNull CharSequence text, int index) {
+        int c = Character.codePointAt(text, index);
+        return isWord(c) || Character.getType(c) == Character.NON_SPACING_MARK && hasBaseCharacter(text, index);
+    }
+
+    private static boolean isWord(int c) {
+        return c == '_' || Character.isLetterOrDigit(c);
+    }
+
+    private static boolean hasBaseCharacter(@NotNull CharSequence text, int index) {
+        for (int i = index; i >= 0; i--) {
+            int c = Character.codePointAt(text, i);
+            if (Character.isLetterOrDigit(c)) return true;
+            if (Character.getType(c) != Character.NON_SPACING_MARK) return false;
+        }
+        return false;
+    }
+
+    private static int totalLength(@NotNull String[] strings) {
+        int length = 0;
+        for (String s : strings) {
+            length += s.length();
+        }
+        return length;
+    }
+}
@@ -15,50 +15,16 @@ import com.vladsch.flexmark.util.sequence.ReplacedTextMapper;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.HashSet;
+import java.util.Set;
 
 public class AbbreviationNodePostProcessor extends NodePostProcessor {
-    private Pattern abbreviations = null;
-    private HashMap<String, BasedSequence> abbreviationMap = null;
+    final private @Nullable AbbreviationMatcher abbreviations;
 
     private AbbreviationNodePostProcessor(Document document) {
-        computeAbbreviations(document);
-    }
-
-    private void computeAbbreviations(Document document) {
         AbbreviationRepository abbrRepository = AbbreviationExtension.ABBREVIATIONS.get(document);
-
-        if (!abbrRepository.isEmpty()) {
-            abbreviationMap = new HashMap<>();
-            StringBuilder sb = new StringBuilder();
-
-            // sort reverse alphabetical order so longer ones match first. for sdk7
-            ArrayList<String> abbreviations = new ArrayList<>(abbrRepository.keySet());
-            abbreviations.sort(Comparator.reverseOrder());
-
-            for (String abbr : abbreviations) {
-                // Issue #198, test for empty abbr
-                if (!abbr.isEmpty()) {
-                    AbbreviationBlock abbreviationBlock = abbrRepository.get(abbr);
-                    if (abbreviationBlock != null) {
-                        BasedSequence abbreviation = abbreviationBlock.getAbbreviation();
-                        if (!abbreviation.isEmpty()) {
-                            abbreviationMap.put(abbr, abbreviation);
-
-                            if (sb.length() > 0) sb.append("|");
-
-                            if (Character.isLetterOrDigit(abbr.charAt(0))) sb.append("\\b");
-                            sb.append("\\Q").append(abbr).append("\\E");
-                            if (Character.isLetterOrDigit(abbr.charAt(abbr.length() - 1))) sb.append("\\b");
-                        }
-                    }
-                }
-            }
-
-            if (sb.length() > 0) this.abbreviations = Pattern.compile(sb.toString());
-        }
+        AbbreviationMatcher matcher = abbrRepository.isEmpty() ? null : abbrRepository.getMatcher();
+        abbreviations = matcher == null || matcher.isEmpty() ? null : matcher;
     }
 
     @Override
@@ -69,40 +35,37 @@ public class AbbreviationNodePostProcessor extends NodePostProcessor {
         ReplacedTextMapper textMapper = new ReplacedTextMapper(original);
         BasedSequence literal = Escaping.unescape(original, textMapper);
 
-        Matcher m = abbreviations.matcher(literal);
         int lastEscaped = 0;
         boolean wrapInTextBase = !(node.getParent() instanceof TextBase);
         TextBase textBase = wrapInTextBase ? null : (TextBase) node.getParent();
 
-        while (m.find()) {
-            //String found = m.group();
-            BasedSequence abbreviation = abbreviationMap.get(m.group(0));
-            if (abbreviation != null) {
-
-                int startOffset = textMapper.originalOffset(m.start(0));
-                int endOffset = textMapper.originalOffset(m.end(0));
-
-                if (wrapInTextBase) {
-                    wrapInTextBase = false;
-                    textBase = new TextBase(original);
-                    node.insertBefore(textBase);
-                    state.nodeAdded(textBase);
-                }
-
-                if (startOffset != lastEscaped) {
-                    BasedSequence escapedChars = original.subSequence(lastEscaped, startOffset);
-                    Node node1 = new Text(escapedChars);
-                    textBase.appendChild(node1);
-                    state.nodeAdded(node1);
-                }
-
-                BasedSequence origToDecorateText = original.subSequence(startOffset, endOffset);
-                Abbreviation decorationNode = new Abbreviation(origToDecorateText, abbreviation);
-                textBase.appendChild(decorationNode);
-                state.nodeAdded(decorationNode);
-
-                lastEscaped = endOffset;
+        AbbreviationMatcher.Match m;
+        int from = 0;
+        while ((m = abbreviations.find(literal, from)) != null) {
+            from = m.getEnd();
+            int startOffset = textMapper.originalOffset(m.getStart());
+            int endOffset = textMapper.originalOffset(m.getEnd());
+
+            if (wrapInTextBase) {
+                wrapInTextBase = false;
+                textBase = new TextBase(original);
+                node.insertBefore(textBase);
+                state.nodeAdded(textBase);
             }
+
+            if (startOffset != lastEscaped) {
+                BasedSequence escapedChars = original.subSequence(lastEscaped, startOffset);
+                Node node1 = new Text(escapedChars);
+                textBase.appendChild(node1);
+                state.nodeAdded(node1);
+            }
+
+            BasedSequence origToDecorateText = original.subSequence(startOffset, endOffset);
+            Abbreviation decorationNode = new Abbreviation(origToDecorateText, m.getExpansion());
+            textBase.appendChild(decorationNode);
+            state.nodeAdded(decorationNode);
+
+            lastEscaped = endOffset;
         }
 
         if (lastEscaped > 0) {
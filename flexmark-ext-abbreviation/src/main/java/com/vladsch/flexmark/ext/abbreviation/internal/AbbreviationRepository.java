@@ -9,17 +9,33 @@ import com.vladsch.flexmark.util.ast.NodeRepository;
 import com.vladsch.flexmark.util.data.DataHolder;
 import com.vladsch.flexmark.util.data.DataKey;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @SuppressWarnings("WeakerAccess")
 public class AbbreviationRepository extends NodeRepository<AbbreviationBlock> {
+    // kept while abbreviations do not change, so a repository shared by documents builds it once
+    private volatile @Nullable AbbreviationMatcher matcher;
 
     public AbbreviationRepository(DataHolder options) {
         super(AbbreviationExtension.ABBREVIATIONS_KEEP.get(options));
     }
 
+    /**
+     * @return matcher of the abbreviations in this repository
+     */
+    @NotNull
+    public AbbreviationMatcher getMatcher() {
+        AbbreviationMatcher matcher = this.matcher;
+        if (matcher == null || !matcher.isValidFor(this)) {
+            matcher = AbbreviationMatcher.of(this);
+            this.matcher = matcher;
+        }
+        return matcher;
+    }
+
     @NotNull
     @Override
     public DataKey<AbbreviationRepository> getDataKey() {
@@ -46,4 +62,9 @@ public class AbbreviationRepository extends NodeRepository<AbbreviationBlock> {
         }, Abbreviation.class);
         return references;
     }
+
+    @Override
+    public boolean hasDerivedState() {
+        return false;
+    }
 }
@@ -0,0 +1,132 @@
+package com.vladsch.flexmark.ext.abbreviation;
+
+import com.vladsch.flexmark.ext.abbreviation.internal.AbbreviationMatcher;
+import com.vladsch.flexmark.ext.abbreviation.internal.AbbreviationRepository;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import com.vladsch.flexmark.util.sequence.BasedSequence;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class AbbreviationMatcherTest {
+    final private static DataHolder OPTIONS = new MutableDataSet()
+            .set(Parser.EXTENSIONS, Collections.singletonList(AbbreviationExtension.create()))
+            .toImmutable();
+
+    static AbbreviationRepository repository(String... abbreviations) {
+        AbbreviationRepository repository = new AbbreviationRepository(OPTIONS);
+        for (String abbr : abbreviations) {
+            AbbreviationBlock block = new AbbreviationBlock();
+            block.setText(BasedSequence.of(abbr));
+            block.setAbbreviation(BasedSequence.of("expansion of " + abbr));
+            repository.put(abbr, block);
+        }
+        return repository;
+    }
+
+    // matches of the regex alternation the matcher replaces
+    static List<String> regexMatches(AbbreviationRepository repository, String text) {
+        ArrayList<String> abbreviations = new ArrayList<>(repository.keySet());
+        abbreviations.sort(Comparator.reverseOrder());
+
+        StringBuilder sb = new StringBuilder();
+        for (String abbr : abbreviations) {
+            if (abbr.isEmpty()) continue;
+            if (sb.length() > 0) sb.append("|");
+            if (Character.isLetterOrDigit(abbr.charAt(0))) sb.append("\\b");
+            sb.append("\\Q").append(abbr).append("\\E");
+            if (Character.isLetterOrDigit(abbr.charAt(abbr.length() - 1))) sb.append("\\b");
+        }
+
+        List<String> matches = new ArrayList<>();
+        Matcher m = Pattern.compile(sb.toString()).matcher(text);
+        while (m.find()) {
+            matches.add(m.start() + ":" + m.end() + ":" + m.group());
+        }
+        return matches;
+    }
+
+    static List<String> matches(AbbreviationRepository repository, String text) {
+        List<String> matches = new ArrayList<>();
+        AbbreviationMatcher matcher = repository.getMatcher();
+        AbbreviationMatcher.Match m;
+        int from = 0;
+        while ((m = matcher.find(text, from)) != null) {
+            matches.add(m.getStart() + ":" + m.getEnd() + ":" + m.getAbbreviation());
+            assertEquals("expansion of " + m.getAbbreviation(), m.getExpansion().toString());
+            from = m.getEnd();
+        }
+        return matches;
+    }
+
+    @Test
+    public void test_longestAndWordBoundary() {
+        AbbreviationRepository repository = repository("HTM", "HTML", "ML", "W3C", "C++", "e.g.");
+        String text = "HTML and HTM, HTMLX, XHTML ML C++ and C++x use e.g. W3C_ W3C";
+
+        assertEquals(regexMatches(repository, text), matches(repository, text));
+        assertEquals("[0:4:HTML, 9:12:HTM, 27:29:ML, 30:33:C++, 38:41:C++, 47:51:e.g., 57:60:W3C]", matches(repository, text).toString());
+    }
+
+    @Test
+    public void test_sameAsRegex() {
+        String alphabet = "aabAB1 _-.́é";
+        Random random = new Random(1);
+
+        for (int r = 0; r < 200; r++) {
+            String[] abbreviations = new String[1 + random.nextInt(20)];
+            for (int i = 0; i < abbreviations.length; i++) {
+                abbreviations[i] = randomText(random, alphabet, 1 + random.nextInt(4));
+            }
+
+            AbbreviationRepository repository = repository(abbreviations);
+            for (int t = 0; t < 20; t++) {
+                String text = randomText(random, alphabet, random.nextInt(60));
+                assertEquals(text, regexMatches(repository, text), matches(repository, text));
+            }
+        }
+    }
+
+    static String randomText(Random random, String alphabet, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void test_matcherKeptWhileUnchanged() {
+        AbbreviationRepository repository = repository("HTML", "W3C");
+        AbbreviationMatcher matcher = repository.getMatcher();
+        assertSame(matcher, repository.getMatcher());
+
+        repository.putAll(repository("CSS"));
+        assertNotSame(matcher, repository.getMatcher());
+        assertEquals("[0:3:CSS]", matches(repository, "CSS").toString());
+    }
+
+    @Test
+    public void test_sharedRepository() {
+        AbbreviationRepository repository = repository("HTML");
+        DataHolder options = new MutableDataSet(OPTIONS).set(AbbreviationExtension.ABBREVIATIONS, repository);
+        Parser parser = Parser.builder(options).build();
+        HtmlRenderer renderer = HtmlRenderer.builder(options).build();
+
+        assertEquals("<p><abbr title=\"expansion of HTML\">HTML</abbr> text</p>\n", renderer.render(parser.parse("HTML text")));
+        AbbreviationMatcher matcher = repository.getMatcher();
+        assertEquals("<p>text <abbr title=\"expansion of HTML\">HTML</abbr></p>\n", renderer.render(parser.parse("text HTML")));
+        assertSame(matcher, repository.getMatcher());
+    }
+}
@@ -6,6 +6,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class EmojiReference {
@@ -17,6 +18,7 @@ public class EmojiReference {
         final public String unicodeChars; // unicode char codes space separated list
         final public String unicodeSampleFile; // name part of the file no extension
         final public String unicodeCldr;
+        final String unicodeText; // unicode chars of unicodeChars code points
 
         public Emoji(String shortcut, String category, String emojiCheatSheetFile, String githubFile, String unicodeChars, String unicodeSampleFile, String unicodeCldr) {
             this.shortcut = shortcut;
@@ -26,60 +28,67 @@ public class EmojiReference {
             this.unicodeChars = unicodeChars;
             this.unicodeSampleFile = unicodeSampleFile;
             this.unicodeCldr = unicodeCldr;
+            this.unicodeText = unicodeChars == null ? null : toUnicodeText(unicodeChars);
+        }
+
+        private static String toUnicodeText(String unicodeChars) {
+            StringBuilder sb = new StringBuilder(16);
+            for (String unicodePoint : unicodeChars.replace("U+", "").split(" ")) {
+                sb.appendCodePoint(Integer.parseInt(unicodePoint, 16));
+            }
+            return sb.toString();
         }
     }
 
     final public static String githubUrl = "https://github.githubassets.com/images/icons/emoji/";
 
-    private static ArrayList<Emoji> emojiList = null;
+    // loaded on first use by class initialization, which is thread safe without locking on later reads
+    private static class EmojiList {
+        final static List<Emoji> emojiList = Collections.unmodifiableList(loadEmojiList());
+    }
 
+    /**
+     * @return unmodifiable list of emoji in the reference, loaded once per class loader
+     */
     public static List<Emoji> getEmojiList() {
-        if (emojiList == null) {
-            // read it in
-            emojiList = new ArrayList<>(3000);
-
-            final String emojiReference = "/EmojiReference.txt";
-            InputStream stream = EmojiReference.class.getResourceAsStream(emojiReference);
+        return EmojiList.emojiList;
+    }
 
-            if (stream == null) {
-                throw new IllegalStateException("Could not load " + emojiReference + " classpath resource");
-            }
+    static ArrayList<Emoji> loadEmojiList() {
+        ArrayList<Emoji> emojiList = new ArrayList<>(3000);
 
-            BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
-            String line;
-            try {
-                // skip first line, it is column names
-                line = reader.readLine();
-                while ((line = reader.readLine()) != null) {
-                    String[] fields = line.split("\t");
-                    try {
+        final String emojiReference = "/EmojiReference.txt";
+        InputStream stream = EmojiReference.class.getResourceAsStream(emojiReference);
 
-                        Emoji emoji = new Emoji(
-                                fields[0].charAt(0) == ' ' ? null : fields[0], // shortcut
-                                fields[1].charAt(0) == ' ' ? null : fields[1], // category
-                                fields[2].charAt(0) == ' ' ? null : fields[2], // emojiCheatSheetFile
-                                fields[3].charAt(0) == ' ' ? null : fields[3], // githubFile
-                                fields[4].charAt(0) == ' ' ? null : fields[4], // unicodeChars
-                                fields[5].charAt(0) == ' ' ? null : fields[5], // unicodeSampleFile
-                                fields[6].charAt(0) == ' ' ? null : fields[6] // unicodeCldr
-                        );
-                        emojiList.add(emoji);
+        if (stream == null) {
+            throw new IllegalStateException("Could not load " + emojiReference + " classpath resource");
+        }
 
-                        //if (emoji.shortcut != null && emoji.unicodeChars == null) {
-                        //    String type = emoji.githubFile == null ? "cheatSheet " : (emoji.emojiCheatSheetFile == null ? "gitHub " : "");
-                        //    System.out.printf("Non unicode %sshortcut %s\n",type, emoji.shortcut);
-                        //}
-                    } catch (ArrayIndexOutOfBoundsException e) {
-                        //e.printStackTrace();
-                        throw new IllegalStateException("Error processing EmojiReference.txt", e);
-                    }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            // skip first line, it is column names
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                try {
+                    Emoji emoji = new Emoji(
+                            fields[0].charAt(0) == ' ' ? null : fields[0], // shortcut
+                            fields[1].charAt(0) == ' ' ? null : fields[1], // category
+                            fields[2].charAt(0) == ' ' ? null : fields[2], // emojiCheatSheetFile
+                            fields[3].charAt(0) == ' ' ? null : fields[3], // githubFile
+                            fields[4].charAt(0) == ' ' ? null : fields[4], // unicodeChars
+                            fields[5].charAt(0) == ' ' ? null : fields[5], // unicodeSampleFile
+                            fields[6].charAt(0) == ' ' ? null : fields[6] // unicodeCldr
+                    );
+                    emojiList.add(emoji);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    throw new IllegalStateException("Error processing EmojiReference.txt", e);
                 }
-            } catch (IOException e) {
-                //e.printStackTrace();
-                throw new IllegalStateException("Error processing EmojiReference.txt", e);
             }
+        } catch (IOException e) {
+            throw new IllegalStateException("Error processing EmojiReference.txt", e);
         }
 
+        emojiList.trimToSize();
         return emojiList;
     }
 }
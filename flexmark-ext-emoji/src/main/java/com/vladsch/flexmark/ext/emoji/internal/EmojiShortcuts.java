@@ -9,31 +9,137 @@ package com.vladsch.flexmark.ext.emoji.internal;
 import com.vladsch.flexmark.ext.emoji.internal.EmojiReference.Emoji;
 
 import java.io.File;
-import java.util.HashMap;
+import java.util.*;
 
+/**
+ * Lookup of emoji by shortcut, image file name and unicode text
+ * <p>
+ * Indices are built once per class loader from {@link EmojiReference#getEmojiList()} into immutable sorted arrays
+ * and read without locking.
+ */
 public class EmojiShortcuts {
     final public static String gitHubUrlPrefix = EmojiReference.githubUrl;
 
-    final private static HashMap<String, Emoji> emojiShortcuts = new HashMap<>();
-    final private static HashMap<String, Emoji> emojiURIs = new HashMap<>();
-    final private static HashMap<Emoji, String> emojiUnicodeChars = new HashMap<>();
+    // built on first use by class initialization, which is thread safe without locking on later reads
+    private static class Shortcuts {
+        final static Index index;
 
-    synchronized public static String getUnicodeChars(Emoji emoji) {
-        if (emoji == null || emoji.unicodeChars == null) {
-            return null;
+        static {
+            HashMap<String, Emoji> shortcuts = new HashMap<>();
+            for (Emoji emoji : EmojiReference.getEmojiList()) {
+                if (emoji.shortcut != null) {
+                    shortcuts.put(emoji.shortcut, emoji);
+                }
+            }
+            index = new Index(shortcuts);
         }
+    }
+
+    private static class URIs {
+        final static Index index;
+
+        static {
+            HashMap<String, Emoji> uris = new HashMap<>();
+            for (Emoji emoji : EmojiReference.getEmojiList()) {
+                if (emoji.emojiCheatSheetFile != null) {
+                    uris.put(extractFileName(emoji.emojiCheatSheetFile), emoji);
+                }
+                if (emoji.githubFile != null) {
+                    uris.put(extractFileName(emoji.githubFile), emoji);
+                }
+                if (emoji.unicodeSampleFile != null) {
+                    uris.put(extractFileName(emoji.unicodeSampleFile), emoji);
+                }
+            }
+            index = new Index(uris);
+        }
+    }
+
+    private static class UnicodeChars {
+        final static Index index;
+
+        static {
+            HashMap<String, Emoji> unicodeChars = new HashMap<>();
+            for (Emoji emoji : EmojiReference.getEmojiList()) {
+                if (emoji.unicodeText != null) {
+                    // first emoji with the unicode chars wins
+                    unicodeChars.putIfAbsent(emoji.unicodeText, emoji);
+                }
+            }
+            index = new Index(unicodeChars);
+        }
+    }
+
+    /**
+     * Immutable map of strings to emoji as sorted keys and values, searched by binary search
+     */
+    final private static class Index extends AbstractMap<String, Emoji> {
+        final String[] keys;
+        final Emoji[] values;
+        final private Set<Entry<String, Emoji>> entrySet = new AbstractSet<Entry<String, Emoji>>() {
+            @Override
+            public Iterator<Entry<String, Emoji>> iterator() {
+                return new Iterator<Entry<String, Emoji>>() {
+                    int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, Emoji> next() {
+                        if (next >= keys.length) throw new NoSuchElementException();
+                        Entry<String, Emoji> entry = new SimpleImmutableEntry<>(keys[next], values[next]);
+                        next++;
+                        return entry;
+                    }
+                };
+            }
 
-        String value = emojiUnicodeChars.get(emoji);
-        if (value == null) {
-            String[] unicodePoints = emoji.unicodeChars.replace("U+", "").split(" ");
-            StringBuilder sb = new StringBuilder(16);
-            for (String unicodePoint : unicodePoints) {
-                sb.appendCodePoint(Integer.parseInt(unicodePoint, 16));
+            @Override
+            public int size() {
+                return keys.length;
             }
-            value = sb.toString();
-            emojiUnicodeChars.put(emoji, value);
+        };
+
+        Index(Map<String, Emoji> map) {
+            keys = map.keySet().toArray(new String[0]);
+            Arrays.sort(keys);
+            values = new Emoji[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                values[i] = map.get(keys[i]);
+            }
+        }
+
+        private int indexOf(Object key) {
+            return key instanceof String ? Arrays.binarySearch(keys, key) : -1;
+        }
+
+        @Override
+        public Emoji get(Object key) {
+            int index = indexOf(key);
+            return index < 0 ? null : values[index];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public Set<Entry<String, Emoji>> entrySet() {
+            return entrySet;
         }
-        return value;
+    }
+
+    public static String getUnicodeChars(Emoji emoji) {
+        return emoji == null ? null : emoji.unicodeText;
     }
 
     public static String extractFileName(String emojiURI) {
@@ -45,51 +151,33 @@ public class EmojiShortcuts {
         return fileName;
     }
 
-    public static HashMap<String, Emoji> getEmojiShortcuts() {
-        updateEmojiShortcuts();
-        return emojiShortcuts;
+    /**
+     * @return unmodifiable map of shortcuts to emoji
+     */
+    public static Map<String, Emoji> getEmojiShortcuts() {
+        return Shortcuts.index;
     }
 
-    public static HashMap<String, Emoji> getEmojiURIs() {
-        updateEmojiShortcuts();
-        return emojiURIs;
+    /**
+     * @return unmodifiable map of image file names to emoji
+     */
+    public static Map<String, Emoji> getEmojiURIs() {
+        return URIs.index;
     }
 
     public static Emoji getEmojiFromShortcut(String shortcut) {
-        updateEmojiShortcuts();
-        return emojiShortcuts.get(shortcut);
+        return Shortcuts.index.get(shortcut);
     }
 
     public static Emoji getEmojiFromURI(String imageURI) {
-        updateEmojiURIs();
-        return emojiURIs.get(extractFileName(imageURI));
+        return URIs.index.get(extractFileName(imageURI));
     }
 
-    synchronized private static void updateEmojiShortcuts() {
-        if (emojiShortcuts.isEmpty()) {
-            for (Emoji emoji : EmojiReference.getEmojiList()) {
-                if (emoji.shortcut != null) {
-                    emojiShortcuts.put(emoji.shortcut, emoji);
-                }
-            }
-        }
-    }
-
-    synchronized private static void updateEmojiURIs() {
-        if (emojiURIs.isEmpty()) {
-            // create it
-            for (Emoji emoji : EmojiReference.getEmojiList()) {
-                if (emoji.emojiCheatSheetFile != null) {
-                    emojiURIs.put(extractFileName(emoji.emojiCheatSheetFile), emoji);
-                }
-                if (emoji.githubFile != null) {
-                    emojiURIs.put(extractFileName(emoji.githubFile), emoji);
-                }
-                if (emoji.unicodeSampleFile != null) {
-                    emojiURIs.put(extractFileName(emoji.unicodeSampleFile), emoji);
-                }
-            }
-        }
+    /**
+     * @param unicodeText unicode chars of an emoji
+     * @return emoji with the unicode chars or null if none
+     */
+    public static Emoji getEmojiFromUnicode(String unicodeText) {
+        return UnicodeChars.index.get(unicodeText);
     }
 }
-
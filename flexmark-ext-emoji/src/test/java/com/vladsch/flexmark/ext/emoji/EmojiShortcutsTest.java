@@ -0,0 +1,140 @@
+package com.vladsch.flexmark.ext.emoji;
+
+import com.vladsch.flexmark.ext.emoji.internal.EmojiReference;
+import com.vladsch.flexmark.ext.emoji.internal.EmojiShortcuts;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class EmojiShortcutsTest {
+    static String unicodeChars(EmojiReference.Emoji emoji) {
+        StringBuilder sb = new StringBuilder();
+        for (String unicodePoint : emoji.unicodeChars.replace("U+", "").split(" ")) {
+            sb.appendCodePoint(Integer.parseInt(unicodePoint, 16));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void test_emojiList() {
+        List<EmojiReference.Emoji> emojiList = EmojiReference.getEmojiList();
+        assertTrue(emojiList.size() > 1000);
+        assertSame(emojiList, EmojiReference.getEmojiList());
+
+        try {
+            emojiList.clear();
+            fail("emoji list should not be modifiable");
+        } catch (UnsupportedOperationException ignored) {
+        }
+    }
+
+    @Test
+    public void test_shortcuts() {
+        // same as a map built by a linear scan, later shortcuts replace earlier ones
+        HashMap<String, EmojiReference.Emoji> expected = new HashMap<>();
+        for (EmojiReference.Emoji emoji : EmojiReference.getEmojiList()) {
+            if (emoji.shortcut != null) expected.put(emoji.shortcut, emoji);
+        }
+
+        assertEquals(expected, EmojiShortcuts.getEmojiShortcuts());
+        for (String shortcut : expected.keySet()) {
+            assertSame(shortcut, expected.get(shortcut), EmojiShortcuts.getEmojiFromShortcut(shortcut));
+        }
+
+        assertNull(EmojiShortcuts.getEmojiFromShortcut("not_an_emoji"));
+        assertNull(EmojiShortcuts.getEmojiFromShortcut(""));
+        assertNull(EmojiShortcuts.getEmojiFromShortcut(null));
+    }
+
+    @Test
+    public void test_shortcutsUnmodifiable() {
+        assertSame(EmojiShortcuts.getEmojiShortcuts(), EmojiShortcuts.getEmojiShortcuts());
+        assertSame(EmojiShortcuts.getEmojiFromShortcut("smile"), EmojiShortcuts.getEmojiShortcuts().get("smile"));
+        assertTrue(EmojiShortcuts.getEmojiShortcuts().containsKey("smile"));
+        assertFalse(EmojiShortcuts.getEmojiShortcuts().containsKey(1));
+
+        try {
+            EmojiShortcuts.getEmojiShortcuts().clear();
+            fail("shortcuts should not be modifiable");
+        } catch (UnsupportedOperationException ignored) {
+        }
+
+        try {
+            EmojiShortcuts.getEmojiURIs().put("smile", null);
+            fail("URIs should not be modifiable");
+        } catch (UnsupportedOperationException ignored) {
+        }
+        assertNotNull(EmojiShortcuts.getEmojiFromShortcut("smile"));
+    }
+
+    @Test
+    public void test_uris() {
+        HashMap<String, EmojiReference.Emoji> expected = new HashMap<>();
+        for (EmojiReference.Emoji emoji : EmojiReference.getEmojiList()) {
+            if (emoji.emojiCheatSheetFile != null) expected.put(EmojiShortcuts.extractFileName(emoji.emojiCheatSheetFile), emoji);
+            if (emoji.githubFile != null) expected.put(EmojiShortcuts.extractFileName(emoji.githubFile), emoji);
+            if (emoji.unicodeSampleFile != null) expected.put(EmojiShortcuts.extractFileName(emoji.unicodeSampleFile), emoji);
+        }
+
+        assertEquals(expected, EmojiShortcuts.getEmojiURIs());
+        assertSame(expected.get("1f44d"), EmojiShortcuts.getEmojiFromURI("https://github.githubassets.com/images/icons/emoji/unicode/1f44d.png?v7"));
+        assertSame(EmojiShortcuts.getEmojiFromShortcut("+1"), EmojiShortcuts.getEmojiFromURI("/img/plus1.png"));
+        assertNull(EmojiShortcuts.getEmojiFromURI("/img/not_an_emoji.png"));
+    }
+
+    @Test
+    public void test_unicode() {
+        for (EmojiReference.Emoji emoji : EmojiReference.getEmojiList()) {
+            if (emoji.unicodeChars == null) {
+                assertNull(EmojiShortcuts.getUnicodeChars(emoji));
+            } else {
+                String unicode = unicodeChars(emoji);
+                assertEquals(emoji.shortcut, unicode, EmojiShortcuts.getUnicodeChars(emoji));
+
+                EmojiReference.Emoji fromUnicode = EmojiShortcuts.getEmojiFromUnicode(unicode);
+                assertNotNull(emoji.shortcut, fromUnicode);
+                assertEquals(emoji.shortcut, unicode, EmojiShortcuts.getUnicodeChars(fromUnicode));
+            }
+        }
+
+        assertEquals("👍", EmojiShortcuts.getUnicodeChars(EmojiShortcuts.getEmojiFromShortcut("+1")));
+        assertNull(EmojiShortcuts.getUnicodeChars(null));
+        assertNull(EmojiShortcuts.getEmojiFromUnicode("a"));
+    }
+
+    @Test
+    public void test_concurrentLookups() throws Exception {
+        List<EmojiReference.Emoji> emojiList = EmojiReference.getEmojiList();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ArrayList<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit((Callable<Integer>) () -> {
+                    int found = 0;
+                    for (int i = 0; i < 10; i++) {
+                        for (EmojiReference.Emoji emoji : emojiList) {
+                            if (emoji.shortcut != null && EmojiShortcuts.getEmojiFromShortcut(emoji.shortcut) != null) found++;
+                        }
+                    }
+                    return found;
+                }));
+            }
+
+            int expected = futures.get(0).get();
+            assertTrue(expected > 0);
+            for (Future<Integer> future : futures) {
+                assertEquals(expected, (int) future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.runners.Suite;
         ComboEmojiSpecTest.class,
         ComboEmojiJiraTest.class,
         ComboEmojiCrashSpecTest.class,
+        EmojiShortcutsTest.class,
 })
 public class ExtEmojiTestSuite {
 }
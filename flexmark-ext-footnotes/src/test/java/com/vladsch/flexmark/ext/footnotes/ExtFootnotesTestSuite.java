@@ -8,6 +8,7 @@ import org.junit.runners.Suite;
         ComboFootnotesSpecTest.class,
         ComboFootnotesFormatterSpecTest.class,
         MergeFootnotesTest.class,
+        ReparseFootnotesTest.class,
 })
 public class ExtFootnotesTestSuite {
 }
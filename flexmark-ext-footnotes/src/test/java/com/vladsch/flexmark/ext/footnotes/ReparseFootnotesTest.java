@@ -0,0 +1,55 @@
+package com.vladsch.flexmark.ext.footnotes;
+
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.parser.TextEdit;
+import com.vladsch.flexmark.test.util.AstCollectingVisitor;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ReparseFootnotesTest {
+    private static DataHolder OPTIONS = new MutableDataSet()
+            .set(Parser.EXTENSIONS, Collections.singletonList(FootnoteExtension.create()));
+
+    private static Parser PARSER = Parser.builder(OPTIONS).build();
+    private static HtmlRenderer RENDERER = HtmlRenderer.builder(OPTIONS).build();
+
+    private static void assertReparsed(String text, TextEdit edit) {
+        Document document = PARSER.parse(text);
+        Document reparsed = PARSER.reparse(document, edit);
+        Document expected = PARSER.parse(edit.apply(text));
+
+        assertEquals(RENDERER.render(expected), RENDERER.render(reparsed));
+        assertEquals(new AstCollectingVisitor().collectAndGetAstText(expected), new AstCollectingVisitor().collectAndGetAstText(reparsed));
+    }
+
+    @Test
+    public void test_editWithFootnotes() {
+        String text = "para one[^a]\n\npara two\n\npara three[^b]\n\n[^a]: note a\n\n[^b]: note b\n";
+        assertReparsed(text, TextEdit.insert(text.indexOf("two"), "X"));
+    }
+
+    @Test
+    public void test_editAddingFootnote() {
+        String text = "para one\n\npara two\n\n[^a]: note a\n";
+        assertReparsed(text, TextEdit.insert(text.indexOf(" two"), "[^a]"));
+    }
+
+    @Test
+    public void test_editWithoutFootnotes() {
+        String text = "para one\n\npara two\n\npara three\n";
+        Document document = PARSER.parse(text);
+        TextEdit edit = TextEdit.insert(text.indexOf("two"), "X");
+
+        // no footnotes, incremental reparse
+        assertSame(document, PARSER.reparse(document, edit));
+        assertEquals(RENDERER.render(PARSER.parse(edit.apply(text))), RENDERER.render(document));
+    }
+}
@@ -45,6 +45,11 @@ public class StrikethroughDelimiterProcessor implements DelimiterProcessor {
         return false;
     }
 
+    @Override
+    public boolean isParallelSafe() {
+        return true;
+    }
+
     @Override
     public int getDelimiterUse(DelimiterRun opener, DelimiterRun closer) {
         if (opener.length() >= 2 && closer.length() >= 2) {
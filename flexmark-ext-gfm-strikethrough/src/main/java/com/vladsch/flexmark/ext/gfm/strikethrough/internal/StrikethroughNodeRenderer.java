@@ -6,8 +6,8 @@ import com.vladsch.flexmark.ext.gfm.strikethrough.Subscript;
 import com.vladsch.flexmark.html.HtmlWriter;
 import com.vladsch.flexmark.html.renderer.NodeRenderer;
 import com.vladsch.flexmark.html.renderer.NodeRendererContext;
-import com.vladsch.flexmark.html.renderer.NodeRendererFactory;
 import com.vladsch.flexmark.html.renderer.NodeRenderingHandler;
+import com.vladsch.flexmark.html.renderer.SharedNodeRendererFactory;
 import com.vladsch.flexmark.util.data.DataHolder;
 import org.jetbrains.annotations.NotNull;
 
@@ -68,7 +68,7 @@ public class StrikethroughNodeRenderer implements NodeRenderer {
         }
     }
 
-    public static class Factory implements NodeRendererFactory {
+    public static class Factory implements SharedNodeRendererFactory {
         @NotNull
         @Override
         public NodeRenderer apply(@NotNull DataHolder options) {
@@ -42,6 +42,11 @@ public class StrikethroughSubscriptDelimiterProcessor implements DelimiterProces
         return false;
     }
 
+    @Override
+    public boolean isParallelSafe() {
+        return true;
+    }
+
     @Override
     public int getDelimiterUse(DelimiterRun opener, DelimiterRun closer) {
         // "multiple of 3" rule for internal delimiter runs
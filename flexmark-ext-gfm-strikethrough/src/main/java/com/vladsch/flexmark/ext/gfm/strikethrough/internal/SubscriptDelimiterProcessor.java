@@ -40,6 +40,11 @@ public class SubscriptDelimiterProcessor implements DelimiterProcessor {
         return false;
     }
 
+    @Override
+    public boolean isParallelSafe() {
+        return true;
+    }
+
     @Override
     public Node unmatchedDelimiterNode(InlineParser inlineParser, DelimiterRun delimiter) {
         return null;
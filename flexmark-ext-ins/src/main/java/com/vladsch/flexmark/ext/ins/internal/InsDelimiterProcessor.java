@@ -40,6 +40,11 @@ public class InsDelimiterProcessor implements DelimiterProcessor {
         return false;
     }
 
+    @Override
+    public boolean isParallelSafe() {
+        return true;
+    }
+
     @Override
     public int getDelimiterUse(DelimiterRun opener, DelimiterRun closer) {
         if (opener.length() >= 2 && closer.length() >= 2) {
@@ -40,6 +40,11 @@ public class SuperscriptDelimiterProcessor implements DelimiterProcessor {
         return false;
     }
 
+    @Override
+    public boolean isParallelSafe() {
+        return true;
+    }
+
     @Override
     public int getDelimiterUse(DelimiterRun opener, DelimiterRun closer) {
         if (opener.length() >= 1 && closer.length() >= 1) {
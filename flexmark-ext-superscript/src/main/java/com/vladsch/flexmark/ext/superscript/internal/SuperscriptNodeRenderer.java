@@ -5,8 +5,8 @@ import com.vladsch.flexmark.ext.superscript.SuperscriptExtension;
 import com.vladsch.flexmark.html.HtmlWriter;
 import com.vladsch.flexmark.html.renderer.NodeRenderer;
 import com.vladsch.flexmark.html.renderer.NodeRendererContext;
-import com.vladsch.flexmark.html.renderer.NodeRendererFactory;
 import com.vladsch.flexmark.html.renderer.NodeRenderingHandler;
+import com.vladsch.flexmark.html.renderer.SharedNodeRendererFactory;
 import com.vladsch.flexmark.util.data.DataHolder;
 import org.jetbrains.annotations.NotNull;
 
@@ -45,7 +45,7 @@ public class SuperscriptNodeRenderer implements NodeRenderer {
         }
     }
 
-    public static class Factory implements NodeRendererFactory {
+    public static class Factory implements SharedNodeRendererFactory {
         @NotNull
         @Override
         public NodeRenderer apply(@NotNull DataHolder options) {
@@ -5,6 +5,7 @@ import com.vladsch.flexmark.html.renderer.HeaderIdGeneratorFactory;
 import com.vladsch.flexmark.html.renderer.LinkStatus;
 import com.vladsch.flexmark.html.renderer.LinkType;
 import com.vladsch.flexmark.html.renderer.ResolvedLink;
+import com.vladsch.flexmark.html2md.converter.internal.HtmlBlockSplitter;
 import com.vladsch.flexmark.parser.Parser;
 import com.vladsch.flexmark.util.builder.BuilderBase;
 import com.vladsch.flexmark.util.data.DataHolder;
@@ -33,6 +34,8 @@ import org.jsoup.nodes.Element;
 import org.jsoup.nodes.Node;
 import org.jsoup.nodes.TextNode;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -330,6 +333,43 @@ public class FlexmarkHtmlConverter {
         converter.flushTo(output, htmlConverterOptions.maxBlankLines, htmlConverterOptions.maxTrailingBlankLines);
     }
 
+    /**
+     * Convert HTML read from the reader, appending markdown of each top level block to the output as it is converted
+     * <p>
+     * Only the current top level block, the last node of the previous block and the following block are parsed and kept
+     * in memory. Constructs needing lookahead like tables are contained in their block and references are accumulated
+     * for output at the end of the document.
+     * <p>
+     * Top level div, main, article and section elements whose content is converted unwrapped are descended into so their
+     * blocks are converted one at a time.
+     * <p>
+     * NOTE: each block is parsed as a separate HTML fragment so lookups of other elements of the document, by id for example,
+     * only find elements in the blocks kept in memory
+     *
+     * @param html   reader of html to convert to markdown
+     * @param output appendable to use for the output
+     * @throws IOException if reader or output throws
+     */
+    public void convert(@NotNull Reader html, @NotNull Appendable output) throws IOException {
+        MainHtmlConverter converter = new MainHtmlConverter(options, new HtmlMarkdownWriter(htmlConverterOptions.formatFlags), Jsoup.parse(""), null);
+        converter.renderStreaming(new HtmlBlockSplitter(html, getStreamingWrapperElements()), output);
+        converter.flushTo(output, htmlConverterOptions.maxBlankLines, htmlConverterOptions.maxTrailingBlankLines);
+    }
+
+    // elements whose empty element converts to the same separators as the element with its content
+    private Set<String> getStreamingWrapperElements() {
+        HashSet<String> wrappers = new HashSet<>();
+        if (!htmlConverterOptions.divTableProcessing) wrappers.add(DIV_NODE);
+        if (!htmlConverterOptions.outputUnknownTags) wrappers.add("main");
+
+        List<String> unwrappedTags = Arrays.asList(htmlConverterOptions.unwrappedTags);
+        if (unwrappedTags.contains("article")) wrappers.add("article");
+        if (unwrappedTags.contains("section")) wrappers.add("section");
+
+        wrappers.removeAll(Arrays.asList(htmlConverterOptions.wrappedTags));
+        return wrappers;
+    }
+
     /**
      * Parse HTML with default options
      *
@@ -523,7 +563,7 @@ public class FlexmarkHtmlConverter {
     final public static Iterable<Node> NULL_ITERABLE = () -> NULL_ITERATOR;
 
     private class MainHtmlConverter extends HtmlNodeConverterSubContext {
-        final private @NotNull Document document;
+        private @NotNull Document document;
         final private @NotNull com.vladsch.flexmark.util.ast.Document myForDocument;
         final private @NotNull Map<String, HtmlNodeRendererHandler<?>> renderers;
 
@@ -1074,6 +1114,99 @@ public class FlexmarkHtmlConverter {
             return new SubHtmlNodeConverter(this, writer, options == null || options == myOptions ? myOptions : new ScopedDataSet(myOptions, options));
         }
 
+        void renderStreaming(@NotNull HtmlBlockSplitter splitter, @NotNull Appendable output) throws IOException {
+            Document shell = document;
+
+            for (HtmlConverterPhase phase : HtmlConverterPhase.values()) {
+                if (phase != HtmlConverterPhase.DOCUMENT && !renderingPhases.contains(phase)) { continue; }
+                this.phase = phase;
+
+                if (this.phase == HtmlConverterPhase.DOCUMENT) {
+                    // rendered with the last node of the previous block and nodes of the following block as siblings
+                    // so sibling tests and look ahead give the same result as for the full document, a wrapper start
+                    // is rendered as an empty element with its previous sibling and a wrapper end with its following one
+                    Node previous = null;
+                    List<Node> current = parseBlock(splitter.nextBlock());
+                    HtmlBlockSplitter.BlockType currentType = splitter.getBlockType();
+
+                    while (current != null) {
+                        List<Node> following = parseBlock(splitter.nextBlock());
+                        HtmlBlockSplitter.BlockType followingType = splitter.getBlockType();
+
+                        document = Document.createShell("");
+                        Element body = document.body();
+                        if (previous != null && currentType != HtmlBlockSplitter.BlockType.WRAPPER_END) body.appendChild(previous);
+                        int start = body.childNodeSize();
+                        for (Node node : current) body.appendChild(node);
+                        int end = body.childNodeSize();
+                        boolean hasFollowing = following != null && currentType != HtmlBlockSplitter.BlockType.WRAPPER_START && followingType != HtmlBlockSplitter.BlockType.WRAPPER_END;
+                        if (hasFollowing) {
+                            for (Node node : following) body.appendChild(node);
+                        }
+
+                        if (DUMP_HTML_TREE.get(myOptions)) {
+                            LineAppendableImpl trace = new LineAppendableImpl(LineAppendable.F_TRIM_LEADING_EOL);
+                            trace.setIndentPrefix("  ");
+                            dumpHtmlTree(trace, body);
+                            System.out.println(trace.toString(0, 0));
+                        }
+
+                        pushState(body);
+                        HtmlConverterState state = getState();
+                        assert state != null;
+                        skip(start);
+
+                        Node node;
+                        while (state.getIndex() < end && (node = next()) != null) {
+                            render(node);
+                        }
+
+                        int rendered = state.getIndex();
+                        popState(null);
+
+                        // nodes of the following block consumed while rendering are not rendered again
+                        if (hasFollowing && rendered > end) {
+                            following = following.subList(rendered - end, following.size());
+                            if (following.isEmpty()) {
+                                following = parseBlock(splitter.nextBlock());
+                                followingType = splitter.getBlockType();
+                            }
+                        }
+
+                        // content of a wrapper has no previous sibling
+                        previous = null;
+                        if (currentType != HtmlBlockSplitter.BlockType.WRAPPER_START) {
+                            for (int i = rendered; i-- > 0; ) {
+                                Node child = body.childNode(i);
+                                if (child instanceof Element || child instanceof TextNode && !((TextNode) child).isBlank()) {
+                                    previous = child;
+                                    break;
+                                }
+                            }
+                        }
+
+                        current = following;
+                        currentType = followingType;
+                        markdown.appendCompletedLinesTo(output, myHtmlConverterOptions.maxBlankLines);
+                    }
+                    document = shell;
+                } else {
+                    for (PhasedHtmlNodeRenderer phasedFormatter : phasedFormatters) {
+                        if (phasedFormatter.getHtmlConverterPhases().contains(phase)) {
+                            myRenderingNode = shell;
+                            phasedFormatter.renderDocument(this, markdown, shell, phase);
+                            myRenderingNode = null;
+                        }
+                    }
+                }
+            }
+        }
+
+        @Nullable
+        private List<Node> parseBlock(@Nullable String html) {
+            return html == null ? null : new ArrayList<>(Jsoup.parseBodyFragment(html).body().childNodes());
+        }
+
         void renderNode(Node node, HtmlNodeConverterSubContext subContext) {
             if (node instanceof Document) {
                 // here we render multiple phases
@@ -0,0 +1,456 @@
+package com.vladsch.flexmark.html2md.converter.internal;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Splits HTML read from a reader into the HTML of consecutive top level body blocks
+ * <p>
+ * Only the stack of open element names and the HTML of the current block are kept. A block is a top level block
+ * element with its content or a run of top level text and inline elements. Document structure tags (doctype,
+ * html, head with its content, body) are dropped.
+ * <p>
+ * Top level wrapper elements, given to the constructor, are not returned as one block but descended into, so a
+ * document wrapped in a div, main or article element is still split into its blocks. A wrapper is returned as
+ * its empty element at its start and at its end, with {@link BlockType#WRAPPER_START} and {@link BlockType#WRAPPER_END},
+ * and its content blocks between them.
+ * <p>
+ * NOTE: the stack only tracks explicitly closed elements and the implied end of an open p, li, dt, dd, tr, td, th or
+ * option element by a following sibling. Unclosed block elements extend the block to the end of their parent
+ * or the end of input, the HTML of each block is parsed by a full HTML parser so it affects block size and not the
+ * result.
+ */
+public class HtmlBlockSplitter {
+    public enum BlockType {
+        /**
+         * top level block or run of inline content
+         */
+        BLOCK,
+        /**
+         * start of a wrapper element, HTML of the empty element, its content blocks follow
+         */
+        WRAPPER_START,
+        /**
+         * end of a wrapper element, HTML of the empty element
+         */
+        WRAPPER_END,
+    }
+
+    final private static HashSet<String> BLOCK_ELEMENTS = new HashSet<>(Arrays.asList(
+            "address", "article", "aside", "blockquote", "center", "details", "dialog", "dir", "div", "dl", "fieldset",
+            "figcaption", "figure", "footer", "form", "h1", "h2", "h3", "h4", "h5", "h6", "header", "hgroup", "hr",
+            "li", "listing", "main", "menu", "nav", "ol", "p", "pre", "section", "summary", "table", "ul", "xmp",
+            "script", "style", "template", "noscript"
+    ));
+
+    final private static HashSet<String> VOID_ELEMENTS = new HashSet<>(Arrays.asList(
+            "area", "base", "br", "col", "embed", "hr", "img", "input", "keygen", "link", "meta", "param", "source", "track", "wbr"
+    ));
+
+    final private static HashSet<String> RAW_TEXT_ELEMENTS = new HashSet<>(Arrays.asList(
+            "script", "style", "textarea", "title", "xmp", "iframe", "noembed", "noframes"
+    ));
+
+    // elements whose end is implied by the start of a sibling with any of the given names
+    final private static HashSet<String> IMPLIED_END_ELEMENTS = new HashSet<>(Arrays.asList(
+            "li", "dt", "dd", "tr", "td", "th", "option"
+    ));
+
+    // top level elements Jsoup moves to head, not converted
+    final private static HashSet<String> HEAD_ELEMENTS = new HashSet<>(Arrays.asList(
+            "base", "link", "meta", "title"
+    ));
+
+    final private static int EOF = -1;
+
+    final private Reader reader;
+    final private char[] buffer = new char[8192];
+    private int bufferLength;
+    private int bufferPos;
+    private int pushedBack = EOF;
+
+    final private @NotNull Set<String> wrapperElements;
+    final private ArrayList<String> openElements = new ArrayList<>();
+    final private ArrayList<String> openWrappers = new ArrayList<>();
+    final private ArrayList<String> openWrapperHtml = new ArrayList<>();
+    final private StringBuilder block = new StringBuilder();
+    private boolean blockHasContent;
+    private boolean blockIsInline;
+
+    final private ArrayDeque<String> completeBlocks = new ArrayDeque<>();
+    final private ArrayDeque<BlockType> completeBlockTypes = new ArrayDeque<>();
+    private @NotNull BlockType blockType = BlockType.BLOCK;
+
+    public HtmlBlockSplitter(@NotNull Reader reader) {
+        this(reader, Collections.emptySet());
+    }
+
+    /**
+     * @param reader          reader of HTML
+     * @param wrapperElements names of top level elements to descend into
+     */
+    public HtmlBlockSplitter(@NotNull Reader reader, @NotNull Set<String> wrapperElements) {
+        this.reader = reader;
+        this.wrapperElements = wrapperElements;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != EOF) {
+            int c = pushedBack;
+            pushedBack = EOF;
+            return c;
+        }
+
+        if (bufferPos >= bufferLength) {
+            bufferLength = reader.read(buffer, 0, buffer.length);
+            bufferPos = 0;
+            if (bufferLength <= 0) {
+                bufferLength = 0;
+                return EOF;
+            }
+        }
+        return buffer[bufferPos++];
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+
+    /**
+     * @return type of the block last returned by {@link #nextBlock()}
+     */
+    @NotNull
+    public BlockType getBlockType() {
+        return blockType;
+    }
+
+    /**
+     * @return HTML of the next top level block or null at end of input
+     * @throws IOException if reader throws
+     */
+    @Nullable
+    public String nextBlock() throws IOException {
+        while (completeBlocks.isEmpty()) {
+            int c = read();
+
+            if (c == EOF) {
+                openElements.clear();
+                completeBlock();
+                while (!openWrappers.isEmpty()) {
+                    closeWrapper();
+                }
+                if (completeBlocks.isEmpty()) return null;
+                break;
+            }
+
+            if (c != '<') {
+                if (openElements.isEmpty() && !blockHasContent && !blockIsInline && Character.isWhitespace(c)) {
+                    // whitespace between top level blocks
+                    block.append((char) c);
+                    continue;
+                }
+
+                startInline();
+                block.append((char) c);
+                blockHasContent = true;
+                continue;
+            }
+
+            int next = read();
+            if (next == '!') {
+                String markup = readMarkupDeclaration();
+                if (!markup.regionMatches(true, 0, "<!doctype", 0, "<!doctype".length())) {
+                    startInline();
+                    block.append(markup);
+                    blockHasContent = true;
+                }
+            } else if (next == '?') {
+                readUntil(new StringBuilder("<?"), ">");
+            } else if (next == '/') {
+                endTag();
+            } else if (isAsciiLetter(next)) {
+                startTag((char) next);
+            } else {
+                // literal <
+                startInline();
+                block.append('<');
+                blockHasContent = true;
+                if (next != EOF) unread(next);
+            }
+        }
+
+        blockType = completeBlockTypes.removeFirst();
+        return completeBlocks.removeFirst();
+    }
+
+    private static boolean isAsciiLetter(int c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private void startInline() {
+        if (openElements.isEmpty()) {
+            blockIsInline = true;
+        }
+    }
+
+    // adds the current block to complete blocks, if it has content
+    private void completeBlock() {
+        if (blockHasContent) {
+            completeBlocks.addLast(block.toString());
+            completeBlockTypes.addLast(BlockType.BLOCK);
+        }
+        block.setLength(0);
+        blockHasContent = false;
+        blockIsInline = false;
+    }
+
+    private void openWrapper(String name, String tag) {
+        String html = tag + "</" + name + ">";
+        openWrappers.add(name);
+        openWrapperHtml.add(html);
+        completeBlocks.addLast(html);
+        completeBlockTypes.addLast(BlockType.WRAPPER_START);
+    }
+
+    private void closeWrapper() {
+        openWrappers.remove(openWrappers.size() - 1);
+        completeBlocks.addLast(openWrapperHtml.remove(openWrapperHtml.size() - 1));
+        completeBlockTypes.addLast(BlockType.WRAPPER_END);
+    }
+
+    private String readMarkupDeclaration() throws IOException {
+        StringBuilder sb = new StringBuilder("<!");
+        int c1 = read();
+        if (c1 == '-') {
+            int c2 = read();
+            sb.append('-');
+            if (c2 == '-') {
+                sb.append('-');
+                return readUntil(sb, "-->");
+            }
+            if (c2 != EOF) unread(c2);
+        } else if (c1 == '[') {
+            sb.append('[');
+            return readUntil(sb, "]]>");
+        } else if (c1 != EOF) {
+            unread(c1);
+        }
+        return readUntil(sb, ">");
+    }
+
+    private String readUntil(StringBuilder sb, String terminator) throws IOException {
+        int c;
+        while ((c = read()) != EOF) {
+            sb.append((char) c);
+            if (c == terminator.charAt(terminator.length() - 1) && endsWith(sb, terminator)) break;
+        }
+        return sb.toString();
+    }
+
+    private static boolean endsWith(StringBuilder sb, String suffix) {
+        int offset = sb.length() - suffix.length();
+        if (offset < 0) return false;
+        for (int i = 0; i < suffix.length(); i++) {
+            if (sb.charAt(offset + i) != suffix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    // reads the rest of a tag after the name, respecting quoted attribute values
+    private String readTagRest(StringBuilder sb) throws IOException {
+        int quote = 0;
+        boolean afterEquals = false;
+        int c;
+        while ((c = read()) != EOF) {
+            sb.append((char) c);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (afterEquals && (c == '"' || c == '\'')) {
+                quote = c;
+            } else if (c == '>') {
+                break;
+            }
+
+            if (!Character.isWhitespace(c)) afterEquals = c == '=';
+        }
+        return sb.toString();
+    }
+
+    private String readTagName(StringBuilder sb, char first) throws IOException {
+        StringBuilder name = new StringBuilder();
+        name.append(first);
+        sb.append(first);
+        int c;
+        while ((c = read()) != EOF) {
+            if (Character.isWhitespace(c) || c == '/' || c == '>') {
+                unread(c);
+                break;
+            }
+            name.append((char) c);
+            sb.append((char) c);
+        }
+        return name.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private void startTag(char first) throws IOException {
+        StringBuilder sb = new StringBuilder("<");
+        String name = readTagName(sb, first);
+        String tag = readTagRest(sb);
+        boolean selfClosing = tag.endsWith("/>");
+
+        switch (name) {
+            case "html":
+            case "body":
+                return;
+
+            case "head":
+                skipHead();
+                return;
+
+            default:
+                break;
+        }
+
+        if (openElements.isEmpty() && HEAD_ELEMENTS.contains(name)) {
+            if (RAW_TEXT_ELEMENTS.contains(name)) readRawText(new StringBuilder(), name);
+            return;
+        }
+
+        if (!openElements.isEmpty()) {
+            String current = openElements.get(openElements.size() - 1);
+            if (current.equals("p") && BLOCK_ELEMENTS.contains(name) || IMPLIED_END_ELEMENTS.contains(current) && current.equals(name)) {
+                openElements.remove(openElements.size() - 1);
+            }
+        }
+
+        if (openElements.isEmpty() && !selfClosing && wrapperElements.contains(name)) {
+            completeBlock();
+            openWrapper(name, tag);
+            return;
+        }
+
+        boolean isBlock = BLOCK_ELEMENTS.contains(name);
+
+        if (openElements.isEmpty()) {
+            if (isBlock) {
+                // block starts a new top level block, finish the preceding one
+                completeBlock();
+            } else {
+                blockIsInline = true;
+            }
+        }
+
+        block.append(tag);
+        blockHasContent = true;
+
+        if (RAW_TEXT_ELEMENTS.contains(name) && !selfClosing) {
+            readRawText(block, name);
+            if (openElements.isEmpty() && isBlock) {
+                completeBlock();
+            }
+        } else if (VOID_ELEMENTS.contains(name) || selfClosing && !isBlock) {
+            if (openElements.isEmpty() && isBlock) {
+                completeBlock();
+            }
+        } else {
+            openElements.add(name);
+        }
+    }
+
+    private void endTag() throws IOException {
+        StringBuilder sb = new StringBuilder("</");
+        int first = read();
+        if (!isAsciiLetter(first)) {
+            // bogus comment
+            if (first != EOF) sb.append((char) first);
+            readUntil(sb, ">");
+            return;
+        }
+
+        String name = readTagName(sb, (char) first);
+        String tag = readTagRest(sb);
+
+        switch (name) {
+            case "html":
+            case "body":
+            case "head":
+                return;
+
+            default:
+                break;
+        }
+
+        int index = openElements.lastIndexOf(name);
+        int wrapperIndex = openWrappers.lastIndexOf(name);
+
+        if (index < 0 && wrapperIndex >= 0) {
+            // ends the wrapper and its unclosed elements
+            openElements.clear();
+            completeBlock();
+            while (openWrappers.size() > wrapperIndex) {
+                closeWrapper();
+            }
+            return;
+        }
+
+        startInline();
+        block.append(tag);
+
+        if (index >= 0) {
+            while (openElements.size() > index) {
+                openElements.remove(openElements.size() - 1);
+            }
+
+            if (index == 0 && !blockIsInline) {
+                completeBlock();
+            }
+        }
+    }
+
+    private void readRawText(StringBuilder out, String name) throws IOException {
+        // only the last end tag start is checked, so each character is examined a fixed number of times
+        String endTag = "</" + name;
+        int endTagStart = -1;
+        int prev = EOF;
+        int c;
+        while ((c = read()) != EOF) {
+            out.append((char) c);
+            if (c == '/' && prev == '<') {
+                endTagStart = out.length() - 2;
+            } else if (c == '>' && endTagStart >= 0 && out.length() - endTagStart > endTag.length() && startsWithIgnoreCase(out, endTagStart, endTag)) {
+                // name ends at whitespace, / or >
+                char next = out.charAt(endTagStart + endTag.length());
+                if (next == '>' || next == '/' || Character.isWhitespace(next)) break;
+            }
+            prev = c;
+        }
+    }
+
+    private static boolean startsWithIgnoreCase(StringBuilder sb, int offset, String prefix) {
+        for (int i = 0; i < prefix.length(); i++) {
+            if (Character.toLowerCase(sb.charAt(offset + i)) != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private void skipHead() throws IOException {
+        // head content is not converted, skip to end of head or start of body
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = read()) != EOF) {
+            sb.append((char) c);
+            if (c == '>') {
+                int pos = sb.lastIndexOf("<");
+                if (pos >= 0) {
+                    String tag = sb.substring(pos).toLowerCase(Locale.ROOT);
+                    if (tag.startsWith("</head") || tag.startsWith("<body")) return;
+                }
+                sb.setLength(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.vladsch.flexmark.html2md.converter;
+
+import com.vladsch.flexmark.html2md.converter.internal.HtmlBlockSplitter;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingHtmlConverterTest {
+    private static List<String> blocks(String html) throws IOException {
+        HtmlBlockSplitter splitter = new HtmlBlockSplitter(new StringReader(html));
+        ArrayList<String> blocks = new ArrayList<>();
+        String block;
+        while ((block = splitter.nextBlock()) != null) {
+            blocks.add(block);
+        }
+        return blocks;
+    }
+
+    private static List<String> items(String html, String... wrapperElements) throws IOException {
+        HtmlBlockSplitter splitter = new HtmlBlockSplitter(new StringReader(html), new HashSet<>(Arrays.asList(wrapperElements)));
+        ArrayList<String> items = new ArrayList<>();
+        String block;
+        while ((block = splitter.nextBlock()) != null) {
+            switch (splitter.getBlockType()) {
+                case WRAPPER_START:
+                    items.add("start:" + block);
+                    break;
+                case WRAPPER_END:
+                    items.add("end:" + block);
+                    break;
+                default:
+                    items.add(block);
+                    break;
+            }
+        }
+        return items;
+    }
+
+    private static String convertStreaming(FlexmarkHtmlConverter converter, String html) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        converter.convert(new StringReader(html), sb);
+        return sb.toString();
+    }
+
+    @Test
+    public void test_splitBlocks() throws IOException {
+        assertEquals(Arrays.asList("<h1>Heading</h1>", "<p>text <em>emphasis</em></p>", "<hr>"),
+                blocks("<h1>Heading</h1>\n<p>text <em>emphasis</em></p>\n<hr>\n"));
+    }
+
+    @Test
+    public void test_splitDropsDocumentStructure() throws IOException {
+        assertEquals(Arrays.asList("<p>text</p>"),
+                blocks("<!DOCTYPE html>\n<html><head><title>Title</title><style>p {}</style></head>\n<body>\n<p>text</p>\n</body></html>\n"));
+    }
+
+    @Test
+    public void test_splitImpliedEnds() throws IOException {
+        assertEquals(Arrays.asList("<p>one\n", "<p>two\n", "<ul><li>a<li>b</ul>"),
+                blocks("<p>one\n<p>two\n<ul><li>a<li>b</ul>"));
+    }
+
+    @Test
+    public void test_splitNested() throws IOException {
+        assertEquals(Arrays.asList("<div><div><p>a</p></div><pre><code>&lt;/div&gt;</code></pre></div>", "<p>b</p>"),
+                blocks("<div><div><p>a</p></div><pre><code>&lt;/div&gt;</code></pre></div><p>b</p>"));
+    }
+
+    @Test
+    public void test_splitInlineRun() throws IOException {
+        assertEquals(Arrays.asList("text <b>bold</b> <a title=\"a > b\" href='x'>link</a>\n", "<p>para</p>"),
+                blocks("text <b>bold</b> <a title=\"a > b\" href='x'>link</a>\n<p>para</p>"));
+    }
+
+    @Test
+    public void test_splitRawText() throws IOException {
+        assertEquals(Arrays.asList("<script>if (a < b) document.write('</p>');</script>", "<p>text</p>"),
+                blocks("<script>if (a < b) document.write('</p>');</script><p>text</p>"));
+    }
+
+    @Test
+    public void test_splitRawTextEndTagCase() throws IOException {
+        assertEquals(Arrays.asList("<style>a > b { } </styles> </STYLE >", "<p>text</p>"),
+                blocks("<style>a > b { } </styles> </STYLE ><p>text</p>"));
+    }
+
+    @Test
+    public void test_splitWrappers() throws IOException {
+        assertEquals(Arrays.asList("<header>top</header>", "start:<div id=\"content\"></div>", "start:<main></main>", "<h1>Heading</h1>", "<p>para</p>", "end:<main></main>", "end:<div id=\"content\"></div>", "<p>last</p>"),
+                items("<header>top</header><div id=\"content\"><main>\n<h1>Heading</h1>\n<p>para</p>\n</main></div><p>last</p>", "div", "main"));
+
+        // only top level wrappers
+        assertEquals(Arrays.asList("<blockquote><div><p>a</p></div></blockquote>"),
+                items("<blockquote><div><p>a</p></div></blockquote>", "div"));
+    }
+
+    @Test
+    public void test_splitWrapperUnclosed() throws IOException {
+        assertEquals(Arrays.asList("start:<div></div>", "<p>a", "<ul><li>b", "end:<div></div>", "<p>c</p>", "start:<div></div>", "<p>d</p>", "end:<div></div>"),
+                items("<div><p>a<ul><li>b</div><p>c</p><div><p>d</p>", "div"));
+    }
+
+    @Test
+    public void test_splitLayoutTable() throws IOException {
+        // layout table is one block, converted the same as other tables
+        assertEquals(Arrays.asList("<table role=\"presentation\"><tr><td><p>a</p></td><td><p>b</tr></table>", "<p>c</p>"),
+                items("<table role=\"presentation\"><tr><td><p>a</p></td><td><p>b</tr></table><p>c</p>", "div", "main"));
+    }
+
+    @Test
+    public void test_convertSameAsDocument() throws IOException {
+        FlexmarkHtmlConverter converter = FlexmarkHtmlConverter.builder().build();
+        String html = "" +
+                "<h1>Heading</h1>\n" +
+                "<p>Paragraph with <strong>bold</strong> and <a href=\"http://example.com\">link</a>.</p>\n" +
+                "<ul>\n<li>item 1</li>\n<li>item 2\n<ol><li>nested</li></ol></li>\n</ul>\n" +
+                "<blockquote><p>quoted</p></blockquote>\n" +
+                "<pre><code class=\"language-java\">int a = 0;\n\nint b = 1;\n</code></pre>\n" +
+                "<table>\n<thead><tr><th>A</th><th>B</th></tr></thead>\n<tbody><tr><td>1</td><td>2</td></tr></tbody>\n</table>\n" +
+                "<p>last</p>\n";
+
+        assertEquals(converter.convert(html), convertStreaming(converter, html));
+    }
+
+    @Test
+    public void test_convertReferences() throws IOException {
+        FlexmarkHtmlConverter converter = FlexmarkHtmlConverter.builder(new MutableDataSet()
+                .set(FlexmarkHtmlConverter.EXT_INLINE_LINK, LinkConversion.MARKDOWN_REFERENCE)
+        ).build();
+        String html = "" +
+                "<p>first <a href=\"http://example.com/1\">one</a></p>\n" +
+                "<p>second <a href=\"http://example.com/2\">two</a> and <a href=\"http://example.com/1\">one</a></p>\n";
+
+        String expected = converter.convert(html);
+        assertTrue(expected.contains("[one]: http://example.com/1"));
+        assertEquals(expected, convertStreaming(converter, html));
+    }
+
+    @Test
+    public void test_convertOutputsBeforeEndOfInput() throws IOException {
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            html.append("<p>paragraph ").append(i).append("</p>\n");
+        }
+
+        StringBuilder sb = new StringBuilder();
+        int[] outputAtEnd = { -1 };
+        Reader reader = new StringReader(html.toString()) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                int read = super.read(cbuf, off, Math.min(len, 64));
+                if (read < 0 && outputAtEnd[0] < 0) outputAtEnd[0] = sb.length();
+                return read;
+            }
+        };
+
+        FlexmarkHtmlConverter converter = FlexmarkHtmlConverter.builder().build();
+        converter.convert(reader, sb);
+
+        assertEquals(converter.convert(html.toString()), sb.toString());
+        assertTrue(outputAtEnd[0] > sb.length() / 2);
+    }
+
+    @Test
+    public void test_convertWrappedSameAsDocument() throws IOException {
+        FlexmarkHtmlConverter converter = FlexmarkHtmlConverter.builder().build();
+        FlexmarkHtmlConverter divAsParagraph = FlexmarkHtmlConverter.builder(new MutableDataSet()
+                .set(FlexmarkHtmlConverter.DIV_AS_PARAGRAPH, true)
+        ).build();
+
+        String[] documents = {
+                "<div id=\"header\">Site</div>\n<div id=\"content\">\n<main><article>\n<h1>Heading</h1>\n<p>para</p>\n<ul><li>item</li></ul>\n</article></main>\n</div>\n<div id=\"footer\">Footer</div>\n",
+                "<div><div>a</div><div>b</div></div><div>c</div>",
+                "text<div><p>a</p>more</div>after",
+                "<section><p>a</p></section><section><p>b</p></section>",
+                "<table role=\"presentation\"><tr><td><h2>Side</h2></td><td><p>Main <em>content</em></p><table><tr><th>A</th></tr><tr><td>1</td></tr></table></td></tr></table><p>last</p>",
+        };
+
+        for (String html : documents) {
+            assertEquals(html, converter.convert(html), convertStreaming(converter, html));
+            assertEquals(html, divAsParagraph.convert(html), convertStreaming(divAsParagraph, html));
+        }
+    }
+
+    @Test
+    public void test_convertWrappedOutputsBeforeEndOfInput() throws IOException {
+        StringBuilder html = new StringBuilder("<div id=\"content\"><main>\n");
+        for (int i = 0; i < 100; i++) {
+            html.append("<p>paragraph ").append(i).append("</p>\n");
+        }
+        html.append("</main></div>\n");
+
+        StringBuilder sb = new StringBuilder();
+        int[] outputAtEnd = { -1 };
+        Reader reader = new StringReader(html.toString()) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                int read = super.read(cbuf, off, Math.min(len, 64));
+                if (read < 0 && outputAtEnd[0] < 0) outputAtEnd[0] = sb.length();
+                return read;
+            }
+        };
+
+        FlexmarkHtmlConverter converter = FlexmarkHtmlConverter.builder().build();
+        converter.convert(reader, sb);
+
+        assertEquals(converter.convert(html.toString()), sb.toString());
+        assertTrue(outputAtEnd[0] > sb.length() / 2);
+    }
+}
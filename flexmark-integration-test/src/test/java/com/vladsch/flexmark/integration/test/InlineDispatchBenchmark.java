@@ -0,0 +1,68 @@
+package com.vladsch.flexmark.integration.test;
+
+import com.vladsch.flexmark.ext.emoji.EmojiExtension;
+import com.vladsch.flexmark.ext.gfm.issues.GfmIssuesExtension;
+import com.vladsch.flexmark.ext.gfm.strikethrough.StrikethroughExtension;
+import com.vladsch.flexmark.ext.gfm.users.GfmUsersExtension;
+import com.vladsch.flexmark.ext.superscript.SuperscriptExtension;
+import com.vladsch.flexmark.ext.typographic.TypographicExtension;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+
+/**
+ * Inline parsing throughput of paragraphs dense in delimiter and inline parser extension characters
+ */
+@State(Scope.Benchmark)
+public class InlineDispatchBenchmark {
+    final private static int PARAGRAPHS = 2000;
+
+    final private static String EMPHASIS_LINE = "Some *emphasis* and **strong** text with _under_ and __strong under__, *nested **strong** and _mixed_ emphasis*, a*b*c and snake_case_words.\n";
+    final private static String EXTENSION_LINE = "Text ~~struck~~ and ~sub~ with x^2^ power :smile: by @user in #123 -- \"quoted\" and 'single' ... :+1: :warning: ~~more *text*~~\n";
+
+    @Param({ "emphasis", "extensions" })
+    public String input;
+
+    private String text;
+    private Parser parser;
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(InlineDispatchBenchmark.class.getName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setup() {
+        String line = input.equals("emphasis") ? EMPHASIS_LINE : EXTENSION_LINE;
+        StringBuilder sb = new StringBuilder(PARAGRAPHS * (line.length() * 3 + 1));
+        for (int i = 0; i < PARAGRAPHS; i++) {
+            sb.append(line).append(line).append(line).append('\n');
+        }
+        text = sb.toString();
+
+        MutableDataSet options = new MutableDataSet();
+        options.set(Parser.EXTENSIONS, Arrays.asList(
+                EmojiExtension.create(),
+                GfmIssuesExtension.create(),
+                GfmUsersExtension.create(),
+                StrikethroughExtension.create(),
+                SuperscriptExtension.create(),
+                TypographicExtension.create()
+        ));
+        parser = Parser.builder(options).build();
+    }
+
+    @Benchmark
+    public int parse() {
+        return parser.parse(text).getTextLength();
+    }
+}
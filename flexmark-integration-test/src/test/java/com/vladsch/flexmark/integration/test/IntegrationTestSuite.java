@@ -7,6 +7,7 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
         BoundsIntegrationTest.class,
         SpecIntegrationTest.class,
+        ParallelInlineParsingIntegrationTest.class,
 })
 public class IntegrationTestSuite {
 }
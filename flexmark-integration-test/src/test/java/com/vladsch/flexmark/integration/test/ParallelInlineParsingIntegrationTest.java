@@ -0,0 +1,87 @@
+package com.vladsch.flexmark.integration.test;
+
+import com.vladsch.flexmark.ext.abbreviation.AbbreviationExtension;
+import com.vladsch.flexmark.ext.footnotes.FootnoteExtension;
+import com.vladsch.flexmark.ext.gfm.strikethrough.StrikethroughExtension;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.test.util.AstCollectingVisitor;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import com.vladsch.flexmark.util.misc.Extension;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that parallel inline parsing gives the same result as serial parsing, with extensions which are parallel safe
+ * and with ones which are not and need serial inline parsing
+ */
+public class ParallelInlineParsingIntegrationTest {
+    final private static ForkJoinPool POOL = new ForkJoinPool(8);
+    final private static int RUNS = 10;
+
+    @AfterClass
+    public static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    private static String markdown(int paragraphs) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("*[HTML]: Hyper Text Markup Language\n\n");
+
+        for (int i = 0; i < paragraphs; i++) {
+            sb.append("paragraph ").append(i).append(" with *emphasis*, ~~strike~~, HTML and [ref ").append(i % 50).append("]");
+            if (i % 3 == 0) sb.append(" and a footnote[^").append(i % 40).append("]");
+            sb.append(" and [missing ").append(i).append("].\n\n");
+        }
+
+        for (int i = 0; i < 50; i++) {
+            sb.append("[ref ").append(i).append("]: /url/").append(i).append(" 'title ").append(i).append("'\n\n");
+        }
+
+        for (int i = 0; i < 40; i++) {
+            sb.append("[^").append(i).append("]: footnote ").append(i).append(" text\n\n");
+        }
+        return sb.toString();
+    }
+
+    private static void assertSameAsSerial(List<Extension> extensions) {
+        DataHolder options = new MutableDataSet().set(Parser.EXTENSIONS, extensions);
+        DataHolder parallelOptions = new MutableDataSet(options)
+                .set(Parser.PARALLEL_INLINE_PARSING, true)
+                .set(Parser.PARALLEL_INLINE_PARSING_BATCH_SIZE, 8)
+                .set(Parser.PARALLEL_INLINE_PARSING_POOL, POOL);
+
+        Parser parser = Parser.builder(options).build();
+        Parser parallelParser = Parser.builder(parallelOptions).build();
+        HtmlRenderer renderer = HtmlRenderer.builder(options).build();
+
+        String text = markdown(2000);
+        Document expected = parser.parse(text);
+        String expectedHtml = renderer.render(expected);
+        String expectedAst = new AstCollectingVisitor().collectAndGetAstText(expected);
+
+        for (int i = 0; i < RUNS; i++) {
+            Document document = parallelParser.parse(text);
+            assertEquals("run " + i, expectedHtml, renderer.render(document));
+            assertEquals("run " + i, expectedAst, new AstCollectingVisitor().collectAndGetAstText(document));
+        }
+    }
+
+    @Test
+    public void test_parallelSafeExtensions() {
+        assertSameAsSerial(Arrays.asList(AbbreviationExtension.create(), StrikethroughExtension.create()));
+    }
+
+    @Test
+    public void test_footnotes() {
+        assertSameAsSerial(Arrays.asList(FootnoteExtension.create(), AbbreviationExtension.create(), StrikethroughExtension.create()));
+    }
+}
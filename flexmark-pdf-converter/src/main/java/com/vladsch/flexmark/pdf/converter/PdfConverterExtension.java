@@ -6,6 +6,8 @@ import com.openhtmltopdf.bidi.support.ICUBidiSplitter;
 import com.openhtmltopdf.outputdevice.helper.BaseRendererBuilder;
 import com.openhtmltopdf.pdfboxout.PdfBoxRenderer;
 import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import com.vladsch.flexmark.html.DomRenderer;
+import com.vladsch.flexmark.html.HtmlRenderer;
 import com.vladsch.flexmark.util.data.DataHolder;
 import com.vladsch.flexmark.util.data.DataKey;
 import com.vladsch.flexmark.util.data.NullableDataKey;
@@ -14,6 +16,8 @@ import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.encryption.ProtectionPolicy;
 import org.jsoup.Jsoup;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -33,6 +37,16 @@ import java.io.OutputStream;
  * <p>
  * The parsed Markdown text is rendered to HTML then converted to PDF
  * </p>
+ * <p>
+ * Or pass the parsed document to {@link PdfConverterExtension#exportToPdf(OutputStream, com.vladsch.flexmark.util.ast.Document, String, DataHolder)}
+ * or {@link PdfConverterExtension#exportToPdf(String, com.vladsch.flexmark.util.ast.Document, String, DataHolder)}
+ * to render it to a DOM with {@link DomRenderer}, without rendering and parsing HTML text.
+ * To reuse a renderer for many documents pass it to
+ * {@link PdfConverterExtension#exportToPdf(OutputStream, com.vladsch.flexmark.util.ast.Document, HtmlRenderer, String)}
+ * or {@link PdfConverterExtension#exportToPdf(String, com.vladsch.flexmark.util.ast.Document, HtmlRenderer, String)},
+ * or pass a {@link DomRenderer#renderDom(com.vladsch.flexmark.util.ast.Node)} result to
+ * {@link PdfConverterExtension#exportToPdf(OutputStream, Document, String, DataHolder)}
+ * </p>
  */
 public class PdfConverterExtension {
     final public static NullableDataKey<PdfRendererBuilder.TextDirection> DEFAULT_TEXT_DIRECTION = new NullableDataKey<>("DEFAULT_TEXT_DIRECTION");
@@ -74,6 +88,82 @@ public class PdfConverterExtension {
         return html;
     }
 
+    /**
+     * Add style element with css to head element of the DOM
+     *
+     * @param dom DOM with html and head elements, as created by {@link DomRenderer}
+     * @param css css text, nothing is added if null or empty
+     */
+    public static void embedCss(Document dom, String css) {
+        if (css != null && !css.isEmpty()) {
+            Node head = dom.getElementsByTagName("head").item(0);
+            if (head == null) {
+                Element html = dom.getDocumentElement();
+                head = html.insertBefore(dom.createElement("head"), html.getFirstChild());
+            }
+
+            Element style = dom.createElement("style");
+            style.appendChild(dom.createTextNode("\n" + css + "\n"));
+            head.appendChild(style);
+        }
+    }
+
+    public static void exportToPdf(String out, com.vladsch.flexmark.util.ast.Document document, String url, DataHolder options) {
+        try {
+            OutputStream os = new FileOutputStream(out);
+            exportToPdf(os, document, url, options);
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Render the parsed document with a {@link DomRenderer} for the options and convert it to PDF
+     *
+     * @param os       output stream, closed when done
+     * @param document parsed document
+     * @param url      base url of the document
+     * @param options  renderer and PDF options
+     */
+    public static void exportToPdf(OutputStream os, com.vladsch.flexmark.util.ast.Document document, String url, DataHolder options) {
+        exportToPdf(os, new DomRenderer(options).renderDom(document), url, options);
+    }
+
+    public static void exportToPdf(String out, com.vladsch.flexmark.util.ast.Document document, HtmlRenderer renderer, String url) {
+        try {
+            OutputStream os = new FileOutputStream(out);
+            exportToPdf(os, document, renderer, url);
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Render the parsed document to a DOM with the renderer's node renderers and convert it to PDF, the renderer is
+     * not changed and can be reused for other documents
+     *
+     * @param os       output stream, closed when done
+     * @param document parsed document
+     * @param renderer html renderer, its options are also the PDF options
+     * @param url      base url of the document
+     */
+    public static void exportToPdf(OutputStream os, com.vladsch.flexmark.util.ast.Document document, HtmlRenderer renderer, String url) {
+        exportToPdf(os, new DomRenderer(renderer).renderDom(document), url, renderer.getOptions());
+    }
+
+    /**
+     * Convert a DOM to PDF, {@link #DEFAULT_CSS} of the options is added to the DOM's head element
+     *
+     * @param os      output stream, closed when done
+     * @param dom     DOM to convert, usually from {@link DomRenderer#renderDom(com.vladsch.flexmark.util.ast.Node)}
+     * @param url     base url of the document
+     * @param options PDF options
+     */
+    public static void exportToPdf(OutputStream os, Document dom, String url, DataHolder options) {
+        embedCss(dom, DEFAULT_CSS.get(options));
+        exportToPdf(os, dom, url, DEFAULT_TEXT_DIRECTION.get(options), PROTECTION_POLICY.get(options));
+    }
+
     public static void exportToPdf(String out, String html, String url, DataHolder options) {
         String css = DEFAULT_CSS.get(options);
         html = embedCss(html, css);
@@ -102,13 +192,17 @@ public class PdfConverterExtension {
     }
 
     public static void exportToPdf(OutputStream os, String html, String url, PdfRendererBuilder.TextDirection defaultTextDirection, ProtectionPolicy protectionPolicy) {
+        exportToPdf(os, DOMBuilder.jsoup2DOM(Jsoup.parse(html)), url, defaultTextDirection, protectionPolicy);
+    }
+
+    public static void exportToPdf(OutputStream os, Document dom, String url, PdfRendererBuilder.TextDirection defaultTextDirection, ProtectionPolicy protectionPolicy) {
         PdfBoxRenderer renderer = null;
         try {
             // There are more options on the builder than shown below.
             PdfRendererBuilder builder = new PdfRendererBuilder();
 
             handleTextDirection(defaultTextDirection, builder);
-            handleW3cDocument(html, url, builder);
+            builder.withW3cDocument(dom, url);
 
             builder.toStream(os);
             renderer = builder.buildPdfRenderer();
@@ -134,14 +228,6 @@ public class PdfConverterExtension {
         }
     }
 
-    private static void handleW3cDocument(String html, String url, PdfRendererBuilder builder) {
-        org.jsoup.nodes.Document doc;
-        doc = Jsoup.parse(html);
-
-        Document dom = DOMBuilder.jsoup2DOM(doc);
-        builder.withW3cDocument(dom, url);
-    }
-
     private static void handleTextDirection(BaseRendererBuilder.TextDirection defaultTextDirection, PdfRendererBuilder builder) {
         if (defaultTextDirection != null) {
             builder.useUnicodeBidiSplitter(new ICUBidiSplitter.ICUBidiSplitterFactory());
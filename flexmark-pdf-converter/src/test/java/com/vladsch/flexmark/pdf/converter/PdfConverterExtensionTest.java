@@ -0,0 +1,84 @@
+package com.vladsch.flexmark.pdf.converter;
+
+import com.vladsch.flexmark.html.DomRenderer;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PdfConverterExtensionTest {
+    final private static DataHolder OPTIONS = new MutableDataSet();
+    final private static String MARKDOWN = "" +
+            "# Heading\n" +
+            "\n" +
+            "Paragraph with *emphasis*, `code` and a [link](http://example.com).\n" +
+            "\n" +
+            "* item 1\n" +
+            "* item 2\n" +
+            "\n" +
+            "<div class=\"note\">html &amp; block</div>\n" +
+            "\n" +
+            "```\n" +
+            "fenced code\n" +
+            "```\n" +
+            "";
+
+    private static String pdfText(byte[] pdf) throws IOException {
+        try (PDDocument document = PDDocument.load(pdf)) {
+            return new PDFTextStripper().getText(document);
+        }
+    }
+
+    @Test
+    public void test_documentSameAsHtml() throws IOException {
+        Document document = Parser.builder(OPTIONS).build().parse(MARKDOWN);
+
+        ByteArrayOutputStream htmlPdf = new ByteArrayOutputStream();
+        String html = HtmlRenderer.builder(OPTIONS).build().render(document);
+        PdfConverterExtension.exportToPdf(htmlPdf, html, "", OPTIONS);
+
+        ByteArrayOutputStream documentPdf = new ByteArrayOutputStream();
+        PdfConverterExtension.exportToPdf(documentPdf, document, "", OPTIONS);
+
+        String text = pdfText(documentPdf.toByteArray());
+        assertTrue(text, text.contains("html & block"));
+        assertEquals(pdfText(htmlPdf.toByteArray()), text);
+    }
+
+    @Test
+    public void test_reusedRenderer() throws IOException {
+        Parser parser = Parser.builder(OPTIONS).build();
+        HtmlRenderer renderer = HtmlRenderer.builder(OPTIONS).build();
+
+        ByteArrayOutputStream optionsPdf = new ByteArrayOutputStream();
+        PdfConverterExtension.exportToPdf(optionsPdf, parser.parse(MARKDOWN), "", OPTIONS);
+        String expected = pdfText(optionsPdf.toByteArray());
+
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream rendererPdf = new ByteArrayOutputStream();
+            PdfConverterExtension.exportToPdf(rendererPdf, parser.parse(MARKDOWN), renderer, "");
+            assertEquals(expected, pdfText(rendererPdf.toByteArray()));
+        }
+    }
+
+    @Test
+    public void test_embedCss() {
+        Document document = Parser.builder(OPTIONS).build().parse(MARKDOWN);
+        org.w3c.dom.Document dom = new DomRenderer(OPTIONS).renderDom(document);
+        PdfConverterExtension.embedCss(dom, "p { color: red; }");
+
+        org.w3c.dom.Node style = dom.getElementsByTagName("style").item(0);
+        assertEquals("head", style.getParentNode().getNodeName());
+        assertEquals("\np { color: red; }\n", style.getTextContent());
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         ComboPdfConverterSpecTest.class,
+        PdfConverterExtensionTest.class,
 })
 public class PdfConverterTestSuite {
 }
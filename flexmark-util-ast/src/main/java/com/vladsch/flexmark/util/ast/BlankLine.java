@@ -4,6 +4,8 @@ import com.vladsch.flexmark.util.sequence.BasedSequence;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.function.Function;
+
 public class BlankLine extends Block {
     private Block claimedBlankLine = null;
 
@@ -38,4 +40,10 @@ public class BlankLine extends Block {
     public BasedSequence[] getSegments() {
         return EMPTY_SEGMENTS;
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
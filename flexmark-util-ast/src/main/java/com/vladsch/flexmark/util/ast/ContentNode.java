@@ -6,6 +6,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 public abstract class ContentNode extends Node implements Content {
     protected List<BasedSequence> lineSegments = BasedSequence.EMPTY_LIST;
@@ -46,6 +47,18 @@ public abstract class ContentNode extends Node implements Content {
         this.lineSegments = blockContent.getLines();
     }
 
+    @Override
+    protected void rebaseNodeSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        super.rebaseNodeSegments(rebase);
+        if (lineSegments.isEmpty()) return;
+
+        ArrayList<BasedSequence> lines = new ArrayList<>(lineSegments.size());
+        for (BasedSequence line : lineSegments) {
+            lines.add(rebase.apply(line));
+        }
+        this.lineSegments = lines;
+    }
+
     @Override
     public @NotNull BasedSequence getSpanningChars() {
         return getSpanningChars(lineSegments);
@@ -14,6 +14,7 @@ import static com.vladsch.flexmark.util.sequence.BasedSequence.EMPTY_LIST;
 public class Document extends Block implements MutableDataHolder {
     final public static Document NULL = new Document(null, BasedSequence.NULL);
 
+    // data access is synchronized, document properties are computed on first access by concurrent inline parsing
     final private MutableDataSet dataSet;
 
     @Override
@@ -33,65 +34,65 @@ public class Document extends Block implements MutableDataHolder {
 
     @NotNull
     @Override
-    public <T> MutableDataHolder set(@NotNull DataKey<T> key, @NotNull T value) {return dataSet.set(key, value);}
+    public synchronized <T> MutableDataHolder set(@NotNull DataKey<T> key, @NotNull T value) {return dataSet.set(key, value);}
 
     @NotNull
     @Override
-    public <T> MutableDataHolder set(@NotNull NullableDataKey<T> key, @Nullable T value) {return dataSet.set(key, value);}
+    public synchronized <T> MutableDataHolder set(@NotNull NullableDataKey<T> key, @Nullable T value) {return dataSet.set(key, value);}
 
     @NotNull
     @Override
-    public MutableDataSet setFrom(@NotNull MutableDataSetter dataSetter) {return dataSet.setFrom(dataSetter);}
+    public synchronized MutableDataSet setFrom(@NotNull MutableDataSetter dataSetter) {return dataSet.setFrom(dataSetter);}
 
     @NotNull
     @Override
-    public MutableDataSet setAll(@NotNull DataHolder other) {return dataSet.setAll(other);}
+    public synchronized MutableDataSet setAll(@NotNull DataHolder other) {return dataSet.setAll(other);}
 
     public static MutableDataSet merge(DataHolder... dataHolders) {return MutableDataSet.merge(dataHolders);}
 
     @NotNull
     @Override
-    public MutableDataHolder setIn(@NotNull MutableDataHolder dataHolder) {return dataSet.setIn(dataHolder);}
+    public synchronized MutableDataHolder setIn(@NotNull MutableDataHolder dataHolder) {return dataSet.setIn(dataHolder);}
 
     @NotNull
     @Override
-    public MutableDataSet remove(@NotNull DataKeyBase<?> key) {return dataSet.remove(key);}
+    public synchronized MutableDataSet remove(@NotNull DataKeyBase<?> key) {return dataSet.remove(key);}
 
     @Override
     @Nullable
-    public Object getOrCompute(@NotNull DataKeyBase<?> key, @NotNull DataValueFactory<?> factory) {return dataSet.getOrCompute(key, factory);}
+    public synchronized Object getOrCompute(@NotNull DataKeyBase<?> key, @NotNull DataValueFactory<?> factory) {return dataSet.getOrCompute(key, factory);}
 
     @Override
     @NotNull
-    public MutableDataSet toMutable() {return dataSet.toMutable();}
+    public synchronized MutableDataSet toMutable() {return dataSet.toMutable();}
 
     @Override
     @NotNull
-    public DataSet toImmutable() {return dataSet.toImmutable();}
+    public synchronized DataSet toImmutable() {return dataSet.toImmutable();}
 
     @Override
     @NotNull
-    public MutableDataSet toDataSet() {return dataSet.toDataSet();}
+    public synchronized MutableDataSet toDataSet() {return dataSet.toDataSet();}
 
     @NotNull
     public static DataHolder aggregateActions(@NotNull DataHolder other, @NotNull DataHolder overrides) {return DataSet.aggregateActions(other, overrides);}
 
     @NotNull
-    public DataHolder aggregate() {return dataSet.aggregate();}
+    public synchronized DataHolder aggregate() {return dataSet.aggregate();}
 
     @NotNull
     public static DataHolder aggregate(@Nullable DataHolder other, @Nullable DataHolder overrides) {return DataSet.aggregate(other, overrides);}
 
     @Override
     @NotNull
-    public Map<? extends DataKeyBase<?>, Object> getAll() {return dataSet.getAll();}
+    public synchronized Map<? extends DataKeyBase<?>, Object> getAll() {return dataSet.getAll();}
 
     @Override
     @NotNull
-    public Collection<? extends DataKeyBase<?>> getKeys() {return dataSet.getKeys();}
+    public synchronized Collection<? extends DataKeyBase<?>> getKeys() {return dataSet.getKeys();}
 
     @Override
-    public boolean contains(@NotNull DataKeyBase<?> key) {return dataSet.contains(key);}
+    public synchronized boolean contains(@NotNull DataKeyBase<?> key) {return dataSet.contains(key);}
 
     @Override
     public int getLineCount() {
@@ -13,6 +13,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
+import java.util.function.Function;
 
 public abstract class Node {
     final public static BasedSequence[] EMPTY_SEGMENTS = BasedSequence.EMPTY_ARRAY;
@@ -503,6 +504,30 @@ public abstract class Node {
     @NotNull
     public abstract BasedSequence[] getSegments();
 
+    /**
+     * Replace all based sequences of the node with ones returned by the function, used to move a node to another base
+     * sequence without parsing it again
+     * <p>
+     * Node classes which support rebasing override this method to call {@link #rebaseNodeSegments(Function)} and return true.
+     * NOTE: a class which adds based sequence fields to its super class must override {@link #rebaseNodeSegments(Function)}
+     * to replace them.
+     *
+     * @param rebase function returning the replacement of a based sequence of the node
+     * @return true if sequences of the node were replaced, false if the node does not support rebasing and was not modified
+     */
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        return false;
+    }
+
+    /**
+     * Replace based sequence fields declared by the node class and its super classes
+     *
+     * @param rebase function returning the replacement of a based sequence of the node
+     */
+    protected void rebaseNodeSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        chars = rebase.apply(chars);
+    }
+
     @NotNull
     public static BasedSequence getLeadSegment(@NotNull BasedSequence[] segments) {
         for (BasedSequence segment : segments) {
@@ -18,6 +18,16 @@ public abstract class NodeRepository<T> implements Map<String, T> {
     // function implementing extraction of referenced elements by given node or its children
     public abstract @NotNull Set<T> getReferencedElements(Node parent);
 
+    /**
+     * Whether the repository keeps state derived from the document in addition to its definitions, like referenced
+     * definitions or their ordinals, which is only valid for a complete parse of the document
+     *
+     * @return true if repository has state other than its definitions
+     */
+    public boolean hasDerivedState() {
+        return true;
+    }
+
     @SafeVarargs
     protected final void visitNodes(@NotNull Node parent, @NotNull Consumer<Node> runnable, @NotNull Class<? extends Node>... classes) {
         NodeVisitor visitor = new NodeVisitor();
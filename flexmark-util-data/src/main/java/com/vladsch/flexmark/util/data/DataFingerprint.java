@@ -0,0 +1,220 @@
+package com.vladsch.flexmark.util.data;
+
+import com.vladsch.flexmark.util.misc.Extension;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * 64 bit fingerprint of the keys and values of a data holder, used to key caches by options
+ * <p>
+ * Data holders with equal keys and values have the same fingerprint, independent of key order and of the data holder instance.
+ * Keys are hashed by name. Strings, numbers, enums, classes, collections, maps, arrays and nested data holders are
+ * hashed by value, other values by their hashCode() if their class overrides it.
+ * <p>
+ * NOTE: {@link Extension} instances are hashed by class because extensions keep their configuration in options. Any other value
+ * without value equality is hashed by identity, so options holding such values only have the same fingerprint when they hold
+ * the same instances.
+ * <p>
+ * Fingerprints can collide, {@link #isEqual(DataHolder, DataHolder)} compares keys and values with the same equivalence
+ * to confirm a match.
+ */
+final public class DataFingerprint {
+    final private static ClassValue<Boolean> HAS_VALUE_HASH = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("hashCode").getDeclaringClass() != Object.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private DataFingerprint() {
+    }
+
+    /**
+     * @param dataHolder data holder
+     * @return fingerprint of all keys and values in the data holder
+     */
+    public static long of(@NotNull DataHolder dataHolder) {
+        long fingerprint = 0;
+        for (Map.Entry<? extends DataKeyBase<?>, Object> entry : dataHolder.getAll().entrySet()) {
+            // sum of entry hashes does not depend on iteration order
+            fingerprint += mix(hash(entry.getKey().getName()) * 31 + ofValue(entry.getValue()));
+        }
+        return mix(fingerprint + dataHolder.getAll().size());
+    }
+
+    /**
+     * @param value value of a data key
+     * @return fingerprint of value
+     */
+    public static long ofValue(@Nullable Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof CharSequence) {
+            return hash(value.toString());
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return mix(value.hashCode()) ^ hash(value.getClass().getName());
+        } else if (value instanceof Enum<?>) {
+            return mix(hash(((Enum<?>) value).getDeclaringClass().getName()) * 31 + hash(((Enum<?>) value).name()));
+        } else if (value instanceof Class<?>) {
+            return hash(((Class<?>) value).getName());
+        } else if (value instanceof DataHolder) {
+            return of((DataHolder) value);
+        } else if (value instanceof List<?>) {
+            long fingerprint = 1;
+            for (Object item : (List<?>) value) {
+                fingerprint = fingerprint * 31 + ofValue(item);
+            }
+            return mix(fingerprint);
+        } else if (value instanceof Collection<?>) {
+            long fingerprint = 0;
+            for (Object item : (Collection<?>) value) {
+                fingerprint += mix(ofValue(item));
+            }
+            return mix(fingerprint + ((Collection<?>) value).size());
+        } else if (value instanceof Map<?, ?>) {
+            long fingerprint = 0;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                fingerprint += mix(ofValue(entry.getKey()) * 31 + ofValue(entry.getValue()));
+            }
+            return mix(fingerprint + ((Map<?, ?>) value).size());
+        } else if (value.getClass().isArray()) {
+            long fingerprint = hash(value.getClass().getName());
+            int iMax = Array.getLength(value);
+            for (int i = 0; i < iMax; i++) {
+                fingerprint = fingerprint * 31 + ofValue(Array.get(value, i));
+            }
+            return mix(fingerprint);
+        } else if (value instanceof Extension) {
+            return hash(value.getClass().getName());
+        } else if (HAS_VALUE_HASH.get(value.getClass())) {
+            return mix(value.hashCode()) ^ hash(value.getClass().getName());
+        } else {
+            return mix(System.identityHashCode(value)) ^ hash(value.getClass().getName());
+        }
+    }
+
+    /**
+     * Test if data holders have the same keys and values, with the equivalence used for fingerprints
+     *
+     * @param dataHolder data holder
+     * @param other      other data holder
+     * @return true if all keys and values are equivalent
+     */
+    public static boolean isEqual(@NotNull DataHolder dataHolder, @NotNull DataHolder other) {
+        if (dataHolder == other) return true;
+
+        Map<? extends DataKeyBase<?>, Object> all = dataHolder.getAll();
+        Map<? extends DataKeyBase<?>, Object> otherAll = other.getAll();
+        if (all.size() != otherAll.size()) return false;
+
+        for (Map.Entry<? extends DataKeyBase<?>, Object> entry : all.entrySet()) {
+            if (!otherAll.containsKey(entry.getKey()) || !isEqualValue(entry.getValue(), otherAll.get(entry.getKey()))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param value value of a data key
+     * @param other other value
+     * @return true if values are equivalent, values which are equivalent have the same {@link #ofValue(Object)}
+     */
+    public static boolean isEqualValue(@Nullable Object value, @Nullable Object other) {
+        if (value == other) {
+            return true;
+        } else if (value == null || other == null) {
+            return false;
+        } else if (value instanceof CharSequence) {
+            return other instanceof CharSequence && value.toString().equals(other.toString());
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return value.getClass() == other.getClass() && value.equals(other);
+        } else if (value instanceof Enum<?> || value instanceof Class<?>) {
+            return false;
+        } else if (value instanceof DataHolder) {
+            return other instanceof DataHolder && isEqual((DataHolder) value, (DataHolder) other);
+        } else if (value instanceof List<?>) {
+            if (!(other instanceof List<?>) || ((List<?>) value).size() != ((List<?>) other).size()) return false;
+
+            Iterator<?> iterator = ((List<?>) other).iterator();
+            for (Object item : (List<?>) value) {
+                if (!isEqualValue(item, iterator.next())) return false;
+            }
+            return true;
+        } else if (value instanceof Collection<?>) {
+            return other instanceof Collection<?> && !(other instanceof List<?>) && isEqualUnordered((Collection<?>) value, (Collection<?>) other);
+        } else if (value instanceof Map<?, ?>) {
+            return other instanceof Map<?, ?> && isEqualUnordered(entries((Map<?, ?>) value), entries((Map<?, ?>) other));
+        } else if (value.getClass().isArray()) {
+            if (value.getClass() != other.getClass() || Array.getLength(value) != Array.getLength(other)) return false;
+
+            int iMax = Array.getLength(value);
+            for (int i = 0; i < iMax; i++) {
+                if (!isEqualValue(Array.get(value, i), Array.get(other, i))) return false;
+            }
+            return true;
+        } else if (value instanceof Extension) {
+            return value.getClass() == other.getClass();
+        } else if (HAS_VALUE_HASH.get(value.getClass())) {
+            return value.getClass() == other.getClass() && value.equals(other);
+        } else {
+            return false;
+        }
+    }
+
+    private static boolean isEqualUnordered(@NotNull Collection<?> items, @NotNull Collection<?> others) {
+        if (items.size() != others.size()) return false;
+
+        // items without value hash cannot be looked up, match each item to a different equivalent item
+        boolean[] matched = new boolean[others.size()];
+        for (Object item : items) {
+            int i = 0;
+            boolean found = false;
+            for (Object other : others) {
+                if (!matched[i] && isEqualValue(item, other)) {
+                    matched[i] = true;
+                    found = true;
+                    break;
+                }
+                i++;
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private static @NotNull List<List<?>> entries(@NotNull Map<?, ?> map) {
+        ArrayList<List<?>> entries = new ArrayList<>(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            entries.add(Arrays.asList(entry.getKey(), entry.getValue()));
+        }
+        return entries;
+    }
+
+    static long hash(@NotNull String s) {
+        long h = 1125899906842597L;
+        int iMax = s.length();
+        for (int i = 0; i < iMax; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return mix(h);
+    }
+
+    /**
+     * @param h hash value
+     * @return hash value with bits mixed so every input bit affects every output bit
+     */
+    public static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
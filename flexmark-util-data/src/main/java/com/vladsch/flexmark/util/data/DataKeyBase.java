@@ -3,10 +3,16 @@ package com.vladsch.flexmark.util.data;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public abstract class DataKeyBase<T> implements MutableDataValueSetter<T> {
+    final private static AtomicInteger ourKeyCount = new AtomicInteger();
+
     final private @NotNull String name;
     final private @NotNull DataValueFactory<T> factory;
     final private T defaultValue;
+    final private int index;
+    final private @NotNull DataValueFactory<T> defaultValueFactory;  // bound once so reads do not allocate
 
     /**
      * Creates a NullableDataKey with a computed default value and a provided default value when data holder is null.
@@ -21,6 +27,8 @@ public abstract class DataKeyBase<T> implements MutableDataValueSetter<T> {
         this.name = name;
         this.defaultValue = defaultValue;
         this.factory = factory;
+        this.index = ourKeyCount.getAndIncrement();
+        this.defaultValueFactory = this::getDefaultValue;
     }
 
     /**
@@ -54,13 +62,22 @@ public abstract class DataKeyBase<T> implements MutableDataValueSetter<T> {
         return defaultValue;
     }
 
+    /**
+     * Dense index of the key, assigned in order of key creation, used by data holders for slot lookup
+     *
+     * @return index of the key
+     */
+    public int getIndex() {
+        return index;
+    }
+
     public T getDefaultValue(@NotNull DataHolder holder) {
         return factory.apply(holder);
     }
 
     public T get(@Nullable DataHolder holder) {
         //noinspection unchecked
-        return holder == null ? defaultValue : (T) holder.getOrCompute(this, this::getDefaultValue);
+        return holder == null ? defaultValue : (T) holder.getOrCompute(this, defaultValueFactory);
     }
 
     /**
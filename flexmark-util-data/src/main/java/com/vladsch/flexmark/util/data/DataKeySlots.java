@@ -0,0 +1,79 @@
+package com.vladsch.flexmark.util.data;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * Immutable open addressed table of key values, probed by {@link DataKeyBase#getIndex()}
+ * <p>
+ * Key indices are dense so consecutive keys hash to consecutive slots and lookups rarely need more than one probe.
+ */
+final class DataKeySlots {
+    final static DataKeySlots EMPTY = new DataKeySlots(new DataKeyBase<?>[1], new Object[1], 0);
+
+    final private @Nullable DataKeyBase<?>[] keys;
+    final private @Nullable Object[] values;
+    final private int size;
+
+    private DataKeySlots(@Nullable DataKeyBase<?>[] keys, @Nullable Object[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param key data key
+     * @return slot of the key or -1 if not in table
+     */
+    int find(@NotNull DataKeyBase<?> key) {
+        int mask = keys.length - 1;
+        int i = key.getIndex() & mask;
+        DataKeyBase<?> slotKey;
+
+        while ((slotKey = keys[i]) != null) {
+            if (slotKey == key) return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Nullable
+    Object getValue(int slot) {
+        return values[slot];
+    }
+
+    @NotNull
+    static DataKeySlots of(@NotNull Map<? extends DataKeyBase<?>, Object> map) {
+        if (map.isEmpty()) return EMPTY;
+
+        int capacity = capacity(map.size());
+        DataKeyBase<?>[] keys = new DataKeyBase<?>[capacity];
+        Object[] values = new Object[capacity];
+
+        for (Map.Entry<? extends DataKeyBase<?>, Object> entry : map.entrySet()) {
+            put(keys, values, entry.getKey(), entry.getValue());
+        }
+        return new DataKeySlots(keys, values, map.size());
+    }
+
+    private static void put(@Nullable DataKeyBase<?>[] keys, @Nullable Object[] values, @NotNull DataKeyBase<?> key, @Nullable Object value) {
+        int mask = keys.length - 1;
+        int i = key.getIndex() & mask;
+        while (keys[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    private static int capacity(int size) {
+        // power of 2 at least twice the size, keeps probe sequences short and leaves empty slots to end probing
+        return Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+    }
+}
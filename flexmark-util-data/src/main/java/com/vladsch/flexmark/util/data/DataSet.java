@@ -8,6 +8,9 @@ import java.util.*;
 public class DataSet implements DataHolder {
     protected final HashMap<DataKeyBase<?>, Object> dataSet;
 
+    // slot table for reads, built on first read, dataSet of immutable data sets is not changed after that
+    private @Nullable DataKeySlots slots;
+
     public DataSet() {
         this(null);
     }
@@ -81,16 +84,24 @@ public class DataSet implements DataHolder {
 
     @Override
     public boolean contains(@NotNull DataKeyBase<?> key) {
-        return dataSet.containsKey(key);
+        return getSlots().find(key) >= 0;
     }
 
     @Override
     public @Nullable Object getOrCompute(@NotNull DataKeyBase<?> key, @NotNull DataValueFactory<?> factory) {
-        if (dataSet.containsKey(key)) {
-            return dataSet.get(key);
-        } else {
-            return factory.apply(this);
+        DataKeySlots slots = getSlots();
+        int slot = slots.find(key);
+        return slot >= 0 ? slots.getValue(slot) : factory.apply(this);
+    }
+
+    @NotNull
+    private DataKeySlots getSlots() {
+        DataKeySlots slots = this.slots;
+        if (slots == null) {
+            slots = DataKeySlots.of(dataSet);
+            this.slots = slots;
         }
+        return slots;
     }
 
     @NotNull
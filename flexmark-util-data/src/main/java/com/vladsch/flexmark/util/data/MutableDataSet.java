@@ -67,6 +67,11 @@ public class MutableDataSet extends DataSet implements MutableDataHolder {
         return this;
     }
 
+    @Override
+    public boolean contains(@NotNull DataKeyBase<?> key) {
+        return dataSet.containsKey(key);
+    }
+
     @Override
     public @Nullable Object getOrCompute(@NotNull DataKeyBase<?> key, @NotNull DataValueFactory<?> factory) {
         if (dataSet.containsKey(key)) {
@@ -75,6 +75,7 @@ public abstract class MarkdownWriterBase<T extends MarkdownWriterBase<T, N, C>,
     @Override public void insertLine(int lineIndex, @NotNull CharSequence prefix, @NotNull CharSequence text)                   { appendable.insertLine(lineIndex, prefix, text); }
     @Override public void setLine(int lineIndex, @NotNull CharSequence prefix, @NotNull CharSequence text)                      { appendable.setLine(lineIndex, prefix, text); }
     @Override public <T extends Appendable> T appendTo(@NotNull T out, boolean withPrefixes, int maxBlankLines, int maxTrailingBlankLines, int startLine, int endLine) throws IOException { return appendable.appendTo(out, withPrefixes, maxBlankLines, maxTrailingBlankLines, startLine, endLine); }
+    @Override public int appendCompletedLinesTo(@NotNull Appendable out, int maxBlankLines) throws IOException                 { return appendable.appendCompletedLinesTo(out, maxBlankLines); }
     @Override public boolean endsWithEOL()                                                                                      { return appendable.endsWithEOL();    }
     @Override public boolean isPendingSpace()                                                                                   { return appendable.isPendingSpace(); }
     @Override public boolean isPreFormatted()                                                                                   { return appendable.isPreFormatted(); }
@@ -276,6 +276,23 @@ public class HtmlAppendableBase<T extends HtmlAppendableBase<T>> implements Html
             withAttributes = false;
         }
 
+        appendOpenTag(tagName, attributes, voidElement);
+
+        if (!voidElement) {
+            tagOpened(tagName);
+        }
+
+        return (T) this;
+    }
+
+    /**
+     * Append open tag text
+     *
+     * @param tagName     tag name
+     * @param attributes  attributes of the tag, null if none
+     * @param voidElement true if void element
+     */
+    protected void appendOpenTag(@NotNull CharSequence tagName, @Nullable Attributes attributes, boolean voidElement) {
         appendable.append("<");
         appendable.append(tagName);
 
@@ -293,14 +310,7 @@ public class HtmlAppendableBase<T extends HtmlAppendableBase<T>> implements Html
             }
         }
 
-        if (voidElement) {
-            appendable.append(" />");
-        } else {
-            appendable.append(">");
-            tagOpened(tagName);
-        }
-
-        return (T) this;
+        appendable.append(voidElement ? " />" : ">");
     }
 
     @NotNull
@@ -308,16 +318,21 @@ public class HtmlAppendableBase<T extends HtmlAppendableBase<T>> implements Html
     public T closeTag(@NotNull CharSequence tagName) {
         if (tagName.length() == 0) throw new IllegalStateException("closeTag called with tag:'" + tagName + "'");
 
-        if (tagName.charAt(0) == '/') {
-            appendable.append("<").append(tagName).append(">");
-            tagClosed(tagName.subSequence(1, tagName.length()));
-        } else {
-            appendable.append("</").append(tagName).append(">");
-            tagClosed(tagName);
-        }
+        CharSequence name = tagName.charAt(0) == '/' ? tagName.subSequence(1, tagName.length()) : tagName;
+        appendCloseTag(name);
+        tagClosed(name);
         return (T) this;
     }
 
+    /**
+     * Append close tag text
+     *
+     * @param tagName tag name, without leading /
+     */
+    protected void appendCloseTag(@NotNull CharSequence tagName) {
+        appendable.append("</").append(tagName).append(">");
+    }
+
     @NotNull
     @Override
     public T tag(@NotNull CharSequence tagName, boolean withIndent, boolean withLine, @NotNull Runnable runnable) {
@@ -422,6 +437,7 @@ public class HtmlAppendableBase<T extends HtmlAppendableBase<T>> implements Html
     @Override public void insertLine(int lineIndex, @NotNull CharSequence prefix, @NotNull CharSequence text)                   { appendable.insertLine(lineIndex, prefix, text); }
     @Override public void setLine(int lineIndex, @NotNull CharSequence prefix, @NotNull CharSequence text)                      { appendable.setLine(lineIndex, prefix, text); }
     @Override public <T extends Appendable> T appendTo(@NotNull T out, boolean withPrefixes, int maxBlankLines, int maxTrailingBlankLines, int startLine, int endLine) throws IOException { return appendable.appendTo(out, withPrefixes, maxBlankLines, maxTrailingBlankLines, startLine, endLine); }
+    @Override public int appendCompletedLinesTo(@NotNull Appendable out, int maxBlankLines) throws IOException                 { return appendable.appendCompletedLinesTo(out, maxBlankLines); }
     @Override public boolean endsWithEOL()                                                                                      { return appendable.endsWithEOL();    }
     @Override public boolean isPendingSpace()                                                                                   { return appendable.isPendingSpace(); }
     @Override public boolean isPreFormatted()                                                                                   { return appendable.isPreFormatted(); }
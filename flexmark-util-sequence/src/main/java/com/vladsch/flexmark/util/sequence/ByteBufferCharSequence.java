@@ -0,0 +1,268 @@
+package com.vladsch.flexmark.util.sequence;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A CharSequence of UTF-8, ISO-8859-1 or US-ASCII encoded text in a {@link ByteBuffer}, usually a memory mapped file.
+ * Characters are decoded on access so the text is not copied to the heap.
+ * <p>
+ * Use {@link BasedSequence#of(CharSequence)} to get a based sequence of the text, offsets of all its sub-sequences are
+ * char offsets into this sequence.
+ * <p>
+ * Single byte encoded text and UTF-8 text which is all ASCII is indexed directly. Other UTF-8 text is scanned once on creation
+ * to get its length and the byte offset of every {@link #INDEX_STEP}th char. Chars are decoded a block of {@link #INDEX_STEP} chars
+ * at a time and the last few decoded blocks are kept, so sequential access and short look behind do not decode chars again.
+ * <p>
+ * NOTE: malformed input is decoded to '\uFFFD' the same as {@link String#String(byte[], Charset)} does
+ * <p>
+ * NOTE: the buffer must not be modified while the sequence is in use
+ */
+final public class ByteBufferCharSequence implements CharSequence {
+    final public static int INDEX_SHIFT = 8;
+    final public static int INDEX_STEP = 1 << INDEX_SHIFT;
+    final private static int INDEX_MASK = INDEX_STEP - 1;
+    final private static int BLOCK_CACHE_SIZE = 16;
+    final private static int BLOCK_CACHE_MASK = BLOCK_CACHE_SIZE - 1;
+    final private static char REPLACEMENT_CHAR = '\uFFFD';
+
+    final private @NotNull ByteBuffer bytes;
+    final private int length;
+    final private boolean usAscii;
+    final private int[] charIndex;      // null when chars are indexed directly, negative entries are inverted offsets of code points whose low surrogate is the indexed char
+    final private Block[] blocks;       // recently decoded blocks, by block index modulo cache size
+
+    /**
+     * Decoded chars of a block of {@link #INDEX_STEP} chars, immutable so it can be shared between threads without synchronization
+     */
+    final private static class Block {
+        final int index;
+        final char[] chars;
+
+        Block(int index, char[] chars) {
+            this.index = index;
+            this.chars = chars;
+        }
+    }
+
+    private ByteBufferCharSequence(@NotNull ByteBuffer bytes, int length, boolean usAscii, int[] charIndex) {
+        this.bytes = bytes;
+        this.length = length;
+        this.usAscii = usAscii;
+        this.charIndex = charIndex;
+        this.blocks = charIndex == null ? null : new Block[BLOCK_CACHE_SIZE];
+    }
+
+    /**
+     * @param charset character set
+     * @return true if text in the character set can be decoded by this class
+     */
+    public static boolean isSupported(@NotNull Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.ISO_8859_1) || charset.equals(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Create a sequence of the bytes from position to limit of the buffer, the buffer's position and limit are not changed
+     *
+     * @param buffer  buffer with encoded text
+     * @param charset character set of the text, must be supported
+     * @return char sequence of text in buffer
+     * @throws IllegalArgumentException if the character set is not supported
+     */
+    @NotNull
+    public static ByteBufferCharSequence of(@NotNull ByteBuffer buffer, @NotNull Charset charset) {
+        if (!isSupported(charset)) {
+            throw new IllegalArgumentException("Character set " + charset.name() + " is not supported, use UTF-8, ISO-8859-1 or US-ASCII");
+        }
+
+        ByteBuffer bytes = buffer.slice();
+        int byteLength = bytes.limit();
+
+        if (charset.equals(StandardCharsets.ISO_8859_1)) {
+            return new ByteBufferCharSequence(bytes, byteLength, false, null);
+        } else if (charset.equals(StandardCharsets.US_ASCII)) {
+            return new ByteBufferCharSequence(bytes, byteLength, true, null);
+        }
+
+        int i = 0;
+        while (i < byteLength && bytes.get(i) >= 0) i++;
+
+        if (i == byteLength) {
+            // all ASCII, same as single byte encoding
+            return new ByteBufferCharSequence(bytes, byteLength, false, null);
+        }
+
+        // chars are no more than bytes, which gives an upper bound for the index size
+        int[] charIndex = new int[(byteLength >>> INDEX_SHIFT) + 1];
+        int length = 0;
+        int offset = 0;
+
+        while (offset < byteLength) {
+            int decoded = decodeUtf8(bytes, offset, byteLength);
+            int chars = Character.charCount(decoded & CODE_POINT_MASK);
+            int byteCount = decoded >>> BYTE_COUNT_SHIFT;
+
+            if ((length & INDEX_MASK) == 0) {
+                charIndex[length >>> INDEX_SHIFT] = offset;
+            } else if (chars == 2 && ((length + 1) & INDEX_MASK) == 0) {
+                charIndex[(length + 1) >>> INDEX_SHIFT] = ~offset;
+            }
+
+            length += chars;
+            offset += byteCount;
+        }
+
+        return new ByteBufferCharSequence(bytes, length, false, charIndex);
+    }
+
+    /**
+     * Memory map a file for reading and create a sequence of its text
+     * <p>
+     * The mapping stays valid after the file is closed and is released when the sequence is garbage collected.
+     *
+     * @param file    file to map
+     * @param charset character set of the file, must be supported
+     * @return char sequence of file text
+     * @throws IOException              if the file cannot be mapped or is larger than 2GB
+     * @throws IllegalArgumentException if the character set is not supported
+     */
+    @NotNull
+    public static ByteBufferCharSequence map(@NotNull Path file, @NotNull Charset charset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File " + file + " of " + size + " bytes is too large to map");
+            }
+            return of(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), charset);
+        }
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        SequenceUtils.validateIndex(index, length);
+
+        if (charIndex == null) {
+            byte b = bytes.get(index);
+            return usAscii && b < 0 ? REPLACEMENT_CHAR : (char) (b & 0xff);
+        }
+
+        int blockIndex = index >>> INDEX_SHIFT;
+        Block block = blocks[blockIndex & BLOCK_CACHE_MASK];
+        if (block == null || block.index != blockIndex) {
+            block = decodeBlock(blockIndex);
+            blocks[blockIndex & BLOCK_CACHE_MASK] = block;
+        }
+        return block.chars[index & INDEX_MASK];
+    }
+
+    /**
+     * Decode chars of a block, a supplementary code point at the end of the block has its high surrogate
+     * in the block and its low surrogate at the start of the next block
+     *
+     * @param blockIndex index of block
+     * @return decoded block
+     */
+    @NotNull
+    private Block decodeBlock(int blockIndex) {
+        int entry = charIndex[blockIndex];
+        char[] chars = new char[Math.min(INDEX_STEP, length - (blockIndex << INDEX_SHIFT))];
+        int byteLength = bytes.limit();
+        int offset = entry < 0 ? ~entry : entry;
+        int i = 0;
+
+        if (entry < 0) {
+            int decoded = decodeUtf8(bytes, offset, byteLength);
+            chars[i++] = Character.lowSurrogate(decoded & CODE_POINT_MASK);
+            offset += decoded >>> BYTE_COUNT_SHIFT;
+        }
+
+        while (i < chars.length) {
+            int decoded = decodeUtf8(bytes, offset, byteLength);
+            int codePoint = decoded & CODE_POINT_MASK;
+
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                chars[i++] = (char) codePoint;
+            } else {
+                chars[i++] = Character.highSurrogate(codePoint);
+                if (i < chars.length) chars[i++] = Character.lowSurrogate(codePoint);
+            }
+            offset += decoded >>> BYTE_COUNT_SHIFT;
+        }
+        return new Block(blockIndex, chars);
+    }
+
+    @NotNull
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        SequenceUtils.validateStartEnd(start, end, length);
+        return new StringBuilder(end - start).append(this, start, end);
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        return new StringBuilder(length).append(this).toString();
+    }
+
+    final private static int CODE_POINT_MASK = 0x1fffff;
+    final private static int BYTE_COUNT_SHIFT = 24;
+
+    /**
+     * Decode one code point, malformed sequences are decoded to '\uFFFD' and consume the maximal invalid subpart,
+     * the same as the JDK decoder
+     *
+     * @param bytes  buffer
+     * @param offset offset of code point
+     * @param end    end of bytes
+     * @return byte count << 24 | code point
+     */
+    private static int decodeUtf8(@NotNull ByteBuffer bytes, int offset, int end) {
+        int b0 = bytes.get(offset) & 0xff;
+
+        if (b0 < 0x80) {
+            return 1 << BYTE_COUNT_SHIFT | b0;
+        } else if (b0 < 0xc2) {
+            // continuation byte or overlong 2 byte sequence
+            return malformed(1);
+        } else if (b0 < 0xe0) {
+            if (!isContinuation(bytes, offset + 1, end, 0x80, 0xbf)) return malformed(1);
+            return 2 << BYTE_COUNT_SHIFT | (b0 & 0x1f) << 6 | bytes.get(offset + 1) & 0x3f;
+        } else if (b0 < 0xf0) {
+            // exclude overlong, surrogate code points are a malformed sequence of 3 bytes
+            if (!isContinuation(bytes, offset + 1, end, b0 == 0xe0 ? 0xa0 : 0x80, 0xbf)) return malformed(1);
+            if (!isContinuation(bytes, offset + 2, end, 0x80, 0xbf)) return malformed(2);
+            int codePoint = (b0 & 0x0f) << 12 | (bytes.get(offset + 1) & 0x3f) << 6 | bytes.get(offset + 2) & 0x3f;
+            return Character.isSurrogate((char) codePoint) ? malformed(3) : 3 << BYTE_COUNT_SHIFT | codePoint;
+        } else if (b0 < 0xf5) {
+            // exclude overlong and code points above U+10FFFF
+            if (!isContinuation(bytes, offset + 1, end, b0 == 0xf0 ? 0x90 : 0x80, b0 == 0xf4 ? 0x8f : 0xbf)) return malformed(1);
+            if (!isContinuation(bytes, offset + 2, end, 0x80, 0xbf)) return malformed(2);
+            if (!isContinuation(bytes, offset + 3, end, 0x80, 0xbf)) return malformed(3);
+            return 4 << BYTE_COUNT_SHIFT | (b0 & 0x07) << 18 | (bytes.get(offset + 1) & 0x3f) << 12 | (bytes.get(offset + 2) & 0x3f) << 6 | bytes.get(offset + 3) & 0x3f;
+        } else {
+            return malformed(1);
+        }
+    }
+
+    private static boolean isContinuation(@NotNull ByteBuffer bytes, int offset, int end, int min, int max) {
+        if (offset >= end) return false;
+        int b = bytes.get(offset) & 0xff;
+        return b >= min && b <= max;
+    }
+
+    private static int malformed(int byteCount) {
+        return byteCount << BYTE_COUNT_SHIFT | REPLACEMENT_CHAR;
+    }
+}
@@ -0,0 +1,239 @@
+package com.vladsch.flexmark.util.sequence;
+
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.data.DataKeyBase;
+import com.vladsch.flexmark.util.sequence.builder.IBasedSegmentBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * A BasedSequence implementation whose base is filled incrementally from a {@link Reader}
+ * in fixed size chunks, allowing sub-sequences of already read text to be taken before the
+ * whole input is available. Read chunks are never copied as the base grows.
+ * <p>
+ * Only the base sequence grows, its length is the number of characters read so far.
+ * Sub-sequences have fixed offsets and must only be taken from the part of the base which was already read.
+ * <p>
+ * NOTE: hashCode() of the base sequence is cached on first use and should not be requested before {@link #isComplete()}
+ * <p>
+ * NOTE: '\0' changed to '\uFFFD' use {@link com.vladsch.flexmark.util.sequence.mappers.NullEncoder#decodeNull} mapper to get original null chars.
+ */
+final public class ChunkedSubSequence extends BasedSequenceImpl {
+    final public static int CHUNK_SHIFT = 14;
+    final public static int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    final private static int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    final private @NotNull Chunks chunks;
+    final private @NotNull ChunkedSubSequence baseSeq;
+    final private int startOffset;
+    final private int endOffset;
+
+    /**
+     * Growable char storage used as the base of all chunked sub-sequences
+     */
+    final static class Chunks implements CharSequence {
+        private char[][] chunks = new char[4][];
+        private int chunkCount = 0;
+        private int length = 0;
+        private boolean complete = false;
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            SequenceUtils.validateIndex(index, length);
+            return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+        }
+
+        @NotNull
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            SequenceUtils.validateStartEnd(start, end, length);
+            return new StringBuilder(end - start).append(this, start, end);
+        }
+
+        int read(@NotNull Reader reader) throws IOException {
+            if (complete) return -1;
+
+            int chunkIndex = length >>> CHUNK_SHIFT;
+            int chunkOffset = length & CHUNK_MASK;
+
+            if (chunkIndex == chunkCount) {
+                if (chunkCount == chunks.length) chunks = Arrays.copyOf(chunks, chunkCount * 2);
+                chunks[chunkCount++] = new char[CHUNK_SIZE];
+            }
+
+            int count = reader.read(chunks[chunkIndex], chunkOffset, CHUNK_SIZE - chunkOffset);
+            if (count < 0) {
+                complete = true;
+                return -1;
+            }
+
+            length += count;
+            return count;
+        }
+
+        @NotNull
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(length);
+            int remaining = length;
+            for (int i = 0; i < chunkCount && remaining > 0; i++) {
+                int count = Math.min(remaining, CHUNK_SIZE);
+                sb.append(chunks[i], 0, count);
+                remaining -= count;
+            }
+            return sb.toString();
+        }
+    }
+
+    @NotNull
+    @Override
+    public ChunkedSubSequence getBaseSequence() {
+        return baseSeq;
+    }
+
+    @Override
+    public int getOptionFlags() {
+        return 0;
+    }
+
+    @Override
+    public boolean allOptions(int options) {
+        return false;
+    }
+
+    @Override
+    public boolean anyOptions(int options) {
+        return false;
+    }
+
+    @Override
+    public <T> T getOption(@NotNull DataKeyBase<T> dataKey) {
+        return dataKey.get(null);
+    }
+
+    @Override
+    public @Nullable DataHolder getOptions() {
+        return null;
+    }
+
+    @NotNull
+    @Override
+    public CharSequence getBase() {
+        return chunks;
+    }
+
+    public int getStartOffset() {
+        return startOffset;
+    }
+
+    public int getEndOffset() {
+        return baseSeq == this ? chunks.length : endOffset;
+    }
+
+    private ChunkedSubSequence() {
+        super(0);
+        baseSeq = this;
+        chunks = new Chunks();
+        startOffset = 0;
+        endOffset = 0;
+    }
+
+    // NOTE: called only from baseSubSequence
+    private ChunkedSubSequence(@NotNull ChunkedSubSequence baseSeq, int startIndex, int endIndex) {
+        super(0);
+
+        assert startIndex >= 0 && endIndex >= startIndex && endIndex <= baseSeq.length() : String.format("ChunkedSubSequence must have startIndex >= 0 && endIndex >= startIndex && endIndex <= %d, got startIndex:%d, endIndex: %d", baseSeq.length(), startIndex, endIndex);
+
+        this.baseSeq = baseSeq;
+        chunks = baseSeq.chunks;
+        startOffset = startIndex;
+        endOffset = endIndex;
+    }
+
+    /**
+     * Read next chunk of characters from the reader and append them to the base sequence
+     * <p>
+     * Only valid on the base sequence.
+     *
+     * @param reader reader to use
+     * @return number of characters appended or -1 if end of input was reached
+     * @throws IOException if thrown by reader
+     */
+    public int read(@NotNull Reader reader) throws IOException {
+        if (baseSeq != this) throw new IllegalStateException("ChunkedSubSequence.read() can only be used on the base sequence");
+        return chunks.read(reader);
+    }
+
+    /**
+     * @return true if end of input was reached and the base sequence will not grow any more
+     */
+    public boolean isComplete() {
+        return chunks.complete;
+    }
+
+    @Override
+    public void addSegments(@NotNull IBasedSegmentBuilder<?> builder) {
+        assert builder.getBaseSequence() == baseSeq || builder.getBaseSequence().equals(baseSeq);
+
+        builder.append(startOffset, getEndOffset());
+    }
+
+    @Override
+    public int length() {
+        return getEndOffset() - startOffset;
+    }
+
+    @NotNull
+    @Override
+    public Range getSourceRange() {
+        return Range.of(startOffset, getEndOffset());
+    }
+
+    @Override
+    public int getIndexOffset(int index) {
+        SequenceUtils.validateIndexInclusiveEnd(index, length());
+        return startOffset + index;
+    }
+
+    @Override
+    public char charAt(int index) {
+        SequenceUtils.validateIndex(index, length());
+
+        char c = chunks.charAt(index + startOffset);
+        return c == SequenceUtils.NUL ? SequenceUtils.ENC_NUL : c;
+    }
+
+    @NotNull
+    @Override
+    public ChunkedSubSequence subSequence(int startIndex, int endIndex) {
+        SequenceUtils.validateStartEnd(startIndex, endIndex, length());
+        return baseSubSequence(startOffset + startIndex, startOffset + endIndex);
+    }
+
+    @NotNull
+    @Override
+    public ChunkedSubSequence baseSubSequence(int startIndex, int endIndex) {
+        SequenceUtils.validateStartEnd(startIndex, endIndex, baseSeq.length());
+        if (baseSeq != this) return startIndex == startOffset && endIndex == endOffset ? this : baseSeq.baseSubSequence(startIndex, endIndex);
+        return new ChunkedSubSequence(this, startIndex, endIndex);
+    }
+
+    /**
+     * Create an empty base sequence to be filled with {@link #read(Reader)}
+     *
+     * @return empty chunked base sequence
+     */
+    @NotNull
+    public static ChunkedSubSequence create() {
+        return new ChunkedSubSequence();
+    }
+}
@@ -905,6 +905,24 @@ public interface LineAppendable extends Appendable, Iterable<LineInfo> {
         return appendToSilently(out, 0, 0, 0, Integer.MAX_VALUE);
     }
 
+    /**
+     * Append completed lines to appendable and remove them, used to stream output while lines are still being added
+     * <p>
+     * Only lines up to the non-blank line before the last non-blank line are appended, so the remaining lines give
+     * the same result for blank line handling and for {@link #appendTo(Appendable, int, int)} of the tail as if no lines were
+     * removed. Nothing is appended while pre-formatted text is open.
+     * <p>
+     * NOTE: default implementation does not stream, all lines are left for a later append.
+     *
+     * @param out           appendable to output the completed lines
+     * @param maxBlankLines maximum blank lines to allow in the body
+     * @return number of lines appended and removed
+     * @throws IOException if thrown by appendable
+     */
+    default int appendCompletedLinesTo(@NotNull Appendable out, int maxBlankLines) throws IOException {
+        return 0;
+    }
+
     /**
      * Normalize the appendable by removing extra blank lines in the body or at the end of given line range
      *
@@ -875,6 +875,23 @@ public class LineAppendableImpl implements LineAppendable {
         return out;
     }
 
+    @Override
+    public int appendCompletedLinesTo(@NotNull Appendable out, int maxBlankLines) throws IOException {
+        if (preFormattedNesting > 0) return 0;
+
+        // keep the last non-blank line so blank line handling of following text does not change
+        int lastNonBlankLine = lastNonBlankLine(lines.size());
+        int endLine = lastNonBlankLine > 0 ? lastNonBlankLine(lastNonBlankLine) + 1 : 0;
+        if (endLine <= 0) return 0;
+
+        appendToNoLine(out, true, maxBlankLines, 0, 0, endLine);
+        removeLines(0, endLine);
+
+        preFormattedFirstLine = preFormattedFirstLine >= endLine ? preFormattedFirstLine - endLine : -1;
+        preFormattedLastLine = preFormattedLastLine >= endLine ? preFormattedLastLine - endLine : -1;
+        return endLine;
+    }
+
     @NotNull
     @Override
     public LineAppendable append(@NotNull LineAppendable lineAppendable, int startLine, int endLine, boolean withPrefixes) {
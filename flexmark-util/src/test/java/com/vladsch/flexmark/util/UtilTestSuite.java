@@ -2,6 +2,7 @@ package com.vladsch.flexmark.util;
 
 import com.vladsch.flexmark.util.ast.AstTestSuite;
 import com.vladsch.flexmark.util.collection.CollectionTestSuite;
+import com.vladsch.flexmark.util.data.DataTestSuite;
 import com.vladsch.flexmark.util.format.FormatTestSuite;
 import com.vladsch.flexmark.util.html.HtmlTestSuite;
 import com.vladsch.flexmark.util.misc.MiscTestSuite;
@@ -15,6 +16,7 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
         CollectionTestSuite.class,
         MiscTestSuite.class,
+        DataTestSuite.class,
         AstTestSuite.class,
         HtmlTestSuite.class,
         FormatTestSuite.class,
@@ -0,0 +1,112 @@
+package com.vladsch.flexmark.util.data;
+
+import com.vladsch.flexmark.util.misc.Extension;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DataFingerprintTest {
+    final static DataKey<Integer> INT = new DataKey<>("INT", 1);
+    final static DataKey<String> STRING = new DataKey<>("STRING", "a");
+    final static DataKey<List<String>> LIST = new DataKey<>("LIST", Collections.emptyList());
+    final static DataKey<Collection<Extension>> EXTENSIONS = new DataKey<>("EXTENSIONS", Collections.emptyList());
+    final static NullableDataKey<Object> OBJECT = new NullableDataKey<>("OBJECT");
+
+    static class TestExtension implements Extension {
+    }
+
+    @Test
+    public void test_equalOptions() {
+        DataSet options1 = new MutableDataSet().set(INT, 5).set(STRING, "b").set(LIST, Arrays.asList("x", "y")).toImmutable();
+        DataSet options2 = new MutableDataSet().set(LIST, new ArrayList<>(Arrays.asList("x", "y"))).set(STRING, "b").set(INT, 5).toImmutable();
+
+        assertEquals(DataFingerprint.of(options1), DataFingerprint.of(options2));
+        assertEquals(DataFingerprint.of(options1), DataFingerprint.of(options1.toMutable()));
+        assertEquals(DataFingerprint.of(new DataSet()), DataFingerprint.of(new MutableDataSet()));
+    }
+
+    @Test
+    public void test_differentOptions() {
+        DataSet options = new MutableDataSet().set(INT, 5).set(STRING, "b").set(LIST, Arrays.asList("x", "y")).toImmutable();
+
+        assertNotEquals(DataFingerprint.of(options), DataFingerprint.of(new DataSet()));
+        assertNotEquals(DataFingerprint.of(options), DataFingerprint.of(options.toMutable().set(INT, 6)));
+        assertNotEquals(DataFingerprint.of(options), DataFingerprint.of(options.toMutable().set(STRING, "c")));
+        assertNotEquals(DataFingerprint.of(options), DataFingerprint.of(options.toMutable().set(LIST, Arrays.asList("y", "x"))));
+        assertNotEquals(DataFingerprint.of(options), DataFingerprint.of(options.toMutable().remove(STRING)));
+    }
+
+    @Test
+    public void test_extensions() {
+        DataSet options1 = new MutableDataSet().set(EXTENSIONS, Collections.singletonList(new TestExtension())).toImmutable();
+        DataSet options2 = new MutableDataSet().set(EXTENSIONS, Collections.singletonList(new TestExtension())).toImmutable();
+
+        assertEquals(DataFingerprint.of(options1), DataFingerprint.of(options2));
+        assertNotEquals(DataFingerprint.of(options1), DataFingerprint.of(new MutableDataSet().set(EXTENSIONS, Collections.emptyList())));
+    }
+
+    @Test
+    public void test_identityValues() {
+        Object value = new Object();
+        DataSet options = new MutableDataSet().set(OBJECT, value).toImmutable();
+
+        assertEquals(DataFingerprint.of(options), DataFingerprint.of(new MutableDataSet().set(OBJECT, value)));
+        assertNotEquals(DataFingerprint.of(options), DataFingerprint.of(new MutableDataSet().set(OBJECT, new Object())));
+    }
+
+    @Test
+    public void test_values() {
+        assertEquals(DataFingerprint.ofValue(new int[] { 1, 2 }), DataFingerprint.ofValue(new int[] { 1, 2 }));
+        assertNotEquals(DataFingerprint.ofValue(new int[] { 1, 2 }), DataFingerprint.ofValue(new int[] { 2, 1 }));
+        assertNotEquals(DataFingerprint.ofValue(1), DataFingerprint.ofValue(1L));
+        assertEquals(DataFingerprint.ofValue("abc"), DataFingerprint.ofValue(new StringBuilder("abc")));
+        assertEquals(0, DataFingerprint.ofValue(null));
+    }
+
+    @Test
+    public void test_isEqual() {
+        DataSet options1 = new MutableDataSet().set(INT, 5).set(STRING, "b").set(LIST, Arrays.asList("x", "y"))
+                .set(EXTENSIONS, Collections.singletonList(new TestExtension())).toImmutable();
+        DataSet options2 = new MutableDataSet().set(EXTENSIONS, Collections.singletonList(new TestExtension()))
+                .set(LIST, new ArrayList<>(Arrays.asList("x", "y"))).set(STRING, "b").set(INT, 5).toImmutable();
+
+        assertTrue(DataFingerprint.isEqual(options1, options2));
+        assertTrue(DataFingerprint.isEqual(options1, options1.toMutable()));
+        assertFalse(DataFingerprint.isEqual(options1, options1.toMutable().set(INT, 6)));
+        assertFalse(DataFingerprint.isEqual(options1, options1.toMutable().set(LIST, Arrays.asList("y", "x"))));
+        assertFalse(DataFingerprint.isEqual(options1, options1.toMutable().remove(STRING)));
+        assertFalse(DataFingerprint.isEqual(options1, options1.toMutable().remove(STRING).set(OBJECT, "b")));
+    }
+
+    @Test
+    public void test_isEqualIdentityValues() {
+        Object value = new Object();
+        DataSet options = new MutableDataSet().set(OBJECT, value).toImmutable();
+
+        assertTrue(DataFingerprint.isEqual(options, new MutableDataSet().set(OBJECT, value)));
+        assertFalse(DataFingerprint.isEqual(options, new MutableDataSet().set(OBJECT, new Object())));
+    }
+
+    @Test
+    public void test_isEqualValues() {
+        assertTrue(DataFingerprint.isEqualValue(new int[] { 1, 2 }, new int[] { 1, 2 }));
+        assertFalse(DataFingerprint.isEqualValue(new int[] { 1, 2 }, new int[] { 2, 1 }));
+        assertFalse(DataFingerprint.isEqualValue(1, 1L));
+        assertTrue(DataFingerprint.isEqualValue("abc", new StringBuilder("abc")));
+        assertTrue(DataFingerprint.isEqualValue(new HashSet<>(Arrays.asList("a", "b")), new LinkedHashSet<>(Arrays.asList("b", "a"))));
+        assertFalse(DataFingerprint.isEqualValue(new HashSet<>(Arrays.asList("a", "b")), Arrays.asList("a", "b")));
+
+        Map<String, Object> map1 = new HashMap<>();
+        map1.put("a", 1);
+        map1.put("b", Arrays.asList("x", "y"));
+        Map<String, Object> map2 = new LinkedHashMap<>();
+        map2.put("b", Arrays.asList("x", "y"));
+        map2.put("a", 1);
+        assertTrue(DataFingerprint.isEqualValue(map1, map2));
+        map2.put("a", 2);
+        assertFalse(DataFingerprint.isEqualValue(map1, map2));
+        assertFalse(DataFingerprint.isEqualValue(null, 0));
+    }
+}
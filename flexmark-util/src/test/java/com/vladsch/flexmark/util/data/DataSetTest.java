@@ -0,0 +1,121 @@
+package com.vladsch.flexmark.util.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DataSetTest {
+    final static DataKey<Integer> INT = new DataKey<>("INT", 1);
+    final static DataKey<Integer> INT_DEFAULT = new DataKey<>("INT_DEFAULT", INT);
+    final static DataKey<String> STRING = new DataKey<>("STRING", "a");
+    final static DataKey<List<String>> LIST = new DataKey<>("LIST", ArrayList::new);
+    final static NullableDataKey<String> NULLABLE = new NullableDataKey<>("NULLABLE");
+
+    @Test
+    public void test_keyIndex() {
+        DataKey<Integer> key1 = new DataKey<>("KEY_1", 1);
+        DataKey<Integer> key2 = new DataKey<>("KEY_2", 2);
+        assertEquals(key1.getIndex() + 1, key2.getIndex());
+    }
+
+    @Test
+    public void test_slots() {
+        List<DataKey<Integer>> keys = new ArrayList<>();
+        MutableDataSet mutable = new MutableDataSet();
+        for (int i = 0; i < 100; i++) {
+            DataKey<Integer> key = new DataKey<>("KEY_" + i, -1);
+            keys.add(key);
+            if (i % 3 != 0) mutable.set(key, i);
+        }
+
+        DataSet options = mutable.toImmutable();
+        for (int i = 0; i < keys.size(); i++) {
+            DataKey<Integer> key = keys.get(i);
+            assertEquals(i % 3 != 0, options.contains(key));
+            assertEquals(i % 3 != 0 ? i : -1, (int) key.get(options));
+        }
+    }
+
+    @Test
+    public void test_empty() {
+        DataSet options = new DataSet();
+        assertFalse(options.contains(INT));
+        assertEquals(1, (int) INT.get(options));
+        assertEquals(1, (int) INT_DEFAULT.get(options));
+        assertNull(NULLABLE.get(options));
+        assertFalse(options.contains(INT_DEFAULT));
+    }
+
+    @Test
+    public void test_computedDefault() {
+        DataSet options = new MutableDataSet().set(INT, 5).set(STRING, "b").set(NULLABLE, null).toImmutable();
+
+        assertEquals(5, (int) INT_DEFAULT.get(options));
+        assertEquals(5, (int) INT_DEFAULT.get(options));
+        assertFalse(options.contains(INT_DEFAULT));
+        assertEquals("b", STRING.get(options));
+        assertTrue(options.contains(NULLABLE));
+        assertNull(NULLABLE.get(options));
+        assertFalse(options.getAll().containsKey(INT_DEFAULT));
+    }
+
+    @Test
+    public void test_mutableDefaultNotShared() {
+        DataSet options = new DataSet();
+
+        List<String> list = LIST.get(options);
+        list.add("a");
+        assertTrue(LIST.get(options).isEmpty());
+        assertNotSame(list, LIST.get(options));
+    }
+
+    @Test
+    public void test_mutableKeepsComputedDefault() {
+        MutableDataSet options = new MutableDataSet().set(INT, 5);
+
+        assertEquals(5, (int) INT_DEFAULT.get(options));
+        assertTrue(options.contains(INT_DEFAULT));
+
+        List<String> list = LIST.get(options);
+        assertSame(list, LIST.get(options));
+    }
+
+    @Test
+    public void test_scopedMutableParentDefault() {
+        MutableDataSet parent = new MutableDataSet();
+        ScopedDataSet options = new ScopedDataSet(parent, new MutableDataSet().set(STRING, "b"));
+
+        assertEquals(1, (int) INT_DEFAULT.get(options));
+        parent.set(INT, 5);
+        assertEquals(5, (int) INT_DEFAULT.get(options));
+        assertEquals("b", STRING.get(options));
+    }
+
+    @Test
+    public void test_scopedFrozenParent() {
+        DataSet parent = new MutableDataSet().set(INT, 5).toImmutable();
+        ScopedDataSet options = new ScopedDataSet(parent, new MutableDataSet().set(STRING, "b"));
+
+        assertEquals(5, (int) INT.get(options));
+        assertEquals(5, (int) INT_DEFAULT.get(options));
+        assertEquals("b", STRING.get(options));
+        assertTrue(options.contains(INT));
+        assertFalse(options.contains(INT_DEFAULT));
+    }
+
+    @Test
+    public void test_aggregate() {
+        DataSet options = new MutableDataSet().set(INT, 5).toImmutable();
+        assertEquals(5, (int) INT.get(options));
+
+        DataHolder combined = DataSet.aggregate(options, new MutableDataSet().set(STRING, "b"));
+        assertEquals(5, (int) INT.get(combined));
+        assertEquals("b", STRING.get(combined));
+
+        DataSet merged = DataSet.merge(options, new MutableDataSet().set(INT, 6));
+        assertEquals(6, (int) INT.get(merged));
+    }
+}
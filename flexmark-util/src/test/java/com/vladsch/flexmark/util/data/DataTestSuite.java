@@ -0,0 +1,12 @@
+package com.vladsch.flexmark.util.data;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({
+        DataSetTest.class,
+        DataFingerprintTest.class,
+})
+public class DataTestSuite {
+}
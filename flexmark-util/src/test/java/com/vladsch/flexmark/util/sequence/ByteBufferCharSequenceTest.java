@@ -0,0 +1,155 @@
+package com.vladsch.flexmark.util.sequence;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ByteBufferCharSequenceTest {
+    static String mixedText(int length) {
+        String[] parts = { "abc ", "\n", "äöü ", "€ ", "中文 ", "😀", "𐐷x", "# heading\n" };
+        StringBuilder sb = new StringBuilder(length);
+        int i = 0;
+        while (sb.length() < length) {
+            sb.append(parts[i++ % parts.length]);
+        }
+        return sb.toString();
+    }
+
+    static ByteBufferCharSequence of(byte[] bytes, Charset charset) {
+        return ByteBufferCharSequence.of(ByteBuffer.wrap(bytes), charset);
+    }
+
+    static void assertDecoded(byte[] bytes, Charset charset) {
+        String expected = new String(bytes, charset);
+        ByteBufferCharSequence chars = of(bytes, charset);
+
+        assertEquals(expected.length(), chars.length());
+        assertEquals(expected, chars.toString());
+        for (int i = 0; i < expected.length(); i++) {
+            assertEquals("index " + i, expected.charAt(i), chars.charAt(i));
+        }
+    }
+
+    @Test
+    public void test_empty() {
+        ByteBufferCharSequence chars = of(new byte[0], StandardCharsets.UTF_8);
+        assertEquals(0, chars.length());
+        assertEquals("", chars.toString());
+        assertEquals("", BasedSequence.of(chars).toString());
+    }
+
+    @Test
+    public void test_singleByte() {
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+
+        assertDecoded(bytes, StandardCharsets.ISO_8859_1);
+        assertDecoded(bytes, StandardCharsets.US_ASCII);
+        assertDecoded("plain ascii text\n".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void test_utf8() {
+        String text = mixedText(ByteBufferCharSequence.INDEX_STEP * 10 + 7);
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ByteBufferCharSequence chars = of(bytes, StandardCharsets.UTF_8);
+
+        assertDecoded(bytes, StandardCharsets.UTF_8);
+
+        // backwards
+        for (int i = text.length(); i-- > 0; ) {
+            assertEquals("index " + i, text.charAt(i), chars.charAt(i));
+        }
+
+        // random
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            int index = random.nextInt(text.length());
+            assertEquals("index " + index, text.charAt(index), chars.charAt(index));
+        }
+    }
+
+    @Test
+    public void test_utf8SurrogateAtIndexStep() {
+        for (int prefix = 0; prefix < 4; prefix++) {
+            StringBuilder sb = new StringBuilder();
+            while (sb.length() < ByteBufferCharSequence.INDEX_STEP * 3) {
+                sb.append(sb.length() < prefix ? "é" : "😀");
+            }
+
+            String text = sb.toString();
+            ByteBufferCharSequence chars = of(text.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+            for (int i = text.length(); i-- > 0; i -= ByteBufferCharSequence.INDEX_STEP / 2) {
+                assertEquals("index " + i, text.charAt(i), chars.charAt(i));
+            }
+            assertEquals(text, chars.toString());
+        }
+    }
+
+    @Test
+    public void test_utf8Malformed() {
+        byte[][] inputs = {
+                { 'a', (byte) 0x80, 'b' },
+                { 'a', (byte) 0xc3 },
+                { 'a', (byte) 0xe2, (byte) 0x82, 'b', (byte) 0xe2, (byte) 0x82, (byte) 0xac },
+                { (byte) 0xc0, (byte) 0xaf, (byte) 0xe0, (byte) 0x80, (byte) 0xaf },
+                { (byte) 0xed, (byte) 0xa0, (byte) 0x80, 'x', (byte) 0xed, (byte) 0xa0, 'x', (byte) 0xed, (byte) 0xa0 },
+                { (byte) 0xe0, (byte) 0xa0 },
+                { (byte) 0xf0, (byte) 0x90, 'x' },
+                { (byte) 0xf0, (byte) 0x9f, (byte) 0x98, 'x', (byte) 0xf4, (byte) 0x90, (byte) 0x80, (byte) 0x80 },
+                { (byte) 0xf5, (byte) 0xff, (byte) 0xfe, (byte) 0xe4, (byte) 0xb8, (byte) 0xad },
+        };
+
+        for (byte[] input : inputs) {
+            assertDecoded(input, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void test_bufferSlice() {
+        byte[] bytes = "xxäöüyy".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(2).limit(bytes.length - 2);
+
+        ByteBufferCharSequence chars = ByteBufferCharSequence.of(buffer, StandardCharsets.UTF_8);
+        assertEquals("äöü", chars.toString());
+        assertEquals("ö", chars.subSequence(1, 2).toString());
+        assertEquals(2, buffer.position());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_unsupportedCharset() {
+        of(new byte[0], StandardCharsets.UTF_16);
+    }
+
+    @Test
+    public void test_mapFile() throws IOException {
+        String text = mixedText(ByteBufferCharSequence.INDEX_STEP * 4);
+        Path file = Files.createTempFile("flexmark", ".md");
+        try {
+            Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+            ByteBufferCharSequence chars = ByteBufferCharSequence.map(file, StandardCharsets.UTF_8);
+            BasedSequence sequence = BasedSequence.of(chars);
+
+            assertEquals(text, sequence.toString());
+            assertSame(chars, sequence.getBase());
+
+            BasedSequence subSequence = sequence.subSequence(300, 400);
+            assertEquals(text.substring(300, 400), subSequence.toString());
+            assertEquals(300, subSequence.getStartOffset());
+            assertSame(chars, subSequence.getBase());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
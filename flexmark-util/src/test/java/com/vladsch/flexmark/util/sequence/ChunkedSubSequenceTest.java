@@ -0,0 +1,80 @@
+package com.vladsch.flexmark.util.sequence;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class ChunkedSubSequenceTest {
+    static String repeatText(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void test_readAll() throws IOException {
+        String text = repeatText(ChunkedSubSequence.CHUNK_SIZE * 2 + 100);
+        StringReader reader = new StringReader(text);
+        ChunkedSubSequence base = ChunkedSubSequence.create();
+
+        assertEquals(0, base.length());
+        while (base.read(reader) >= 0) {
+            assertFalse(base.isComplete());
+        }
+
+        assertTrue(base.isComplete());
+        assertEquals(-1, base.read(reader));
+        assertEquals(text.length(), base.length());
+        assertEquals(text, base.toString());
+        assertEquals(text, base.getBase().toString());
+        assertEquals(text.hashCode(), base.hashCode());
+    }
+
+    @Test
+    public void test_subSequenceAcrossChunks() throws IOException {
+        String text = repeatText(ChunkedSubSequence.CHUNK_SIZE + 100);
+        StringReader reader = new StringReader(text);
+        ChunkedSubSequence base = ChunkedSubSequence.create();
+
+        base.read(reader);
+        assertEquals(ChunkedSubSequence.CHUNK_SIZE, base.length());
+        BasedSequence first = base.subSequence(10, 20);
+
+        base.read(reader);
+        assertEquals(text.length(), base.length());
+
+        int start = ChunkedSubSequence.CHUNK_SIZE - 10;
+        BasedSequence spanning = base.subSequence(start, start + 20);
+        assertEquals(text.substring(start, start + 20), spanning.toString());
+        assertEquals(start, spanning.getStartOffset());
+        assertEquals(start + 20, spanning.getEndOffset());
+        assertSame(base, spanning.getBaseSequence());
+        assertEquals(text.substring(start + 5, start + 15), spanning.subSequence(5, 15).toString());
+
+        // earlier sub-sequences keep their range
+        assertEquals(text.substring(10, 20), first.toString());
+        assertEquals(10, first.length());
+        assertTrue(first.isContinuedBy(base.subSequence(20, 30)));
+    }
+
+    @Test
+    public void test_nullChar() throws IOException {
+        ChunkedSubSequence base = ChunkedSubSequence.create();
+        base.read(new StringReader("a\0b"));
+
+        assertEquals(SequenceUtils.ENC_NUL, base.charAt(1));
+        assertEquals(SequenceUtils.NUL, base.getBase().charAt(1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_readSubSequence() throws IOException {
+        ChunkedSubSequence base = ChunkedSubSequence.create();
+        base.read(new StringReader("abc"));
+        base.subSequence(1, 2).read(new StringReader("def"));
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import static org.junit.Assert.*;
@@ -2146,5 +2147,46 @@ public class LineAppendableImplTest {
         SequenceBuilder actualSpcBuilder = sequence.getBuilder().append(actualSpc);
         assertEquals("⟦⟧> ⟦[simLink spaced](simLink.md)⟧", actualSpcBuilder.toStringWithRanges(true));
     }
-}
 
+    @Test
+    public void test_appendCompletedLinesTo() throws IOException {
+        LineAppendableImpl fa = new LineAppendableImpl(0);
+        StringBuilder out = new StringBuilder();
+
+        fa.append("line 1").line().blankLine().blankLine();
+        assertEquals(0, fa.appendCompletedLinesTo(out, 1));
+        assertEquals("", out.toString());
+
+        fa.append("line 2").line().blankLine();
+        assertEquals(1, fa.appendCompletedLinesTo(out, 1));
+        assertEquals("line 1\n", out.toString());
+        assertEquals(3, fa.getLineCount());
+
+        fa.blankLine(2).append("line 3");
+        assertEquals(0, fa.appendCompletedLinesTo(out, 1));
+
+        fa.line();
+        assertEquals(2, fa.appendCompletedLinesTo(out, 1));
+        assertEquals("line 1\n\nline 2\n", out.toString());
+
+        fa.appendTo(out, 1, 0);
+        assertEquals("line 1\n\nline 2\n\nline 3\n", out.toString());
+    }
+
+    @Test
+    public void test_appendCompletedLinesToPreFormatted() throws IOException {
+        LineAppendableImpl fa = new LineAppendableImpl(0);
+        StringBuilder out = new StringBuilder();
+
+        fa.append("line 1").line().append("line 2").line();
+        fa.openPreFormatted(true).append("pre 1\n\n\npre 2\n");
+        assertEquals(0, fa.appendCompletedLinesTo(out, 0));
+
+        fa.closePreFormatted().append("line 3").line();
+        assertEquals(6, fa.appendCompletedLinesTo(out, 0));
+        assertEquals("line 1\nline 2\npre 1\n\n\npre 2\n", out.toString());
+
+        fa.appendTo(out, 0, 0);
+        assertEquals("line 1\nline 2\npre 1\n\n\npre 2\nline 3\n", out.toString());
+    }
+}
@@ -32,6 +32,8 @@ import org.junit.runners.Suite;
         SegmentOffsetTreeTest.class,
         BasedOffsetTrackerTest.class,
         LineAppendableImplTest.class,
+        ChunkedSubSequenceTest.class,
+        ByteBufferCharSequenceTest.class,
 })
 public class SequenceTestSuite {
 }
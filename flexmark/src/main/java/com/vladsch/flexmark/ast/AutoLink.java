@@ -3,6 +3,8 @@ package com.vladsch.flexmark.ast;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Function;
+
 public class AutoLink extends DelimitedLinkNode {
     public AutoLink() {
     }
@@ -43,4 +45,10 @@ public class AutoLink extends DelimitedLinkNode {
         super(openingMarker, text, closingMarker);
         setUrlChars(text);
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
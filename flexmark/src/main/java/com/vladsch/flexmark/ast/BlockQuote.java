@@ -8,6 +8,7 @@ import com.vladsch.flexmark.util.sequence.BasedSequence;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.function.Function;
 
 public class BlockQuote extends Block implements BlockQuoteLike, KeepTrailingBlankLineContainer {
     private BasedSequence openingMarker = BasedSequence.NULL;
@@ -45,4 +46,16 @@ public class BlockQuote extends Block implements BlockQuoteLike, KeepTrailingBla
     public void setOpeningMarker(BasedSequence openingMarker) {
         this.openingMarker = openingMarker;
     }
+
+    @Override
+    protected void rebaseNodeSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        super.rebaseNodeSegments(rebase);
+        openingMarker = rebase.apply(openingMarker);
+    }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
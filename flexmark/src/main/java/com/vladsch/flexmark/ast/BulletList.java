@@ -5,6 +5,7 @@ import com.vladsch.flexmark.util.sequence.BasedSequence;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.function.Function;
 
 public class BulletList extends ListBlock {
     private char openingMarker;
@@ -37,4 +38,10 @@ public class BulletList extends ListBlock {
     public void setOpeningMarker(char openingMarker) {
         this.openingMarker = openingMarker;
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
@@ -2,8 +2,10 @@ package com.vladsch.flexmark.ast;
 
 import com.vladsch.flexmark.util.ast.BlockContent;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.function.Function;
 
 public class BulletListItem extends ListItem {
 
@@ -21,4 +23,10 @@ public class BulletListItem extends ListItem {
     public BulletListItem(BlockContent blockContent) {
         super(blockContent);
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
@@ -6,6 +6,8 @@ import com.vladsch.flexmark.util.sequence.BasedSequence;
 import com.vladsch.flexmark.util.sequence.builder.ISequenceBuilder;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Function;
+
 public class Code extends DelimitedNodeImpl implements DoNotLinkDecorate {
     public Code() {
     }
@@ -28,4 +30,10 @@ public class Code extends DelimitedNodeImpl implements DoNotLinkDecorate {
         out.append(getText());
         return false;
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
@@ -4,6 +4,8 @@ import com.vladsch.flexmark.util.sequence.BasedSequence;
 import com.vladsch.flexmark.util.sequence.BasedSequenceImpl;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Function;
+
 public class DelimitedLinkNode extends LinkNode {
 
     public DelimitedLinkNode() {
@@ -62,4 +64,12 @@ public class DelimitedLinkNode extends LinkNode {
     public void setClosingMarker(BasedSequence closingMarker) {
         this.closingMarker = closingMarker;
     }
+
+    @Override
+    protected void rebaseNodeSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        super.rebaseNodeSegments(rebase);
+        openingMarker = rebase.apply(openingMarker);
+        text = rebase.apply(text);
+        closingMarker = rebase.apply(closingMarker);
+    }
 }
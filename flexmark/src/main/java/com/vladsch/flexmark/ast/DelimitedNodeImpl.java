@@ -5,6 +5,8 @@ import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Function;
+
 public abstract class DelimitedNodeImpl extends Node implements DelimitedNode {
     protected BasedSequence openingMarker = BasedSequence.NULL;
     protected BasedSequence text = BasedSequence.NULL;
@@ -59,4 +61,12 @@ public abstract class DelimitedNodeImpl extends Node implements DelimitedNode {
     public void setClosingMarker(BasedSequence closingMarker) {
         this.closingMarker = closingMarker;
     }
+
+    @Override
+    protected void rebaseNodeSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        super.rebaseNodeSegments(rebase);
+        openingMarker = rebase.apply(openingMarker);
+        text = rebase.apply(text);
+        closingMarker = rebase.apply(closingMarker);
+    }
 }
@@ -7,6 +7,7 @@ import com.vladsch.flexmark.util.sequence.BasedSequence;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.function.Function;
 
 public class FencedCodeBlock extends Block implements DoNotDecorate {
     private int fenceIndent;
@@ -115,4 +116,19 @@ public class FencedCodeBlock extends Block implements DoNotDecorate {
     public void setFenceIndent(int fenceIndent) {
         this.fenceIndent = fenceIndent;
     }
+
+    @Override
+    protected void rebaseNodeSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        super.rebaseNodeSegments(rebase);
+        openingMarker = rebase.apply(openingMarker);
+        info = rebase.apply(info);
+        attributes = rebase.apply(attributes);
+        closingMarker = rebase.apply(closingMarker);
+    }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
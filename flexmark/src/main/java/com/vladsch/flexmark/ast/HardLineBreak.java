@@ -8,6 +8,8 @@ import com.vladsch.flexmark.util.sequence.BasedSequence;
 import com.vladsch.flexmark.util.sequence.builder.ISequenceBuilder;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Function;
+
 public class HardLineBreak extends Node implements DoNotTrim, TextContainer {
     @NotNull
     @Override
@@ -28,4 +30,10 @@ public class HardLineBreak extends Node implements DoNotTrim, TextContainer {
         out.add(chars.subSequence(chars.length() - 1, chars.length()));
         return false;
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
@@ -9,6 +9,7 @@ import com.vladsch.flexmark.util.sequence.BasedSequence;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.function.Function;
 
 public class Heading extends Block implements AnchorRefTarget {
     protected int level;
@@ -111,4 +112,18 @@ public class Heading extends Block implements AnchorRefTarget {
     public void setLevel(int level) {
         this.level = level;
     }
+
+    @Override
+    protected void rebaseNodeSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        super.rebaseNodeSegments(rebase);
+        openingMarker = rebase.apply(openingMarker);
+        text = rebase.apply(text);
+        closingMarker = rebase.apply(closingMarker);
+    }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
@@ -9,6 +9,8 @@ import com.vladsch.flexmark.util.sequence.ReplacedTextMapper;
 import com.vladsch.flexmark.util.sequence.builder.ISequenceBuilder;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Function;
+
 import static com.vladsch.flexmark.util.misc.BitFieldSet.any;
 
 /**
@@ -47,4 +49,10 @@ public class HtmlEntity extends Node implements TextContainer {
         }
         return false;
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
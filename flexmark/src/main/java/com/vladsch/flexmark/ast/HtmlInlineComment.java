@@ -3,6 +3,8 @@ package com.vladsch.flexmark.ast;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Function;
+
 /**
  * Inline HTML comment element.
  *
@@ -26,4 +28,10 @@ public class HtmlInlineComment extends HtmlInlineBase {
     public HtmlInlineComment(BasedSequence chars) {
         super(chars);
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
@@ -3,6 +3,8 @@ package com.vladsch.flexmark.ast;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Function;
+
 public class Image extends InlineLinkNode {
     private BasedSequence urlContent = BasedSequence.NULL;
 
@@ -80,4 +82,16 @@ public class Image extends InlineLinkNode {
     public BasedSequence getUrlContent() {
         return urlContent;
     }
+
+    @Override
+    protected void rebaseNodeSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        super.rebaseNodeSegments(rebase);
+        urlContent = rebase.apply(urlContent);
+    }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
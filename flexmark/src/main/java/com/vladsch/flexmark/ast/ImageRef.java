@@ -1,6 +1,9 @@
 package com.vladsch.flexmark.ast;
 
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
 
 public class ImageRef extends RefNode {
     public ImageRef() {
@@ -37,4 +40,10 @@ public class ImageRef extends RefNode {
         this.text = textChars.subSequence(2, textCharsLength - 1).trim();
         this.textClosingMarker = textChars.subSequence(textCharsLength - 1, textCharsLength);
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
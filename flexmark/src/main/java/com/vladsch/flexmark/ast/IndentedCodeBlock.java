@@ -6,6 +6,7 @@ import com.vladsch.flexmark.util.sequence.BasedSequence;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.function.Function;
 
 public class IndentedCodeBlock extends Block {
 
@@ -29,4 +30,10 @@ public class IndentedCodeBlock extends Block {
     public IndentedCodeBlock(BlockContent blockContent) {
         super(blockContent);
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
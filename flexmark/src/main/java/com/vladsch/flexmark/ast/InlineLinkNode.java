@@ -3,6 +3,8 @@ package com.vladsch.flexmark.ast;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Function;
+
 public abstract class InlineLinkNode extends LinkNode {
     protected BasedSequence textOpeningMarker = BasedSequence.NULL;
     protected BasedSequence text = BasedSequence.NULL;
@@ -167,4 +169,14 @@ public abstract class InlineLinkNode extends LinkNode {
     protected String toStringAttributes() {
         return "text=" + text + ", url=" + url + ", title=" + title;
     }
+
+    @Override
+    protected void rebaseNodeSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        super.rebaseNodeSegments(rebase);
+        textOpeningMarker = rebase.apply(textOpeningMarker);
+        text = rebase.apply(text);
+        textClosingMarker = rebase.apply(textClosingMarker);
+        linkOpeningMarker = rebase.apply(linkOpeningMarker);
+        linkClosingMarker = rebase.apply(linkClosingMarker);
+    }
 }
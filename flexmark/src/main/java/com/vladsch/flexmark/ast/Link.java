@@ -1,6 +1,9 @@
 package com.vladsch.flexmark.ast;
 
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
 
 public class Link extends InlineLinkNode {
     public Link() {
@@ -33,4 +36,10 @@ public class Link extends InlineLinkNode {
         this.text = textChars.subSequence(1, textCharsLength - 1).trim();
         this.textClosingMarker = textChars.subSequence(textCharsLength - 1, textCharsLength);
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
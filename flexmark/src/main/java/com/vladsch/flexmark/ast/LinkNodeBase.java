@@ -2,6 +2,9 @@ package com.vladsch.flexmark.ast;
 
 import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
 
 public abstract class LinkNodeBase extends Node {
     protected BasedSequence urlOpeningMarker = BasedSequence.NULL;
@@ -132,4 +135,18 @@ public abstract class LinkNodeBase extends Node {
     public void setTitleClosingMarker(BasedSequence titleClosingMarker) {
         this.titleClosingMarker = titleClosingMarker;
     }
+
+    @Override
+    protected void rebaseNodeSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        super.rebaseNodeSegments(rebase);
+        urlOpeningMarker = rebase.apply(urlOpeningMarker);
+        url = rebase.apply(url);
+        pageRef = rebase.apply(pageRef);
+        anchorMarker = rebase.apply(anchorMarker);
+        anchorRef = rebase.apply(anchorRef);
+        urlClosingMarker = rebase.apply(urlClosingMarker);
+        titleOpeningMarker = rebase.apply(titleOpeningMarker);
+        title = rebase.apply(title);
+        titleClosingMarker = rebase.apply(titleClosingMarker);
+    }
 }
@@ -1,6 +1,9 @@
 package com.vladsch.flexmark.ast;
 
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
 
 public class LinkRef extends RefNode implements LinkRendered {
     public LinkRef() {
@@ -29,4 +32,10 @@ public class LinkRef extends RefNode implements LinkRendered {
     public LinkRef(BasedSequence textOpenMarker, BasedSequence text, BasedSequence textCloseMarker, BasedSequence referenceOpenMarker, BasedSequence referenceCloseMarker) {
         super(textOpenMarker, text, textCloseMarker, referenceOpenMarker, referenceCloseMarker);
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
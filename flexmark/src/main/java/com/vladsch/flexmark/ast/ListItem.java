@@ -10,6 +10,7 @@ import com.vladsch.flexmark.util.sequence.BasedSequence;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.function.Function;
 
 public abstract class ListItem extends Block implements ParagraphItemContainer, BlankLineContainer, ParagraphContainer {
     protected BasedSequence openingMarker = BasedSequence.NULL;
@@ -172,4 +173,11 @@ public abstract class ListItem extends Block implements ParagraphItemContainer,
     public Node getLastBlankLineChild() {
         return getLastChild();
     }
+
+    @Override
+    protected void rebaseNodeSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        super.rebaseNodeSegments(rebase);
+        openingMarker = rebase.apply(openingMarker);
+        markerSuffix = rebase.apply(markerSuffix);
+    }
 }
@@ -1,6 +1,9 @@
 package com.vladsch.flexmark.ast;
 
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
 
 public class MailLink extends DelimitedLinkNode {
     public MailLink() {
@@ -13,4 +16,10 @@ public class MailLink extends DelimitedLinkNode {
     public MailLink(BasedSequence openingMarker, BasedSequence text, BasedSequence closingMarker) {
         super(openingMarker, text, closingMarker);
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
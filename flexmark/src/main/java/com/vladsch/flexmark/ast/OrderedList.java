@@ -5,6 +5,7 @@ import com.vladsch.flexmark.util.sequence.BasedSequence;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.function.Function;
 
 public class OrderedList extends ListBlock {
     private int startNumber;
@@ -53,4 +54,10 @@ public class OrderedList extends ListBlock {
     public void setDelimiter(char delimiter) {
         this.delimiter = delimiter;
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
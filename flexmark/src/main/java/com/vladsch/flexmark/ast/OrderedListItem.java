@@ -2,8 +2,10 @@ package com.vladsch.flexmark.ast;
 
 import com.vladsch.flexmark.util.ast.BlockContent;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.function.Function;
 
 public class OrderedListItem extends ListItem {
     public OrderedListItem() {
@@ -25,4 +27,10 @@ public class OrderedListItem extends ListItem {
     public boolean isOrderedItem() {
         return true;
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
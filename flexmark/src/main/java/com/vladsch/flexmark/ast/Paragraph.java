@@ -9,6 +9,7 @@ import com.vladsch.flexmark.util.sequence.builder.ISequenceBuilder;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.function.Function;
 
 public class Paragraph extends Block implements TextContainer {
     final private static int[] EMPTY_INDENTS = new int[0];
@@ -140,4 +141,10 @@ public class Paragraph extends Block implements TextContainer {
         }
         return true;
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
@@ -10,6 +10,8 @@ import com.vladsch.flexmark.util.sequence.ReplacedTextMapper;
 import com.vladsch.flexmark.util.sequence.builder.ISequenceBuilder;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Function;
+
 public abstract class RefNode extends Node implements LinkRefDerived, ReferencingNode<ReferenceRepository, Reference>, DoNotLinkDecorate, TextContainer {
     protected BasedSequence textOpeningMarker = BasedSequence.NULL;
     protected BasedSequence text = BasedSequence.NULL;
@@ -272,4 +274,15 @@ public abstract class RefNode extends Node implements LinkRefDerived, Referencin
     protected String toStringAttributes() {
         return "text=" + text + ", reference=" + reference;
     }
+
+    @Override
+    protected void rebaseNodeSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        super.rebaseNodeSegments(rebase);
+        textOpeningMarker = rebase.apply(textOpeningMarker);
+        text = rebase.apply(text);
+        textClosingMarker = rebase.apply(textClosingMarker);
+        referenceOpeningMarker = rebase.apply(referenceOpeningMarker);
+        reference = rebase.apply(reference);
+        referenceClosingMarker = rebase.apply(referenceClosingMarker);
+    }
 }
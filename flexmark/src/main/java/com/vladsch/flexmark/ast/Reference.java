@@ -9,6 +9,8 @@ import com.vladsch.flexmark.util.sequence.SequenceUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.function.Function;
+
 public class Reference extends LinkNodeBase implements ReferenceNode<ReferenceRepository, Reference, RefNode> {
     protected BasedSequence openingMarker = BasedSequence.NULL;
     protected BasedSequence reference = BasedSequence.NULL;
@@ -188,4 +190,18 @@ public class Reference extends LinkNodeBase implements ReferenceNode<ReferenceRe
     protected String toStringAttributes() {
         return "reference=" + reference + ", url=" + url;
     }
+
+    @Override
+    protected void rebaseNodeSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        super.rebaseNodeSegments(rebase);
+        openingMarker = rebase.apply(openingMarker);
+        reference = rebase.apply(reference);
+        closingMarker = rebase.apply(closingMarker);
+    }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
@@ -5,6 +5,8 @@ import com.vladsch.flexmark.util.sequence.BasedSequence;
 import com.vladsch.flexmark.util.sequence.builder.ISequenceBuilder;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Function;
+
 public class SoftLineBreak extends Node implements DoNotAttributeDecorate, DoNotTrim, TextContainer {
     @NotNull
     @Override
@@ -48,4 +50,10 @@ public class SoftLineBreak extends Node implements DoNotAttributeDecorate, DoNot
         out.add(getChars());
         return false;
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
@@ -1,6 +1,9 @@
 package com.vladsch.flexmark.ast;
 
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
 
 public class StrongEmphasis extends DelimitedNodeImpl {
     public StrongEmphasis() {
@@ -13,4 +16,10 @@ public class StrongEmphasis extends DelimitedNodeImpl {
     public StrongEmphasis(BasedSequence openingMarker, BasedSequence content, BasedSequence closingMarker) {
         super(openingMarker, content, closingMarker);
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
@@ -10,6 +10,8 @@ import com.vladsch.flexmark.util.sequence.ReplacedTextMapper;
 import com.vladsch.flexmark.util.sequence.builder.ISequenceBuilder;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Function;
+
 import static com.vladsch.flexmark.util.misc.BitFieldSet.any;
 
 final public class Text extends Node implements TextContainer {
@@ -59,4 +61,10 @@ final public class Text extends Node implements TextContainer {
     protected String toStringAttributes() {
         return "text=" + getChars();
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
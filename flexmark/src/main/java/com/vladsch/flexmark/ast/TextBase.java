@@ -9,6 +9,8 @@ import com.vladsch.flexmark.util.sequence.ReplacedTextMapper;
 import com.vladsch.flexmark.util.sequence.builder.ISequenceBuilder;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Function;
+
 import static com.vladsch.flexmark.util.misc.BitFieldSet.any;
 
 public class TextBase extends Node implements TextContainer {
@@ -51,4 +53,10 @@ public class TextBase extends Node implements TextContainer {
     protected String toStringAttributes() {
         return "text=" + getChars();
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
@@ -4,6 +4,8 @@ import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Function;
+
 /**
  * Only generated for CharacterNodeFactory custom parsing
  */
@@ -31,4 +33,10 @@ public class WhiteSpace extends Node {
     protected String toStringAttributes() {
         return "text=" + getChars();
     }
+
+    @Override
+    public boolean rebaseSegments(@NotNull Function<BasedSequence, BasedSequence> rebase) {
+        rebaseNodeSegments(rebase);
+        return true;
+    }
 }
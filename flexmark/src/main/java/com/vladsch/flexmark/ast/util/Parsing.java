@@ -487,4 +487,8 @@ public class Parsing {
     public static boolean isSpaceOrTab(CharSequence s, int index) {
         return CharPredicate.SPACE_TAB.test(SequenceUtils.safeCharAt(s, index));
     }
+
+    public static boolean isSpaceOrTab(char c) {
+        return CharPredicate.SPACE_TAB.test(c);
+    }
 }
@@ -54,4 +54,9 @@ public class ReferenceRepository extends NodeRepository<Reference> {
         }, LinkRef.class, ImageRef.class);
         return references;
     }
+
+    @Override
+    public boolean hasDerivedState() {
+        return false;
+    }
 }
@@ -0,0 +1,36 @@
+package com.vladsch.flexmark.batch;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Markdown text with an id identifying it in the corresponding {@link BatchResult}
+ */
+final public class BatchInput {
+    final private @NotNull String id;
+    final private @NotNull CharSequence text;
+
+    private BatchInput(@NotNull String id, @NotNull CharSequence text) {
+        this.id = id;
+        this.text = text;
+    }
+
+    public @NotNull String getId() {
+        return id;
+    }
+
+    public @NotNull CharSequence getText() {
+        return text;
+    }
+
+    public static @NotNull BatchInput of(@NotNull String id, @NotNull CharSequence text) {
+        return new BatchInput(id, text);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchInput{" +
+                "id='" + id + '\'' +
+                ", length=" + text.length() +
+                '}';
+    }
+}
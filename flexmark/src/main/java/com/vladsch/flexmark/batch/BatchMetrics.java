@@ -0,0 +1,38 @@
+package com.vladsch.flexmark.batch;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives metrics of a {@link MarkdownBatchProcessor} run
+ * <p>
+ * Methods are called on the thread running {@link MarkdownBatchProcessor#process}, results are passed in the
+ * order they are passed to the result consumer. See {@link BatchStatistics} for an implementation which
+ * aggregates throughput, latency percentiles and stage timings.
+ */
+public interface BatchMetrics {
+    /**
+     * Called when processing of a batch starts
+     *
+     * @param startNanos {@link System#nanoTime()} at start
+     */
+    default void batchStarted(long startNanos) {
+
+    }
+
+    /**
+     * Called for each result before it is passed to the consumer
+     *
+     * @param result result of processing an input
+     */
+    void documentProcessed(@NotNull BatchResult result);
+
+    /**
+     * Called when all results of a batch were passed to the consumer, not called if processing is interrupted
+     * or the consumer throws an exception
+     *
+     * @param endNanos {@link System#nanoTime()} at end
+     */
+    default void batchFinished(long endNanos) {
+
+    }
+}
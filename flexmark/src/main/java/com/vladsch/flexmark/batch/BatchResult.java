@@ -0,0 +1,85 @@
+package com.vladsch.flexmark.batch;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Result of processing one {@link BatchInput}, either the rendered HTML or the error which stopped processing
+ */
+final public class BatchResult {
+    final private @NotNull String id;
+    final private long sequence;
+    final private int inputLength;
+    final private @Nullable String html;
+    final private @Nullable Throwable error;
+    final private long[] stageNanos;
+    final private long latencyNanos;
+
+    BatchResult(@NotNull String id, long sequence, int inputLength, @Nullable String html, @Nullable Throwable error, long[] stageNanos, long latencyNanos) {
+        this.id = id;
+        this.sequence = sequence;
+        this.inputLength = inputLength;
+        this.html = html;
+        this.error = error;
+        this.stageNanos = stageNanos;
+        this.latencyNanos = latencyNanos;
+    }
+
+    public @NotNull String getId() {
+        return id;
+    }
+
+    /**
+     * @return 0 based index of the input in the batch
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getInputLength() {
+        return inputLength;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return rendered HTML or null if processing failed
+     */
+    public @Nullable String getHtml() {
+        return html;
+    }
+
+    /**
+     * @return exception thrown while processing or null if processing succeeded
+     */
+    public @Nullable Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @param stage processing stage
+     * @return nanoseconds spent in the stage, 0 if it was not reached
+     */
+    public long getStageNanos(@NotNull BatchStage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    /**
+     * @return nanoseconds from submitting the input to completion of processing
+     */
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "id='" + id + '\'' +
+                ", sequence=" + sequence +
+                ", success=" + isSuccess() +
+                ", latencyNanos=" + latencyNanos +
+                '}';
+    }
+}
@@ -0,0 +1,16 @@
+package com.vladsch.flexmark.batch;
+
+/**
+ * Order in which {@link MarkdownBatchProcessor} passes results to the consumer
+ */
+public enum BatchResultOrder {
+    /**
+     * results in the order of inputs, a result is held until results of all preceding inputs are passed
+     */
+    INPUT,
+
+    /**
+     * results in the order processing completes
+     */
+    COMPLETION;
+}
@@ -0,0 +1,14 @@
+package com.vladsch.flexmark.batch;
+
+/**
+ * Stages of processing a batch document, timed for each {@link BatchResult}
+ */
+public enum BatchStage {
+    /**
+     * waiting for the executor to start processing after the input was submitted
+     */
+    QUEUE,
+    PARSE,
+    POST_PROCESS,
+    RENDER;
+}
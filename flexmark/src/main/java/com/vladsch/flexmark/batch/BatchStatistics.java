@@ -0,0 +1,140 @@
+package com.vladsch.flexmark.batch;
+
+import com.vladsch.flexmark.instrumentation.Histogram;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * {@link BatchMetrics} aggregating document counts, throughput, latency percentiles and per stage timings
+ * <p>
+ * Latencies are kept in a {@link Histogram} so memory use does not depend on number of documents.
+ * Accessors can be called from any thread while a batch is processed.
+ */
+public class BatchStatistics implements BatchMetrics {
+    final private Histogram latencies = new Histogram();
+    final private long[] stageNanos = new long[BatchStage.values().length];
+    private long documents;
+    private long failures;
+    private long inputChars;
+    private long startNanos;
+    private long endNanos;
+    private boolean started;
+    private boolean finished;
+
+    @Override
+    public synchronized void batchStarted(long startNanos) {
+        if (!started) {
+            this.startNanos = startNanos;
+            started = true;
+        }
+        finished = false;
+    }
+
+    @Override
+    public synchronized void documentProcessed(@NotNull BatchResult result) {
+        documents++;
+        if (!result.isSuccess()) failures++;
+        inputChars += result.getInputLength();
+
+        for (BatchStage stage : BatchStage.values()) {
+            stageNanos[stage.ordinal()] += result.getStageNanos(stage);
+        }
+
+        latencies.record(result.getLatencyNanos());
+    }
+
+    @Override
+    public synchronized void batchFinished(long endNanos) {
+        this.endNanos = endNanos;
+        finished = true;
+    }
+
+    public synchronized long getDocuments() {
+        return documents;
+    }
+
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    public synchronized long getInputChars() {
+        return inputChars;
+    }
+
+    /**
+     * @return nanoseconds from start of the first batch to end of the last batch, or to now while a batch is processed
+     */
+    public synchronized long getElapsedNanos() {
+        if (!started) return 0;
+        return (finished ? endNanos : System.nanoTime()) - startNanos;
+    }
+
+    /**
+     * @return documents processed per second of elapsed time
+     */
+    public synchronized double getDocumentsPerSecond() {
+        long elapsed = getElapsedNanos();
+        return elapsed <= 0 ? 0 : documents * 1e9 / elapsed;
+    }
+
+    /**
+     * @return input characters processed per second of elapsed time
+     */
+    public synchronized double getCharsPerSecond() {
+        long elapsed = getElapsedNanos();
+        return elapsed <= 0 ? 0 : inputChars * 1e9 / elapsed;
+    }
+
+    /**
+     * @param stage processing stage
+     * @return total nanoseconds spent in stage by all documents
+     */
+    public synchronized long getStageNanos(@NotNull BatchStage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    /**
+     * @param stage processing stage
+     * @return mean nanoseconds per document spent in stage
+     */
+    public synchronized double getMeanStageNanos(@NotNull BatchStage stage) {
+        return documents == 0 ? 0 : (double) stageNanos[stage.ordinal()] / documents;
+    }
+
+    public synchronized long getMaxLatencyNanos() {
+        return latencies.getMax();
+    }
+
+    /**
+     * @param percentile percentile in range 0 to 100, for example 50, 99 or 99.9
+     * @return latency in nanoseconds not exceeded by given percent of documents, 0 if no documents were processed
+     */
+    public synchronized long getLatencyPercentile(double percentile) {
+        return latencies.getPercentile(percentile);
+    }
+
+    public synchronized void reset() {
+        latencies.reset();
+        Arrays.fill(stageNanos, 0);
+        documents = 0;
+        failures = 0;
+        inputChars = 0;
+        startNanos = 0;
+        endNanos = 0;
+        started = false;
+        finished = false;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BatchStatistics{" +
+                "documents=" + documents +
+                ", failures=" + failures +
+                ", documentsPerSecond=" + String.format("%.1f", getDocumentsPerSecond()) +
+                ", p50=" + getLatencyPercentile(50) +
+                ", p99=" + getLatencyPercentile(99) +
+                ", max=" + latencies.getMax() +
+                '}';
+    }
+}
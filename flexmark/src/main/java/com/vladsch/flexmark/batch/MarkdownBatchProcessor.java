@@ -0,0 +1,290 @@
+package com.vladsch.flexmark.batch;
+
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.sequence.BasedSequence;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Parse, post-process and render a sequence of markdown documents on an executor
+ * <p>
+ * Inputs are read from the iterator only when the in-flight limit allows, so the number of documents held in memory
+ * is bounded by {@link Builder#maxInFlightBytes(long)} and not by the size of the batch. Input is in flight from the
+ * time it is submitted until its result is passed to the consumer, which includes time a result is held to be passed
+ * in input order. A single input larger than the limit is processed when nothing else is in flight.
+ * <p>
+ * The consumer and {@link BatchMetrics} are called on the thread calling process, they do not need to be thread-safe.
+ * Each document is parsed with a {@link Parser.Session} taken from sessions idle in the current process call,
+ * so no more sessions are created than documents parsed at the same time and none are kept after process returns.
+ * <p>
+ * NOTE: Java 21 virtual threads can be used by passing {@code Executors.newVirtualThreadPerTaskExecutor()} to
+ * {@link Builder#executor(Executor)}.
+ */
+public class MarkdownBatchProcessor {
+    final public static long DEFAULT_MAX_IN_FLIGHT_BYTES = 64L * 1024 * 1024;
+
+    final private @NotNull Parser parser;
+    final private @NotNull HtmlRenderer renderer;
+    final private @NotNull Executor executor;
+    final private @NotNull BatchResultOrder resultOrder;
+    final private long maxInFlightBytes;
+    final private @Nullable BatchMetrics metrics;
+
+    MarkdownBatchProcessor(@NotNull Builder builder) {
+        this.parser = builder.parser;
+        this.renderer = builder.renderer;
+        this.executor = builder.executor != null ? builder.executor : ForkJoinPool.commonPool();
+        this.resultOrder = builder.resultOrder;
+        this.maxInFlightBytes = builder.maxInFlightBytes;
+        this.metrics = builder.metrics;
+    }
+
+    public static @NotNull Builder builder(@NotNull Parser parser, @NotNull HtmlRenderer renderer) {
+        return new Builder(parser, renderer);
+    }
+
+    public @NotNull Parser getParser() {
+        return parser;
+    }
+
+    public @NotNull HtmlRenderer getRenderer() {
+        return renderer;
+    }
+
+    /**
+     * Process all inputs and collect results
+     *
+     * @param inputs inputs to process
+     * @return results in order given by {@link Builder#resultOrder(BatchResultOrder)}
+     * @throws InterruptedException if interrupted while waiting for results
+     */
+    public @NotNull List<BatchResult> process(@NotNull Iterable<BatchInput> inputs) throws InterruptedException {
+        List<BatchResult> results = new ArrayList<>();
+        process(inputs.iterator(), results::add);
+        return results;
+    }
+
+    /**
+     * Process all inputs passing results to consumer
+     *
+     * @param inputs   stream of inputs, consumed no faster than the in-flight limit allows
+     * @param consumer consumer of results, called on the calling thread
+     * @throws InterruptedException if interrupted while waiting for results
+     */
+    public void process(@NotNull Stream<BatchInput> inputs, @NotNull Consumer<? super BatchResult> consumer) throws InterruptedException {
+        process(inputs.iterator(), consumer);
+    }
+
+    /**
+     * Process all inputs passing results to consumer
+     * <p>
+     * If the consumer throws an exception, no more inputs are submitted and the exception is propagated,
+     * processing of documents already submitted continues and their results are discarded.
+     *
+     * @param inputs   iterator of inputs, advanced no faster than the in-flight limit allows
+     * @param consumer consumer of results, called on the calling thread
+     * @throws InterruptedException if interrupted while waiting for results
+     */
+    public void process(@NotNull Iterator<BatchInput> inputs, @NotNull Consumer<? super BatchResult> consumer) throws InterruptedException {
+        new Batch(consumer).run(inputs);
+    }
+
+    static long estimateBytes(int textLength) {
+        return textLength * (long) Character.BYTES;
+    }
+
+    private @NotNull BatchResult processInput(@NotNull Parser.Session session, @NotNull BatchInput input, long sequence, long submittedNanos) {
+        long[] stageNanos = new long[BatchStage.values().length];
+        CharSequence text = input.getText();
+        String html = null;
+        Throwable error = null;
+
+        long start = System.nanoTime();
+        stageNanos[BatchStage.QUEUE.ordinal()] = start - submittedNanos;
+        long end = start;
+
+        try {
+            Document document = session.parseWithoutPostProcessing(BasedSequence.of(text));
+            end = System.nanoTime();
+            stageNanos[BatchStage.PARSE.ordinal()] = end - start;
+            start = end;
+
+            document = session.postProcess(document);
+            end = System.nanoTime();
+            stageNanos[BatchStage.POST_PROCESS.ordinal()] = end - start;
+            start = end;
+
+            html = renderer.render(document);
+            end = System.nanoTime();
+            stageNanos[BatchStage.RENDER.ordinal()] = end - start;
+        } catch (Throwable e) {
+            // result must be returned for every input or the batch will wait for it forever
+            end = System.nanoTime();
+            error = e;
+        }
+
+        return new BatchResult(input.getId(), sequence, text.length(), html, error, stageNanos, end - submittedNanos);
+    }
+
+    /**
+     * State of one process call
+     */
+    private class Batch {
+        final private @NotNull Consumer<? super BatchResult> consumer;
+        final private LinkedBlockingQueue<BatchResult> completed = new LinkedBlockingQueue<>();
+        final private HashMap<Long, BatchResult> heldResults = new HashMap<>();
+        final private ConcurrentLinkedQueue<Parser.Session> idleSessions = new ConcurrentLinkedQueue<>();
+        private long nextSequence;
+        private long nextResultSequence;
+        private int inFlight;
+        private long inFlightBytes;
+
+        Batch(@NotNull Consumer<? super BatchResult> consumer) {
+            this.consumer = consumer;
+        }
+
+        void run(@NotNull Iterator<BatchInput> inputs) throws InterruptedException {
+            if (metrics != null) metrics.batchStarted(System.nanoTime());
+
+            while (inputs.hasNext()) {
+                BatchInput input = inputs.next();
+                long bytes = estimateBytes(input.getText().length());
+
+                while (inFlight > 0 && inFlightBytes + bytes > maxInFlightBytes) {
+                    resultCompleted(completed.take());
+                }
+
+                submit(input, bytes);
+
+                BatchResult result;
+                while ((result = completed.poll()) != null) {
+                    resultCompleted(result);
+                }
+            }
+
+            while (inFlight > 0) {
+                resultCompleted(completed.take());
+            }
+
+            if (metrics != null) metrics.batchFinished(System.nanoTime());
+        }
+
+        private void submit(@NotNull BatchInput input, long bytes) {
+            long sequence = nextSequence;
+            long submittedNanos = System.nanoTime();
+
+            executor.execute(() -> {
+                Parser.Session session = idleSessions.poll();
+                if (session == null) session = parser.newSession();
+
+                BatchResult result = processInput(session, input, sequence, submittedNanos);
+                idleSessions.add(session);
+                completed.add(result);
+            });
+
+            nextSequence++;
+            inFlight++;
+            inFlightBytes += bytes;
+        }
+
+        private void resultCompleted(@NotNull BatchResult result) {
+            if (resultOrder == BatchResultOrder.COMPLETION) {
+                accept(result);
+            } else if (result.getSequence() != nextResultSequence) {
+                heldResults.put(result.getSequence(), result);
+            } else {
+                accept(result);
+
+                BatchResult held;
+                while ((held = heldResults.remove(nextResultSequence)) != null) {
+                    accept(held);
+                }
+            }
+        }
+
+        private void accept(@NotNull BatchResult result) {
+            nextResultSequence++;
+            inFlight--;
+            inFlightBytes -= estimateBytes(result.getInputLength());
+
+            if (metrics != null) metrics.documentProcessed(result);
+            consumer.accept(result);
+        }
+    }
+
+    /**
+     * Builder for configuring a {@link MarkdownBatchProcessor}
+     */
+    public static class Builder {
+        final @NotNull Parser parser;
+        final @NotNull HtmlRenderer renderer;
+        @Nullable Executor executor;
+        @NotNull BatchResultOrder resultOrder = BatchResultOrder.INPUT;
+        long maxInFlightBytes = DEFAULT_MAX_IN_FLIGHT_BYTES;
+        @Nullable BatchMetrics metrics;
+
+        Builder(@NotNull Parser parser, @NotNull HtmlRenderer renderer) {
+            this.parser = parser;
+            this.renderer = renderer;
+        }
+
+        /**
+         * @param executor executor to run parsing and rendering, default {@link ForkJoinPool#commonPool()}
+         * @return {@code this}
+         */
+        public @NotNull Builder executor(@NotNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * @param resultOrder order of results passed to consumer, default {@link BatchResultOrder#INPUT}
+         * @return {@code this}
+         */
+        public @NotNull Builder resultOrder(@NotNull BatchResultOrder resultOrder) {
+            this.resultOrder = resultOrder;
+            return this;
+        }
+
+        /**
+         * @param maxInFlightBytes limit of input text in flight, counted as 2 bytes per char, default {@link #DEFAULT_MAX_IN_FLIGHT_BYTES}
+         * @return {@code this}
+         */
+        public @NotNull Builder maxInFlightBytes(long maxInFlightBytes) {
+            if (maxInFlightBytes <= 0) {
+                throw new IllegalArgumentException("maxInFlightBytes must be > 0, got: " + maxInFlightBytes);
+            }
+            this.maxInFlightBytes = maxInFlightBytes;
+            return this;
+        }
+
+        /**
+         * @param metrics metrics to receive batch results, for example {@link BatchStatistics}
+         * @return {@code this}
+         */
+        public @NotNull Builder metrics(@Nullable BatchMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * @return the configured {@link MarkdownBatchProcessor}
+         */
+        public @NotNull MarkdownBatchProcessor build() {
+            return new MarkdownBatchProcessor(this);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Batch parsing and rendering of many documents, see {@link com.vladsch.flexmark.batch.MarkdownBatchProcessor}
+ */
+package com.vladsch.flexmark.batch;
@@ -0,0 +1,310 @@
+package com.vladsch.flexmark.cache;
+
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.data.DataFingerprint;
+import com.vladsch.flexmark.util.data.DataHolder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of rendered HTML keyed by parser and renderer options and markdown content
+ * <p>
+ * The options of the parser and renderer are fingerprinted with {@link DataFingerprint}, once per parser and renderer instance,
+ * so parsers and renderers built with the same options share cache entries. Content is looked up by a randomly seeded
+ * 64 bit hash. On a match the cached text is compared, and the options too unless they are the same instances, so a
+ * hash collision never returns the result for other text or options.
+ * <p>
+ * The cache is split into segments locked independently, each a segmented LRU: new entries go into a probation
+ * segment and are moved to a protected segment when used again, so markdown which is rendered once does not push out
+ * markdown which is rendered repeatedly. Entries are evicted when the estimated size of cached text, HTML and
+ * nodes exceeds {@link Builder#maximumWeight(long)}.
+ * <p>
+ * A result is computed outside of any lock, when the same markdown is requested by several threads at the same time each may compute it.
+ * <p>
+ * NOTE: parsed documents are not cached, documents are mutable and rendering changes some of them, for example footnote
+ * ordinals, so a shared document would not be safe
+ */
+public class DocumentCache {
+    final public static long DEFAULT_MAXIMUM_WEIGHT = 64L * 1024 * 1024;
+    final public static int DEFAULT_SEGMENTS = 16;
+
+    // estimated bytes of an entry not counting its text and HTML
+    final public static int ENTRY_WEIGHT = 96;
+
+    // share of a segment's weight for entries used more than once
+    final private static int PROTECTED_PERCENT = 80;
+
+    final private Segment[] segments;
+    final private long seed;
+    final private Map<Object, Long> fingerprints = Collections.synchronizedMap(new WeakHashMap<>());
+    final private LongAdder hitCount = new LongAdder();
+    final private LongAdder missCount = new LongAdder();
+    final private LongAdder evictionCount = new LongAdder();
+    final private LongAdder evictionWeight = new LongAdder();
+
+    DocumentCache(@NotNull Builder builder) {
+        int segmentCount = Integer.highestOneBit(builder.segments);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(builder.maximumWeight / segmentCount);
+        }
+        this.seed = ThreadLocalRandom.current().nextLong();
+    }
+
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Render markdown to HTML, using the cached HTML if the same markdown was rendered with the same options
+     *
+     * @param parser   parser
+     * @param renderer renderer
+     * @param markdown markdown text
+     * @return rendered HTML
+     */
+    public @NotNull String render(@NotNull Parser parser, @NotNull HtmlRenderer renderer, @NotNull CharSequence markdown) {
+        String text = markdown.toString();
+        Key key = new Key(DataFingerprint.mix(fingerprint(parser) * 31 + fingerprint(renderer)), parser.getOptions(), renderer.getOptions(), text, seed);
+        Segment segment = segmentFor(key);
+
+        Object html = segment.get(key);
+        if (html != null) {
+            hitCount.increment();
+            return (String) html;
+        }
+
+        missCount.increment();
+        String rendered = renderer.render(parser.parse(text));
+        segment.put(key, rendered, ENTRY_WEIGHT + 2L * (text.length() + rendered.length()));
+        return rendered;
+    }
+
+    /**
+     * Remove all entries, statistics are not changed
+     */
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return snapshot of statistics
+     */
+    public @NotNull DocumentCacheStats getStats() {
+        long entries = 0;
+        long weight = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                entries += segment.probation.size() + segment.protectedEntries.size();
+                weight += segment.probationWeight + segment.protectedWeight;
+            }
+        }
+        return new DocumentCacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), evictionWeight.sum(), entries, weight);
+    }
+
+    public void resetStats() {
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+        evictionWeight.reset();
+    }
+
+    private long fingerprint(@NotNull Parser parser) {
+        Long fingerprint = fingerprints.get(parser);
+        if (fingerprint == null) {
+            fingerprint = DataFingerprint.of(parser.getOptions());
+            fingerprints.put(parser, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    private long fingerprint(@NotNull HtmlRenderer renderer) {
+        Long fingerprint = fingerprints.get(renderer);
+        if (fingerprint == null) {
+            fingerprint = DataFingerprint.of(renderer.getOptions());
+            fingerprints.put(renderer, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    private @NotNull Segment segmentFor(@NotNull Key key) {
+        return segments[key.segmentHash & (segments.length - 1)];
+    }
+
+    final private static class Key {
+        final long fingerprint;
+        final DataHolder parserOptions;
+        final DataHolder rendererOptions;
+        final String text;
+        final int hash;
+        final int segmentHash;      // other bits of content hash so keys of a segment do not share hash map buckets
+
+        Key(long fingerprint, @NotNull DataHolder parserOptions, @NotNull DataHolder rendererOptions, @NotNull String text, long seed) {
+            long h = seed ^ fingerprint;
+            int iMax = text.length();
+            for (int i = 0; i < iMax; i++) {
+                h = (h + text.charAt(i)) * 0x9e3779b97f4a7c15L;
+            }
+            h = DataFingerprint.mix(h + iMax);
+
+            this.fingerprint = fingerprint;
+            this.parserOptions = parserOptions;
+            this.rendererOptions = rendererOptions;
+            this.text = text;
+            this.hash = (int) h;
+            this.segmentHash = (int) (h >>> 32);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key key = (Key) o;
+            return hash == key.hash && fingerprint == key.fingerprint && text.equals(key.text)
+                    && DataFingerprint.isEqual(parserOptions, key.parserOptions)
+                    && DataFingerprint.isEqual(rendererOptions, key.rendererOptions);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    final private static class Entry {
+        final Object value;
+        final long weight;
+
+        Entry(@NotNull Object value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Segmented LRU of a part of the cache, entries are kept in access order
+     */
+    final private class Segment {
+        final long maximumWeight;
+        final long protectedMaximumWeight;
+        final LinkedHashMap<Key, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+        final LinkedHashMap<Key, Entry> protectedEntries = new LinkedHashMap<>(16, 0.75f, true);
+        long probationWeight;
+        long protectedWeight;
+
+        Segment(long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+            this.protectedMaximumWeight = maximumWeight * PROTECTED_PERCENT / 100;
+        }
+
+        synchronized Object get(@NotNull Key key) {
+            Entry entry = protectedEntries.get(key);
+            if (entry != null) return entry.value;
+
+            entry = probation.remove(key);
+            if (entry == null) return null;
+
+            // second use, promote to protected and demote least recently used protected entries to probation
+            probationWeight -= entry.weight;
+            protectedEntries.put(key, entry);
+            protectedWeight += entry.weight;
+
+            Iterator<Map.Entry<Key, Entry>> iterator = protectedEntries.entrySet().iterator();
+            while (protectedWeight > protectedMaximumWeight && protectedEntries.size() > 1) {
+                Map.Entry<Key, Entry> eldest = iterator.next();
+                iterator.remove();
+                protectedWeight -= eldest.getValue().weight;
+                probation.put(eldest.getKey(), eldest.getValue());
+                probationWeight += eldest.getValue().weight;
+            }
+            return entry.value;
+        }
+
+        synchronized void put(@NotNull Key key, @NotNull Object value, long weight) {
+            // an entry heavier than the segment is not cached, it would evict everything else
+            if (weight > maximumWeight) return;
+
+            Entry entry = new Entry(value, weight);
+            Entry previous = protectedEntries.get(key);
+            if (previous != null) {
+                protectedEntries.put(key, entry);
+                protectedWeight += weight - previous.weight;
+            } else {
+                previous = probation.put(key, entry);
+                probationWeight += weight - (previous == null ? 0 : previous.weight);
+            }
+
+            evict(probation);
+            evict(protectedEntries);
+        }
+
+        private void evict(@NotNull LinkedHashMap<Key, Entry> entries) {
+            Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+            while (probationWeight + protectedWeight > maximumWeight && iterator.hasNext()) {
+                Entry eldest = iterator.next().getValue();
+                iterator.remove();
+                if (entries == probation) probationWeight -= eldest.weight;
+                else protectedWeight -= eldest.weight;
+
+                evictionCount.increment();
+                evictionWeight.add(eldest.weight);
+            }
+        }
+
+        synchronized void clear() {
+            probation.clear();
+            protectedEntries.clear();
+            probationWeight = 0;
+            protectedWeight = 0;
+        }
+    }
+
+    public static class Builder {
+        long maximumWeight = DEFAULT_MAXIMUM_WEIGHT;
+        int segments = DEFAULT_SEGMENTS;
+
+        Builder() {
+        }
+
+        /**
+         * @param maximumWeight limit of estimated bytes of cached entries, default {@link #DEFAULT_MAXIMUM_WEIGHT}
+         * @return {@code this}
+         */
+        public @NotNull Builder maximumWeight(long maximumWeight) {
+            if (maximumWeight <= 0) {
+                throw new IllegalArgumentException("maximumWeight must be > 0, got: " + maximumWeight);
+            }
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        /**
+         * Number of independently locked segments, rounded down to a power of 2. Each segment holds up to
+         * maximum weight / segments and entries heavier than that are not cached.
+         *
+         * @param segments number of segments, default {@link #DEFAULT_SEGMENTS}
+         * @return {@code this}
+         */
+        public @NotNull Builder segments(int segments) {
+            if (segments <= 0) {
+                throw new IllegalArgumentException("segments must be > 0, got: " + segments);
+            }
+            this.segments = segments;
+            return this;
+        }
+
+        /**
+         * @return the configured {@link DocumentCache}
+         */
+        public @NotNull DocumentCache build() {
+            return new DocumentCache(this);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.vladsch.flexmark.cache;
+
+/**
+ * Snapshot of {@link DocumentCache} statistics
+ */
+final public class DocumentCacheStats {
+    final private long hitCount;
+    final private long missCount;
+    final private long evictionCount;
+    final private long evictionWeight;
+    final private long entryCount;
+    final private long weight;
+
+    public DocumentCacheStats(long hitCount, long missCount, long evictionCount, long evictionWeight, long entryCount, long weight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.evictionWeight = evictionWeight;
+        this.entryCount = entryCount;
+        this.weight = weight;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * @return ratio of hits to requests, 1 if there were no requests
+     */
+    public double getHitRate() {
+        long requests = getRequestCount();
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return sum of estimated bytes of evicted entries
+     */
+    public long getEvictionWeight() {
+        return evictionWeight;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return sum of estimated bytes of cached entries
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentCacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", hitRate=" + String.format("%.3f", getHitRate()) +
+                ", evictionCount=" + evictionCount +
+                ", evictionWeight=" + evictionWeight +
+                ", entryCount=" + entryCount +
+                ", weight=" + weight +
+                '}';
+    }
+}
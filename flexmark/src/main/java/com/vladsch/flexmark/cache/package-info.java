@@ -0,0 +1,4 @@
+/**
+ * Caching of rendered HTML, see {@link com.vladsch.flexmark.cache.DocumentCache}
+ */
+package com.vladsch.flexmark.cache;
@@ -0,0 +1,463 @@
+package com.vladsch.flexmark.html;
+
+import com.vladsch.flexmark.util.ast.IRender;
+import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.html.Attribute;
+import com.vladsch.flexmark.util.html.Attributes;
+import com.vladsch.flexmark.util.sequence.Escaping;
+import com.vladsch.flexmark.util.sequence.LineAppendable;
+import com.vladsch.flexmark.util.sequence.RepeatedSequence;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Element;
+import org.w3c.dom.Text;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.util.*;
+
+/**
+ * Renders a tree of nodes to a W3C DOM document
+ * <p>
+ * Nodes are rendered by the node renderers, attribute providers and link resolvers of the wrapped {@link HtmlRenderer}.
+ * Elements, attributes and text they write are added to the DOM directly, raw HTML they write, like HTML blocks, is
+ * tokenized into elements. This avoids creating HTML text and parsing it for consumers of a DOM, like PDF converters.
+ * <p>
+ * Rendered nodes are the children of the body element of an html element with an empty head element.
+ * <p>
+ * NOTE: raw HTML is not parsed by all HTML5 tree construction rules, close tags close the nearest open element with the
+ * same name and are ignored if there is none. As in HTML5, head elements like style before any body content are added to
+ * the head element, html, head and body tags are ignored, table rows get a tbody parent and incomplete tags are dropped.
+ */
+public class DomRenderer implements IRender {
+    final private static ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER = ThreadLocal.withInitial(() -> {
+        try {
+            return DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    final private @NotNull HtmlRenderer htmlRenderer;
+
+    public DomRenderer(@NotNull HtmlRenderer htmlRenderer) {
+        this.htmlRenderer = htmlRenderer;
+    }
+
+    public DomRenderer(@Nullable DataHolder options) {
+        this(HtmlRenderer.builder(options).build());
+    }
+
+    public @NotNull HtmlRenderer getHtmlRenderer() {
+        return htmlRenderer;
+    }
+
+    @Override
+    public @Nullable DataHolder getOptions() {
+        return htmlRenderer.getOptions();
+    }
+
+    /**
+     * Render a node to HTML text, same as the wrapped {@link HtmlRenderer}
+     *
+     * @param node   node to render
+     * @param output appendable to use for the output
+     */
+    @Override
+    public void render(@NotNull Node node, @NotNull Appendable output) {
+        htmlRenderer.render(node, output);
+    }
+
+    /**
+     * Render a node to a new DOM document
+     *
+     * @param node node to render
+     * @return DOM document with rendered nodes in its body element
+     */
+    public @NotNull org.w3c.dom.Document renderDom(@NotNull Node node) {
+        org.w3c.dom.Document dom = DOCUMENT_BUILDER.get().newDocument();
+        Element html = dom.createElement("html");
+        Element head = dom.createElement("head");
+        Element body = dom.createElement("body");
+        dom.appendChild(html);
+        html.appendChild(head);
+        html.appendChild(body);
+
+        DomWriter domWriter = new DomWriter(dom, head, body, htmlRenderer.htmlOptions);
+        htmlRenderer.render(node, domWriter);
+        domWriter.flush();
+        return dom;
+    }
+
+    /**
+     * Html writer adding the written elements and text to a DOM element instead of appending HTML text
+     */
+    static class DomWriter extends HtmlWriter {
+        final private static Set<String> VOID_ELEMENTS = new HashSet<>(Arrays.asList(
+                "area", "base", "br", "col", "embed", "hr", "img", "input", "link", "meta", "param", "source", "track", "wbr"
+        ));
+
+        // elements with text content which is not tokenized
+        final private static Set<String> RAW_TEXT_ELEMENTS = new HashSet<>(Arrays.asList(
+                "script", "style", "textarea", "title"
+        ));
+
+        // elements added to head if there is no body content before them
+        final private static Set<String> HEAD_ELEMENTS = new HashSet<>(Arrays.asList(
+                "base", "link", "meta", "script", "style", "title"
+        ));
+
+        final private static Set<String> IGNORED_ELEMENTS = new HashSet<>(Arrays.asList(
+                "html", "head", "body"
+        ));
+
+        final private @NotNull org.w3c.dom.Document dom;
+        final private @NotNull Element head;
+        final private @NotNull Element root;
+        final private @NotNull ArrayList<Element> openElements = new ArrayList<>();
+        private @Nullable String pendingRaw;          // incomplete markup at the end of the last raw text
+        private @Nullable String rawTextElement;      // name of open raw text element opened by raw text
+        private boolean haveContent;                  // body has content, head elements are added to body
+
+        DomWriter(@NotNull org.w3c.dom.Document dom, @NotNull Element head, @NotNull Element root, @NotNull HtmlRendererOptions htmlOptions) {
+            super(htmlOptions.indentSize, htmlOptions.formatFlags, !htmlOptions.htmlBlockOpenTagEol, !htmlOptions.htmlBlockCloseTagEol);
+            this.dom = dom;
+            this.head = head;
+            this.root = root;
+        }
+
+        private @NotNull Element current() {
+            return openElements.isEmpty() ? root : openElements.get(openElements.size() - 1);
+        }
+
+        @Override
+        protected void appendOpenTag(@NotNull CharSequence tagName, @Nullable Attributes attributes, boolean voidElement) {
+            flush();
+
+            Element element;
+            try {
+                element = dom.createElement(tagName.toString());
+            } catch (DOMException e) {
+                throw new IllegalStateException("Invalid tag name '" + tagName + "'", e);
+            }
+
+            if (attributes != null) {
+                for (Attribute attribute : attributes.values()) {
+                    if (!attribute.isNonRendering()) {
+                        setAttribute(element, attribute.getName(), attribute.getValue());
+                    }
+                }
+            }
+            openElement(element, voidElement);
+        }
+
+        @Override
+        protected void appendCloseTag(@NotNull CharSequence tagName) {
+            flush();
+            closeElement(tagName.toString());
+        }
+
+        @Override
+        public @NotNull HtmlWriter text(@NotNull CharSequence s) {
+            flush();
+            appendText(s.toString());
+            return this;
+        }
+
+        @Override
+        public @NotNull HtmlWriter raw(@NotNull CharSequence s) {
+            appendRaw(s);
+            return this;
+        }
+
+        @Override
+        public @NotNull HtmlWriter raw(@NotNull CharSequence s, int count) {
+            for (int i = 0; i < count; i++) appendRaw(s);
+            return this;
+        }
+
+        @Override
+        public @NotNull HtmlWriter rawPre(@NotNull CharSequence s) {
+            appendRaw(s);
+            return this;
+        }
+
+        @Override
+        public @NotNull HtmlWriter rawIndentedPre(@NotNull CharSequence s) {
+            appendRaw(s);
+            return this;
+        }
+
+        // @formatter:off
+        @Override public @NotNull HtmlWriter append(char c)                                                                             { appendRaw(String.valueOf(c)); return this; }
+        @Override public @NotNull HtmlWriter append(@NotNull CharSequence csq)                                                          { appendRaw(csq); return this; }
+        @Override public @NotNull HtmlWriter append(@NotNull CharSequence csq, int start, int end)                                      { appendRaw(csq.subSequence(start, end)); return this; }
+        @Override public @NotNull HtmlWriter append(char c, int count)                                                                  { appendRaw(RepeatedSequence.repeatOf(c, count)); return this; }
+        @Override public @NotNull HtmlWriter append(@NotNull LineAppendable lines, int startLine, int endLine, boolean withPrefixes)    { appendRaw(lines.appendToSilently(new StringBuilder(), withPrefixes, 0, 0, startLine, endLine)); return this; }
+        // @formatter:on
+
+        /**
+         * Drop incomplete markup left from raw text, it is not completed by following elements or text
+         */
+        void flush() {
+            pendingRaw = null;
+        }
+
+        private void openElement(@NotNull Element element, boolean voidElement) {
+            Element parent = current();
+            String tagName = element.getTagName();
+
+            if (!haveContent && parent == root && HEAD_ELEMENTS.contains(tagName)) {
+                parent = head;
+            } else {
+                haveContent = true;
+
+                if (tagName.equals("tr") && parent.getTagName().equals("table")) {
+                    Element tbody = dom.createElement("tbody");
+                    parent.appendChild(tbody);
+                    openElements.add(tbody);
+                    parent = tbody;
+                }
+            }
+
+            parent.appendChild(element);
+            if (!voidElement) openElements.add(element);
+        }
+
+        private void closeElement(@NotNull String tagName) {
+            for (int i = openElements.size(); i-- > 0; ) {
+                if (openElements.get(i).getTagName().equals(tagName)) {
+                    while (openElements.size() > i) {
+                        openElements.remove(openElements.size() - 1);
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void appendText(@NotNull String text) {
+            if (text.isEmpty()) return;
+
+            Element element = current();
+            if (!haveContent && element == root) {
+                if (text.trim().isEmpty()) return;
+                haveContent = true;
+            }
+
+            org.w3c.dom.Node lastChild = element.getLastChild();
+            if (lastChild instanceof Text) {
+                ((Text) lastChild).appendData(text);
+            } else {
+                element.appendChild(dom.createTextNode(text));
+            }
+        }
+
+        private static void setAttribute(@NotNull Element element, @NotNull String name, @NotNull String value) {
+            try {
+                element.setAttribute(name, value);
+                if (name.equals("id")) element.setIdAttribute(name, true);
+            } catch (DOMException ignored) {
+                // not a valid attribute name for DOM, dropped
+            }
+        }
+
+        private void appendRaw(@NotNull CharSequence chars) {
+            String s = pendingRaw == null ? chars.toString() : pendingRaw + chars;
+            pendingRaw = null;
+
+            int iMax = s.length();
+            int textStart = 0;
+            int i = 0;
+
+            while (i < iMax) {
+                if (rawTextElement != null) {
+                    int end = indexOfCloseTag(s, i, rawTextElement);
+                    if (end == -1) {
+                        appendText(s.substring(i));
+                        return;
+                    }
+
+                    appendText(s.substring(i, end));
+                    i = textStart = end;
+                    rawTextElement = null;
+                }
+
+                int lt = s.indexOf('<', i);
+                if (lt == -1) break;
+
+                int end = markupEnd(s, lt);
+                if (end == 0) {
+                    i = lt + 1;
+                    continue;
+                }
+
+                appendText(Escaping.unescapeHtml(s.substring(textStart, lt)));
+
+                if (end == -1) {
+                    pendingRaw = s.substring(lt);
+                    return;
+                }
+
+                i = textStart = markup(s, lt, end);
+            }
+
+            appendText(Escaping.unescapeHtml(s.substring(textStart)));
+        }
+
+        private static int indexOfCloseTag(@NotNull String s, int from, @NotNull String tagName) {
+            int iMax = s.length() - tagName.length() - 2;
+            for (int i = from; i <= iMax; i++) {
+                if (s.charAt(i) == '<' && s.charAt(i + 1) == '/' && s.regionMatches(true, i + 2, tagName, 0, tagName.length())) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return index after the end of markup starting at index, 0 if not markup, -1 if markup is not complete
+         */
+        private static int markupEnd(@NotNull String s, int index) {
+            if (s.startsWith("<!--", index)) return endAfter(s, index + 4, "-->");
+            if (s.startsWith("<![CDATA[", index)) return endAfter(s, index + 9, "]]>");
+
+            int next = index + 1;
+            if (next >= s.length()) return -1;
+
+            char c = s.charAt(next);
+            if (c == '!' || c == '?') return endAfter(s, next, ">");
+            if (c == '/') {
+                return next + 1 >= s.length() ? -1 : isAsciiLetter(s.charAt(next + 1)) ? endAfter(s, next + 1, ">") : 0;
+            }
+            if (!isAsciiLetter(c)) return 0;
+
+            // start tag, > in quoted attribute values does not end it
+            char quote = 0;
+            for (int i = next; i < s.length(); i++) {
+                char ch = s.charAt(i);
+                if (quote != 0) {
+                    if (ch == quote) quote = 0;
+                } else if (ch == '"' || ch == '\'') {
+                    quote = ch;
+                } else if (ch == '>') {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        private static int endAfter(@NotNull String s, int from, @NotNull String terminator) {
+            int pos = s.indexOf(terminator, from);
+            return pos == -1 ? -1 : pos + terminator.length();
+        }
+
+        private static boolean isAsciiLetter(char c) {
+            return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+        }
+
+        private static boolean isNameEnd(char c) {
+            return c == '>' || c == '/' || c == '=' || Character.isWhitespace(c);
+        }
+
+        /**
+         * @return index after markup and text skipped after it
+         */
+        private int markup(@NotNull String s, int start, int end) {
+            if (s.startsWith("<![CDATA[", start)) {
+                appendText(s.substring(start + 9, end - 3));
+                return end;
+            }
+
+            char c = s.charAt(start + 1);
+            if (c == '!' || c == '?') {
+                // comments, doctype and processing instructions are not added
+                return end;
+            }
+
+            if (c == '/') {
+                int nameEnd = start + 2;
+                while (nameEnd < end && !isNameEnd(s.charAt(nameEnd))) nameEnd++;
+                String tagName = s.substring(start + 2, nameEnd).toLowerCase(Locale.ROOT);
+                if (!IGNORED_ELEMENTS.contains(tagName)) closeElement(tagName);
+                return end;
+            }
+
+            int nameEnd = start + 1;
+            while (nameEnd < end && !isNameEnd(s.charAt(nameEnd))) nameEnd++;
+            String tagName = s.substring(start + 1, nameEnd).toLowerCase(Locale.ROOT);
+            if (IGNORED_ELEMENTS.contains(tagName)) return end;
+
+            Element element;
+            try {
+                element = dom.createElement(tagName);
+            } catch (DOMException e) {
+                // not a valid element name for DOM, keep it as text
+                appendText(s.substring(start, end));
+                return end;
+            }
+
+            // attributes
+            int i = nameEnd;
+            int attrEnd = end - 1;
+            boolean selfClosing = false;
+            while (i < attrEnd) {
+                char ch = s.charAt(i);
+                if (Character.isWhitespace(ch)) {
+                    i++;
+                    continue;
+                }
+
+                if (ch == '/') {
+                    selfClosing = i + 1 == attrEnd;
+                    i++;
+                    continue;
+                }
+
+                int attrNameStart = i;
+                while (i < attrEnd && !isNameEnd(s.charAt(i))) i++;
+                if (i == attrNameStart) {
+                    // stray =
+                    i++;
+                    continue;
+                }
+
+                String attrName = s.substring(attrNameStart, i).toLowerCase(Locale.ROOT);
+                while (i < attrEnd && Character.isWhitespace(s.charAt(i))) i++;
+
+                String value = "";
+                if (i < attrEnd && s.charAt(i) == '=') {
+                    i++;
+                    while (i < attrEnd && Character.isWhitespace(s.charAt(i))) i++;
+
+                    if (i < attrEnd && (s.charAt(i) == '"' || s.charAt(i) == '\'')) {
+                        char quote = s.charAt(i);
+                        int valueEnd = s.indexOf(quote, i + 1);
+                        if (valueEnd == -1 || valueEnd > attrEnd) valueEnd = attrEnd;
+                        value = s.substring(i + 1, valueEnd);
+                        i = valueEnd + 1;
+                    } else {
+                        int valueStart = i;
+                        while (i < attrEnd && !Character.isWhitespace(s.charAt(i)) && s.charAt(i) != '>') i++;
+                        value = s.substring(valueStart, i);
+                    }
+                }
+
+                if (!element.hasAttribute(attrName)) {
+                    setAttribute(element, attrName, Escaping.unescapeHtml(value));
+                }
+            }
+
+            boolean voidElement = selfClosing || VOID_ELEMENTS.contains(tagName);
+            openElement(element, voidElement);
+            if (!voidElement && RAW_TEXT_ELEMENTS.contains(tagName)) {
+                rawTextElement = tagName;
+            }
+
+            // leading EOL of pre is not content
+            return !voidElement && tagName.equals("pre") && s.startsWith("\n", end) ? end + 1 : end;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.vladsch.flexmark.html;
 import com.vladsch.flexmark.ast.HtmlBlock;
 import com.vladsch.flexmark.ast.HtmlInline;
 import com.vladsch.flexmark.html.renderer.*;
+import com.vladsch.flexmark.instrumentation.AllocationCounter;
+import com.vladsch.flexmark.instrumentation.HandlerTimings;
 import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.ast.IRender;
 import com.vladsch.flexmark.util.ast.Node;
@@ -21,7 +23,10 @@ import com.vladsch.flexmark.util.sequence.TagRange;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Renders a tree of nodes to HTML.
@@ -122,6 +127,12 @@ public class HtmlRenderer implements IRender {
     // Experimental, not tested
     final public static DataKey<List<TrackedOffset>> TRACKED_OFFSETS = new DataKey<>("TRACKED_OFFSETS", Collections.emptyList());
 
+    // listener for rendering phase and node renderer timings, null for none
+    final public static NullableDataKey<RenderListener> RENDER_LISTENER = new NullableDataKey<>("RENDER_LISTENER");
+
+    // append lines of completed top level blocks to output while rendering, not used with TRACKED_OFFSETS
+    final public static DataKey<Boolean> STREAMING_OUTPUT = new DataKey<>("STREAMING_OUTPUT", false);
+
     // now not final only to allow disposal of resources
     final List<AttributeProviderFactory> attributeProviderFactories;
     final List<DelegatingNodeRendererFactoryWrapper> nodeRendererFactories;
@@ -130,6 +141,25 @@ public class HtmlRenderer implements IRender {
     final HtmlRendererOptions htmlOptions;
     final DataHolder options;
 
+    // renderers from SharedNodeRendererFactory, by factory index, and the dispatch table and phases of their handlers
+    final private SharedNodeRenderer[] sharedNodeRenderers;
+    final private NodeRenderingHandlerWrapper[] sharedRenderers;
+    final private List<PhasedNodeRenderer> sharedPhasedRenderers;
+    final private Set<RenderingPhase> sharedRenderingPhases;
+
+    // dense ids for node classes, shared by all renderers so dispatch tables are plain arrays
+    final private static AtomicInteger nextNodeClassId = new AtomicInteger();
+    final private static ClassValue<Integer> nodeClassIds = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return nextNodeClassId.getAndIncrement();
+        }
+    };
+
+    static int nodeClassId(@NotNull Class<?> nodeClass) {
+        return nodeClassIds.get(nodeClass);
+    }
+
     HtmlRenderer(@NotNull Builder builder) {
         this.options = builder.toImmutable();
         this.htmlOptions = new HtmlRendererOptions(this.options);
@@ -160,6 +190,40 @@ public class HtmlRenderer implements IRender {
 
         this.attributeProviderFactories = DependencyResolver.resolveFlatDependencies(values, null, null);
         this.linkResolverFactories = DependencyResolver.resolveFlatDependencies(builder.linkResolverFactories, null, null);
+
+        // shared node renderers are created once, with their part of the dispatch table, other renderers are created per render
+        int iMax = nodeRendererFactories.size();
+        this.sharedNodeRenderers = new SharedNodeRenderer[iMax];
+        this.sharedRenderingPhases = EnumSet.noneOf(RenderingPhase.class);
+        ArrayList<PhasedNodeRenderer> phasedRenderers = new ArrayList<>();
+        NodeRenderingHandlerWrapper[] renderers = new NodeRenderingHandlerWrapper[0];
+
+        for (int i = iMax - 1; i >= 0; i--) {
+            NodeRendererFactory factory = nodeRendererFactories.get(i).getFactory();
+            SharedNodeRenderer sharedNodeRenderer = factory instanceof SharedNodeRendererFactory ? SharedNodeRenderer.create((SharedNodeRendererFactory) factory, this.options) : null;
+
+            if (sharedNodeRenderer == null) continue;
+
+            sharedNodeRenderers[i] = sharedNodeRenderer;
+            for (NodeRenderingHandler<?> handler : sharedNodeRenderer.handlers) {
+                int nodeClassId = nodeClassId(handler.getNodeType());
+                if (nodeClassId >= renderers.length) {
+                    renderers = Arrays.copyOf(renderers, nodeClassId + 1);
+                }
+                renderers[nodeClassId] = new NodeRenderingHandlerWrapper(handler, renderers[nodeClassId], sharedNodeRenderer.renderer.getClass());
+            }
+
+            if (sharedNodeRenderer.renderer instanceof PhasedNodeRenderer) {
+                Set<RenderingPhase> renderingPhases = ((PhasedNodeRenderer) sharedNodeRenderer.renderer).getRenderingPhases();
+                assert (renderingPhases != null);
+
+                this.sharedRenderingPhases.addAll(renderingPhases);
+                phasedRenderers.add((PhasedNodeRenderer) sharedNodeRenderer.renderer);
+            }
+        }
+
+        this.sharedRenderers = renderers;
+        this.sharedPhasedRenderers = phasedRenderers;
     }
 
     /**
@@ -192,6 +256,7 @@ public class HtmlRenderer implements IRender {
      *
      * @param node   node to render
      * @param output appendable to use for the output
+     * @throws UncheckedIOException if the appendable throws while streaming output, see {@link #STREAMING_OUTPUT}
      */
     public void render(@NotNull Node node, @NotNull Appendable output) {
         render(node, output, htmlOptions.maxTrailingBlankLines);
@@ -202,19 +267,56 @@ public class HtmlRenderer implements IRender {
      *
      * @param node   node to render
      * @param output appendable to use for the output
+     * @throws UncheckedIOException if the appendable throws while streaming output, see {@link #STREAMING_OUTPUT}
      */
     public void render(@NotNull Node node, @NotNull Appendable output, int maxTrailingBlankLines) {
         HtmlWriter htmlWriter = new HtmlWriter(output, htmlOptions.indentSize, htmlOptions.formatFlags, !htmlOptions.htmlBlockOpenTagEol, !htmlOptions.htmlBlockCloseTagEol);
+        render(node, htmlWriter, output, maxTrailingBlankLines);
+    }
+
+    /**
+     * Render a node with the given html writer, used by {@link DomRenderer}
+     * <p>
+     * NOTE: the writer's output is not appended anywhere and tracked offsets are not resolved
+     *
+     * @param node       node to render
+     * @param htmlWriter html writer for the node renderers
+     */
+    void render(@NotNull Node node, @NotNull HtmlWriter htmlWriter) {
+        render(node, htmlWriter, null, 0);
+    }
+
+    /**
+     * @param node                  node to render
+     * @param htmlWriter            html writer for the node renderers
+     * @param output                appendable for the writer's output and streamed output, null to leave output in the writer
+     * @param maxTrailingBlankLines max trailing blank lines of output
+     */
+    private void render(@NotNull Node node, @NotNull HtmlWriter htmlWriter, @Nullable Appendable output, int maxTrailingBlankLines) {
         MainNodeRenderer renderer = new MainNodeRenderer(options, htmlWriter, node.getDocument());
+        if (output != null && htmlOptions.streamingOutput && TRACKED_OFFSETS.get(renderer.getDocument()).isEmpty()) {
+            // tracked offsets are resolved in the complete output
+            renderer.streamingOutput = output;
+        }
         if (renderer.htmlIdGenerator != HtmlIdGenerator.NULL && !(node instanceof Document)) {
             renderer.htmlIdGenerator.generateIds(node.getDocument());
         }
 
         renderer.render(node);
-        htmlWriter.appendToSilently(output, htmlOptions.maxBlankLines, maxTrailingBlankLines);
 
-        // resolve any unresolved tracked offsets that are outside elements which resolve their own
-        TrackedOffsetUtils.resolveTrackedOffsets(node.getChars(), htmlWriter, TRACKED_OFFSETS.get(renderer.getDocument()), maxTrailingBlankLines, SharedDataKeys.RUNNING_TESTS.get(options));
+        IOException streamingException = renderer.streamingException;
+        if (streamingException != null) {
+            renderer.dispose();
+            throw new UncheckedIOException(streamingException);
+        }
+
+        if (output != null) {
+            htmlWriter.appendToSilently(output, htmlOptions.maxBlankLines, maxTrailingBlankLines);
+
+            // resolve any unresolved tracked offsets that are outside elements which resolve their own
+            TrackedOffsetUtils.resolveTrackedOffsets(node.getChars(), htmlWriter, TRACKED_OFFSETS.get(renderer.getDocument()), maxTrailingBlankLines, SharedDataKeys.RUNNING_TESTS.get(options));
+        }
+        renderer.reportHandlerTimings();
         renderer.dispose();
     }
 
@@ -497,7 +599,7 @@ public class HtmlRenderer implements IRender {
 
     private class MainNodeRenderer extends NodeRendererSubContext implements NodeRendererContext, Disposable {
         private Document document;
-        private Map<Class<?>, NodeRenderingHandlerWrapper> renderers;
+        private NodeRenderingHandlerWrapper[] renderers;
         private List<PhasedNodeRenderer> phasedRenderers;
         private LinkResolver[] myLinkResolvers;
         private Set<RenderingPhase> renderingPhases;
@@ -506,6 +608,10 @@ public class HtmlRenderer implements IRender {
         HtmlIdGenerator htmlIdGenerator;
         private HashMap<LinkType, HashMap<String, ResolvedLink>> resolvedLinkMap = new HashMap<>();
         private AttributeProvider[] attributeProviders;
+        final private @Nullable RenderListener listener;
+        final private @Nullable HandlerTimings handlerTimings;
+        @Nullable Appendable streamingOutput;
+        @Nullable IOException streamingException;
 
         @Override
         public void dispose() {
@@ -524,6 +630,7 @@ public class HtmlRenderer implements IRender {
             if (htmlIdGenerator instanceof Disposable) ((Disposable) htmlIdGenerator).dispose();
             htmlIdGenerator = null;
             resolvedLinkMap = null;
+            streamingOutput = null;
 
             for (AttributeProvider attributeProvider : attributeProviders) {
                 if (attributeProvider instanceof Disposable) ((Disposable) attributeProvider).dispose();
@@ -535,26 +642,93 @@ public class HtmlRenderer implements IRender {
             super(htmlWriter);
             this.options = new ScopedDataSet(document, options);
             this.document = document;
-            this.renderers = new HashMap<>(32);
-            this.renderingPhases = new HashSet<>(RenderingPhase.values().length);
-            this.phasedRenderers = new ArrayList<>(nodeRendererFactories.size());
             this.myLinkResolvers = new LinkResolver[linkResolverFactories.size()];
             this.doNotRenderLinksNesting = htmlOptions.doNotRenderLinksInDocument ? 0 : 1;
             this.htmlIdGenerator = htmlIdGeneratorFactory != null ? htmlIdGeneratorFactory.create(this)
                     : (!(htmlOptions.renderHeaderId || htmlOptions.generateHeaderIds) ? HtmlIdGenerator.NULL : new HeaderIdGenerator.Factory().create(this));
 
+            this.listener = RENDER_LISTENER.get(this.options);
+            this.handlerTimings = listener != null ? new HandlerTimings() : null;
+
             htmlWriter.setContext(this);
 
-            for (int i = nodeRendererFactories.size() - 1; i >= 0; i--) {
-                NodeRendererFactory nodeRendererFactory = nodeRendererFactories.get(i);
-                NodeRenderer nodeRenderer = nodeRendererFactory.apply(this.getOptions());
-                Set<NodeRenderingHandler<?>> renderingHandlers = nodeRenderer.getNodeRenderingHandlers();
+            createNodeRenderers();
 
+            for (int i = 0; i < linkResolverFactories.size(); i++) {
+                myLinkResolvers[i] = linkResolverFactories.get(i).apply(this);
+            }
+
+            this.attributeProviders = new AttributeProvider[attributeProviderFactories.size()];
+            for (int i = 0; i < attributeProviderFactories.size(); i++) {
+                attributeProviders[i] = attributeProviderFactories.get(i).apply(this);
+            }
+        }
+
+        /**
+         * Use shared node renderers and their dispatch table, create renderers which are not shared with the document
+         * and rebuild the dispatch chains of node types which they handle
+         */
+        private void createNodeRenderers() {
+            int iMax = nodeRendererFactories.size();
+            NodeRenderer[] documentRenderers = null;
+            NodeRenderingHandler<?>[][] documentHandlers = null;
+            BitSet documentNodeClassIds = null;
+
+            for (int i = iMax - 1; i >= 0; i--) {
+                SharedNodeRenderer sharedNodeRenderer = sharedNodeRenderers[i];
+                if (sharedNodeRenderer != null && sharedNodeRenderer.isSharedWith(document)) continue;
+
+                if (documentRenderers == null) {
+                    documentRenderers = new NodeRenderer[iMax];
+                    documentHandlers = new NodeRenderingHandler<?>[iMax][];
+                    documentNodeClassIds = new BitSet();
+                }
+
+                NodeRenderer nodeRenderer = nodeRendererFactories.get(i).apply(this.getOptions());
+                Set<NodeRenderingHandler<?>> renderingHandlers = nodeRenderer.getNodeRenderingHandlers();
                 assert (renderingHandlers != null);
-                for (NodeRenderingHandler<?> nodeType : renderingHandlers) {
-                    // Overwrite existing renderer
-                    NodeRenderingHandlerWrapper handlerWrapper = new NodeRenderingHandlerWrapper(nodeType, renderers.get(nodeType.getNodeType()));
-                    renderers.put(nodeType.getNodeType(), handlerWrapper);
+
+                documentRenderers[i] = nodeRenderer;
+                documentHandlers[i] = renderingHandlers.toArray(new NodeRenderingHandler<?>[0]);
+                for (NodeRenderingHandler<?> handler : documentHandlers[i]) {
+                    documentNodeClassIds.set(nodeClassId(handler.getNodeType()));
+                }
+            }
+
+            if (documentRenderers == null) {
+                // nothing to create, all renders share the tables
+                renderers = sharedRenderers;
+                renderingPhases = sharedRenderingPhases;
+                phasedRenderers = sharedPhasedRenderers;
+                return;
+            }
+
+            renderers = Arrays.copyOf(sharedRenderers, Math.max(sharedRenderers.length, documentNodeClassIds.length()));
+            for (int id = documentNodeClassIds.nextSetBit(0); id >= 0; id = documentNodeClassIds.nextSetBit(id + 1)) {
+                renderers[id] = null;
+            }
+
+            renderingPhases = EnumSet.noneOf(RenderingPhase.class);
+            phasedRenderers = new ArrayList<>(iMax);
+
+            for (int i = iMax - 1; i >= 0; i--) {
+                NodeRenderer nodeRenderer = documentRenderers[i];
+                NodeRenderingHandler<?>[] handlers;
+
+                if (nodeRenderer != null) {
+                    handlers = documentHandlers[i];
+                } else {
+                    nodeRenderer = sharedNodeRenderers[i].renderer;
+                    handlers = sharedNodeRenderers[i].handlers;
+                }
+
+                for (NodeRenderingHandler<?> handler : handlers) {
+                    int nodeClassId = nodeClassId(handler.getNodeType());
+
+                    // Overwrite existing renderer, only chains with a document renderer need to be rebuilt
+                    if (documentNodeClassIds.get(nodeClassId)) {
+                        renderers[nodeClassId] = new NodeRenderingHandlerWrapper(handler, renderers[nodeClassId], nodeRenderer.getClass());
+                    }
                 }
 
                 if (nodeRenderer instanceof PhasedNodeRenderer) {
@@ -565,15 +739,12 @@ public class HtmlRenderer implements IRender {
                     this.phasedRenderers.add((PhasedNodeRenderer) nodeRenderer);
                 }
             }
+        }
 
-            for (int i = 0; i < linkResolverFactories.size(); i++) {
-                myLinkResolvers[i] = linkResolverFactories.get(i).apply(this);
-            }
-
-            this.attributeProviders = new AttributeProvider[attributeProviderFactories.size()];
-            for (int i = 0; i < attributeProviderFactories.size(); i++) {
-                attributeProviders[i] = attributeProviderFactories.get(i).apply(this);
-            }
+        @Nullable
+        NodeRenderingHandlerWrapper getNodeRenderer(@NotNull Node node) {
+            int nodeClassId = nodeClassId(node.getClass());
+            return nodeClassId < renderers.length ? renderers[nodeClassId] : null;
         }
 
         @NotNull
@@ -697,7 +868,7 @@ public class HtmlRenderer implements IRender {
                     NodeRenderingHandlerWrapper prevWrapper = subContext.renderingHandlerWrapper;
                     try {
                         subContext.renderingHandlerWrapper = nodeRenderer;
-                        nodeRenderer.myRenderingHandler.render(oldNode, subContext, subContext.htmlWriter);
+                        renderWithHandler(nodeRenderer, oldNode, subContext);
                     } finally {
                         subContext.renderingNode = oldNode;
                         subContext.doNotRenderLinksNesting = oldDoNotRenderLinksNesting;
@@ -737,6 +908,14 @@ public class HtmlRenderer implements IRender {
                 for (RenderingPhase phase : RenderingPhase.values()) {
                     if (phase != RenderingPhase.BODY && !renderingPhases.contains(phase)) { continue; }
                     this.phase = phase;
+
+                    long phaseStartNanos = 0;
+                    long phaseStartAllocatedBytes = 0;
+                    if (listener != null) {
+                        listener.phaseStarted(document, phase);
+                        phaseStartAllocatedBytes = AllocationCounter.currentThreadAllocatedBytes();
+                        phaseStartNanos = System.nanoTime();
+                    }
                     // here we render multiple phases
 
                     // go through all renderers that want this phase
@@ -744,21 +923,30 @@ public class HtmlRenderer implements IRender {
                         if (Objects.requireNonNull(phasedRenderer.getRenderingPhases()).contains(phase)) {
                             subContext.doNotRenderLinksNesting = documentDoNotRenderLinksNesting;
                             subContext.renderingNode = node;
-                            phasedRenderer.renderDocument(subContext, subContext.htmlWriter, (Document) node, phase);
+                            if (handlerTimings != null) {
+                                long start = handlerTimings.start();
+                                try {
+                                    phasedRenderer.renderDocument(subContext, subContext.htmlWriter, (Document) node, phase);
+                                } finally {
+                                    handlerTimings.stop(phasedRenderer.getClass(), start);
+                                }
+                            } else {
+                                phasedRenderer.renderDocument(subContext, subContext.htmlWriter, (Document) node, phase);
+                            }
                             subContext.renderingNode = null;
                             subContext.doNotRenderLinksNesting = oldDoNotRenderLinksNesting;
                         }
                     }
 
                     if (getRenderingPhase() == RenderingPhase.BODY) {
-                        NodeRenderingHandlerWrapper nodeRenderer = renderers.get(node.getClass());
+                        NodeRenderingHandlerWrapper nodeRenderer = getNodeRenderer(node);
                         if (nodeRenderer != null) {
                             subContext.doNotRenderLinksNesting = documentDoNotRenderLinksNesting;
                             NodeRenderingHandlerWrapper prevWrapper = subContext.renderingHandlerWrapper;
                             try {
                                 subContext.renderingNode = node;
                                 subContext.renderingHandlerWrapper = nodeRenderer;
-                                nodeRenderer.myRenderingHandler.render(node, subContext, subContext.htmlWriter);
+                                renderWithHandler(nodeRenderer, node, subContext);
                             } finally {
                                 subContext.renderingHandlerWrapper = prevWrapper;
                                 subContext.renderingNode = null;
@@ -766,9 +954,15 @@ public class HtmlRenderer implements IRender {
                             }
                         }
                     }
+
+                    if (listener != null) {
+                        listener.phaseFinished(document, phase, System.nanoTime() - phaseStartNanos, AllocationCounter.allocatedSince(phaseStartAllocatedBytes));
+                    }
+
+                    if (subContext == this) flushStreamingOutput();
                 }
             } else {
-                NodeRenderingHandlerWrapper nodeRenderer = renderers.get(node.getClass());
+                NodeRenderingHandlerWrapper nodeRenderer = getNodeRenderer(node);
                 if (nodeRenderer != null) {
                     Node oldNode = this.renderingNode;
                     int oldDoNotRenderLinksNesting = subContext.doNotRenderLinksNesting;
@@ -776,7 +970,7 @@ public class HtmlRenderer implements IRender {
                     try {
                         subContext.renderingNode = node;
                         subContext.renderingHandlerWrapper = nodeRenderer;
-                        nodeRenderer.myRenderingHandler.render(node, subContext, subContext.htmlWriter);
+                        renderWithHandler(nodeRenderer, node, subContext);
                     } finally {
                         subContext.renderingNode = oldNode;
                         subContext.doNotRenderLinksNesting = oldDoNotRenderLinksNesting;
@@ -790,8 +984,32 @@ public class HtmlRenderer implements IRender {
             renderChildrenNode(parent, this);
         }
 
+        private void renderWithHandler(NodeRenderingHandlerWrapper nodeRenderer, Node node, NodeRendererSubContext subContext) {
+            if (handlerTimings != null) {
+                long start = handlerTimings.start();
+                try {
+                    nodeRenderer.myRenderingHandler.render(node, subContext, subContext.htmlWriter);
+                } finally {
+                    handlerTimings.stop(nodeRenderer.myRendererClass, start);
+                }
+            } else {
+                nodeRenderer.myRenderingHandler.render(node, subContext, subContext.htmlWriter);
+            }
+        }
+
+        void reportHandlerTimings() {
+            if (listener != null && handlerTimings != null && !handlerTimings.isEmpty()) {
+                listener.handlerTimings(document, handlerTimings);
+            }
+        }
+
         @SuppressWarnings("WeakerAccess")
         protected void renderChildrenNode(Node parent, NodeRendererSubContext subContext) {
+            if (streamingOutput != null && parent == document && subContext == this) {
+                renderStreamingChildren(parent);
+                return;
+            }
+
             Node node = parent.getFirstChild();
             while (node != null) {
                 Node next = node.getNext();
@@ -800,6 +1018,29 @@ public class HtmlRenderer implements IRender {
             }
         }
 
+        private void renderStreamingChildren(Node parent) {
+            // top level blocks are complete after rendering, nested rendering does not go through here
+            Node node = parent.getFirstChild();
+            while (node != null) {
+                Node next = node.getNext();
+                renderNode(node, this);
+                flushStreamingOutput();
+                node = next;
+            }
+        }
+
+        void flushStreamingOutput() {
+            if (streamingOutput != null) {
+                try {
+                    htmlWriter.appendCompletedLinesTo(streamingOutput, htmlOptions.maxBlankLines);
+                } catch (IOException e) {
+                    // rethrown by render, output is incomplete so nothing more is streamed
+                    streamingException = e;
+                    streamingOutput = null;
+                }
+            }
+        }
+
         @SuppressWarnings("WeakerAccess")
         private class SubNodeRenderer extends NodeRendererSubContext implements NodeRendererContext {
             final private MainNodeRenderer myMainNodeRenderer;
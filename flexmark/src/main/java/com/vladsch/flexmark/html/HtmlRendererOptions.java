@@ -44,6 +44,7 @@ public class HtmlRendererOptions {
     final public int formatFlags;
     final public int maxTrailingBlankLines;
     final public int maxBlankLines;
+    final public boolean streamingOutput;
     final public boolean htmlBlockOpenTagEol;
     final public boolean htmlBlockCloseTagEol;
     final public boolean unescapeHtmlEntities;
@@ -85,6 +86,7 @@ public class HtmlRendererOptions {
         formatFlags = HtmlRenderer.FORMAT_FLAGS.get(options);
         maxTrailingBlankLines = HtmlRenderer.MAX_TRAILING_BLANK_LINES.get(options);
         maxBlankLines = HtmlRenderer.MAX_BLANK_LINES.get(options);
+        streamingOutput = HtmlRenderer.STREAMING_OUTPUT.get(options);
         htmlBlockOpenTagEol = HtmlRenderer.HTML_BLOCK_OPEN_TAG_EOL.get(options);
         htmlBlockCloseTagEol = HtmlRenderer.HTML_BLOCK_CLOSE_TAG_EOL.get(options);
         unescapeHtmlEntities = HtmlRenderer.UNESCAPE_HTML_ENTITIES.get(options);
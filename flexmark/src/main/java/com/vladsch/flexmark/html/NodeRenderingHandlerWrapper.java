@@ -7,9 +7,15 @@ import org.jetbrains.annotations.Nullable;
 class NodeRenderingHandlerWrapper {
     final public @NotNull NodeRenderingHandler<?> myRenderingHandler;
     final public @Nullable NodeRenderingHandlerWrapper myPreviousRenderingHandler;
+    final public @NotNull Class<?> myRendererClass;
 
     public NodeRenderingHandlerWrapper(@NotNull NodeRenderingHandler<?> renderingHandler, @Nullable NodeRenderingHandlerWrapper previousRenderingHandler) {
+        this(renderingHandler, previousRenderingHandler, renderingHandler.getClass());
+    }
+
+    public NodeRenderingHandlerWrapper(@NotNull NodeRenderingHandler<?> renderingHandler, @Nullable NodeRenderingHandlerWrapper previousRenderingHandler, @NotNull Class<?> rendererClass) {
         myRenderingHandler = renderingHandler;
         myPreviousRenderingHandler = previousRenderingHandler;
+        myRendererClass = rendererClass;
     }
 }
@@ -0,0 +1,51 @@
+package com.vladsch.flexmark.html;
+
+import com.vladsch.flexmark.html.renderer.RenderingPhase;
+import com.vladsch.flexmark.instrumentation.HandlerTimings;
+import com.vladsch.flexmark.util.ast.Document;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives timing events while documents are rendered, set with {@link HtmlRenderer#RENDER_LISTENER}
+ * <p>
+ * Methods are called on the rendering thread. The same listener is used by all documents rendered with
+ * the options so it must be thread-safe if documents are rendered concurrently.
+ * <p>
+ * Allocated bytes are -1 when the JVM does not provide allocation counts,
+ * see {@link com.vladsch.flexmark.instrumentation.AllocationCounter}.
+ */
+public interface RenderListener {
+    /**
+     * Called when a rendering phase starts, only phases which are rendered are reported
+     *
+     * @param document document being rendered
+     * @param phase    phase
+     */
+    default void phaseStarted(@NotNull Document document, @NotNull RenderingPhase phase) {
+
+    }
+
+    /**
+     * Called when a rendering phase is finished
+     *
+     * @param document       document being rendered
+     * @param phase          phase
+     * @param nanos          time of the phase
+     * @param allocatedBytes bytes allocated during the phase or -1
+     */
+    default void phaseFinished(@NotNull Document document, @NotNull RenderingPhase phase, long nanos, long allocatedBytes) {
+
+    }
+
+    /**
+     * Called at end of rendering with calls and time of node rendering handlers aggregated by their
+     * {@link com.vladsch.flexmark.html.renderer.NodeRenderer} class. Time of a handler does not include time of
+     * handlers it invokes to render child nodes.
+     *
+     * @param document document being rendered
+     * @param timings  handler timings, only valid during the call
+     */
+    default void handlerTimings(@NotNull Document document, @NotNull HandlerTimings timings) {
+
+    }
+}
@@ -0,0 +1,135 @@
+package com.vladsch.flexmark.html;
+
+import com.vladsch.flexmark.html.renderer.NodeRenderer;
+import com.vladsch.flexmark.html.renderer.NodeRenderingHandler;
+import com.vladsch.flexmark.html.renderer.SharedNodeRendererFactory;
+import com.vladsch.flexmark.util.data.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Node renderer created once by {@link HtmlRenderer} from a {@link SharedNodeRendererFactory}, with its handlers
+ * and the option keys it read which are not in the renderer options and would come from the document when
+ * the renderer is created for a document
+ */
+class SharedNodeRenderer {
+    final private static Object CONTAINS = new Object();
+
+    final @NotNull NodeRenderer renderer;
+    final @NotNull NodeRenderingHandler<?>[] handlers;
+    final private @Nullable Map<DataKeyBase<?>, Object> documentKeys;
+
+    private SharedNodeRenderer(@NotNull NodeRenderer renderer, @Nullable Map<DataKeyBase<?>, Object> documentKeys) {
+        this.renderer = renderer;
+        this.handlers = renderer.getNodeRenderingHandlers().toArray(new NodeRenderingHandler<?>[0]);
+        this.documentKeys = documentKeys;
+    }
+
+    /**
+     * Whether the renderer can be used for the document, a renderer created for the document would read
+     * the same option values
+     *
+     * @param document document options
+     * @return true if renderer can be used for the document
+     */
+    boolean isSharedWith(@NotNull DataHolder document) {
+        if (documentKeys == null) return false;
+
+        for (Map.Entry<DataKeyBase<?>, Object> entry : documentKeys.entrySet()) {
+            DataKeyBase<?> key = entry.getKey();
+            if (document.contains(key) && (entry.getValue() == CONTAINS || !Objects.equals(key.get(document), entry.getValue()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Create the shared renderer
+     *
+     * @param factory node renderer factory
+     * @param options renderer options
+     * @return shared renderer or null if the factory does not create a shareable renderer for these options
+     */
+    static @Nullable SharedNodeRenderer create(@NotNull SharedNodeRendererFactory factory, @NotNull DataHolder options) {
+        if (!factory.isShared(options)) return null;
+
+        KeyRecordingDataHolder recordingOptions = new KeyRecordingDataHolder(options);
+        NodeRenderer renderer = factory.apply(recordingOptions);
+        return new SharedNodeRenderer(renderer, recordingOptions.stopRecording());
+    }
+
+    /**
+     * Renderer options which record keys read by the renderer factory that are not contained in the options
+     */
+    private static class KeyRecordingDataHolder implements DataHolder {
+        final private @NotNull DataHolder options;
+        private @Nullable HashMap<DataKeyBase<?>, Object> documentKeys;
+        private boolean recording;
+
+        KeyRecordingDataHolder(@NotNull DataHolder options) {
+            this.options = options;
+            this.documentKeys = new HashMap<>();
+            this.recording = true;
+        }
+
+        @Nullable Map<DataKeyBase<?>, Object> stopRecording() {
+            recording = false;
+            return documentKeys;
+        }
+
+        private void readAll() {
+            // any document key can change the result
+            if (recording) documentKeys = null;
+        }
+
+        @Override
+        public @NotNull Map<? extends DataKeyBase<?>, Object> getAll() {
+            readAll();
+            return options.getAll();
+        }
+
+        @Override
+        public @NotNull Collection<? extends DataKeyBase<?>> getKeys() {
+            readAll();
+            return options.getKeys();
+        }
+
+        @Override
+        public boolean contains(@NotNull DataKeyBase<?> key) {
+            boolean contains = options.contains(key);
+            if (!contains && recording && documentKeys != null) {
+                documentKeys.putIfAbsent(key, CONTAINS);
+            }
+            return contains;
+        }
+
+        @Override
+        public @Nullable Object getOrCompute(@NotNull DataKeyBase<?> key, @NotNull DataValueFactory<?> factory) {
+            if (options.contains(key) || !recording) {
+                return options.getOrCompute(key, factory);
+            }
+
+            // computed with this holder so keys read by the default value factory are recorded too
+            Object value = factory.apply(this);
+            if (documentKeys != null && documentKeys.get(key) != CONTAINS) {
+                documentKeys.put(key, value);
+            }
+            return value;
+        }
+
+        @Override
+        public @NotNull MutableDataHolder toMutable() {
+            readAll();
+            return options.toMutable();
+        }
+
+        @Override
+        public @NotNull DataHolder toImmutable() {
+            readAll();
+            return options.toImmutable();
+        }
+    }
+}
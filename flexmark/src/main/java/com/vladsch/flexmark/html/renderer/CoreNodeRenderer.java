@@ -43,7 +43,6 @@ public class CoreNodeRenderer implements NodeRenderer {
     final private ListOptions listOptions;
     final private boolean obfuscateEmail;
     final private boolean obfuscateEmailRandom;
-    final private ReferenceRepository referenceRepository;
     final private boolean recheckUndefinedReferences;
     final private boolean codeContentBlock;
     final private boolean codeSoftLineBreaks;
@@ -54,7 +53,6 @@ public class CoreNodeRenderer implements NodeRenderer {
     private int nextLineStartOffset;
 
     public CoreNodeRenderer(DataHolder options) {
-        referenceRepository = Parser.REFERENCES.get(options);
         recheckUndefinedReferences = HtmlRenderer.RECHECK_UNDEFINED_REFERENCES.get(options);
         listOptions = ListOptions.get(options);
         obfuscateEmail = HtmlRenderer.OBFUSCATE_EMAIL.get(options);
@@ -680,6 +678,7 @@ public class CoreNodeRenderer implements NodeRenderer {
     }
 
     void render(ImageRef node, NodeRendererContext context, HtmlWriter html) {
+        ReferenceRepository referenceRepository = Parser.REFERENCES.get(context.getOptions());
         ResolvedLink resolvedLink;
         boolean isSuppressed = false;
 
@@ -732,6 +731,7 @@ public class CoreNodeRenderer implements NodeRenderer {
     }
 
     void render(LinkRef node, NodeRendererContext context, HtmlWriter html) {
+        ReferenceRepository referenceRepository = Parser.REFERENCES.get(context.getOptions());
         ResolvedLink resolvedLink;
         boolean isSuppressed = false;
 
@@ -790,11 +790,17 @@ public class CoreNodeRenderer implements NodeRenderer {
         }
     }
 
-    public static class Factory implements NodeRendererFactory {
+    public static class Factory implements SharedNodeRendererFactory {
         @NotNull
         @Override
         public NodeRenderer apply(@NotNull DataHolder options) {
             return new CoreNodeRenderer(options);
         }
+
+        @Override
+        public boolean isShared(@NotNull DataHolder options) {
+            // paragraph line source positions keep the current paragraph's lines in the renderer
+            return !HtmlRenderer.SOURCE_POSITION_PARAGRAPH_LINES.get(options);
+        }
     }
 }
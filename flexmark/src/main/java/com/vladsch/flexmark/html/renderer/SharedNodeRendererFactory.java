@@ -0,0 +1,26 @@
+package com.vladsch.flexmark.html.renderer;
+
+import com.vladsch.flexmark.util.data.DataHolder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Factory for node renderers which are created once per html renderer and shared by all rendered documents
+ * <p>
+ * The factory is applied with the renderer options. The renderer is used for a document unless the document
+ * sets one of the option keys read while the renderer was created to a different value, in which case a renderer
+ * is created for that document.
+ * <p>
+ * NOTE: a shared renderer is called for several documents and from several threads at once, it must not keep
+ * state between handler calls and must get document data, like the reference repository, from the rendering context
+ */
+public interface SharedNodeRendererFactory extends NodeRendererFactory {
+    /**
+     * Whether renderers created for the given renderer options can be shared
+     *
+     * @param options renderer options
+     * @return true if the renderer can be shared, false to create one per document
+     */
+    default boolean isShared(@NotNull DataHolder options) {
+        return true;
+    }
+}
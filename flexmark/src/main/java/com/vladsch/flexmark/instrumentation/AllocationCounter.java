@@ -0,0 +1,50 @@
+package com.vladsch.flexmark.instrumentation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Bytes allocated by the current thread, where the JVM provides the count
+ */
+final public class AllocationCounter {
+    final private static ThreadMXBean THREAD_MX_BEAN = allocationCountingBean();
+
+    private AllocationCounter() {
+    }
+
+    private static ThreadMXBean allocationCountingBean() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+                if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled()) {
+                    return bean;
+                }
+            }
+        } catch (Throwable ignored) {
+            // com.sun.management is not available on this JVM
+        }
+        return null;
+    }
+
+    public static boolean isSupported() {
+        return THREAD_MX_BEAN != null;
+    }
+
+    /**
+     * @return bytes allocated by the current thread since it started, or -1 if not supported
+     */
+    public static long currentThreadAllocatedBytes() {
+        if (THREAD_MX_BEAN == null) return -1;
+        return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @param startBytes value of {@link #currentThreadAllocatedBytes()} at start of measurement
+     * @return bytes allocated by current thread since start, or -1 if not supported
+     */
+    public static long allocatedSince(long startBytes) {
+        if (startBytes < 0) return -1;
+        return currentThreadAllocatedBytes() - startBytes;
+    }
+}
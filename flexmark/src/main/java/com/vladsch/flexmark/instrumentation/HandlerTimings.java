@@ -0,0 +1,94 @@
+package com.vladsch.flexmark.instrumentation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Call counts and time of handlers, aggregated by handler class
+ * <p>
+ * Time of a handler does not include time of handlers timed while it runs, so nested handlers, like node renderers
+ * rendering their children, are not counted twice. Not thread-safe, each parser or renderer keeps its own.
+ */
+final public class HandlerTimings {
+    @FunctionalInterface
+    public interface TimingConsumer {
+        void accept(@NotNull Class<?> handlerClass, long calls, long nanos);
+    }
+
+    final private HashMap<Class<?>, long[]> timings = new HashMap<>();
+    private long[] outerNestedNanos = new long[16];
+    private int depth;
+    private long nestedNanos;
+
+    /**
+     * Start timing a handler call
+     *
+     * @return start time to pass to {@link #stop(Class, long)}
+     */
+    public long start() {
+        if (depth == outerNestedNanos.length) {
+            outerNestedNanos = Arrays.copyOf(outerNestedNanos, depth * 2);
+        }
+        outerNestedNanos[depth++] = nestedNanos;
+        nestedNanos = 0;
+        return System.nanoTime();
+    }
+
+    /**
+     * Stop timing a handler call started by {@link #start()}
+     *
+     * @param handlerClass class to which the call is attributed
+     * @param startNanos   value returned by {@link #start()}
+     */
+    public void stop(@NotNull Class<?> handlerClass, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        add(handlerClass, 1, elapsed - nestedNanos);
+        nestedNanos = outerNestedNanos[--depth] + elapsed;
+    }
+
+    /**
+     * Add calls and time to a handler class
+     *
+     * @param handlerClass handler class
+     * @param calls        number of calls
+     * @param nanos        time of the calls
+     */
+    public void add(@NotNull Class<?> handlerClass, long calls, long nanos) {
+        long[] timing = timings.get(handlerClass);
+        if (timing == null) {
+            timing = new long[2];
+            timings.put(handlerClass, timing);
+        }
+        timing[0] += calls;
+        timing[1] += nanos;
+    }
+
+    public boolean isEmpty() {
+        return timings.isEmpty();
+    }
+
+    public long getCalls(@NotNull Class<?> handlerClass) {
+        long[] timing = timings.get(handlerClass);
+        return timing == null ? 0 : timing[0];
+    }
+
+    public long getNanos(@NotNull Class<?> handlerClass) {
+        long[] timing = timings.get(handlerClass);
+        return timing == null ? 0 : timing[1];
+    }
+
+    public void forEach(@NotNull TimingConsumer consumer) {
+        for (Map.Entry<Class<?>, long[]> entry : timings.entrySet()) {
+            consumer.accept(entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+        }
+    }
+
+    public void clear() {
+        timings.clear();
+        depth = 0;
+        nestedNanos = 0;
+    }
+}
@@ -0,0 +1,119 @@
+package com.vladsch.flexmark.instrumentation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size log-linear histogram of non-negative long values, such as nanoseconds or bytes
+ * <p>
+ * Memory use does not depend on number of recorded values, percentiles are accurate to about 3%.
+ * Not thread-safe.
+ */
+public class Histogram {
+    final private static int SUB_BUCKET_BITS = 5;
+    final private static int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    final private static int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    final private long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * @param value value to record, negative values are recorded as 0
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts[bucketIndex(value)]++;
+        count++;
+        sum += value;
+        if (max < value) max = value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @param percentile percentile in range 0 to 100, for example 50, 99 or 99.9
+     * @return value not exceeded by given percent of recorded values, 0 if no values were recorded
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be in range 0 to 100, got: " + percentile);
+        }
+
+        if (count == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts[i];
+            if (total >= rank) {
+                return Math.min(bucketHighestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Add values recorded by another histogram
+     *
+     * @param other histogram to add
+     */
+    public void add(@NotNull Histogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        if (max < other.max) max = other.max;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    // values below SUB_BUCKETS have their own bucket, others share a bucket with values having the same SUB_BUCKET_BITS after the leading 1 bit
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketHighestValue(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram{" +
+                "count=" + count +
+                ", mean=" + String.format("%.1f", getMean()) +
+                ", p50=" + getPercentile(50) +
+                ", p99=" + getPercentile(99) +
+                ", max=" + max +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+package com.vladsch.flexmark.instrumentation;
+
+import com.vladsch.flexmark.parser.ParserListener;
+import com.vladsch.flexmark.parser.PostProcessorFactory;
+import com.vladsch.flexmark.parser.block.ParserPhase;
+import com.vladsch.flexmark.util.ast.Document;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link ParserListener} recording per document values to a {@link HistogramRegistry}
+ * <p>
+ * Histogram names are prefix followed by:
+ * <ul>
+ *     <li>{@code .phase.<phase>.nanos} and {@code .phase.<phase>.allocatedBytes}</li>
+ *     <li>{@code .postProcessor.<factory class>.nanos} and {@code .postProcessor.<factory class>.allocatedBytes}</li>
+ *     <li>{@code .handler.<handler class>.nanos} and {@code .handler.<handler class>.calls}</li>
+ * </ul>
+ * Allocated bytes are not recorded when the JVM does not count them.
+ */
+public class HistogramParserListener implements ParserListener {
+    final public static String DEFAULT_PREFIX = "parser";
+
+    final private @NotNull HistogramRegistry registry;
+    final private @NotNull String prefix;
+
+    public HistogramParserListener(@NotNull HistogramRegistry registry) {
+        this(registry, DEFAULT_PREFIX);
+    }
+
+    public HistogramParserListener(@NotNull HistogramRegistry registry, @NotNull String prefix) {
+        this.registry = registry;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void phaseFinished(@NotNull Document document, @NotNull ParserPhase phase, long nanos, long allocatedBytes) {
+        String name = prefix + ".phase." + phase.name();
+        registry.record(name + ".nanos", nanos);
+        if (allocatedBytes >= 0) registry.record(name + ".allocatedBytes", allocatedBytes);
+    }
+
+    @Override
+    public void postProcessorFinished(@NotNull Document document, @NotNull PostProcessorFactory factory, long nanos, long allocatedBytes) {
+        String name = prefix + ".postProcessor." + factory.getClass().getName();
+        registry.record(name + ".nanos", nanos);
+        if (allocatedBytes >= 0) registry.record(name + ".allocatedBytes", allocatedBytes);
+    }
+
+    @Override
+    public void handlerTimings(@NotNull Document document, @NotNull HandlerTimings timings) {
+        timings.forEach((handlerClass, calls, nanos) -> {
+            String name = prefix + ".handler." + handlerClass.getName();
+            registry.record(name + ".nanos", nanos);
+            registry.record(name + ".calls", calls);
+        });
+    }
+}
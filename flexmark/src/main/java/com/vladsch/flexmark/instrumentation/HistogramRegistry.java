@@ -0,0 +1,17 @@
+package com.vladsch.flexmark.instrumentation;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Named histograms to which {@link HistogramParserListener} and {@link HistogramRenderListener} record values,
+ * implement to export to a metrics library or use {@link SimpleHistogramRegistry}
+ */
+public interface HistogramRegistry {
+    /**
+     * Record a value
+     *
+     * @param name  histogram name
+     * @param value value to record
+     */
+    void record(@NotNull String name, long value);
+}
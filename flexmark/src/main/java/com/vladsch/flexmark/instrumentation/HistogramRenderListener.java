@@ -0,0 +1,48 @@
+package com.vladsch.flexmark.instrumentation;
+
+import com.vladsch.flexmark.html.RenderListener;
+import com.vladsch.flexmark.html.renderer.RenderingPhase;
+import com.vladsch.flexmark.util.ast.Document;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link RenderListener} recording per document values to a {@link HistogramRegistry}
+ * <p>
+ * Histogram names are prefix followed by:
+ * <ul>
+ *     <li>{@code .phase.<phase>.nanos} and {@code .phase.<phase>.allocatedBytes}</li>
+ *     <li>{@code .handler.<node renderer class>.nanos} and {@code .handler.<node renderer class>.calls}</li>
+ * </ul>
+ * Allocated bytes are not recorded when the JVM does not count them.
+ */
+public class HistogramRenderListener implements RenderListener {
+    final public static String DEFAULT_PREFIX = "render";
+
+    final private @NotNull HistogramRegistry registry;
+    final private @NotNull String prefix;
+
+    public HistogramRenderListener(@NotNull HistogramRegistry registry) {
+        this(registry, DEFAULT_PREFIX);
+    }
+
+    public HistogramRenderListener(@NotNull HistogramRegistry registry, @NotNull String prefix) {
+        this.registry = registry;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void phaseFinished(@NotNull Document document, @NotNull RenderingPhase phase, long nanos, long allocatedBytes) {
+        String name = prefix + ".phase." + phase.name();
+        registry.record(name + ".nanos", nanos);
+        if (allocatedBytes >= 0) registry.record(name + ".allocatedBytes", allocatedBytes);
+    }
+
+    @Override
+    public void handlerTimings(@NotNull Document document, @NotNull HandlerTimings timings) {
+        timings.forEach((handlerClass, calls, nanos) -> {
+            String name = prefix + ".handler." + handlerClass.getName();
+            registry.record(name + ".nanos", nanos);
+            registry.record(name + ".calls", calls);
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.vladsch.flexmark.instrumentation;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Thread-safe in memory {@link HistogramRegistry}
+ */
+public class SimpleHistogramRegistry implements HistogramRegistry {
+    final private HashMap<String, Histogram> histograms = new HashMap<>();
+
+    @Override
+    public synchronized void record(@NotNull String name, long value) {
+        histograms.computeIfAbsent(name, k -> new Histogram()).record(value);
+    }
+
+    /**
+     * @return sorted names of histograms with recorded values
+     */
+    public synchronized @NotNull List<String> getNames() {
+        List<String> names = new ArrayList<>(histograms.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    /**
+     * @param name histogram name
+     * @return copy of the histogram, or null if no values were recorded for the name
+     */
+    public synchronized @Nullable Histogram getHistogram(@NotNull String name) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) return null;
+
+        Histogram copy = new Histogram();
+        copy.add(histogram);
+        return copy;
+    }
+
+    public synchronized void reset() {
+        histograms.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (String name : getNames()) {
+            sb.append(name).append(": ").append(histograms.get(name)).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Timing and allocation measurement support for {@link com.vladsch.flexmark.parser.ParserListener} and
+ * {@link com.vladsch.flexmark.html.RenderListener}, with adapters recording to a {@link com.vladsch.flexmark.instrumentation.HistogramRegistry}
+ */
+package com.vladsch.flexmark.instrumentation;
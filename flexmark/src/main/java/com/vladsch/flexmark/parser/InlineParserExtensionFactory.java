@@ -20,4 +20,14 @@ public interface InlineParserExtensionFactory extends Function<LightInlineParser
      * @return inline parser extension
      */
     @NotNull InlineParserExtension apply(@NotNull LightInlineParser inlineParser);
+
+    /**
+     * Whether extensions created by the factory do not use or change state shared by blocks of the document, inlines
+     * are parsed serially with {@link Parser#PARALLEL_INLINE_PARSING} unless all extension factories are parallel safe
+     *
+     * @return true if blocks can be parsed concurrently
+     */
+    default boolean isParallelSafe() {
+        return false;
+    }
 }
@@ -15,6 +15,7 @@ public class InlineParserOptions {
     final public boolean intellijDummyIdentifier;
     final public boolean parseJekyllMacrosInUrls;
     final public boolean useHardcodedLinkAddressParser;
+    final public boolean useHardcodedInlineScanners;
     final public boolean linkTextPriorityOverLinkRef;
 
     public InlineParserOptions(DataHolder options) {
@@ -27,6 +28,7 @@ public class InlineParserOptions {
         intellijDummyIdentifier = Parser.INTELLIJ_DUMMY_IDENTIFIER.get(options);
         parseJekyllMacrosInUrls = Parser.PARSE_JEKYLL_MACROS_IN_URLS.get(options);
         useHardcodedLinkAddressParser = Parser.USE_HARDCODED_LINK_ADDRESS_PARSER.get(options);
+        useHardcodedInlineScanners = Parser.USE_HARDCODED_INLINE_SCANNERS.get(options);
         codeSoftLineBreaks = Parser.CODE_SOFT_LINE_BREAKS.get(options);
         inlineDelimiterDirectionalPunctuations = Parser.INLINE_DELIMITER_DIRECTIONAL_PUNCTUATIONS.get(options);
         linksAllowMatchedParentheses = Parser.LINKS_ALLOW_MATCHED_PARENTHESES.get(options);
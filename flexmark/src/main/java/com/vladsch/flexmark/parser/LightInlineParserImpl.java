@@ -2,6 +2,7 @@ package com.vladsch.flexmark.parser;
 
 import com.vladsch.flexmark.ast.Text;
 import com.vladsch.flexmark.ast.util.Parsing;
+import com.vladsch.flexmark.parser.internal.InlineScanner;
 import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.util.data.DataHolder;
@@ -20,6 +21,7 @@ public class LightInlineParserImpl implements LightInlineParser {
 
     final protected InlineParserOptions options;
     final protected Parsing myParsing;
+    final private @Nullable InlineScanner myScanner;
     protected Node block;
     protected BasedSequence input;
     protected int index;
@@ -29,6 +31,7 @@ public class LightInlineParserImpl implements LightInlineParser {
     public LightInlineParserImpl(DataHolder dataOptions) {
         this.options = new InlineParserOptions(dataOptions);
         this.myParsing = new Parsing(dataOptions);
+        this.myScanner = options.useHardcodedInlineScanners ? new InlineScanner(myParsing) : null;
     }
 
     @NotNull
@@ -170,6 +173,25 @@ public class LightInlineParserImpl implements LightInlineParser {
         }
     }
 
+    /**
+     * Advance index to end of match returned by one of the {@link InlineScanner} scan methods for current index
+     *
+     * @param end end of match, {@link InlineScanner#NO_MATCH} or {@link InlineScanner#USE_PATTERN}
+     * @param re  pattern equivalent to the scanner, matched when scanner returned {@link InlineScanner#USE_PATTERN}
+     * @return sequence matched or null
+     */
+    protected BasedSequence matchScanned(int end, Pattern re) {
+        if (end == InlineScanner.USE_PATTERN) {
+            return match(re);
+        } else if (end == InlineScanner.NO_MATCH) {
+            return null;
+        } else {
+            BasedSequence matched = input.subSequence(index, end);
+            index = end;
+            return matched;
+        }
+    }
+
     /**
      * If RE matches at current index in the input, advance index and return the match; otherwise return null.
      *
@@ -253,7 +275,12 @@ public class LightInlineParserImpl implements LightInlineParser {
      */
     @Override
     public boolean spnl() {
-        match(myParsing.SPNL);
+        if (myScanner != null) {
+            int end = myScanner.scanSpnl(input, index);
+            if (end >= 0) index = end;
+        } else {
+            match(myParsing.SPNL);
+        }
         return true;
     }
 
@@ -264,7 +291,12 @@ public class LightInlineParserImpl implements LightInlineParser {
      */
     @Override
     public boolean nonIndentSp() {
-        match(myParsing.SPNI);
+        if (myScanner != null) {
+            int end = myScanner.scanSpni(input, index);
+            if (end >= 0) index = end;
+        } else {
+            match(myParsing.SPNI);
+        }
         return true;
     }
 
@@ -275,7 +307,12 @@ public class LightInlineParserImpl implements LightInlineParser {
      */
     @Override
     public boolean sp() {
-        match(myParsing.SP);
+        if (myScanner != null) {
+            int end = myScanner.scanSp(input, index);
+            if (end >= 0) index = end;
+        } else {
+            match(myParsing.SP);
+        }
         return true;
     }
 
@@ -286,6 +323,9 @@ public class LightInlineParserImpl implements LightInlineParser {
      */
     @Override
     public boolean spnlUrl() {
+        if (myScanner != null) {
+            return matchScanned(myScanner.scanSpnlUrl(input, index), myParsing.SPNL_URL) != null;
+        }
         return match(myParsing.SPNL_URL) != null;
     }
 
@@ -297,6 +337,9 @@ public class LightInlineParserImpl implements LightInlineParser {
     @Nullable
     @Override
     public BasedSequence toEOL() {
+        if (myScanner != null) {
+            return matchScanned(myScanner.scanRestOfLine(input, index), myParsing.REST_OF_LINE);
+        }
         return match(myParsing.REST_OF_LINE);
     }
 }
@@ -39,4 +39,14 @@ public interface LinkRefProcessorFactory extends Function<Document, LinkRefProce
      */
     @Override
     @NotNull LinkRefProcessor apply(@NotNull Document document);
+
+    /**
+     * Whether processors created by the factory do not use or change state shared by blocks of the document, inlines
+     * are parsed serially with {@link Parser#PARALLEL_INLINE_PARSING} unless all processor factories are parallel safe
+     *
+     * @return true if blocks can be parsed concurrently
+     */
+    default boolean isParallelSafe() {
+        return false;
+    }
 }
@@ -2,11 +2,13 @@ package com.vladsch.flexmark.parser;
 
 import com.vladsch.flexmark.ast.util.ReferenceRepository;
 import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.block.BlockParserFactory;
 import com.vladsch.flexmark.parser.block.BlockPreProcessorFactory;
 import com.vladsch.flexmark.parser.block.CustomBlockParserFactory;
 import com.vladsch.flexmark.parser.block.ParagraphPreProcessorFactory;
 import com.vladsch.flexmark.parser.delimiter.DelimiterProcessor;
 import com.vladsch.flexmark.parser.internal.DocumentParser;
+import com.vladsch.flexmark.parser.internal.DocumentReparser;
 import com.vladsch.flexmark.parser.internal.InlineParserImpl;
 import com.vladsch.flexmark.parser.internal.LinkRefProcessorData;
 import com.vladsch.flexmark.parser.internal.PostProcessorManager;
@@ -15,6 +17,7 @@ import com.vladsch.flexmark.util.builder.BuilderBase;
 import com.vladsch.flexmark.util.data.*;
 import com.vladsch.flexmark.util.misc.Extension;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.ByteBufferCharSequence;
 import com.vladsch.flexmark.util.sequence.ReplacedBasedSequence;
 import com.vladsch.flexmark.util.sequence.mappers.SpecialLeadInHandler;
 import org.jetbrains.annotations.NotNull;
@@ -22,7 +25,14 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 /**
  * Parses input text to a tree of nodes.
@@ -94,6 +104,11 @@ public class Parser implements IParse {
     final public static DataKey<Boolean> UNDERSCORE_DELIMITER_PROCESSOR = new DataKey<>("UNDERSCORE_DELIMITER_PROCESSOR", true);
     final public static DataKey<Boolean> BLANK_LINES_IN_AST = SharedDataKeys.BLANK_LINES_IN_AST;
     final public static DataKey<Boolean> USE_HARDCODED_LINK_ADDRESS_PARSER = new DataKey<>("USE_HARDCODED_LINK_ADDRESS_PARSER", true);
+    /**
+     * USE_HARDCODED_INLINE_SCANNERS default true, match link labels, titles, entities, HTML tags, autolinks and white space
+     * with {@link com.vladsch.flexmark.parser.internal.InlineScanner} instead of the {@link com.vladsch.flexmark.ast.util.Parsing} patterns
+     */
+    final public static DataKey<Boolean> USE_HARDCODED_INLINE_SCANNERS = new DataKey<>("USE_HARDCODED_INLINE_SCANNERS", true);
 
     /**
      * STRONG_WRAPS_EMPHASIS default false, when true makes parsing CommonMark Spec 0.27 compliant
@@ -287,7 +302,18 @@ public class Parser implements IParse {
     // separate setting for CODE_BLOCK_INDENT
     final public static DataKey<Integer> CODE_BLOCK_INDENT = new DataKey<>("CODE_BLOCK_INDENT", LISTS_ITEM_INDENT);
 
+    // parse block inlines in batches on a fork join pool, with an inline parser instance per worker
+    // NOTE: inlines are parsed serially unless all inline parsing extension points of the parser are parallel safe
+    final public static DataKey<Boolean> PARALLEL_INLINE_PARSING = new DataKey<>("PARALLEL_INLINE_PARSING", false);
+    final public static DataKey<Integer> PARALLEL_INLINE_PARSING_BATCH_SIZE = new DataKey<>("PARALLEL_INLINE_PARSING_BATCH_SIZE", 64);
+    // pool to use for parallel inline parsing, null for the common pool
+    final public static NullableDataKey<ForkJoinPool> PARALLEL_INLINE_PARSING_POOL = new NullableDataKey<>("PARALLEL_INLINE_PARSING_POOL");
+
+    // listener for parser phase, post processor and handler timings, null for none
+    final public static NullableDataKey<ParserListener> PARSER_LISTENER = new NullableDataKey<>("PARSER_LISTENER");
+
     final private List<CustomBlockParserFactory> blockParserFactories;
+    final private List<BlockParserFactory> blockParserFactoryInstances;
     final private Map<Character, DelimiterProcessor> delimiterProcessors;
     final private BitSet delimiterCharacters;
     final private BitSet specialCharacters;
@@ -299,6 +325,10 @@ public class Parser implements IParse {
     final private InlineParserFactory inlineParserFactory;
     final private @NotNull DataHolder options;
 
+    // idle inline parsers of the default factory, reset for each document and reused by parse calls, null for custom factories
+    final private @Nullable ArrayBlockingQueue<InlineParserImpl> idleInlineParsers;
+    final private boolean parallelInlineParsing;
+
     Parser(Builder builder) {
         DataSet options = builder.toImmutable();
         this.blockParserFactories = DocumentParser.calculateBlockParserFactories(options, builder.blockParserFactories);
@@ -316,6 +346,7 @@ public class Parser implements IParse {
         optionsWithSpecialLeadInHandlers.set(SPECIAL_LEAD_IN_HANDLERS, specialLeadInHandlers);
 
         this.options = optionsWithSpecialLeadInHandlers.toImmutable();
+        this.blockParserFactoryInstances = DocumentParser.createBlockParserFactories(this.options, this.blockParserFactories);
         this.inlineParserFactory = builder.inlineParserFactory == null ? DocumentParser.INLINE_PARSER_FACTORY : builder.inlineParserFactory;
         this.paragraphPreProcessorFactories = DocumentParser.calculateParagraphPreProcessors(options, builder.paragraphPreProcessorFactories, this.inlineParserFactory);
         this.blockPreProcessorDependencies = DocumentParser.calculateBlockPreProcessors(options, builder.blockPreProcessorFactories);
@@ -325,6 +356,23 @@ public class Parser implements IParse {
         this.specialCharacters = InlineParserImpl.calculateSpecialCharacters(options, delimiterCharacters);
         this.postProcessorDependencies = PostProcessorManager.calculatePostProcessors(options, builder.postProcessorFactories);
         this.inlineParserExtensionFactories = builder.inlineParserExtensionFactories;
+        this.idleInlineParsers = this.inlineParserFactory == DocumentParser.INLINE_PARSER_FACTORY ? new ArrayBlockingQueue<>(Math.max(2, Runtime.getRuntime().availableProcessors())) : null;
+        this.parallelInlineParsing = PARALLEL_INLINE_PARSING.get(this.options) && isParallelSafe();
+    }
+
+    private boolean isParallelSafe() {
+        for (DelimiterProcessor processor : delimiterProcessors.values()) {
+            if (!processor.isParallelSafe()) return false;
+        }
+
+        for (LinkRefProcessorFactory factory : linkRefProcessors.processors) {
+            if (!factory.isParallelSafe()) return false;
+        }
+
+        for (InlineParserExtensionFactory factory : inlineParserExtensionFactories) {
+            if (!factory.isParallelSafe()) return false;
+        }
+        return true;
     }
 
     /**
@@ -343,66 +391,205 @@ public class Parser implements IParse {
     /**
      * Parse the specified input text into a tree of nodes.
      * <p>
-     * Note that this method is thread-safe (a new parser state is used for each invocation).
+     * Note that this method is thread-safe (parser state is reused but never shared by concurrent invocations).
      *
      * @param input the text to parse
      * @return the root node
      */
     public @NotNull Document parse(@NotNull BasedSequence input) {
-        // NOTE: parser can only handle contiguous sequences with no out of base characters
-        if (input instanceof ReplacedBasedSequence) {
-            throw new IllegalArgumentException("" +
-                    "Parser.parse() does not support BasedSequences with replaced or non-contiguous segments.\n" +
-                    "Use BasedSequence.of(input.toString()) to convert to contiguous based sequence." +
-                    "");
-        }
-
-        DocumentParser documentParser = new DocumentParser(options
-                , blockParserFactories
-                , paragraphPreProcessorFactories
-                , blockPreProcessorDependencies
-                , inlineParserFactory.inlineParser(options, specialCharacters, delimiterCharacters, delimiterProcessors, linkRefProcessors, inlineParserExtensionFactories));
-        Document document = documentParser.parse(input);
+        validateInput(input);
+        Document document = parseSequence(options, input);
         return postProcess(document);
     }
 
     /**
      * Parse the specified input text into a tree of nodes.
      * <p>
-     * Note that this method is thread-safe (a new parser state is used for each invocation).
+     * Note that this method is thread-safe (parser state is reused but never shared by concurrent invocations).
      *
      * @param input the text to parse
      * @return the root node
      */
     public @NotNull Document parse(@NotNull String input) {
-        DocumentParser documentParser = new DocumentParser(options
-                , blockParserFactories
-                , paragraphPreProcessorFactories
-                , blockPreProcessorDependencies
-                , inlineParserFactory.inlineParser(options, specialCharacters, delimiterCharacters, delimiterProcessors, linkRefProcessors, inlineParserExtensionFactories));
-        Document document = documentParser.parse(BasedSequence.of(input));
+        Document document = parseSequence(options, BasedSequence.of(input));
         return postProcess(document);
     }
 
     /**
      * Parse the specified reader into a tree of nodes. The caller is responsible for closing the reader.
      * <p>
-     * Note that this method is thread-safe (a new parser state is used for each invocation).
+     * Note that this method is thread-safe (parser state is reused but never shared by concurrent invocations).
      *
      * @param input the reader to parse
      * @return the root node
      * @throws IOException when reading throws an exception
      */
     public @NotNull Document parseReader(@NotNull Reader input) throws IOException {
-        DocumentParser documentParser = new DocumentParser(options
-                , blockParserFactories
-                , paragraphPreProcessorFactories
-                , blockPreProcessorDependencies
-                , inlineParserFactory.inlineParser(options, specialCharacters, delimiterCharacters, delimiterProcessors, linkRefProcessors, inlineParserExtensionFactories));
-        Document document = documentParser.parse(input);
+        Document document = parseInput(input, null);
+        return postProcess(document);
+    }
+
+    /**
+     * Parse the specified reader into a tree of nodes, passing top level blocks to the consumer as their
+     * block parsing is completed. The caller is responsible for closing the reader.
+     * <p>
+     * Input is block parsed as it is read so closed top level blocks are available before the whole input is read.
+     * Paragraph pre-processing, inline parsing and post-processing are done after the end of input, since
+     * references can be defined anywhere in the document.
+     * <p>
+     * Note that this method is thread-safe (parser state is reused but never shared by concurrent invocations).
+     *
+     * @param input               the reader to parse
+     * @param closedBlockConsumer consumer of top level blocks, called in document order
+     * @return the root node
+     * @throws IOException when reading throws an exception
+     */
+    public @NotNull Document parseReader(@NotNull Reader input, @NotNull Consumer<Block> closedBlockConsumer) throws IOException {
+        Document document = parseInput(input, closedBlockConsumer);
         return postProcess(document);
     }
 
+    /**
+     * Parse the specified UTF-8 file into a tree of nodes, see {@link #parseFile(Path, Charset)}
+     *
+     * @param file the file to parse
+     * @return the root node
+     * @throws IOException when the file cannot be read
+     */
+    public @NotNull Document parseFile(@NotNull Path file) throws IOException {
+        return parseFile(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parse the specified file into a tree of nodes.
+     * <p>
+     * UTF-8, ISO-8859-1 and US-ASCII files are memory mapped and parsed without copying their text to the heap,
+     * the base sequence of the document and of all node sequences is a {@link ByteBufferCharSequence} of the file.
+     * Files in other character sets are read into a string.
+     * <p>
+     * NOTE: the file must not be modified while the document is in use
+     * <p>
+     * Note that this method is thread-safe (parser state is reused but never shared by concurrent invocations).
+     *
+     * @param file    the file to parse
+     * @param charset character set of the file
+     * @return the root node
+     * @throws IOException when the file cannot be read
+     */
+    public @NotNull Document parseFile(@NotNull Path file, @NotNull Charset charset) throws IOException {
+        CharSequence text = ByteBufferCharSequence.isSupported(charset) ? ByteBufferCharSequence.map(file, charset) : new String(Files.readAllBytes(file), charset);
+        return parse(BasedSequence.of(text));
+    }
+
+    /**
+     * Update a document parsed by this parser after an edit of its text, re-parsing only the affected top level blocks.
+     * <p>
+     * Blocks from the preceding block to the edit up to the first following block which parses unchanged are re-parsed
+     * and spliced into the document. If the edit changes definitions kept in node repositories, such as
+     * references, then blocks whose text contains a changed key are also re-parsed. When the edit cannot be handled
+     * incrementally, or the document has node repositories with state derived from the whole document, such as
+     * footnotes, the text is parsed in full and a new document is returned.
+     * <p>
+     * Nodes of blocks which are not re-parsed are rebased to the edited text, their offsets and source sequences are
+     * the same as those of a full parse. Blocks with nodes which do not support {@link Node#rebaseSegments} are re-parsed.
+     * <p>
+     * NOTE: document wide processing done by extensions outside of node repositories is only done for re-parsed
+     * blocks. Use {@link #parse(String)} when the AST has to match the full text exactly.
+     * <p>
+     * Note that this method is thread-safe as long as the document is not used concurrently.
+     *
+     * @param document document previously returned by this parser's parse or reparse methods
+     * @param edit     edit of document text, with offsets in the document text before the edit
+     * @return updated document or a new document if it was parsed in full
+     */
+    public @NotNull Document reparse(@NotNull Document document, @NotNull TextEdit edit) {
+        BasedSequence text = BasedSequence.of(edit.apply(document.getChars()));
+        Document reparsed = new DocumentReparser(options, this::parseSlice).reparse(document, edit, text);
+        return reparsed != null ? reparsed : postProcess(parseSequence(options, text));
+    }
+
+    private Document parseSlice(BasedSequence input, DataHolder sliceOptions) {
+        return postProcess(parseSequence(sliceOptions, input));
+    }
+
+    /**
+     * Create a parsing session which reuses its parser state for all documents it parses.
+     * <p>
+     * A session keeps the inline parser, with its option dependent patterns and extension tables, between
+     * parse calls instead of creating them for every document. The parse methods of the parser reuse inline parsers
+     * of the default inline parser factory from a small pool shared by all threads, a session also reuses an inline
+     * parser created by a custom factory and does not contend for the pool.
+     * <p>
+     * NOTE: a session is not thread-safe, use a separate session per thread.
+     *
+     * @return new parsing session for this parser
+     */
+    public @NotNull Session newSession() {
+        return new Session();
+    }
+
+    private static void validateInput(@NotNull BasedSequence input) {
+        // NOTE: parser can only handle contiguous sequences with no out of base characters
+        if (input instanceof ReplacedBasedSequence) {
+            throw new IllegalArgumentException("" +
+                    "Parser.parse() does not support BasedSequences with replaced or non-contiguous segments.\n" +
+                    "Use BasedSequence.of(input.toString()) to convert to contiguous based sequence." +
+                    "");
+        }
+    }
+
+    private InlineParser createInlineParser() {
+        return inlineParserFactory.inlineParser(options, specialCharacters, delimiterCharacters, delimiterProcessors, linkRefProcessors, inlineParserExtensionFactories);
+    }
+
+    private InlineParser acquireInlineParser() {
+        if (idleInlineParsers != null) {
+            InlineParser parser = idleInlineParsers.poll();
+            if (parser != null) return parser;
+        }
+        return createInlineParser();
+    }
+
+    private void releaseInlineParser(InlineParser parser) {
+        if (idleInlineParsers != null) {
+            InlineParserImpl inlineParser = (InlineParserImpl) parser;
+            inlineParser.releaseDocument();
+            // dropped if enough parsers are idle
+            idleInlineParsers.offer(inlineParser);
+        }
+    }
+
+    private Document parseSequence(DataHolder parseOptions, BasedSequence input) {
+        InlineParser parser = acquireInlineParser();
+        try {
+            return createDocumentParser(parseOptions, parser).parse(input);
+        } finally {
+            releaseInlineParser(parser);
+        }
+    }
+
+    private Document parseInput(Reader input, @Nullable Consumer<Block> closedBlockConsumer) throws IOException {
+        InlineParser parser = acquireInlineParser();
+        try {
+            return createDocumentParser(parser).parse(input, closedBlockConsumer);
+        } finally {
+            releaseInlineParser(parser);
+        }
+    }
+
+    private DocumentParser createDocumentParser(InlineParser inlineParser) {
+        return createDocumentParser(options, inlineParser);
+    }
+
+    private DocumentParser createDocumentParser(DataHolder options, InlineParser inlineParser) {
+        return new DocumentParser(options
+                , inlineParser
+                , parallelInlineParsing ? this::createInlineParser : null
+                , blockParserFactoryInstances
+                , paragraphPreProcessorFactories
+                , blockPreProcessorDependencies);
+    }
+
     private Document postProcess(Document document) {
         document = PostProcessorManager.processDocument(document, postProcessorDependencies);
         return document;
@@ -446,6 +633,114 @@ public class Parser implements IParse {
         return NodeRepository.transferReferences(destination, included, onlyIfUndefined, null);
     }
 
+    /**
+     * Parsing session which reuses parser state between documents, see {@link Parser#newSession()}
+     * <p>
+     * NOTE: not thread-safe, each thread should use its own session.
+     */
+    public class Session implements IParse {
+        final private InlineParser inlineParser;
+        private boolean isParsing;
+
+        Session() {
+            this.inlineParser = createInlineParser();
+        }
+
+        public @NotNull Parser getParser() {
+            return Parser.this;
+        }
+
+        private InlineParser acquireInlineParser() {
+            // re-entrant parse, from an extension using the same session, cannot share the state
+            if (isParsing) return createInlineParser();
+
+            isParsing = true;
+            return inlineParser;
+        }
+
+        private void releaseInlineParser(InlineParser parser) {
+            if (parser == inlineParser) isParsing = false;
+        }
+
+        private Document parseSequence(@NotNull BasedSequence input) {
+            InlineParser parser = acquireInlineParser();
+            try {
+                return createDocumentParser(parser).parse(input);
+            } finally {
+                releaseInlineParser(parser);
+            }
+        }
+
+        private Document parseInput(@NotNull Reader input, @Nullable Consumer<Block> closedBlockConsumer) throws IOException {
+            InlineParser parser = acquireInlineParser();
+            try {
+                return createDocumentParser(parser).parse(input, closedBlockConsumer);
+            } finally {
+                releaseInlineParser(parser);
+            }
+        }
+
+        @Override
+        public @NotNull Document parse(@NotNull BasedSequence input) {
+            validateInput(input);
+            return postProcess(parseSequence(input));
+        }
+
+        @Override
+        public @NotNull Document parse(@NotNull String input) {
+            return postProcess(parseSequence(BasedSequence.of(input)));
+        }
+
+        @Override
+        public @NotNull Document parseReader(@NotNull Reader input) throws IOException {
+            return postProcess(parseInput(input, null));
+        }
+
+        /**
+         * Parse reader passing closed top level blocks to consumer, see {@link Parser#parseReader(Reader, Consumer)}
+         *
+         * @param input               the reader to parse
+         * @param closedBlockConsumer consumer of top level blocks, called in document order
+         * @return the root node
+         * @throws IOException when reading throws an exception
+         */
+        public @NotNull Document parseReader(@NotNull Reader input, @NotNull Consumer<Block> closedBlockConsumer) throws IOException {
+            return postProcess(parseInput(input, closedBlockConsumer));
+        }
+
+        /**
+         * Parse input without running post processors, for callers which time or schedule post-processing separately.
+         * The returned document must be passed to {@link #postProcess(Document)} to get the result of {@link #parse(BasedSequence)}
+         *
+         * @param input the text to parse
+         * @return the root node, not post processed
+         */
+        public @NotNull Document parseWithoutPostProcessing(@NotNull BasedSequence input) {
+            validateInput(input);
+            return parseSequence(input);
+        }
+
+        /**
+         * Run the parser's post processors on a document returned by {@link #parseWithoutPostProcessing(BasedSequence)}
+         *
+         * @param document document to post process
+         * @return post processed document
+         */
+        public @NotNull Document postProcess(@NotNull Document document) {
+            return Parser.this.postProcess(document);
+        }
+
+        @Override
+        public @NotNull DataHolder getOptions() {
+            return options;
+        }
+
+        @Override
+        public boolean transferReferences(@NotNull Document document, @NotNull Document included, @Nullable Boolean onlyIfUndefined) {
+            return Parser.this.transferReferences(document, included, onlyIfUndefined);
+        }
+    }
+
     /**
      * Builder for configuring a {@link Parser}.
      */
@@ -0,0 +1,73 @@
+package com.vladsch.flexmark.parser;
+
+import com.vladsch.flexmark.instrumentation.HandlerTimings;
+import com.vladsch.flexmark.parser.block.ParserPhase;
+import com.vladsch.flexmark.util.ast.Document;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives timing events while documents are parsed, set with {@link Parser#PARSER_LISTENER}
+ * <p>
+ * Methods are called on the thread parsing the document. The same listener is used by all documents parsed with
+ * the options so it must be thread-safe if documents are parsed concurrently.
+ * <p>
+ * Allocated bytes are counted for the parsing thread only, they are -1 when the JVM does not provide allocation counts,
+ * see {@link com.vladsch.flexmark.instrumentation.AllocationCounter}.
+ */
+public interface ParserListener {
+    /**
+     * Called when a parser phase starts
+     *
+     * @param document document being parsed
+     * @param phase    phase: PARSE_BLOCKS, PRE_PROCESS_PARAGRAPHS, PRE_PROCESS_BLOCKS or PARSE_INLINES
+     */
+    default void phaseStarted(@NotNull Document document, @NotNull ParserPhase phase) {
+
+    }
+
+    /**
+     * Called when a parser phase is finished
+     *
+     * @param document       document being parsed
+     * @param phase          phase
+     * @param nanos          time of the phase
+     * @param allocatedBytes bytes allocated during the phase or -1
+     */
+    default void phaseFinished(@NotNull Document document, @NotNull ParserPhase phase, long nanos, long allocatedBytes) {
+
+    }
+
+    /**
+     * Called before a post processor processes the document
+     *
+     * @param document document being post processed
+     * @param factory  post processor factory
+     */
+    default void postProcessorStarted(@NotNull Document document, @NotNull PostProcessorFactory factory) {
+
+    }
+
+    /**
+     * Called after a post processor processed the document
+     *
+     * @param document       document being post processed
+     * @param factory        post processor factory
+     * @param nanos          time of creating and running the post processor
+     * @param allocatedBytes bytes allocated by the post processor or -1
+     */
+    default void postProcessorFinished(@NotNull Document document, @NotNull PostProcessorFactory factory, long nanos, long allocatedBytes) {
+
+    }
+
+    /**
+     * Called at end of parsing with calls and time of block parser factories, paragraph and block pre-processors and
+     * inline parser extensions, aggregated by their class. Can be called more than once for a document, for example
+     * once for each inline parser used with {@link Parser#PARALLEL_INLINE_PARSING}.
+     *
+     * @param document document being parsed
+     * @param timings  handler timings, only valid during the call
+     */
+    default void handlerTimings(@NotNull Document document, @NotNull HandlerTimings timings) {
+
+    }
+}
@@ -0,0 +1,78 @@
+package com.vladsch.flexmark.parser;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Replacement of a range of document text, used for incremental re-parsing with {@link Parser#reparse}
+ * <p>
+ * Offsets are in the text of the document before the edit.
+ */
+final public class TextEdit {
+    final private int startOffset;
+    final private int endOffset;
+    final private @NotNull String replacement;
+
+    private TextEdit(int startOffset, int endOffset, @NotNull CharSequence replacement) {
+        if (startOffset < 0 || endOffset < startOffset) {
+            throw new IllegalArgumentException(String.format("TextEdit must have startOffset >= 0 && endOffset >= startOffset, got startOffset: %d, endOffset: %d", startOffset, endOffset));
+        }
+
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.replacement = replacement.toString();
+    }
+
+    public int getStartOffset() {
+        return startOffset;
+    }
+
+    public int getEndOffset() {
+        return endOffset;
+    }
+
+    public @NotNull String getReplacement() {
+        return replacement;
+    }
+
+    /**
+     * @return change in text length resulting from this edit
+     */
+    public int getDelta() {
+        return replacement.length() - (endOffset - startOffset);
+    }
+
+    /**
+     * Apply edit to text
+     *
+     * @param text text before the edit
+     * @return text after the edit
+     */
+    public @NotNull String apply(@NotNull CharSequence text) {
+        if (endOffset > text.length()) {
+            throw new IllegalArgumentException(String.format("TextEdit endOffset: %d is beyond text length: %d", endOffset, text.length()));
+        }
+
+        return new StringBuilder(text.length() + getDelta())
+                .append(text, 0, startOffset)
+                .append(replacement)
+                .append(text, endOffset, text.length())
+                .toString();
+    }
+
+    @Override
+    public String toString() {
+        return "TextEdit{" + startOffset + ", " + endOffset + ", '" + replacement + "'}";
+    }
+
+    public static @NotNull TextEdit of(int startOffset, int endOffset, @NotNull CharSequence replacement) {
+        return new TextEdit(startOffset, endOffset, replacement);
+    }
+
+    public static @NotNull TextEdit insert(int offset, @NotNull CharSequence text) {
+        return new TextEdit(offset, offset, text);
+    }
+
+    public static @NotNull TextEdit delete(int startOffset, int endOffset) {
+        return new TextEdit(startOffset, endOffset, "");
+    }
+}
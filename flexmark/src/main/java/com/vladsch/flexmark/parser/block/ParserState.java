@@ -17,6 +17,9 @@ import java.util.List;
 public interface ParserState extends BlockTracker, BlockParserTracker {
 
     /**
+     * NOTE: the line sequence is created on first use, use {@link #getLineChar(int)} and {@link #getLineLength()}
+     * to test line characters without creating it
+     *
      * @return the current line
      */
     BasedSequence getLine();
@@ -26,6 +29,28 @@ public interface ParserState extends BlockTracker, BlockParserTracker {
      */
     BasedSequence getLineWithEOL();
 
+    /**
+     * @return length of the current line, not including EOL
+     */
+    default int getLineLength() {
+        return getLine().length();
+    }
+
+    /**
+     * @param index index within the current line (0-based)
+     * @return character at index or '\0' if index is not within the line, not including EOL
+     */
+    default char getLineChar(int index) {
+        return getLine().safeCharAt(index);
+    }
+
+    /**
+     * @return character at {@link #getNextNonSpaceIndex()} or '\0' if the rest of the line is blank
+     */
+    default char getNextNonSpaceChar() {
+        return getLineChar(getNextNonSpaceIndex());
+    }
+
     /**
      * @return the current index within the line (0-based)
      */
@@ -80,7 +80,7 @@ public class BlockQuoteParser extends AbstractBlockParser {
             if (isMarker) {
                 newColumn++;
                 // optional following space or tab
-                if (Parsing.isSpaceOrTab(state.getLine(), nextNonSpace + 1)) {
+                if (Parsing.isSpaceOrTab(state.getLineChar(nextNonSpace + 1))) {
                     newColumn++;
                 }
             }
@@ -105,8 +105,7 @@ public class BlockQuoteParser extends AbstractBlockParser {
             final boolean interruptsItemParagraph,
             final boolean withLeadSpacesInterruptsItemParagraph
     ) {
-        CharSequence line = state.getLine();
-        if ((!inParagraph || interruptsParagraph) && index < line.length() && line.charAt(index) == MARKER_CHAR) {
+        if ((!inParagraph || interruptsParagraph) && state.getLineChar(index) == MARKER_CHAR) {
             if ((allowLeadingSpace || state.getIndent() == 0) && (!inParagraphListItem || interruptsItemParagraph)) {
                 if (inParagraphListItem && !withLeadSpacesInterruptsItemParagraph) {
                     return state.getIndent() == 0;
@@ -183,7 +182,7 @@ public class BlockQuoteParser extends AbstractBlockParser {
             if (isMarker(state, nextNonSpace, inParagraph, inParagraphListItem, allowLeadingSpace, interruptsParagraph, interruptsItemParagraph, withLeadSpacesInterruptsItemParagraph)) {
                 int newColumn = state.getColumn() + state.getIndent() + 1;
                 // optional following space or tab
-                if (Parsing.isSpaceOrTab(state.getLine(), nextNonSpace + 1)) {
+                if (Parsing.isSpaceOrTab(state.getLineChar(nextNonSpace + 1))) {
                     newColumn++;
                 }
                 return BlockStart.of(new BlockQuoteParser(state.getProperties(), state.getLine().subSequence(nextNonSpace, nextNonSpace + 1))).atColumn(newColumn);
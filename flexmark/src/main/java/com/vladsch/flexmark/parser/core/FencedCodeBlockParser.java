@@ -60,13 +60,14 @@ public class FencedCodeBlockParser extends AbstractBlockParser {
     public BlockContinue tryContinue(ParserState state) {
         int nextNonSpace = state.getNextNonSpaceIndex();
         int newIndex = state.getIndex();
-        BasedSequence line = state.getLine();
+        char c = state.getNextNonSpaceChar();
         Matcher matcher;
         boolean matches = (state.getIndent() <= 3 &&
-                nextNonSpace < line.length() &&
-                (!matchingCloser || line.charAt(nextNonSpace) == fenceChar));
+                (c == '`' || c == '~') &&
+                (!matchingCloser || c == fenceChar));
 
         if (matches) {
+            BasedSequence line = state.getLine();
             BasedSequence trySequence = line.subSequence(nextNonSpace, line.length());
             matcher = CLOSING_FENCE.matcher(trySequence);
             if (matcher.find()) {
@@ -81,7 +82,7 @@ public class FencedCodeBlockParser extends AbstractBlockParser {
         }
         // skip optional spaces of fence indent
         int i = fenceIndent;
-        while (i > 0 && newIndex < line.length() && line.charAt(newIndex) == ' ') {
+        while (i > 0 && state.getLineChar(newIndex) == ' ') {
             newIndex++;
             i--;
         }
@@ -184,9 +185,10 @@ public class FencedCodeBlockParser extends AbstractBlockParser {
         @Override
         public BlockStart tryStart(ParserState state, MatchedBlockParser matchedBlockParser) {
             int nextNonSpace = state.getNextNonSpaceIndex();
-            BasedSequence line = state.getLine();
+            char c = state.getNextNonSpaceChar();
             Matcher matcher;
-            if (state.getIndent() < 4) {
+            if (state.getIndent() < 4 && (c == '`' || c == '~')) {
+                BasedSequence line = state.getLine();
                 BasedSequence trySequence = line.subSequence(nextNonSpace, line.length());
                 if ((matcher = OPENING_FENCE.matcher(trySequence)).find()) {
                     int fenceLength = matcher.group(0).length();
@@ -152,6 +152,12 @@ public class HeadingParser extends AbstractBlockParser {
                 }
             }
 
+            // only ATX or setext heading markers can start a heading
+            char c = state.getNextNonSpaceChar();
+            if (c != '#' && c != '=' && c != '-') {
+                return BlockStart.none();
+            }
+
             BasedSequence line = state.getLine();
             int nextNonSpace = state.getNextNonSpaceIndex();
             BasedSequence paragraph = matchedBlockParser.getParagraphContent();
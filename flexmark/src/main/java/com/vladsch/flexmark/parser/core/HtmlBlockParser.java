@@ -280,7 +280,7 @@ public class HtmlBlockParser extends AbstractBlockParser {
     }
 
     private static class BlockFactory extends AbstractBlockParserFactory {
-        private Patterns myPatterns = null;
+        final private @Nullable Patterns myPatterns;
         final private boolean myHtmlCommentBlocksInterruptParagraph;
         final private boolean myHtmlBlockDeepParser;
         final private boolean myHtmlBlockDeepParseNonBlock;
@@ -296,14 +296,17 @@ public class HtmlBlockParser extends AbstractBlockParser {
             this.myHtmlBlockDeepParseFirstOpenTagOnOneLine = Parser.HTML_BLOCK_DEEP_PARSE_FIRST_OPEN_TAG_ON_ONE_LINE.get(options);
             this.myHtmlBlockCommentOnlyFullLine = Parser.HTML_BLOCK_COMMENT_ONLY_FULL_LINE.get(options);
             this.myHtmlBlockStartOnlyOnBlockTags = Parser.HTML_BLOCK_START_ONLY_ON_BLOCK_TAGS.get(options);
+
+            // factory is shared by all documents of the parser, patterns depend only on parser options
+            this.myPatterns = myHtmlBlockDeepParser ? null : new Patterns(new Parsing(options), options);
         }
 
         @Override
         public BlockStart tryStart(ParserState state, MatchedBlockParser matchedBlockParser) {
             int nextNonSpace = state.getNextNonSpaceIndex();
-            BasedSequence line = state.getLine();
 
-            if (state.getIndent() < 4 && line.charAt(nextNonSpace) == '<' && !(matchedBlockParser.getBlockParser() instanceof HtmlBlockParser)) {
+            if (state.getIndent() < 4 && state.getNextNonSpaceChar() == '<' && !(matchedBlockParser.getBlockParser() instanceof HtmlBlockParser)) {
+                BasedSequence line = state.getLine();
                 if (myHtmlBlockDeepParser) {
                     HtmlDeepParser deepParser = new HtmlDeepParser(Parser.HTML_BLOCK_TAGS.get(state.getProperties()));
                     deepParser.parseHtmlChunk(line.subSequence(nextNonSpace, line.length()), myHtmlBlockStartOnlyOnBlockTags, myHtmlBlockDeepParseNonBlock, myHtmlBlockDeepParseFirstOpenTagOnOneLine);
@@ -323,9 +326,7 @@ public class HtmlBlockParser extends AbstractBlockParser {
                             continue;
                         }
 
-                        if (myPatterns == null) {
-                            myPatterns = new Patterns(state.getParsing(), state.getProperties());
-                        }
+                        assert myPatterns != null;
 
                         Pattern opener = myPatterns.BLOCK_PATTERNS[blockType][0];
                         Pattern closer = myPatterns.BLOCK_PATTERNS[blockType][1];
@@ -289,6 +289,11 @@ public class ListBlockParser extends AbstractBlockParser {
 
     static ListData parseListMarker(ListOptions options, int newItemCodeIndent, ParserState state) {
         Parsing parsing = state.getParsing();
+        char markerChar = state.getNextNonSpaceChar();
+        if (parsing.itemPrefixChars.indexOf(markerChar) == -1 && (markerChar < '0' || markerChar > '9')) {
+            return null;
+        }
+
         BasedSequence line = state.getLine();
         int markerIndex = state.getNextNonSpaceIndex();
         int markerColumn = state.getColumn() + state.getIndent();
@@ -94,6 +94,10 @@ public class ThematicBreakParser extends AbstractBlockParser {
             if (state.getIndent() >= 4 || matchedBlockParser.getBlockParser().isParagraphParser() && !options.relaxedStart) {
                 return BlockStart.none();
             }
+            char c = state.getNextNonSpaceChar();
+            if (c != '*' && c != '_' && c != '-') {
+                return BlockStart.none();
+            }
             BasedSequence line = state.getLine();
             final BasedSequence input = line.subSequence(state.getNextNonSpaceIndex(), line.length());
             if (PATTERN.matcher(input).matches()) {
@@ -49,6 +49,11 @@ public abstract class EmphasisDelimiterProcessor implements DelimiterProcessor {
         return false;
     }
 
+    @Override
+    public boolean isParallelSafe() {
+        return true;
+    }
+
     @Override
     public Node unmatchedDelimiterNode(InlineParser inlineParser, DelimiterRun delimiter) {
         return null;
@@ -1,6 +1,7 @@
 package com.vladsch.flexmark.parser.delimiter;
 
 import com.vladsch.flexmark.parser.InlineParser;
+import com.vladsch.flexmark.parser.Parser;
 import com.vladsch.flexmark.parser.core.delimiter.Delimiter;
 import com.vladsch.flexmark.util.ast.Node;
 
@@ -97,4 +98,14 @@ public interface DelimiterProcessor {
      * @return true if to skip
      */
     boolean skipNonOpenerCloser();
+
+    /**
+     * Whether the processor does not use or change state shared by blocks of the document, inlines are parsed
+     * serially with {@link Parser#PARALLEL_INLINE_PARSING} unless all delimiter processors are parallel safe
+     *
+     * @return true if blocks can be parsed concurrently
+     */
+    default boolean isParallelSafe() {
+        return false;
+    }
 }
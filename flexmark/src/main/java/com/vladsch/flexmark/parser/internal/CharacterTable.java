@@ -0,0 +1,69 @@
+package com.vladsch.flexmark.parser.internal;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable char keyed lookup table for per character dispatch in the inline parser
+ * <p>
+ * ASCII characters are looked up in a dense array, others by binary search of sorted keys,
+ * neither boxes the character.
+ *
+ * @param <T> type of value
+ */
+final class CharacterTable<T> {
+    final static int DENSE_SIZE = 128;
+
+    final private Object[] dense;
+    final private char[] sparseKeys;
+    final private Object[] sparseValues;
+
+    <S> CharacterTable(@NotNull Map<Character, S> map, @NotNull Function<? super S, ? extends T> valueMapper) {
+        dense = new Object[DENSE_SIZE];
+
+        int sparseCount = 0;
+        for (Character c : map.keySet()) {
+            if (c >= DENSE_SIZE) sparseCount++;
+        }
+
+        char[] keys = new char[sparseCount];
+        int i = 0;
+        for (Character c : map.keySet()) {
+            if (c >= DENSE_SIZE) keys[i++] = c;
+        }
+        Arrays.sort(keys);
+
+        sparseKeys = keys;
+        sparseValues = new Object[sparseCount];
+
+        for (Map.Entry<Character, S> entry : map.entrySet()) {
+            char c = entry.getKey();
+            T value = valueMapper.apply(entry.getValue());
+            if (c < DENSE_SIZE) {
+                dense[c] = value;
+            } else {
+                sparseValues[Arrays.binarySearch(sparseKeys, c)] = value;
+            }
+        }
+    }
+
+    CharacterTable(@NotNull Map<Character, ? extends T> map) {
+        this(map, Function.identity());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    T get(char c) {
+        if (c < DENSE_SIZE) {
+            return (T) dense[c];
+        }
+
+        if (sparseKeys.length == 0) return null;
+        int index = Arrays.binarySearch(sparseKeys, c);
+        return index >= 0 ? (T) sparseValues[index] : null;
+    }
+}
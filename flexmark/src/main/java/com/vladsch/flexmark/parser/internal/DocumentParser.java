@@ -3,9 +3,12 @@ package com.vladsch.flexmark.parser.internal;
 import com.vladsch.flexmark.ast.Paragraph;
 import com.vladsch.flexmark.ast.util.ClassifyingBlockTracker;
 import com.vladsch.flexmark.ast.util.Parsing;
+import com.vladsch.flexmark.instrumentation.AllocationCounter;
+import com.vladsch.flexmark.instrumentation.HandlerTimings;
 import com.vladsch.flexmark.parser.InlineParser;
 import com.vladsch.flexmark.parser.InlineParserFactory;
 import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.parser.ParserListener;
 import com.vladsch.flexmark.parser.block.*;
 import com.vladsch.flexmark.parser.core.*;
 import com.vladsch.flexmark.util.ast.*;
@@ -17,13 +20,20 @@ import com.vladsch.flexmark.util.data.MutableDataHolder;
 import com.vladsch.flexmark.util.dependency.DependencyResolver;
 import com.vladsch.flexmark.util.misc.CharPredicate;
 import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.ChunkedSubSequence;
 import com.vladsch.flexmark.util.sequence.PrefixedSubSequence;
+import com.vladsch.flexmark.util.sequence.SequenceUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static com.vladsch.flexmark.parser.Parser.BLANK_LINES_IN_AST;
 import static com.vladsch.flexmark.parser.Parser.TRACK_DOCUMENT_LINES;
@@ -64,6 +74,10 @@ public class DocumentParser implements ParserState {
 //        //CORE_BLOCK_PRE_PROCESSORS.put(Parser.REFERENCE_PARAGRAPH_PRE_PROCESSOR, new ReferencePreProcessorFactory());
 //    }
 
+    /**
+     * input being parsed, line sequences are created from it only when requested
+     */
+    private BasedSequence input = BasedSequence.NULL;
     private BasedSequence line;
     private BasedSequence lineWithEOL;
 
@@ -115,6 +129,10 @@ public class DocumentParser implements ParserState {
     final private DocumentBlockParser documentBlockParser;
     final private boolean blankLinesInAst;
     final private boolean trackDocumentLines;
+    final private @Nullable Supplier<InlineParser> inlineParserSupplier;
+    final private int parallelInlineParsingBatchSize;
+    final private LinkedBlockingQueue<InlineParser> idleInlineParsers = new LinkedBlockingQueue<>();
+    final private List<InlineParser> workerInlineParsers = new ArrayList<>();
     final private List<BasedSequence> lineSegments = new ArrayList<>();
     final private List<BlockParser> activeBlockParsers = new ArrayList<>();
     final private ClassifyingBlockTracker blockTracker = new ClassifyingBlockTracker();
@@ -166,6 +184,12 @@ public class DocumentParser implements ParserState {
     }
 
     final private Parsing myParsing;
+    private @Nullable Consumer<Block> closedBlockConsumer;
+
+    final private @Nullable ParserListener listener;
+    final private @Nullable HandlerTimings handlerTimings;
+    private long phaseStartNanos;
+    private long phaseStartAllocatedBytes;
 
     public DocumentParser(
             DataHolder options,
@@ -174,14 +198,53 @@ public class DocumentParser implements ParserState {
             List<List<BlockPreProcessorFactory>> blockPreProcessorDependencies,
             InlineParser inlineParser
     ) {
-        this.options = options;
-        this.myParsing = inlineParser.getParsing();
+        this(options, inlineParser, createBlockParserFactories(options, customBlockParserFactories), paragraphPreProcessorDependencies, blockPreProcessorDependencies);
+    }
 
-        ArrayList<BlockParserFactory> blockParserFactories = new ArrayList<>(customBlockParserFactories.size());
-        for (CustomBlockParserFactory factory : customBlockParserFactories) {
-            blockParserFactories.add(factory.apply(options));
-        }
+    /**
+     * Create a document parser using block parser factories already created for the options
+     * <p>
+     * Block parser factories only depend on parser options so the same instances can be shared by all
+     * document parsers created for these options.
+     *
+     * @param options                           parser options
+     * @param inlineParser                      inline parser to use, will be initialized for the parsed document
+     * @param blockParserFactories              block parser factories, see {@link #createBlockParserFactories(DataHolder, List)}
+     * @param paragraphPreProcessorDependencies paragraph pre-processor dependency stages
+     * @param blockPreProcessorDependencies     block pre-processor dependency stages
+     */
+    public DocumentParser(
+            DataHolder options,
+            InlineParser inlineParser,
+            List<BlockParserFactory> blockParserFactories,
+            List<List<ParagraphPreProcessorFactory>> paragraphPreProcessorDependencies,
+            List<List<BlockPreProcessorFactory>> blockPreProcessorDependencies
+    ) {
+        this(options, inlineParser, null, blockParserFactories, paragraphPreProcessorDependencies, blockPreProcessorDependencies);
+    }
 
+    /**
+     * Create a document parser using block parser factories already created for the options
+     *
+     * @param options                           parser options
+     * @param inlineParser                      inline parser to use, will be initialized for the parsed document
+     * @param inlineParserSupplier              supplier of additional inline parsers for {@link Parser#PARALLEL_INLINE_PARSING}, null to parse inlines serially
+     * @param blockParserFactories              block parser factories, see {@link #createBlockParserFactories(DataHolder, List)}
+     * @param paragraphPreProcessorDependencies paragraph pre-processor dependency stages
+     * @param blockPreProcessorDependencies     block pre-processor dependency stages
+     */
+    public DocumentParser(
+            DataHolder options,
+            InlineParser inlineParser,
+            @Nullable Supplier<InlineParser> inlineParserSupplier,
+            List<BlockParserFactory> blockParserFactories,
+            List<List<ParagraphPreProcessorFactory>> paragraphPreProcessorDependencies,
+            List<List<BlockPreProcessorFactory>> blockPreProcessorDependencies
+    ) {
+        this.options = options;
+        this.inlineParserSupplier = Parser.PARALLEL_INLINE_PARSING.get(options) ? inlineParserSupplier : null;
+        this.parallelInlineParsingBatchSize = Math.max(1, Parser.PARALLEL_INLINE_PARSING_BATCH_SIZE.get(options));
+        this.myParsing = inlineParser.getParsing();
         this.blockParserFactories = blockParserFactories;
         this.paragraphPreProcessorDependencies = paragraphPreProcessorDependencies;
         this.blockPreProcessorDependencies = blockPreProcessorDependencies;
@@ -192,6 +255,32 @@ public class DocumentParser implements ParserState {
         this.currentPhase = ParserPhase.STARTING;
         this.blankLinesInAst = BLANK_LINES_IN_AST.get(options);
         this.trackDocumentLines = TRACK_DOCUMENT_LINES.get(options);
+        this.listener = Parser.PARSER_LISTENER.get(options);
+        this.handlerTimings = listener != null ? new HandlerTimings() : null;
+    }
+
+    /**
+     * Set current phase, reporting end of the previous phase and start of the new one to the listener
+     *
+     * @param phase new phase
+     */
+    private void startPhase(ParserPhase phase) {
+        if (listener != null) {
+            Document document = documentBlockParser.getBlock();
+            if (currentPhase != ParserPhase.STARTING) {
+                listener.phaseFinished(document, currentPhase, System.nanoTime() - phaseStartNanos, AllocationCounter.allocatedSince(phaseStartAllocatedBytes));
+            }
+
+            if (phase != ParserPhase.DONE) {
+                listener.phaseStarted(document, phase);
+                phaseStartAllocatedBytes = AllocationCounter.currentThreadAllocatedBytes();
+                phaseStartNanos = System.nanoTime();
+            } else if (handlerTimings != null && !handlerTimings.isEmpty()) {
+                listener.handlerTimings(document, handlerTimings);
+            }
+        }
+
+        currentPhase = phase;
     }
 
     @Override
@@ -218,6 +307,14 @@ public class DocumentParser implements ParserState {
         return DependencyResolver.resolveFlatDependencies(list, null, null);
     }
 
+    public static List<BlockParserFactory> createBlockParserFactories(DataHolder options, List<CustomBlockParserFactory> customBlockParserFactories) {
+        ArrayList<BlockParserFactory> blockParserFactories = new ArrayList<>(customBlockParserFactories.size());
+        for (CustomBlockParserFactory factory : customBlockParserFactories) {
+            blockParserFactories.add(factory.apply(options));
+        }
+        return blockParserFactories;
+    }
+
     public static List<List<ParagraphPreProcessorFactory>> calculateParagraphPreProcessors(
             DataHolder options,
             List<ParagraphPreProcessorFactory> blockPreProcessors,
@@ -273,65 +370,103 @@ public class DocumentParser implements ParserState {
         BasedSequence input = BasedSequence.of(source);
         int lineStart = 0;
         int lineBreak;
-        int lineEOL;
-        int lineEnd;
         lineNumber = 0;
 
         documentBlockParser.initializeDocument(options, input);
         inlineParser.initializeDocument(documentBlockParser.getBlock());
 
-        currentPhase = ParserPhase.PARSE_BLOCKS;
+        startPhase(ParserPhase.PARSE_BLOCKS);
 
         while ((lineBreak = Parsing.findLineBreak(input, lineStart)) != -1) {
-            BasedSequence line = input.subSequence(lineStart, lineBreak);
-            lineEOL = lineBreak;
-            if (lineBreak + 1 < input.length() && input.charAt(lineBreak) == '\r' && input.charAt(lineBreak + 1) == '\n') {
-                lineEnd = lineBreak + 2;
-            } else {
-                lineEnd = lineBreak + 1;
-            }
-
-            this.lineWithEOL = input.subSequence(lineStart, lineEnd);
-            this.lineStart = lineStart;
-            this.lineEOLIndex = lineEOL;
-            this.lineEndIndex = lineEnd;
-            incorporateLine(line);
-            lineNumber++;
-            lineStart = lineEnd;
+            lineStart = incorporateLine(input, lineStart, lineBreak);
         }
 
-        if (input.length() > 0 && (lineStart == 0 || lineStart < input.length())) {
-            this.lineWithEOL = input.subSequence(lineStart, input.length());
-            this.lineStart = lineStart;
-            this.lineEOLIndex = input.length();
-            this.lineEndIndex = this.lineEOLIndex;
-            incorporateLine(lineWithEOL);
-            lineNumber++;
+        incorporateLastLine(input, lineStart);
+        return finalizeAndProcess();
+    }
+
+    public Document parse(Reader input) throws IOException {
+        return parse(input, null);
+    }
+
+    /**
+     * Parse input from a reader, block parsing each line as soon as it is read instead of reading the whole
+     * input first.
+     * <p>
+     * Top level blocks are passed to the consumer as they are closed during block parsing, in document order.
+     * At that point the block's structure is complete but paragraph pre-processing, inline parsing
+     * and post-processing are only done after the end of input is reached, since a reference can be defined anywhere
+     * in the document, so paragraphs can still be changed or removed by these steps.
+     *
+     * @param input                reader to parse
+     * @param closedBlockConsumer  consumer of closed top level blocks or null
+     * @return Document node of the resulting AST
+     * @throws IOException if thrown by the reader
+     */
+    public Document parse(Reader input, @Nullable Consumer<Block> closedBlockConsumer) throws IOException {
+        ChunkedSubSequence source = ChunkedSubSequence.create();
+        int lineStart = 0;
+        int searchStart = 0;
+        int lineBreak;
+        lineNumber = 0;
+
+        this.closedBlockConsumer = closedBlockConsumer;
+        documentBlockParser.initializeDocument(options, source);
+        inlineParser.initializeDocument(documentBlockParser.getBlock());
+
+        startPhase(ParserPhase.PARSE_BLOCKS);
+
+        while (true) {
+            lineBreak = Parsing.findLineBreak(source, searchStart);
+
+            if (!source.isComplete()) {
+                // need the full EOL before a line can be processed, a trailing \r could be followed by \n
+                if (lineBreak == -1) {
+                    searchStart = source.length();
+                    source.read(input);
+                    continue;
+                } else if (lineBreak + 1 == source.length() && source.charAt(lineBreak) == '\r') {
+                    searchStart = lineBreak;
+                    source.read(input);
+                    continue;
+                }
+            }
+
+            if (lineBreak == -1) break;
+            lineStart = incorporateLine(source, lineStart, lineBreak);
+            searchStart = lineStart;
         }
 
+        incorporateLastLine(source, lineStart);
         return finalizeAndProcess();
     }
 
-    public Document parse(Reader input) throws IOException {
-        BufferedReader bufferedReader;
-        if (input instanceof BufferedReader) {
-            bufferedReader = (BufferedReader) input;
+    private int incorporateLine(BasedSequence input, int lineStart, int lineBreak) {
+        int lineEnd;
+        if (lineBreak + 1 < input.length() && input.charAt(lineBreak) == '\r' && input.charAt(lineBreak + 1) == '\n') {
+            lineEnd = lineBreak + 2;
         } else {
-            bufferedReader = new BufferedReader(input);
+            lineEnd = lineBreak + 1;
         }
 
-        StringBuilder file = new StringBuilder();
-        char[] buffer = new char[16384];
+        this.input = input;
+        this.lineStart = lineStart;
+        this.lineEOLIndex = lineBreak;
+        this.lineEndIndex = lineEnd;
+        incorporateLine();
+        lineNumber++;
+        return lineEnd;
+    }
 
-        while (true) {
-            int charsRead = bufferedReader.read(buffer);
-            // issue #91
-            if (charsRead < 0) break;
-            file.append(buffer, 0, charsRead);
+    private void incorporateLastLine(BasedSequence input, int lineStart) {
+        if (input.length() > 0 && (lineStart == 0 || lineStart < input.length())) {
+            this.input = input;
+            this.lineStart = lineStart;
+            this.lineEOLIndex = input.length();
+            this.lineEndIndex = this.lineEOLIndex;
+            incorporateLine();
+            lineNumber++;
         }
-
-        CharSequence source = BasedSequence.of(file.toString());
-        return parse(source);
     }
 
     @Override
@@ -350,14 +485,35 @@ public class DocumentParser implements ParserState {
 
     @Override
     public BasedSequence getLine() {
+        if (line == null) {
+            line = lineEOLIndex == lineEndIndex ? getLineWithEOL() : input.subSequence(lineStart, lineEOLIndex);
+        }
         return line;
     }
 
     @Override
     public BasedSequence getLineWithEOL() {
+        if (lineWithEOL == null) {
+            lineWithEOL = input.subSequence(lineStart, lineEndIndex);
+        }
         return lineWithEOL;
     }
 
+    @Override
+    public int getLineLength() {
+        return lineEOLIndex - lineStart;
+    }
+
+    @Override
+    public char getLineChar(int index) {
+        return index >= 0 && index < lineEOLIndex - lineStart ? input.charAt(lineStart + index) : SequenceUtils.NUL;
+    }
+
+    @Override
+    public char getNextNonSpaceChar() {
+        return getLineChar(nextNonSpace);
+    }
+
     @Override
     public int getLineEolLength() {
         return lineEndIndex - lineEOLIndex;
@@ -412,17 +568,18 @@ public class DocumentParser implements ParserState {
     /**
      * Analyze a line of text and update the document appropriately. We parse markdown text by calling this on each
      * line of input, then finalizing the document.
-     *
-     * @param ln sequence of the current line
+     * <p>
+     * Line sequences are only created when a block parser asks for them or the line is added to a block
      */
-    private void incorporateLine(BasedSequence ln) {
-        line = ln;
+    private void incorporateLine() {
+        line = null;
+        lineWithEOL = null;
         index = 0;
         column = 0;
         columnIsInTab = false;
 
         // track lines of document
-        if (trackDocumentLines) lineSegments.add(lineWithEOL);
+        if (trackDocumentLines) lineSegments.add(getLineWithEOL());
 
         // For each containing block, try to parse the associated line start.
         // Bail out on failure: container will point to the last matching block.
@@ -436,12 +593,14 @@ public class DocumentParser implements ParserState {
         if (blank) {
             if (blankLinesInAst) {
                 // line was blank
-                blankLine = new BlankLine(lineWithEOL);
+                blankLine = new BlankLine(getLineWithEOL());
                 documentBlockParser.getBlock().appendChild(blankLine);
             }
         }
 
-        for (BlockParser blockParser : activeBlockParsers.subList(1, activeBlockParsers.size())) {
+        int iMax = activeBlockParsers.size();
+        for (int i = 1; i < iMax; i++) {
+            BlockParser blockParser = activeBlockParsers.get(i);
             boolean wasBlank = blank;
 
             findNextNonSpace();
@@ -450,7 +609,7 @@ public class DocumentParser implements ParserState {
                 if (blankLinesInAst) {
                     if (blankLine == null) {
                         // line became blank
-                        blankLine = new BlankLine(lineWithEOL);
+                        blankLine = new BlankLine(getLineWithEOL());
                         documentBlockParser.getBlock().appendChild(blankLine);
                     }
 
@@ -475,7 +634,7 @@ public class DocumentParser implements ParserState {
                         if (!blank && blockParser.getBlock() instanceof BlankLineContainer) {
                             findNextNonSpace();
                             if (blank) {
-                                blankLine = new BlankLine(lineWithEOL, blockParser.getBlock());
+                                blankLine = new BlankLine(getLineWithEOL(), blockParser.getBlock());
                                 blockParser.getBlock().appendChild(blankLine);
                             }
                         }
@@ -484,7 +643,7 @@ public class DocumentParser implements ParserState {
                         if (!blank && blockParser.getBlock() instanceof BlankLineContainer) {
                             findNextNonSpace();
                             if (blank) {
-                                blankLine = new BlankLine(lineWithEOL, blockParser.getBlock());
+                                blankLine = new BlankLine(getLineWithEOL(), blockParser.getBlock());
                                 blockParser.getBlock().appendChild(blankLine);
                             }
                         }
@@ -502,10 +661,10 @@ public class DocumentParser implements ParserState {
             }
         }
 
-        List<BlockParser> unmatchedBlockParsers = new ArrayList<>(activeBlockParsers.subList(matches, activeBlockParsers.size()));
+        boolean allClosed = matches == activeBlockParsers.size();
+        List<BlockParser> unmatchedBlockParsers = allClosed ? Collections.emptyList() : new ArrayList<>(activeBlockParsers.subList(matches, activeBlockParsers.size()));
         BlockParser lastMatchedBlockParser = activeBlockParsers.get(matches - 1);
         BlockParser blockParser = lastMatchedBlockParser;
-        boolean allClosed = unmatchedBlockParsers.isEmpty();
 
         // Check to see if we've hit 2nd blank line; if so break out of list or any other block type that handles this
         if (blank && isLastLineBlank(blockParser.getBlock())) {
@@ -525,7 +684,7 @@ public class DocumentParser implements ParserState {
             if (blank && !wasBlank) lastPrefixClaimer = blockParser;
 
             // this is a little performance optimization:
-            if (blank || (indent < myParsing.CODE_BLOCK_INDENT && Parsing.isLetter(line, nextNonSpace))) {
+            if (blank || (indent < myParsing.CODE_BLOCK_INDENT && Character.isLetter(Character.codePointAt(input, lineStart + nextNonSpace)))) {
                 setNewIndex(nextNonSpace);
                 break;
             }
@@ -579,7 +738,7 @@ public class DocumentParser implements ParserState {
                     } else {
                         if (blockParser.isContainer() && lastPrefixClaimer == blockParser) {
                             // need to add it as a blank line if it is attributable to the block, otherwise there is no content
-                            blankLine = new BlankLine(lineWithEOL, blockParser.getBlock());
+                            blankLine = new BlankLine(getLineWithEOL(), blockParser.getBlock());
                             blockParser.getBlock().appendChild(blankLine);
                         }
                     }
@@ -600,9 +759,11 @@ public class DocumentParser implements ParserState {
         int i = index;
         int cols = column;
 
+        int lineLength = lineEOLIndex - lineStart;
+
         blank = true;
-        while (i < line.length()) {
-            char c = line.charAt(i);
+        while (i < lineLength) {
+            char c = input.charAt(lineStart + i);
             switch (c) {
                 case ' ':
                     i++;
@@ -628,7 +789,7 @@ public class DocumentParser implements ParserState {
             index = nextNonSpace;
             column = nextNonSpaceColumn;
         }
-        while (index < newIndex && index != line.length()) {
+        while (index < newIndex && index != lineEOLIndex - lineStart) {
             advance();
         }
         // If we're going to an index as opposed to a column, we're never within a tab
@@ -641,7 +802,7 @@ public class DocumentParser implements ParserState {
             index = nextNonSpace;
             column = nextNonSpaceColumn;
         }
-        while (column < newColumn && index != line.length()) {
+        while (column < newColumn && index != lineEOLIndex - lineStart) {
             advance();
         }
         if (column > newColumn) {
@@ -655,7 +816,7 @@ public class DocumentParser implements ParserState {
     }
 
     private void advance() {
-        char c = line.charAt(index);
+        char c = input.charAt(lineStart + index);
         if (c == '\t') {
             index++;
             column += Parsing.columnsToNextTabStop(column);
@@ -670,10 +831,10 @@ public class DocumentParser implements ParserState {
      * calling this.
      */
     private void addLine() {
-        BasedSequence content = lineWithEOL.subSequence(index);
+        BasedSequence content;
         if (columnIsInTab) {
             // Our column is in a partially consumed tab. Expand the remaining columns (to the next tab stop) to spaces.
-            BasedSequence rest = content.subSequence(1);
+            BasedSequence rest = input.subSequence(lineStart + index + 1, lineEndIndex);
             int spaces = Parsing.columnsToNextTabStop(column);
             StringBuilder sb = new StringBuilder(spaces + rest.length());
             for (int i = 0; i < spaces; i++) {
@@ -681,6 +842,8 @@ public class DocumentParser implements ParserState {
             }
             //sb.append(rest);
             content = PrefixedSubSequence.prefixOf(sb.toString(), rest);
+        } else {
+            content = input.subSequence(lineStart + index, lineEndIndex);
         }
 
         //getActiveBlockParser().addLine(content, content.baseSubSequence(lineEOL, lineEnd));
@@ -692,7 +855,17 @@ public class DocumentParser implements ParserState {
         MatchedBlockParser matchedBlockParser = new MatchedBlockParserImpl(blockParser);
         for (BlockParserFactory blockParserFactory : blockParserFactories) {
             if (blockParser.canInterruptBy(blockParserFactory)) {
-                BlockStart result = blockParserFactory.tryStart(this, matchedBlockParser);
+                BlockStart result;
+                if (handlerTimings != null) {
+                    long start = handlerTimings.start();
+                    try {
+                        result = blockParserFactory.tryStart(this, matchedBlockParser);
+                    } finally {
+                        handlerTimings.stop(blockParserFactory.getClass(), start);
+                    }
+                } else {
+                    result = blockParserFactory.tryStart(this, matchedBlockParser);
+                }
                 if (result instanceof BlockStartImpl) {
                     return (BlockStartImpl) result;
                 }
@@ -740,17 +913,118 @@ public class DocumentParser implements ParserState {
                 break;
             }
         }
+
+        if (closedBlockConsumer != null && block.getParent() instanceof Document) {
+            closedBlockConsumer.accept(block);
+        }
     }
 
     /**
      * Walk through a block & children recursively, parsing string content into inline content where appropriate.
      */
     private void processInlines() {
+        if (inlineParserSupplier != null) {
+            List<BlockParser> blockParsers = new ArrayList<>(blockTracker.allBlockParsers());
+            if (blockParsers.size() > parallelInlineParsingBatchSize) {
+                processInlinesParallel(blockParsers);
+                return;
+            }
+        }
+
         for (BlockParser blockParser : blockTracker.allBlockParsers()) {
             blockParser.parseInlines(inlineParser);
         }
     }
 
+    /**
+     * Parse inlines of blocks in batches on a fork join pool. Once reference definitions are collected each block's inline
+     * content is independent of other blocks, so the result is the same as for serial parsing.
+     * <p>
+     * Inline parsers for workers are created and initialized before parsing starts so that document properties computed
+     * during initialization are not modified while other workers are parsing. One parser is created for each task that
+     * can run at the same time: pool parallelism and the calling thread, which can help with tasks. A task which finds
+     * no idle parser, because the pool added compensating threads, waits for one to be released.
+     *
+     * @param blockParsers block parsers of the document
+     */
+    private void processInlinesParallel(List<BlockParser> blockParsers) {
+        ForkJoinPool pool = Parser.PARALLEL_INLINE_PARSING_POOL.get(options);
+        if (pool == null) pool = ForkJoinPool.commonPool();
+
+        int batches = (blockParsers.size() + parallelInlineParsingBatchSize - 1) / parallelInlineParsingBatchSize;
+        int workers = Math.min(pool.getParallelism() + 1, batches);
+
+        idleInlineParsers.add(inlineParser);
+        for (int i = 1; i < workers; i++) {
+            idleInlineParsers.add(createWorkerInlineParser());
+        }
+
+        pool.invoke(new InlineParsingTask(blockParsers, 0, blockParsers.size()));
+
+        // main inline parser is finalized with the document
+        Document document = documentBlockParser.getBlock();
+        for (InlineParser parser : workerInlineParsers) {
+            parser.finalizeDocument(document);
+        }
+
+        idleInlineParsers.clear();
+        workerInlineParsers.clear();
+    }
+
+    private InlineParser createWorkerInlineParser() {
+        assert inlineParserSupplier != null;
+
+        InlineParser parser = inlineParserSupplier.get();
+        parser.initializeDocument(documentBlockParser.getBlock());
+        workerInlineParsers.add(parser);
+        return parser;
+    }
+
+    private InlineParser takeIdleInlineParser() {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return idleInlineParsers.take();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    private class InlineParsingTask extends RecursiveAction {
+        final private List<BlockParser> blockParsers;
+        final private int startIndex;
+        final private int endIndex;
+
+        InlineParsingTask(List<BlockParser> blockParsers, int startIndex, int endIndex) {
+            this.blockParsers = blockParsers;
+            this.startIndex = startIndex;
+            this.endIndex = endIndex;
+        }
+
+        @Override
+        protected void compute() {
+            if (endIndex - startIndex > parallelInlineParsingBatchSize) {
+                int midIndex = (startIndex + endIndex) >>> 1;
+                invokeAll(new InlineParsingTask(blockParsers, startIndex, midIndex), new InlineParsingTask(blockParsers, midIndex, endIndex));
+            } else {
+                InlineParser parser = takeIdleInlineParser();
+
+                try {
+                    for (int i = startIndex; i < endIndex; i++) {
+                        blockParsers.get(i).parseInlines(parser);
+                    }
+                } finally {
+                    idleInlineParsers.add(parser);
+                }
+            }
+        }
+    }
+
     @Override
     public boolean endsWithBlankLine(Node block) {
         while (block != null) {
@@ -884,7 +1158,17 @@ public class DocumentParser implements ParserState {
             for (ParagraphPreProcessorFactory factory : stage) {
                 ParagraphPreProcessor processor = processorMap.getItem(factory);
 
-                int pos = processor.preProcessBlock(block, this);
+                int pos;
+                if (handlerTimings != null) {
+                    long start = handlerTimings.start();
+                    try {
+                        pos = processor.preProcessBlock(block, this);
+                    } finally {
+                        handlerTimings.stop(processor.getClass(), start);
+                    }
+                } else {
+                    pos = processor.preProcessBlock(block, this);
+                }
 
                 if (pos > 0) {
                     hadChanges = true;
@@ -969,7 +1253,16 @@ public class DocumentParser implements ParserState {
                     BlockPreProcessor blockPreProcessor = factory.apply(this);
 
                     for (Block block : blockList) {
-                        blockPreProcessor.preProcess(this, block);
+                        if (handlerTimings != null) {
+                            long start = handlerTimings.start();
+                            try {
+                                blockPreProcessor.preProcess(this, block);
+                            } finally {
+                                handlerTimings.stop(blockPreProcessor.getClass(), start);
+                            }
+                        } else {
+                            blockPreProcessor.preProcess(this, block);
+                        }
                     }
                 }
             }
@@ -986,14 +1279,14 @@ public class DocumentParser implements ParserState {
         //}
 
         // need to run block pre-processors at this point, before inline processing
-        currentPhase = ParserPhase.PRE_PROCESS_PARAGRAPHS;
+        startPhase(ParserPhase.PRE_PROCESS_PARAGRAPHS);
         this.preProcessParagraphs();
 
         //if (LOG.isDebugEnabled()) {
         //    LOG.debug("Paragraphs PreProcessed\n" + new AstCollectingVisitor().collectAndGetAstText(documentBlockParser.getBlock()));
         //}
 
-        currentPhase = ParserPhase.PRE_PROCESS_BLOCKS;
+        startPhase(ParserPhase.PRE_PROCESS_BLOCKS);
         this.preProcessBlocks();
 
         //if (LOG.isDebugEnabled()) {
@@ -1001,14 +1294,14 @@ public class DocumentParser implements ParserState {
         //}
 
         // can naw run inline processing
-        currentPhase = ParserPhase.PARSE_INLINES;
+        startPhase(ParserPhase.PARSE_INLINES);
         this.processInlines();
 
         //if (LOG.isDebugEnabled()) {
         //    LOG.debug("Inline Processed\n" + new AstCollectingVisitor().collectAndGetAstText(documentBlockParser.getBlock()));
         //}
 
-        currentPhase = ParserPhase.DONE;
+        startPhase(ParserPhase.DONE);
         Document document = this.documentBlockParser.getBlock();
         inlineParser.finalizeDocument(document);
 
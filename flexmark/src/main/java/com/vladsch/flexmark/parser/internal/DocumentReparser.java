@@ -0,0 +1,489 @@
+package com.vladsch.flexmark.parser.internal;
+
+import com.vladsch.flexmark.ast.util.Parsing;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.parser.TextEdit;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.ast.NodeRepository;
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.data.DataKey;
+import com.vladsch.flexmark.util.data.MutableDataHolder;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import com.vladsch.flexmark.util.sequence.BasedSequence;
+import com.vladsch.flexmark.util.sequence.MappedBasedSequence;
+import com.vladsch.flexmark.util.sequence.Range;
+import com.vladsch.flexmark.util.sequence.ReplacedBasedSequence;
+import com.vladsch.flexmark.util.sequence.builder.BasedSegmentBuilder;
+import com.vladsch.flexmark.util.sequence.builder.SequenceBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Incremental re-parsing of top level blocks affected by a text edit, see {@link Parser#reparse(Document, TextEdit)}
+ * <p>
+ * A top level block starts with only the document block open, so parsing can restart at the block preceding the edit.
+ * Parsing continues to the end of a guard block following the edit, if the guard block is parsed unchanged at its
+ * shifted offset then following blocks are not affected, otherwise the range is extended and parsed again.
+ * <p>
+ * Definitions in document node repositories are tracked by key. When definitions in the re-parsed range change,
+ * blocks outside the range whose text contains a changed key are re-parsed to update their references. Repositories
+ * with state derived from the whole document, like referenced footnotes, are not tracked and need a full parse.
+ * <p>
+ * Nodes of kept blocks are rebased to the edited text with {@link Node#rebaseSegments(Function)}, kept blocks with
+ * nodes which do not support rebasing are re-parsed. All nodes of the updated document have the same offsets and
+ * base sequence as nodes of a full parse of the edited text.
+ */
+public class DocumentReparser {
+    final private DataHolder options;
+    final private BiFunction<BasedSequence, DataHolder, Document> sliceParser;
+
+    /**
+     * @param options     parser options
+     * @param sliceParser function to parse and post-process a sub-sequence of document text using given options
+     */
+    public DocumentReparser(@NotNull DataHolder options, @NotNull BiFunction<BasedSequence, DataHolder, Document> sliceParser) {
+        this.options = options;
+        this.sliceParser = sliceParser;
+    }
+
+    /**
+     * Re-parse blocks affected by the edit and splice them into the document
+     *
+     * @param document document to update
+     * @param edit     edit of document text
+     * @param text     document text after the edit
+     * @return updated document or null if the edit cannot be handled incrementally and a full parse is needed,
+     *         in which case the document is not modified
+     */
+    public @Nullable Document reparse(@NotNull Document document, @NotNull TextEdit edit, @NotNull BasedSequence text) {
+        BasedSequence previousText = document.getChars();
+        int delta = edit.getDelta();
+
+        ArrayList<Node> blocks = new ArrayList<>();
+        IdentityHashMap<Node, Integer> blockIndices = new IdentityHashMap<>();
+        for (Node child : document.getChildren()) {
+            blockIndices.put(child, blocks.size());
+            blocks.add(child);
+        }
+
+        int iMax = blocks.size();
+        if (iMax == 0) return null;
+
+        ArrayList<NodeRepository<?>> repositories = new ArrayList<>();
+        Set<Node> definitionBlocks = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object value : document.getAll().values()) {
+            if (value instanceof NodeRepository) {
+                NodeRepository<?> repository = (NodeRepository<?>) value;
+                if (repository.hasDerivedState() && !repository.isEmpty()) return null;
+                if (!collectDefinitionBlocks(repository, document, definitionBlocks)) return null;
+                repositories.add(repository);
+            }
+        }
+
+        int first = iMax - 1;
+        for (int i = 0; i < iMax; i++) {
+            if (blocks.get(i).getEndOffset() >= edit.getStartOffset()) {
+                first = i;
+                break;
+            }
+        }
+
+        // preceding block can be merged with edited text
+        first = Math.max(0, first - 1);
+
+        int last = first;
+        while (last + 1 < iMax && blocks.get(last + 1).getStartOffset() <= edit.getEndOffset()) last++;
+
+        int regionStart = first == 0 ? 0 : startOfLine(previousText, blocks.get(first).getStartOffset());
+        int guard = last + 1;
+        int regionLast;
+        Set<Node> region;
+        Document slice;
+
+        while (true) {
+            regionLast = Math.min(guard, iMax - 1);
+            region = Collections.newSetFromMap(new IdentityHashMap<>());
+            region.addAll(blocks.subList(first, regionLast + 1));
+
+            // blank lines following the guard block set trailing blank line state of its nodes
+            int regionEnd = guard < iMax ? skipBlankLines(previousText, endOfLine(previousText, blocks.get(guard).getEndOffset())) : previousText.length();
+            MutableDataSet sliceOptions = new MutableDataSet(options);
+            for (NodeRepository<?> repository : repositories) {
+                seedRepository(repository, sliceOptions, document, region);
+            }
+
+            slice = sliceParser.apply(text.subSequence(regionStart, regionEnd + delta), sliceOptions);
+
+            if (guard >= iMax || isInSync(slice.getLastChild(), blocks.get(guard), blocks.get(guard).getStartOffset() + delta)) break;
+
+            // not in sync, extend the range
+            guard = Math.min(iMax, guard + (guard - first + 1));
+        }
+
+        for (NodeRepository<?> repository : repositories) {
+            if (repository.hasDerivedState() && !repository.getDataKey().get(slice).isEmpty()) return null;
+        }
+
+        // update definitions and find keys which changed
+        HashSet<String> changedKeys = new HashSet<>();
+        ArrayList<NodeRepository<?>> updatedRepositories = new ArrayList<>();
+        for (NodeRepository<?> repository : repositories) {
+            NodeRepository<?> updated = updateRepository(repository, document, slice, blockIndices, first, regionLast, changedKeys);
+            if (updated == null) return null;
+            updatedRepositories.add(updated);
+        }
+
+        MutableDataSet updatedOptions = new MutableDataSet(options);
+        for (NodeRepository<?> repository : updatedRepositories) {
+            setRepository(updatedOptions, repository);
+        }
+
+        // re-parse kept blocks which could reference changed definitions or cannot be rebased to the edited text
+        Object previousBase = previousText.getBase();
+        boolean needsRebase = previousBase != text.getBase();
+        ArrayList<Node> invalidated = new ArrayList<>();
+        ArrayList<Node> replacements = new ArrayList<>();
+        ArrayList<Node> rebased = new ArrayList<>();
+
+        for (int i = 0; i < iMax; i++) {
+            if (i >= first && i <= regionLast) continue;
+
+            Node block = blocks.get(i);
+            boolean isInvalidated = false;
+
+            if (!changedKeys.isEmpty()) {
+                String blockText = normalizeForMatch(block.getChars());
+                for (String key : changedKeys) {
+                    if (blockText.contains(key)) {
+                        isInvalidated = true;
+                        break;
+                    }
+                }
+            }
+
+            if (!isInvalidated) {
+                if (!needsRebase) continue;
+
+                if (canRebase(block)) {
+                    rebased.add(block);
+                    continue;
+                }
+            }
+
+            // block with definitions would change repositories
+            if (definitionBlocks.contains(block)) return null;
+
+            int blockShift = i > regionLast ? delta : 0;
+            int blockStart = startOfLine(text, block.getStartOffset() + blockShift);
+            int blockEnd = endOfLine(text, block.getEndOffset() + blockShift);
+            Document blockSlice = sliceParser.apply(text.subSequence(blockStart, blockEnd), updatedOptions);
+
+            Node replacement = blockSlice.getFirstChild();
+            if (replacement == null || replacement.getNext() != null || replacement.getClass() != block.getClass()) return null;
+
+            invalidated.add(block);
+            replacements.add(replacement);
+        }
+
+        // splice re-parsed blocks into the document
+        Node anchor = blocks.get(first);
+        ArrayList<Node> sliceBlocks = new ArrayList<>();
+        for (Node child : slice.getChildren()) {
+            sliceBlocks.add(child);
+        }
+
+        for (Node child : sliceBlocks) {
+            anchor.insertBefore(child);
+        }
+
+        for (int i = first; i <= regionLast; i++) {
+            blocks.get(i).unlink();
+        }
+
+        int jMax = invalidated.size();
+        for (int j = 0; j < jMax; j++) {
+            Node block = invalidated.get(j);
+            block.insertBefore(replacements.get(j));
+            block.unlink();
+        }
+
+        // rebase kept blocks to the edited text
+        BasedSequence base = text.getBaseSequence();
+        for (Node block : rebased) {
+            rebase(block, previousBase, base, blockIndices.get(block) > regionLast ? delta : 0);
+        }
+
+        for (NodeRepository<?> repository : updatedRepositories) {
+            setRepository(document, repository);
+        }
+
+        if (Parser.TRACK_DOCUMENT_LINES.get(options)) {
+            document.setContent(text, getLineSegments(text));
+        } else {
+            document.setChars(text);
+        }
+
+        return document;
+    }
+
+    /**
+     * Test whether all nodes of the block support rebasing, without modifying them
+     */
+    private static boolean canRebase(@NotNull Node block) {
+        Function<BasedSequence, BasedSequence> identity = Function.identity();
+        if (!block.rebaseSegments(identity)) return false;
+
+        for (Node node : block.getDescendants()) {
+            if (!node.rebaseSegments(identity)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Replace based sequences of the block and its descendants with the same text of the edited document
+     *
+     * @param block        kept block
+     * @param previousBase base sequence of the document before the edit
+     * @param base         base sequence of the document after the edit
+     * @param shift        offset of block text in edited document relative to its offset before the edit
+     */
+    static void rebase(@NotNull Node block, @NotNull Object previousBase, @NotNull BasedSequence base, int shift) {
+        Function<BasedSequence, BasedSequence> rebase = sequence -> rebase(sequence, previousBase, base, shift);
+        block.rebaseSegments(rebase);
+        for (Node node : block.getDescendants()) {
+            node.rebaseSegments(rebase);
+        }
+    }
+
+    private static @NotNull BasedSequence rebase(@NotNull BasedSequence sequence, @NotNull Object previousBase, @NotNull BasedSequence base, int shift) {
+        if (sequence.getBase() != previousBase) return sequence;
+
+        if (sequence instanceof MappedBasedSequence) {
+            MappedBasedSequence mapped = (MappedBasedSequence) sequence;
+            return rebase(mapped.getBaseSequence(), previousBase, base, shift).toMapped(mapped.getCharMapper());
+        }
+
+        if (!(sequence instanceof ReplacedBasedSequence)) {
+            return base.subSequence(sequence.getStartOffset() + shift, sequence.getEndOffset() + shift);
+        }
+
+        // segmented or prefixed, keep out of base text and shift base segments
+        BasedSegmentBuilder segments = BasedSegmentBuilder.emptyBuilder(sequence.getBaseSequence());
+        sequence.addSegments(segments);
+
+        SequenceBuilder builder = SequenceBuilder.emptyBuilder(base);
+        for (Object part : segments) {
+            if (part instanceof Range) {
+                Range range = (Range) part;
+                if (range.isNotNull()) builder.append(range.getStart() + shift, range.getEnd() + shift);
+            } else if (part instanceof CharSequence) {
+                builder.append((CharSequence) part);
+            }
+        }
+        return builder.toSequence();
+    }
+
+    private static boolean isInSync(@Nullable Node node, @NotNull Node guard, int guardStartOffset) {
+        return node != null
+                && node.getClass() == guard.getClass()
+                && node.getStartOffset() == guardStartOffset
+                && node.getChars().equals(guard.getChars());
+    }
+
+    private static @Nullable Node getTopLevelBlock(@NotNull Node node, @NotNull Document document) {
+        Node block = node;
+        while (block.getParent() != null && block.getParent() != document) {
+            block = block.getParent();
+        }
+        return block.getParent() == document ? block : null;
+    }
+
+    private static <T> @NotNull Map<T, String> getKeys(@NotNull NodeRepository<T> repository) {
+        IdentityHashMap<T, String> keys = new IdentityHashMap<>();
+        for (Map.Entry<String, T> entry : repository.entrySet()) {
+            keys.put(entry.getValue(), entry.getKey());
+        }
+        return keys;
+    }
+
+    /**
+     * Collect top level blocks containing definitions
+     *
+     * @return false if repository contents cannot be tracked, because it has duplicate or non-node definitions
+     */
+    private static <T> boolean collectDefinitionBlocks(@NotNull NodeRepository<T> repository, @NotNull Document document, @NotNull Set<Node> definitionBlocks) {
+        Map<T, String> keys = getKeys(repository);
+        if (keys.size() != repository.values().size()) return false;
+
+        for (T value : repository.values()) {
+            if (!(value instanceof Node) || !keys.containsKey(value)) return false;
+
+            Node block = getTopLevelBlock((Node) value, document);
+            if (block != null) definitionBlocks.add(block);
+        }
+        return true;
+    }
+
+    private static <T> @NotNull NodeRepository<T> newRepository(@NotNull NodeRepository<T> repository, @NotNull MutableDataSet dataSet) {
+        DataKey<? extends NodeRepository<T>> key = repository.getDataKey();
+        dataSet.remove(key);
+        return key.get(dataSet);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void setRepository(@NotNull MutableDataHolder dataHolder, @NotNull NodeRepository<T> repository) {
+        dataHolder.set((DataKey<NodeRepository<T>>) repository.getDataKey(), repository);
+    }
+
+    /**
+     * Add definitions from outside the re-parsed region to slice parsing options so references to them are resolved
+     */
+    private static <T> void seedRepository(@NotNull NodeRepository<T> repository, @NotNull MutableDataSet sliceOptions, @NotNull Document document, @NotNull Set<Node> region) {
+        NodeRepository<T> seeded = newRepository(repository, sliceOptions);
+        Map<T, String> keys = getKeys(repository);
+
+        for (T value : repository.values()) {
+            Node block = getTopLevelBlock((Node) value, document);
+            if (block == null || !region.contains(block)) {
+                seeded.put(keys.get(value), value);
+            }
+        }
+    }
+
+    /**
+     * Create repository with definitions from outside the region and from the re-parsed slice, in document order
+     *
+     * @return updated repository or null if re-parsed definitions duplicate other definitions
+     */
+    private @Nullable <T> NodeRepository<T> updateRepository(@NotNull NodeRepository<T> repository, @NotNull Document document, @NotNull Document slice, @NotNull Map<Node, Integer> blockIndices, int first, int regionLast, @NotNull Set<String> changedKeys) {
+        NodeRepository<T> sliceRepository = repository.getDataKey().get(slice);
+        NodeRepository<T> updated = newRepository(repository, new MutableDataSet(options));
+        Map<T, String> keys = getKeys(repository);
+        Map<T, String> sliceKeys = getKeys(sliceRepository);
+        HashMap<String, String> previousDefinitions = new HashMap<>();
+        HashMap<String, String> currentDefinitions = new HashMap<>();
+        ArrayList<T> following = new ArrayList<>();
+
+        for (T value : repository.values()) {
+            Node block = getTopLevelBlock((Node) value, document);
+            int index = block == null ? -1 : blockIndices.get(block);
+
+            if (index < first) {
+                updated.put(keys.get(value), value);
+            } else if (index > regionLast) {
+                following.add(value);
+            } else {
+                previousDefinitions.put(keys.get(value), ((Node) value).getChars().toString());
+            }
+        }
+
+        for (T value : sliceRepository.values()) {
+            if (getTopLevelBlock((Node) value, slice) == null) continue;
+
+            String key = sliceKeys.get(value);
+            if (key == null || updated.containsKey(key)) return null;
+
+            updated.put(key, value);
+            currentDefinitions.put(key, ((Node) value).getChars().toString());
+        }
+
+        for (T value : following) {
+            String key = keys.get(value);
+            if (updated.containsKey(key)) return null;
+            updated.put(key, value);
+        }
+
+        HashSet<String> definitionKeys = new HashSet<>(previousDefinitions.keySet());
+        definitionKeys.addAll(currentDefinitions.keySet());
+        for (String key : definitionKeys) {
+            if (!Objects.equals(previousDefinitions.get(key), currentDefinitions.get(key))) {
+                changedKeys.add(normalizeForMatch(key));
+            }
+        }
+
+        return updated;
+    }
+
+    /**
+     * Lower case text with collapsed white space, used to match repository keys in block text
+     */
+    private static @NotNull String normalizeForMatch(@NotNull CharSequence text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean hadSpace = false;
+        int iMax = text.length();
+
+        for (int i = 0; i < iMax; i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (!hadSpace) sb.append(' ');
+                hadSpace = true;
+            } else {
+                sb.append(Character.toLowerCase(c));
+                hadSpace = false;
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    private static int startOfLine(@NotNull BasedSequence text, int offset) {
+        int lineStart = offset;
+        while (lineStart > 0) {
+            char c = text.charAt(lineStart - 1);
+            if (c == '\n' || c == '\r') break;
+            lineStart--;
+        }
+        return lineStart;
+    }
+
+    private static int endOfLine(@NotNull BasedSequence text, int offset) {
+        int length = text.length();
+
+        if (offset > 0 && offset <= length) {
+            char c = text.charAt(offset - 1);
+            if (c == '\n') return offset;
+            if (c == '\r') return offset < length && text.charAt(offset) == '\n' ? offset + 1 : offset;
+        }
+
+        int lineBreak = Parsing.findLineBreak(text, offset);
+        return lineBreak == -1 ? length : afterLineBreak(text, lineBreak);
+    }
+
+    private static int skipBlankLines(@NotNull BasedSequence text, int offset) {
+        int length = text.length();
+        int lineStart = offset;
+
+        while (lineStart < length) {
+            int lineBreak = Parsing.findLineBreak(text, lineStart);
+            int lineEnd = lineBreak == -1 ? length : lineBreak;
+            if (!text.subSequence(lineStart, lineEnd).isBlank()) break;
+            lineStart = lineBreak == -1 ? length : afterLineBreak(text, lineBreak);
+        }
+        return lineStart;
+    }
+
+    private static int afterLineBreak(@NotNull BasedSequence text, int lineBreak) {
+        return lineBreak + (text.charAt(lineBreak) == '\r' && lineBreak + 1 < text.length() && text.charAt(lineBreak + 1) == '\n' ? 2 : 1);
+    }
+
+    private static @NotNull List<BasedSequence> getLineSegments(@NotNull BasedSequence text) {
+        ArrayList<BasedSequence> lineSegments = new ArrayList<>();
+        int lineStart = 0;
+        int lineBreak;
+
+        while ((lineBreak = Parsing.findLineBreak(text, lineStart)) != -1) {
+            int lineEnd = afterLineBreak(text, lineBreak);
+            lineSegments.add(text.subSequence(lineStart, lineEnd));
+            lineStart = lineEnd;
+        }
+
+        if (lineStart < text.length()) {
+            lineSegments.add(text.subSequence(lineStart, text.length()));
+        }
+        return lineSegments;
+    }
+}
@@ -3,6 +3,7 @@ package com.vladsch.flexmark.parser.internal;
 import com.vladsch.flexmark.ast.*;
 import com.vladsch.flexmark.ast.util.ReferenceRepository;
 import com.vladsch.flexmark.ast.util.TextNodeConverter;
+import com.vladsch.flexmark.instrumentation.HandlerTimings;
 import com.vladsch.flexmark.parser.*;
 import com.vladsch.flexmark.parser.block.CharacterNodeFactory;
 import com.vladsch.flexmark.parser.block.ParagraphPreProcessor;
@@ -31,11 +32,19 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
     protected final BitSet originalSpecialCharacters;
     protected final BitSet delimiterCharacters;
     protected final Map<Character, DelimiterProcessor> delimiterProcessors;
+    final private CharacterTable<DelimiterProcessor> delimiterProcessorTable;
     protected final LinkRefProcessorData linkRefProcessorsData;
     protected List<LinkRefProcessor> linkRefProcessors = null;
     protected Map<Character, List<InlineParserExtension>> inlineParserExtensions = null;
+    private CharacterTable<int[]> inlineParserExtensionTable = null;
+    private InlineParserExtensionFactory[] inlineParserExtensionTableFactories = null;
+    private InlineParserExtension[] inlineParserExtensionTableInstances = null;
     protected List<InlineParserExtensionFactory> inlineParserExtensionFactories = null;
+    protected Map<Character, List<InlineParserExtensionFactory>> inlineParserExtensionFactoryMap = null;
     protected LinkDestinationParser linkDestinationParser = null;
+    final private @Nullable ParserListener listener;
+    final private @Nullable HandlerTimings handlerTimings;
+    final private @Nullable InlineScanner scanner;
 
     // used to temporarily override handling of special characters by custom ParagraphPreProcessors
     protected BitSet specialCharacters;
@@ -68,22 +77,66 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
             List<InlineParserExtensionFactory> inlineParserExtensionFactories
     ) {
         super(options);
+        this.scanner = this.options.useHardcodedInlineScanners ? new InlineScanner(myParsing) : null;
         this.delimiterProcessors = delimiterProcessors;
+        this.delimiterProcessorTable = new CharacterTable<>(delimiterProcessors);
         this.linkRefProcessorsData = linkRefProcessorsData;
         this.delimiterCharacters = delimiterCharacters;
-        this.originalSpecialCharacters = specialCharacters;
-        this.specialCharacters = specialCharacters;
         this.inlineParserExtensionFactories = !inlineParserExtensionFactories.isEmpty() ? inlineParserExtensionFactories : null;
 
+        // resolve extension characters once, instance is re-initialized for every document it parses
+        BitSet parserSpecialCharacters = (BitSet) specialCharacters.clone();
+        if (this.inlineParserExtensionFactories != null) {
+            this.inlineParserExtensionFactoryMap = calculateInlineParserExtensions(options, this.inlineParserExtensionFactories);
+            for (Character c : inlineParserExtensionFactoryMap.keySet()) {
+                parserSpecialCharacters.set(c);
+            }
+
+            // dispatch table holds indices of distinct factories, only the extension instances are created per document
+            Map<InlineParserExtensionFactory, Integer> factoryIndices = new LinkedHashMap<>();
+            this.inlineParserExtensionTable = new CharacterTable<>(inlineParserExtensionFactoryMap, factoryList -> {
+                int[] indices = new int[factoryList.size()];
+                int i = 0;
+                for (InlineParserExtensionFactory factory : factoryList) {
+                    Integer index = factoryIndices.get(factory);
+                    if (index == null) {
+                        index = factoryIndices.size();
+                        factoryIndices.put(factory, index);
+                    }
+                    indices[i++] = index;
+                }
+                return indices;
+            });
+            this.inlineParserExtensionTableFactories = factoryIndices.keySet().toArray(new InlineParserExtensionFactory[0]);
+            this.inlineParserExtensionTableInstances = new InlineParserExtension[inlineParserExtensionTableFactories.length];
+        }
+
+        this.originalSpecialCharacters = parserSpecialCharacters;
+        this.specialCharacters = parserSpecialCharacters;
+
         if (this.options.useHardcodedLinkAddressParser) {
             this.linkDestinationParser = new LinkDestinationParser(this.options.linksAllowMatchedParentheses, this.options.spaceInLinkUrls, this.options.parseJekyllMacrosInUrls, this.options.intellijDummyIdentifier);
         }
+
+        this.listener = Parser.PARSER_LISTENER.get(options);
+        this.handlerTimings = listener != null && this.inlineParserExtensionFactories != null ? new HandlerTimings() : null;
     }
 
     @Override
     public void initializeDocument(@NotNull Document document) {
         this.document = document;
         this.referenceRepository = Parser.REFERENCES.get(document);
+        this.block = null;
+        this.input = null;
+        this.index = 0;
+        this.currentText = null;
+        this.lastDelimiter = null;
+        this.lastBracket = null;
+        this.specialCharacters = this.originalSpecialCharacters;
+        this.customCharacters = null;
+        this.customSpecialCharacterFactoryMap = null;
+        this.customSpecialCharacterNodes = null;
+        if (handlerTimings != null) handlerTimings.clear();
 
         linkRefProcessors = new ArrayList<>(linkRefProcessorsData.processors.size());
         for (LinkRefProcessorFactory factory : linkRefProcessorsData.processors) {
@@ -91,29 +144,44 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
         }
 
         // create custom processors
-        if (inlineParserExtensionFactories != null) {
-            Map<Character, List<InlineParserExtensionFactory>> extensions = calculateInlineParserExtensions(document, inlineParserExtensionFactories);
-            inlineParserExtensions = new HashMap<>(extensions.size());
-            Map<InlineParserExtensionFactory, InlineParserExtension> parserExtensionMap = new HashMap<>();
-            for (Map.Entry<Character, List<InlineParserExtensionFactory>> entry : extensions.entrySet()) {
-                List<InlineParserExtension> extensionList = new ArrayList<>(entry.getValue().size());
-                for (InlineParserExtensionFactory factory : entry.getValue()) {
-                    InlineParserExtension parserExtension = parserExtensionMap.get(factory);
-                    if (parserExtension == null) {
-                        parserExtension = factory.apply(this);
-                        parserExtensionMap.put(factory, parserExtension);
-                    }
-                    extensionList.add(parserExtension);
+        if (inlineParserExtensionFactoryMap != null) {
+            for (int i = 0; i < inlineParserExtensionTableFactories.length; i++) {
+                inlineParserExtensionTableInstances[i] = inlineParserExtensionTableFactories[i].apply(this);
+            }
+
+            inlineParserExtensions = new HashMap<>(inlineParserExtensionFactoryMap.size());
+            for (Map.Entry<Character, List<InlineParserExtensionFactory>> entry : inlineParserExtensionFactoryMap.entrySet()) {
+                int[] indices = inlineParserExtensionTable.get(entry.getKey());
+                List<InlineParserExtension> extensionList = new ArrayList<>(indices.length);
+                for (int index : indices) {
+                    extensionList.add(inlineParserExtensionTableInstances[index]);
                 }
 
                 inlineParserExtensions.put(entry.getKey(), extensionList);
-
-                // set it as special character
-                specialCharacters.set(entry.getKey());
             }
         }
     }
 
+    /**
+     * Release references to the last parsed document so an idle inline parser kept for reuse does not keep it in memory,
+     * the parser is initialized with {@link #initializeDocument(Document)} before it is used again
+     */
+    public void releaseDocument() {
+        this.document = null;
+        this.referenceRepository = null;
+        this.block = null;
+        this.input = null;
+        this.currentText = null;
+        this.lastDelimiter = null;
+        this.lastBracket = null;
+        this.customSpecialCharacterNodes = null;
+        this.linkRefProcessors = null;
+        this.inlineParserExtensions = null;
+        if (inlineParserExtensionTableInstances != null) {
+            Arrays.fill(inlineParserExtensionTableInstances, null);
+        }
+    }
+
     @Override
     public void finalizeDocument(@NotNull Document document) {
         assert this.referenceRepository == Parser.REFERENCES.get(document);
@@ -125,6 +193,10 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
                 }
             }
         }
+
+        if (listener != null && handlerTimings != null && !handlerTimings.isEmpty()) {
+            listener.handlerTimings(document, handlerTimings);
+        }
     }
 
     @Override
@@ -141,6 +213,7 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
     @Override
     public List<Node> parseCustom(@NotNull BasedSequence input, @NotNull Node node, @NotNull BitSet customCharacters, @NotNull Map<Character, CharacterNodeFactory> nodeFactoryMap) {
         this.customCharacters = customCharacters;
+        this.specialCharacters = (BitSet) this.originalSpecialCharacters.clone();
         this.specialCharacters.or(customCharacters);
         this.customSpecialCharacterFactoryMap = nodeFactoryMap;
         this.customSpecialCharacterNodes = null;
@@ -307,7 +380,7 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
         }
 
         boolean atLineEnd = true;
-        if (index != input.length() && match(myParsing.LINE_END) == null) {
+        if (index != input.length() && (scanner != null ? matchScanned(scanner.scanLineEnd(input, index), myParsing.LINE_END) : match(myParsing.LINE_END)) == null) {
             if (title == null) {
                 atLineEnd = false;
             } else {
@@ -318,7 +391,7 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
                 // rewind before spaces
                 index = beforeTitle;
                 // and instead check if the link URL is at the line end
-                atLineEnd = match(myParsing.LINE_END) != null;
+                atLineEnd = (scanner != null ? matchScanned(scanner.scanLineEnd(input, index), myParsing.LINE_END) : match(myParsing.LINE_END)) != null;
             }
         }
 
@@ -361,11 +434,21 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
             return false;
         }
 
-        if (!customOnly && inlineParserExtensions != null) {
-            List<InlineParserExtension> extensions = inlineParserExtensions.get(c);
-            if (extensions != null) {
-                for (InlineParserExtension extension : extensions) {
-                    res = extension.parse(this);
+        if (!customOnly && inlineParserExtensionTable != null) {
+            int[] indices = inlineParserExtensionTable.get(c);
+            if (indices != null) {
+                for (int index : indices) {
+                    InlineParserExtension extension = inlineParserExtensionTableInstances[index];
+                    if (handlerTimings != null) {
+                        long start = handlerTimings.start();
+                        try {
+                            res = extension.parse(this);
+                        } finally {
+                            handlerTimings.stop(extension.getClass(), start);
+                        }
+                    } else {
+                        res = extension.parse(this);
+                    }
                     if (res) return true;
                 }
             }
@@ -411,7 +494,7 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
                 // first we check custom special characters for < delimiters and only allow 2 consecutive ones to allow anchor links and HTML processing
                 boolean isDelimiter = delimiterCharacters.get(c);
                 if (isDelimiter && peek(1) == '<') {
-                    DelimiterProcessor delimiterProcessor = delimiterProcessors.get(c);
+                    DelimiterProcessor delimiterProcessor = delimiterProcessorTable.get(c);
                     res = parseDelimiters(delimiterProcessor, c);
                 } else {
                     res = parseAutolink() || parseHtmlInline();
@@ -425,7 +508,7 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
                 // first we check custom special characters
                 boolean isDelimiter = delimiterCharacters.get(c);
                 if (isDelimiter) {
-                    DelimiterProcessor delimiterProcessor = delimiterProcessors.get(c);
+                    DelimiterProcessor delimiterProcessor = delimiterProcessorTable.get(c);
                     res = parseDelimiters(delimiterProcessor, c);
                 } else {
                     res = parseString();
@@ -542,7 +625,7 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
             int charsMatched = peek(1) == '\n' ? 2 : 1;
             appendNode(new HardLineBreak(input.subSequence(index - 1, index + charsMatched)));
             index += charsMatched;
-        } else if (index < input.length() && myParsing.ESCAPABLE.matcher(input.subSequence(index, index + 1)).matches()) {
+        } else if (index < input.length() && (scanner != null ? InlineScanner.isEscapable(input.charAt(index)) : myParsing.ESCAPABLE.matcher(input.subSequence(index, index + 1)).matches())) {
             appendText(input, index - 1, index + 1);
             index++;
         } else {
@@ -839,7 +922,7 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
                 } else {
                     spnl();
                     // title needs a whitespace before
-                    if (myParsing.WHITESPACE.matcher(input.subSequence(index - 1, index)).matches()) {
+                    if (scanner != null ? InlineScanner.isWhitespace(input.charAt(index - 1)) : myParsing.WHITESPACE.matcher(input.subSequence(index - 1, index)).matches()) {
                         title = parseLinkTitle();
                         spnl();
                     }
@@ -1181,7 +1264,7 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
      */
     @Override
     public BasedSequence parseLinkDestination() {
-        BasedSequence res = match(myParsing.LINK_DESTINATION_ANGLES);
+        BasedSequence res = scanner != null ? matchScanned(scanner.scanLinkDestinationAngles(input, index), myParsing.LINK_DESTINATION_ANGLES) : match(myParsing.LINK_DESTINATION_ANGLES);
         if (res != null) {
             return res;
         } else {
@@ -1238,7 +1321,7 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
      */
     @Override
     public BasedSequence parseLinkTitle() {
-        BasedSequence title = match(myParsing.LINK_TITLE);
+        BasedSequence title = scanner != null ? matchScanned(scanner.scanLinkTitle(input, index), myParsing.LINK_TITLE) : match(myParsing.LINK_TITLE);
         // chop off quotes from title and unescape:
         return title; //Escaping.unescapeString(title.substring(1, title.length() - 1));
     }
@@ -1250,7 +1333,7 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
      */
     @Override
     public int parseLinkLabel() {
-        BasedSequence m = match(myParsing.LINK_LABEL);
+        BasedSequence m = scanner != null ? matchScanned(scanner.scanLinkLabel(input, index), myParsing.LINK_LABEL) : match(myParsing.LINK_LABEL);
         return m == null ? 0 : m.length();
     }
 
@@ -1262,15 +1345,15 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
     @Override
     public boolean parseAutolink() {
         BasedSequence m;
-        if ((m = match(myParsing.EMAIL_AUTOLINK)) != null) {
+        if ((m = scanner != null ? matchScanned(scanner.scanEmailAutolink(input, index), myParsing.EMAIL_AUTOLINK) : match(myParsing.EMAIL_AUTOLINK)) != null) {
             MailLink node = new MailLink(m.subSequence(0, 1), m.subSequence(1, m.length() - 1), m.subSequence(m.length() - 1, m.length()));
             appendNode(node);
             return true;
-        } else if ((m = match(myParsing.AUTOLINK)) != null) {
+        } else if ((m = scanner != null ? matchScanned(scanner.scanAutolink(input, index), myParsing.AUTOLINK) : match(myParsing.AUTOLINK)) != null) {
             AutoLink node = new AutoLink(m.subSequence(0, 1), m.subSequence(1, m.length() - 1), m.subSequence(m.length() - 1, m.length()));
             appendNode(node);
             return true;
-        } else if (options.wwwAutoLinkElement && (m = match(myParsing.WWW_AUTOLINK)) != null) {
+        } else if (options.wwwAutoLinkElement && (m = scanner != null ? matchScanned(scanner.scanWwwAutolink(input, index), myParsing.WWW_AUTOLINK) : match(myParsing.WWW_AUTOLINK)) != null) {
             AutoLink node = new AutoLink(m.subSequence(0, 1), m.subSequence(1, m.length() - 1), m.subSequence(m.length() - 1, m.length()));
             appendNode(node);
             return true;
@@ -1286,7 +1369,7 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
      */
     @Override
     public boolean parseHtmlInline() {
-        BasedSequence m = match(myParsing.HTML_TAG);
+        BasedSequence m = scanner != null ? matchScanned(scanner.scanHtmlTag(input, index), myParsing.HTML_TAG) : match(myParsing.HTML_TAG);
         if (m != null) {
             // separate HTML comment from herd
             HtmlInlineBase node;
@@ -1310,7 +1393,7 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
     @Override
     public boolean parseEntity() {
         BasedSequence m;
-        if ((m = match(myParsing.ENTITY_HERE)) != null) {
+        if ((m = scanner != null ? matchScanned(scanner.scanEntity(input, index), myParsing.ENTITY_HERE) : match(myParsing.ENTITY_HERE)) != null) {
             HtmlEntity node = new HtmlEntity(m);
             appendNode(node);
             return true;
@@ -1378,21 +1461,41 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
         boolean afterIsPunctuation;
         boolean leftFlanking;
         boolean rightFlanking;
-        boolean beforeIsWhitespace = myParsing.UNICODE_WHITESPACE_CHAR.matcher(before).matches();
-        boolean afterIsWhitespace = myParsing.UNICODE_WHITESPACE_CHAR.matcher(after).matches();
+        boolean beforeIsWhitespace;
+        boolean afterIsWhitespace;
+
+        if (scanner != null) {
+            char beforeChar = before.charAt(0);
+            char afterChar = after.charAt(0);
+            beforeIsWhitespace = InlineScanner.isUnicodeWhitespace(beforeChar);
+            afterIsWhitespace = InlineScanner.isUnicodeWhitespace(afterChar);
+
+            if (options.inlineDelimiterDirectionalPunctuations) {
+                beforeIsPunctuation = InlineScanner.isPunctuationOpen(beforeChar);
+                afterIsPunctuation = InlineScanner.isPunctuationClose(afterChar);
+            } else {
+                beforeIsPunctuation = InlineScanner.isPunctuation(beforeChar);
+                afterIsPunctuation = InlineScanner.isPunctuation(afterChar);
+            }
+        } else {
+            beforeIsWhitespace = myParsing.UNICODE_WHITESPACE_CHAR.matcher(before).matches();
+            afterIsWhitespace = myParsing.UNICODE_WHITESPACE_CHAR.matcher(after).matches();
 
-        if (options.inlineDelimiterDirectionalPunctuations) {
-            beforeIsPunctuation = myParsing.PUNCTUATION_OPEN.matcher(before).matches();
-            afterIsPunctuation = myParsing.PUNCTUATION_CLOSE.matcher(after).matches();
+            if (options.inlineDelimiterDirectionalPunctuations) {
+                beforeIsPunctuation = myParsing.PUNCTUATION_OPEN.matcher(before).matches();
+                afterIsPunctuation = myParsing.PUNCTUATION_CLOSE.matcher(after).matches();
+            } else {
+                beforeIsPunctuation = myParsing.PUNCTUATION.matcher(before).matches();
+                afterIsPunctuation = myParsing.PUNCTUATION.matcher(after).matches();
+            }
+        }
 
+        if (options.inlineDelimiterDirectionalPunctuations) {
             leftFlanking = !afterIsWhitespace &&
                     (!afterIsPunctuation || beforeIsWhitespace || beforeIsPunctuation);
             rightFlanking = !beforeIsWhitespace &&
                     (!beforeIsPunctuation || afterIsWhitespace || afterIsPunctuation);
         } else {
-            beforeIsPunctuation = myParsing.PUNCTUATION.matcher(before).matches();
-            afterIsPunctuation = myParsing.PUNCTUATION.matcher(after).matches();
-
             leftFlanking = !afterIsWhitespace &&
                     !(afterIsPunctuation && !beforeIsWhitespace && !beforeIsPunctuation);
             rightFlanking = !beforeIsWhitespace &&
@@ -1428,7 +1531,7 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
         while (closer != null) {
             char delimiterChar = closer.getDelimiterChar();
 
-            DelimiterProcessor delimiterProcessor = delimiterProcessors.get(delimiterChar);
+            DelimiterProcessor delimiterProcessor = delimiterProcessorTable.get(delimiterChar);
             if (!closer.canClose() || delimiterProcessor == null) {
                 closer = closer.getNext();
                 continue;
@@ -1556,7 +1659,7 @@ public class InlineParserImpl extends LightInlineParserImpl implements InlinePar
     @Override
     public void removeDelimiterKeepNode(@NotNull Delimiter delim) {
         Node node;
-        DelimiterProcessor delimiterProcessor = delimiterProcessors.get(delim.getDelimiterChar());
+        DelimiterProcessor delimiterProcessor = delimiterProcessorTable.get(delim.getDelimiterChar());
         node = delimiterProcessor != null ? delimiterProcessor.unmatchedDelimiterNode(this, delim) : null;
         if (node != null) {
             if (node != delim.getNode()) {
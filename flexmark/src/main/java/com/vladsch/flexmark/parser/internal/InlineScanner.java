@@ -0,0 +1,730 @@
+package com.vladsch.flexmark.parser.internal;
+
+import com.vladsch.flexmark.ast.util.Parsing;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Hand coded scanners for the {@link Parsing} patterns matched by the inline parser for every
+ * link, title, entity, HTML tag, autolink and white space run.
+ * <p>
+ * Each scan method starts at given index and returns the end offset of what the corresponding pattern
+ * would match at that index, or {@link #NO_MATCH}. Like {@link com.vladsch.flexmark.parser.LightInlineParserImpl#match(java.util.regex.Pattern)}
+ * there is no match when index is at or after the end of the sequence, even for patterns which match an empty string.
+ * <p>
+ * A scan returns {@link #USE_PATTERN} for the few inputs where the regex result depends on backtracking
+ * which is not worth duplicating, caller should match the pattern instead.
+ */
+public class InlineScanner {
+    final public static int NO_MATCH = -1;
+    final public static int USE_PATTERN = -2;
+
+    final private static char IDI_CHAR = Parsing.INTELLIJ_DUMMY_IDENTIFIER_CHAR;
+    final private static int MAX_LINK_LABEL_ITEMS = 999;
+
+    final public boolean intellijDummyIdentifier;
+    final public boolean spaceInLinkUrls;
+    final public boolean htmlForTranslator;
+
+    public InlineScanner(@NotNull Parsing parsing) {
+        this(parsing.intellijDummyIdentifier, parsing.spaceInLinkUrl, parsing.htmlForTranslator);
+    }
+
+    public InlineScanner(boolean intellijDummyIdentifier, boolean spaceInLinkUrls, boolean htmlForTranslator) {
+        this.intellijDummyIdentifier = intellijDummyIdentifier;
+        this.spaceInLinkUrls = spaceInLinkUrls;
+        this.htmlForTranslator = htmlForTranslator;
+    }
+
+    public static boolean isEscapable(char c) {
+        // all ASCII punctuation
+        return c >= '!' && c <= '/' || c >= ':' && c <= '@' || c >= '[' && c <= '`' || c >= '{' && c <= '~';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isHexDigit(char c) {
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+    }
+
+    /**
+     * {@link Parsing#WHITESPACE} matches single character, regex \s
+     *
+     * @param c character
+     * @return true if matches
+     */
+    public static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    // regex . does not match these
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private boolean isIdi(char c) {
+        return intellijDummyIdentifier && c == IDI_CHAR;
+    }
+
+    // Parsing.EXCLUDED_0_TO_SPACE
+    private boolean isExcluded0ToSpace(char c) {
+        return c <= ' ' && !isIdi(c);
+    }
+
+    private boolean isAlnumIdi(char c) {
+        return isAsciiLetter(c) || isAsciiDigit(c) || isIdi(c);
+    }
+
+    /**
+     * {@link Parsing#UNICODE_WHITESPACE_CHAR} matches single character
+     *
+     * @param c character
+     * @return true if matches
+     */
+    public static boolean isUnicodeWhitespace(char c) {
+        return c == '\t' || c == '\r' || c == '\n' || c == '\f' || Character.getType(c) == Character.SPACE_SEPARATOR;
+    }
+
+    private static boolean isUnicodePunctuation(char c) {
+        switch (Character.getType(c)) {
+            case Character.CONNECTOR_PUNCTUATION:
+            case Character.DASH_PUNCTUATION:
+            case Character.END_PUNCTUATION:
+            case Character.FINAL_QUOTE_PUNCTUATION:
+            case Character.INITIAL_QUOTE_PUNCTUATION:
+            case Character.OTHER_PUNCTUATION:
+            case Character.START_PUNCTUATION:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * {@link Parsing#PUNCTUATION} matches single character
+     *
+     * @param c character
+     * @return true if matches
+     */
+    public static boolean isPunctuation(char c) {
+        return isEscapable(c) || isUnicodePunctuation(c);
+    }
+
+    /**
+     * {@link Parsing#PUNCTUATION_OPEN} matches single character, only ASCII punctuation other than closing brackets
+     *
+     * @param c character
+     * @return true if matches
+     */
+    public static boolean isPunctuationOpen(char c) {
+        return isEscapable(c) && c != ')' && c != '>' && c != ']' && c != '}';
+    }
+
+    /**
+     * {@link Parsing#PUNCTUATION_CLOSE} matches single character, only ASCII punctuation other than opening brackets
+     *
+     * @param c character
+     * @return true if matches
+     */
+    public static boolean isPunctuationClose(char c) {
+        return isEscapable(c) && c != '(' && c != '<' && c != '[' && c != '{';
+    }
+
+    private static int skipSpaceTab(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        while (index < length) {
+            char c = s.charAt(index);
+            if (c != ' ' && c != '\t') break;
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipRegexSpace(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        while (index < length && isWhitespace(s.charAt(index))) index++;
+        return index;
+    }
+
+    // end of EOL at index or -1
+    private static int eolEnd(@NotNull CharSequence s, int index) {
+        if (index < s.length()) {
+            char c = s.charAt(index);
+            if (c == '\n') return index + 1;
+            if (c == '\r') return index + 1 < s.length() && s.charAt(index + 1) == '\n' ? index + 2 : index + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * {@link Parsing#SP}
+     *
+     * @param s     sequence
+     * @param index start index
+     * @return end of match or {@link #NO_MATCH}
+     */
+    public int scanSp(@NotNull CharSequence s, int index) {
+        if (index >= s.length()) return NO_MATCH;
+        return skipSpaceTab(s, index);
+    }
+
+    /**
+     * {@link Parsing#SPNI}
+     *
+     * @param s     sequence
+     * @param index start index
+     * @return end of match or {@link #NO_MATCH}
+     */
+    public int scanSpni(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        if (index >= length) return NO_MATCH;
+        int end = index;
+        while (end < length && end - index < 3 && s.charAt(end) == ' ') end++;
+        return end;
+    }
+
+    /**
+     * {@link Parsing#SPNL}
+     *
+     * @param s     sequence
+     * @param index start index
+     * @return end of match or {@link #NO_MATCH}
+     */
+    public int scanSpnl(@NotNull CharSequence s, int index) {
+        if (index >= s.length()) return NO_MATCH;
+        int end = skipSpaceTab(s, index);
+        int eol = eolEnd(s, end);
+        return eol == -1 ? end : skipSpaceTab(s, eol);
+    }
+
+    /**
+     * {@link Parsing#SPNL_URL}
+     *
+     * @param s     sequence
+     * @param index start index
+     * @return end of match or {@link #NO_MATCH}
+     */
+    public int scanSpnlUrl(@NotNull CharSequence s, int index) {
+        if (index >= s.length()) return NO_MATCH;
+        int eol = eolEnd(s, skipSpaceTab(s, index));
+        return eol == -1 ? NO_MATCH : eol;
+    }
+
+    /**
+     * {@link Parsing#LINE_END}
+     *
+     * @param s     sequence
+     * @param index start index
+     * @return end of match or {@link #NO_MATCH}
+     */
+    public int scanLineEnd(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        if (index >= length) return NO_MATCH;
+        int end = skipSpaceTab(s, index);
+        if (end == length) return end;
+
+        int eol = eolEnd(s, end);
+        if (eol != -1) return eol;
+
+        // $ also matches before a final line terminator
+        return end + 1 == length && isLineTerminator(s.charAt(end)) ? end : NO_MATCH;
+    }
+
+    /**
+     * {@link Parsing#REST_OF_LINE}
+     *
+     * @param s     sequence
+     * @param index start index
+     * @return end of match or {@link #NO_MATCH}
+     */
+    public int scanRestOfLine(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        if (index >= length) return NO_MATCH;
+        for (int i = index; i < length; i++) {
+            char c = s.charAt(i);
+            if (isLineTerminator(c)) {
+                int eol = eolEnd(s, i);
+                return eol == -1 ? NO_MATCH : eol;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * {@link Parsing#LINK_LABEL}
+     *
+     * @param s     sequence
+     * @param index start index
+     * @return end of match, {@link #NO_MATCH} or {@link #USE_PATTERN}
+     */
+    public int scanLinkLabel(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        if (index >= length || s.charAt(index) != '[') return NO_MATCH;
+
+        // greedy match treats \ followed by escapable as an escape, when it fails the pattern
+        // backtracks to the last escaped ] and matches it as the closing bracket
+        int lastEscapedClose = -1;
+        int items = 0;
+        int i = index + 1;
+        while (i < length) {
+            char c = s.charAt(i);
+            if (c == ']') return i + 1;
+            if (c == '[') {
+                // preceding \ can be re-paired to escape [ and continue the label
+                if (s.charAt(i - 1) == '\\') return USE_PATTERN;
+                break;
+            }
+            if (items == MAX_LINK_LABEL_ITEMS - 1) return USE_PATTERN;
+
+            if (c == '\\' && i + 1 < length && isEscapable(s.charAt(i + 1))) {
+                if (s.charAt(i + 1) == ']') lastEscapedClose = i + 1;
+                i += 2;
+            } else {
+                i++;
+            }
+            items++;
+        }
+        return lastEscapedClose == -1 ? NO_MATCH : lastEscapedClose + 1;
+    }
+
+    /**
+     * {@link Parsing#LINK_TITLE}
+     *
+     * @param s     sequence
+     * @param index start index
+     * @return end of match or {@link #NO_MATCH}
+     */
+    public int scanLinkTitle(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        if (index >= length) return NO_MATCH;
+
+        char open = s.charAt(index);
+        char close;
+        switch (open) {
+            case '"':
+                close = '"';
+                break;
+            case '\'':
+                close = '\'';
+                break;
+            case '(':
+                close = ')';
+                break;
+            default:
+                return NO_MATCH;
+        }
+
+        // unescaped close ends the title, when none before end or \0 the pattern backtracks to the last escaped one
+        int lastEscapedClose = -1;
+        int i = index + 1;
+        while (i < length) {
+            char c = s.charAt(i);
+            if (c == close) return i + 1;
+            if (c == '\0') break;
+
+            if (c == '\\' && i + 1 < length && isEscapable(s.charAt(i + 1))) {
+                if (s.charAt(i + 1) == close) lastEscapedClose = i + 1;
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+        return lastEscapedClose == -1 ? NO_MATCH : lastEscapedClose + 1;
+    }
+
+    /**
+     * {@link Parsing#LINK_DESTINATION_ANGLES}
+     *
+     * @param s     sequence
+     * @param index start index
+     * @return end of match, {@link #NO_MATCH} or {@link #USE_PATTERN}
+     */
+    public int scanLinkDestinationAngles(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        if (index >= length || s.charAt(index) != '<') return NO_MATCH;
+
+        int lastEscapedClose = -1;
+        int i = index + 1;
+        while (i < length) {
+            char c = s.charAt(i);
+            if (c == '>') return i + 1;
+            if (c == '<') {
+                if (s.charAt(i - 1) == '\\') return USE_PATTERN;
+                break;
+            }
+            if (c == '\t' || c == '\n' || c == '\0') break;
+            if (c == ' ') {
+                if (!spaceInLinkUrls) break;
+                if (i + 1 < length) {
+                    char next = s.charAt(i + 1);
+                    if (next == '"' || next == '\'') break;
+                }
+            }
+
+            if (c == '\\' && i + 1 < length && isEscapable(s.charAt(i + 1))) {
+                if (s.charAt(i + 1) == '>') lastEscapedClose = i + 1;
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+        return lastEscapedClose == -1 ? NO_MATCH : lastEscapedClose + 1;
+    }
+
+    /**
+     * {@link Parsing#ENTITY_HERE}
+     *
+     * @param s     sequence
+     * @param index start index
+     * @return end of match or {@link #NO_MATCH}
+     */
+    public int scanEntity(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        if (index + 1 >= length || s.charAt(index) != '&') return NO_MATCH;
+
+        int i = index + 1;
+        char c = s.charAt(i);
+
+        if (c == '#') {
+            i++;
+            if (i < length && (s.charAt(i) == 'x' || s.charAt(i) == 'X')) {
+                i++;
+                int start = i;
+                while (i < length && (isHexDigit(s.charAt(i)) || isIdi(s.charAt(i)))) i++;
+                return semicolonAfterRun(s, start, i, 1, 8);
+            } else {
+                int start = i;
+                while (i < length && isAsciiDigit(s.charAt(i))) i++;
+                return semicolonAfterRun(s, start, i, 1, 8);
+            }
+        } else if (isAsciiLetter(c) || isIdi(c)) {
+            i++;
+            int start = i;
+            while (i < length && isAlnumIdi(s.charAt(i))) i++;
+            return semicolonAfterRun(s, start, i, 1, 31);
+        }
+        return NO_MATCH;
+    }
+
+    private static int semicolonAfterRun(@NotNull CharSequence s, int start, int end, int minCount, int maxCount) {
+        int count = end - start;
+        return count >= minCount && count <= maxCount && end < s.length() && s.charAt(end) == ';' ? end + 1 : NO_MATCH;
+    }
+
+    /**
+     * {@link Parsing#HTML_TAG}
+     *
+     * @param s     sequence
+     * @param index start index
+     * @return end of match, {@link #NO_MATCH} or {@link #USE_PATTERN} when translator tag patterns are used
+     */
+    public int scanHtmlTag(@NotNull CharSequence s, int index) {
+        if (htmlForTranslator) return USE_PATTERN;
+
+        int length = s.length();
+        if (index + 1 >= length || s.charAt(index) != '<') return NO_MATCH;
+
+        char c = s.charAt(index + 1);
+        if (isAsciiLetter(c) || isIdi(c)) return scanOpenTag(s, index + 1);
+        if (c == '/') return scanCloseTag(s, index + 2);
+        if (c == '?') return scanProcessingInstruction(s, index + 2);
+        if (c == '!' && index + 2 < length) {
+            char c2 = s.charAt(index + 2);
+            if (c2 == '-') return scanHtmlComment(s, index);
+            if (c2 == '[') return scanCData(s, index);
+            if (isAsciiLetter(c2) || isIdi(c2)) return scanDeclaration(s, index + 2);
+        }
+        return NO_MATCH;
+    }
+
+    private int scanTagName(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        if (index >= length) return NO_MATCH;
+        char c = s.charAt(index);
+        if (!(isAsciiLetter(c) || isIdi(c))) return NO_MATCH;
+
+        int i = index + 1;
+        while (i < length && (isAlnumIdi(s.charAt(i)) || s.charAt(i) == '-')) i++;
+        return i;
+    }
+
+    private int scanAttributeName(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        if (index >= length) return NO_MATCH;
+        char c = s.charAt(index);
+        if (!(isAsciiLetter(c) || isIdi(c) || c == '_' || c == ':')) return NO_MATCH;
+
+        int i = index + 1;
+        while (i < length) {
+            c = s.charAt(i);
+            if (!(isAlnumIdi(c) || c == ':' || c == '.' || c == '_' || c == '-')) break;
+            i++;
+        }
+        return i;
+    }
+
+    private int scanAttributeValue(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        if (index >= length) return NO_MATCH;
+
+        char c = s.charAt(index);
+        if (c == '\'' || c == '"') {
+            for (int i = index + 1; i < length; i++) {
+                if (s.charAt(i) == c) return i + 1;
+            }
+            return NO_MATCH;
+        }
+
+        int i = index;
+        while (i < length) {
+            c = s.charAt(i);
+            if (c == '"' || c == '\'' || c == '=' || c == '<' || c == '>' || c == '{' || c == '}' || c == '`' || isExcluded0ToSpace(c)) break;
+            i++;
+        }
+        return i > index ? i : NO_MATCH;
+    }
+
+    // index is after <
+    private int scanOpenTag(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        int i = scanTagName(s, index);
+
+        while (true) {
+            int afterSpace = skipRegexSpace(s, i);
+            if (afterSpace >= length) return NO_MATCH;
+
+            char c = s.charAt(afterSpace);
+            if (c == '>') return afterSpace + 1;
+            if (c == '/') return afterSpace + 1 < length && s.charAt(afterSpace + 1) == '>' ? afterSpace + 2 : NO_MATCH;
+
+            // attribute needs leading white space
+            if (afterSpace == i) return NO_MATCH;
+
+            i = scanAttributeName(s, afterSpace);
+            if (i == NO_MATCH) return NO_MATCH;
+
+            int afterNameSpace = skipRegexSpace(s, i);
+            if (afterNameSpace < length && s.charAt(afterNameSpace) == '=') {
+                i = scanAttributeValue(s, skipRegexSpace(s, afterNameSpace + 1));
+                if (i == NO_MATCH) return NO_MATCH;
+            }
+        }
+    }
+
+    // index is after </
+    private int scanCloseTag(@NotNull CharSequence s, int index) {
+        int i = scanTagName(s, index);
+        if (i == NO_MATCH) return NO_MATCH;
+        i = skipRegexSpace(s, i);
+        return i < s.length() && s.charAt(i) == '>' ? i + 1 : NO_MATCH;
+    }
+
+    // index is at <
+    private static int scanHtmlComment(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        if (index + 4 > length || s.charAt(index + 3) != '-') return NO_MATCH;
+
+        // <!---->
+        if (index + 7 <= length && s.charAt(index + 4) == '-' && s.charAt(index + 5) == '-' && s.charAt(index + 6) == '>') return index + 7;
+
+        // first -?[^>-]
+        int i = index + 4;
+        if (i >= length) return NO_MATCH;
+        char c = s.charAt(i);
+        if (c == '-') {
+            if (i + 1 >= length) return NO_MATCH;
+            char next = s.charAt(i + 1);
+            if (next == '>' || next == '-') return NO_MATCH;
+            i += 2;
+        } else if (c == '>') {
+            return NO_MATCH;
+        } else {
+            i++;
+        }
+
+        // then (?:-?[^-])* which cannot contain --
+        while (i < length) {
+            if (s.charAt(i) == '-') {
+                if (i + 1 >= length || s.charAt(i + 1) == '-') break;
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+
+        return i + 3 <= length && s.charAt(i) == '-' && s.charAt(i + 1) == '-' && s.charAt(i + 2) == '>' ? i + 3 : NO_MATCH;
+    }
+
+    // index is after <?
+    private static int scanProcessingInstruction(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        for (int i = index; i < length; i++) {
+            char c = s.charAt(i);
+            if (c == '?' && i + 1 < length && s.charAt(i + 1) == '>') return i + 2;
+            if (isLineTerminator(c)) break;
+        }
+        return NO_MATCH;
+    }
+
+    // index is after <!
+    private int scanDeclaration(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        int i = index;
+        while (i < length && (isAsciiLetter(s.charAt(i)) || isIdi(s.charAt(i)))) i++;
+
+        int afterSpace = skipRegexSpace(s, i);
+        if (afterSpace == i) return NO_MATCH;
+
+        for (int j = afterSpace; j < length; j++) {
+            if (s.charAt(j) == '>') return j + 1;
+        }
+        return NO_MATCH;
+    }
+
+    // index is at <
+    private static int scanCData(@NotNull CharSequence s, int index) {
+        String prefix = "<![CDATA[";
+        int length = s.length();
+        if (index + prefix.length() > length) return NO_MATCH;
+
+        for (int i = 3; i < prefix.length(); i++) {
+            if (Character.toUpperCase(s.charAt(index + i)) != prefix.charAt(i)) return NO_MATCH;
+        }
+
+        for (int i = index + prefix.length(); i + 2 < length; i++) {
+            if (s.charAt(i) == ']' && s.charAt(i + 1) == ']' && s.charAt(i + 2) == '>') return i + 3;
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * {@link Parsing#EMAIL_AUTOLINK}
+     *
+     * @param s     sequence
+     * @param index start index
+     * @return end of match, {@link #NO_MATCH} or {@link #USE_PATTERN} when translator tag patterns are used
+     */
+    public int scanEmailAutolink(@NotNull CharSequence s, int index) {
+        if (htmlForTranslator) return USE_PATTERN;
+
+        int length = s.length();
+        if (index >= length || s.charAt(index) != '<') return NO_MATCH;
+
+        int i = index + 1;
+        while (i < length && isEmailLocalChar(s.charAt(i))) i++;
+        if (i == index + 1 || i >= length || s.charAt(i) != '@') return NO_MATCH;
+        i++;
+
+        while (true) {
+            // label is the whole run of letters, digits and -, up to 63 long and not ending in -
+            int start = i;
+            if (i >= length || !isAlnumIdi(s.charAt(i))) return NO_MATCH;
+            while (i < length && (isAlnumIdi(s.charAt(i)) || s.charAt(i) == '-')) i++;
+            if (i - start > 63 || s.charAt(i - 1) == '-' || i >= length) return NO_MATCH;
+
+            char c = s.charAt(i);
+            if (c == '>') return i + 1;
+            if (c != '.') return NO_MATCH;
+            i++;
+        }
+    }
+
+    private boolean isEmailLocalChar(char c) {
+        if (isAlnumIdi(c)) return true;
+        switch (c) {
+            case '.':
+            case '!':
+            case '#':
+            case '$':
+            case '%':
+            case '&':
+            case '\'':
+            case '*':
+            case '+':
+            case '/':
+            case '=':
+            case '?':
+            case '^':
+            case '_':
+            case '`':
+            case '{':
+            case '|':
+            case '}':
+            case '~':
+            case '-':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * {@link Parsing#AUTOLINK}
+     *
+     * @param s     sequence
+     * @param index start index
+     * @return end of match, {@link #NO_MATCH} or {@link #USE_PATTERN} when translator tag patterns are used
+     */
+    public int scanAutolink(@NotNull CharSequence s, int index) {
+        if (htmlForTranslator) return USE_PATTERN;
+
+        int length = s.length();
+        if (index + 1 >= length || s.charAt(index) != '<' || !isAsciiLetter(s.charAt(index + 1))) return NO_MATCH;
+
+        int start = index + 2;
+        int i = start;
+        while (i < length) {
+            char c = s.charAt(i);
+            if (!(isAlnumIdi(c) || c == '.' || c == '+' || c == '-')) break;
+            i++;
+        }
+        if (i - start < 1 || i - start > 31 || i >= length || s.charAt(i) != ':') return NO_MATCH;
+        return scanAutolinkRest(s, i + 1);
+    }
+
+    /**
+     * {@link Parsing#WWW_AUTOLINK}
+     *
+     * @param s     sequence
+     * @param index start index
+     * @return end of match, {@link #NO_MATCH} or {@link #USE_PATTERN} when translator tag patterns are used
+     */
+    public int scanWwwAutolink(@NotNull CharSequence s, int index) {
+        if (htmlForTranslator) return USE_PATTERN;
+
+        int length = s.length();
+        if (index >= length || s.charAt(index) != '<') return NO_MATCH;
+
+        int i = index + 1;
+        if (intellijDummyIdentifier) {
+            // (?:w\x1f?){3}
+            for (int w = 0; w < 3; w++) {
+                if (i >= length || s.charAt(i) != 'w') return NO_MATCH;
+                i++;
+                if (i < length && s.charAt(i) == IDI_CHAR) i++;
+            }
+        } else {
+            // (?:w?){3}
+            for (int w = 0; w < 3 && i < length && s.charAt(i) == 'w'; w++) i++;
+        }
+
+        if (i >= length || s.charAt(i) != '.') return NO_MATCH;
+        return scanAutolinkRest(s, i + 1);
+    }
+
+    // [^<> EXCLUDED_0_TO_SPACE]*>
+    private int scanAutolinkRest(@NotNull CharSequence s, int index) {
+        int length = s.length();
+        for (int i = index; i < length; i++) {
+            char c = s.charAt(i);
+            if (c == '>') return i + 1;
+            if (c == '<' || isExcluded0ToSpace(c)) break;
+        }
+        return NO_MATCH;
+    }
+}
@@ -1,19 +1,19 @@
 package com.vladsch.flexmark.parser.internal;
 
-import com.vladsch.flexmark.parser.PostProcessor;
+import com.vladsch.flexmark.instrumentation.AllocationCounter;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.parser.ParserListener;
 import com.vladsch.flexmark.parser.PostProcessorFactory;
-import com.vladsch.flexmark.util.ast.ClassifyingNodeTracker;
 import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.ast.Node;
-import com.vladsch.flexmark.util.ast.NodeClassifierVisitor;
 import com.vladsch.flexmark.util.collection.OrderedSet;
-import com.vladsch.flexmark.util.collection.iteration.ReversibleIterable;
 import com.vladsch.flexmark.util.data.DataHolder;
 import com.vladsch.flexmark.util.dependency.DependencyResolver;
 import com.vladsch.flexmark.util.dependency.DependentItem;
 import com.vladsch.flexmark.util.dependency.DependentItemMap;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PostProcessorManager {
 //    @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
@@ -59,63 +59,41 @@ public class PostProcessorManager {
     }
 
     public Document postProcess(Document document) {
-        // first initialize node tracker if
-        ClassifyingNodeTracker classifyingNodeTracker;
-
-        classifyingNodeTracker = null;
+        ParserListener listener = Parser.PARSER_LISTENER.get(document);
         for (PostProcessorDependencyStage stage : postProcessorDependencies) {
             // idiosyncrasy of post processors the last dependency can be global, in which case it processes the whole document and no ancestry info is
             // provided
-            //new ClassifyingNodeTracker()
+            PostProcessorNodeTracker nodeTracker = null;
             boolean hadGlobal = false;
-            for (PostProcessorFactory dependent : stage.dependents) {
+            int iMax = stage.dependents.size();
+            for (int i = 0; i < iMax; i++) {
+                PostProcessorFactory dependent = stage.dependents.get(i);
+                long startNanos = 0;
+                long startAllocatedBytes = 0;
+                if (listener != null) {
+                    listener.postProcessorStarted(document, dependent);
+                    startAllocatedBytes = AllocationCounter.currentThreadAllocatedBytes();
+                    startNanos = System.nanoTime();
+                }
+
                 if (dependent.affectsGlobalScope()) {
                     document = dependent.apply(document).processDocument(document);
                     hadGlobal = true;
                     // assume it no longer reflects reality;
-                    classifyingNodeTracker = null;
+                    nodeTracker = null;
                 } else {
                     assert !hadGlobal;
 
-                    if (classifyingNodeTracker == null) {
-                        // build the node type information by traversing the document tree
-                        classifyingNodeTracker = new NodeClassifierVisitor(stage.myNodeMap).classify(document);
+                    if (nodeTracker == null) {
+                        // queue nodes for all node post processors of the stage in one traversal of the document tree
+                        nodeTracker = new PostProcessorNodeTracker(stage, document);
                     }
 
-                    Map<Class<?>, Set<Class<?>>> dependentNodeTypes = dependent.getNodeTypes();
-                    PostProcessor postProcessor = dependent.apply(document);
-                    BitSet exclusionSet = new BitSet();
-                    if (dependentNodeTypes != null) {
-                        for (Set<Class<?>> excluded : dependentNodeTypes.values()) {
-                            BitSet mapped = classifyingNodeTracker.getExclusionSet().indexBitSet(excluded);
-                            exclusionSet.or(mapped);
-                        }
+                    nodeTracker.process(i, dependent.apply(document));
+                }
 
-                        ReversibleIterable<Node> nodes = classifyingNodeTracker.getCategoryItems(Node.class, dependentNodeTypes.keySet());
-                        for (Node node : nodes) {
-                            if (node.getParent() == null) continue; // was already removed
-                            // now we need to get the bitset for the excluded ancestors of the node, then intersect it with the actual ancestors of this factory
-                            int index;
-                            BitSet nodeAncestors;
-                            BitSet nodeExclusions;
-                            Set<Class<?>> excluded = dependentNodeTypes.get(node.getClass());
-                            if (excluded != null) {
-                                index = classifyingNodeTracker.getItems().indexOf(node);
-                                if (index != -1) {
-                                    nodeAncestors = classifyingNodeTracker.getNodeAncestryMap().get(index);
-                                    if (nodeAncestors != null) {
-                                        nodeExclusions = classifyingNodeTracker.getExclusionSet().indexBitSet(excluded);
-                                        nodeExclusions.and(nodeAncestors);
-                                        if (!nodeExclusions.isEmpty()) {
-                                            // has excluded ancestor
-                                            continue;
-                                        }
-                                    }
-                                }
-                            }
-                            postProcessor.process(classifyingNodeTracker, node);
-                        }
-                    }
+                if (listener != null) {
+                    listener.postProcessorFinished(document, dependent, System.nanoTime() - startNanos, AllocationCounter.allocatedSince(startAllocatedBytes));
                 }
             }
         }
@@ -144,8 +122,14 @@ public class PostProcessorManager {
     }
 
     public static class PostProcessorDependencyStage {
+        final static BitSet EMPTY_SET = new BitSet();
+
         final Map<Class<? extends Node>, Set<Class<?>>> myNodeMap;
         final List<PostProcessorFactory> dependents;
+        final Class<?>[] exclusions;
+        final Map<Class<?>, int[]> nodeDependents;                // indices of node post processors of node type
+        final List<Map<Class<?>, BitSet>> excludedAncestors;       // for each post processor the excluded ancestor bits of node types, null if none
+        final ConcurrentHashMap<Class<?>, BitSet> exclusionBits = new ConcurrentHashMap<>();
 
         public PostProcessorDependencyStage(List<PostProcessorFactory> dependents) {
             // compute mappings
@@ -182,6 +166,60 @@ public class PostProcessorManager {
 
             this.dependents = dependents;
             this.myNodeMap = nodeMap;
+
+            // index node post processors by node type, excluded ancestor types are bits of ancestry bit sets
+            OrderedSet<Class<?>> exclusionSet = new OrderedSet<>();
+            for (Set<Class<?>> excluded : nodeMap.values()) {
+                exclusionSet.addAll(excluded);
+            }
+
+            HashMap<Class<?>, int[]> nodeDependents = new HashMap<>();
+            ArrayList<Map<Class<?>, BitSet>> excludedAncestors = new ArrayList<>(dependents.size());
+            int iMax = dependents.size();
+            for (int i = 0; i < iMax; i++) {
+                PostProcessorFactory dependent = dependents.get(i);
+                Map<Class<?>, Set<Class<?>>> types = dependent.getNodeTypes();
+                HashMap<Class<?>, BitSet> excludedMap = null;
+
+                if (types != null && !dependent.affectsGlobalScope()) {
+                    for (Map.Entry<Class<?>, Set<Class<?>>> entry : types.entrySet()) {
+                        if (!Node.class.isAssignableFrom(entry.getKey())) continue;
+
+                        int[] indices = nodeDependents.get(entry.getKey());
+                        indices = indices == null ? new int[1] : Arrays.copyOf(indices, indices.length + 1);
+                        indices[indices.length - 1] = i;
+                        nodeDependents.put(entry.getKey(), indices);
+
+                        if (!entry.getValue().isEmpty()) {
+                            if (excludedMap == null) excludedMap = new HashMap<>();
+                            excludedMap.put(entry.getKey(), exclusionSet.indexBitSet(entry.getValue()));
+                        }
+                    }
+                }
+                excludedAncestors.add(excludedMap);
+            }
+
+            this.exclusions = exclusionSet.toArray(new Class<?>[0]);
+            this.nodeDependents = nodeDependents;
+            this.excludedAncestors = excludedAncestors;
+        }
+
+        /**
+         * @param nodeType node type
+         * @return bits of excluded ancestor types implemented by the node type
+         */
+        BitSet exclusionBits(Class<?> nodeType) {
+            if (exclusions.length == 0) return EMPTY_SET;
+
+            BitSet bits = exclusionBits.get(nodeType);
+            if (bits == null) {
+                bits = new BitSet();
+                for (int i = 0; i < exclusions.length; i++) {
+                    if (exclusions[i].isAssignableFrom(nodeType)) bits.set(i);
+                }
+                exclusionBits.put(nodeType, bits);
+            }
+            return bits;
         }
     }
 }
@@ -0,0 +1,199 @@
+package com.vladsch.flexmark.parser.internal;
+
+import com.vladsch.flexmark.parser.PostProcessor;
+import com.vladsch.flexmark.parser.internal.PostProcessorManager.PostProcessorDependencyStage;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.ast.NodeTracker;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Node tracker of node post processors of a dependency stage
+ * <p>
+ * The document is traversed once and each node is queued, in document order, for all post processors of the stage interested
+ * in its type. Post processors run one after the other on their queued nodes. Nodes added by a post processor are queued for
+ * the post processors which did not run yet, same as if they were in the document when it was traversed.
+ * <p>
+ * Ancestry bits of a node are the excluded ancestor types of the stage implemented by the node or its ancestors. They are
+ * computed from the parent's bits while traversing, for added nodes from the bits of the added node's parent, so only the
+ * added subtree is traversed again.
+ */
+class PostProcessorNodeTracker implements NodeTracker {
+    final private @NotNull PostProcessorDependencyStage stage;
+    final private @NotNull ArrayList<ArrayList<Node>> queues;
+    final private @NotNull IdentityHashMap<Node, BitSet> nodeAncestry = new IdentityHashMap<>();     // ancestry bits of queued nodes
+    final private @NotNull ArrayList<BitSet> ancestryStack = new ArrayList<>();
+    private int current = -1;       // index of the running post processor, added nodes are queued for post processors after it
+
+    PostProcessorNodeTracker(@NotNull PostProcessorDependencyStage stage, @NotNull Document document) {
+        this.stage = stage;
+
+        int iMax = stage.dependents.size();
+        queues = new ArrayList<>(iMax);
+        for (int i = 0; i < iMax; i++) {
+            queues.add(new ArrayList<>());
+        }
+
+        // document node is not processed
+        for (Node child = document.getFirstChild(); child != null; child = child.getNext()) {
+            traverse(child, PostProcessorDependencyStage.EMPTY_SET, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Run post processor on the nodes queued for it
+     *
+     * @param index         index of post processor factory in stage dependents
+     * @param postProcessor post processor
+     */
+    void process(int index, @NotNull PostProcessor postProcessor) {
+        assert index > current;
+        current = index;
+
+        ArrayList<Node> queue = queues.get(index);
+        queues.set(index, null);
+
+        Map<Class<?>, BitSet> excludedAncestors = stage.excludedAncestors.get(index);
+        for (Node node : queue) {
+            if (node.getParent() == null) continue; // was already removed
+
+            if (excludedAncestors != null) {
+                BitSet excluded = excludedAncestors.get(node.getClass());
+                if (excluded != null && excluded.intersects(nodeAncestry.get(node))) {
+                    // has excluded ancestor
+                    continue;
+                }
+            }
+            postProcessor.process(this, node);
+        }
+    }
+
+    /**
+     * Traverse subtree of node in document order
+     *
+     * @param root        root of subtree
+     * @param parentBits  ancestry bits of the root's parent
+     * @param addedDepth  depth of descendants which are added, deeper descendants only have their ancestry updated
+     */
+    private void traverse(@NotNull Node root, @NotNull BitSet parentBits, int addedDepth) {
+        ancestryStack.clear();
+        ancestryStack.add(parentBits);
+
+        Node node = root;
+        int depth = 0;
+        while (true) {
+            BitSet bits = ancestryOf(ancestryStack.get(depth), node);
+            track(node, bits, depth <= addedDepth);
+
+            Node child = node.getFirstChild();
+            if (child != null) {
+                depth++;
+                if (depth < ancestryStack.size()) ancestryStack.set(depth, bits);
+                else ancestryStack.add(bits);
+                node = child;
+                continue;
+            }
+
+            while (node != root && node.getNext() == null) {
+                node = node.getParent();
+                depth--;
+            }
+
+            if (node == root) break;
+            node = node.getNext();
+        }
+    }
+
+    private void track(@NotNull Node node, @NotNull BitSet bits, boolean added) {
+        int[] dependents = stage.nodeDependents.get(node.getClass());
+        if (dependents == null) return;
+
+        if (added) {
+            if (nodeAncestry.put(node, bits) == null) {
+                for (int dependent : dependents) {
+                    if (dependent > current) queues.get(dependent).add(node);
+                }
+            }
+        } else if (nodeAncestry.containsKey(node)) {
+            nodeAncestry.put(node, bits);
+        }
+    }
+
+    private @NotNull BitSet ancestryOf(@NotNull BitSet parentBits, @NotNull Node node) {
+        BitSet bits = stage.exclusionBits(node.getClass());
+        if (bits.isEmpty()) return parentBits;
+
+        BitSet nodeBits = (BitSet) parentBits.clone();
+        nodeBits.or(bits);
+        return nodeBits.equals(parentBits) ? parentBits : nodeBits;
+    }
+
+    private @NotNull BitSet parentAncestryOf(@NotNull Node node) {
+        // ancestors up to the first one with known ancestry
+        ArrayList<Node> ancestors = new ArrayList<>();
+        BitSet bits = PostProcessorDependencyStage.EMPTY_SET;
+        for (Node parent = node.getParent(); parent != null && !(parent instanceof Document); parent = parent.getParent()) {
+            BitSet parentBits = nodeAncestry.get(parent);
+            if (parentBits != null) {
+                bits = parentBits;
+                break;
+            }
+            ancestors.add(parent);
+        }
+
+        for (int i = ancestors.size(); i-- > 0; ) {
+            bits = ancestryOf(bits, ancestors.get(i));
+        }
+        return bits;
+    }
+
+    private void validateLinked(@NotNull Node node) {
+        if (node.getNext() == null && node.getParent() == null) {
+            throw new IllegalStateException("Added block " + node + " is not linked into the AST");
+        }
+    }
+
+    private void validateUnlinked(@NotNull Node node) {
+        if (!(node.getNext() == null && node.getParent() == null)) {
+            throw new IllegalStateException("Removed block " + node + " is still linked in the AST");
+        }
+    }
+
+    @Override
+    public void nodeAdded(@NotNull Node node) {
+        validateLinked(node);
+        traverse(node, parentAncestryOf(node), 0);
+    }
+
+    @Override
+    public void nodeAddedWithChildren(@NotNull Node node) {
+        validateLinked(node);
+        traverse(node, parentAncestryOf(node), 1);
+    }
+
+    @Override
+    public void nodeAddedWithDescendants(@NotNull Node node) {
+        validateLinked(node);
+        traverse(node, parentAncestryOf(node), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void nodeRemoved(@NotNull Node node) {
+        validateUnlinked(node);
+    }
+
+    @Override
+    public void nodeRemovedWithChildren(@NotNull Node node) {
+        validateUnlinked(node);
+    }
+
+    @Override
+    public void nodeRemovedWithDescendants(@NotNull Node node) {
+        validateUnlinked(node);
+    }
+}